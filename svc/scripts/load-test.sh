@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# Runs LoadDriver from the packaged jar against a running instance, typically started with the datagen profile:
+#
+#   ./mvnw package -DskipTests
+#   java -jar target/loan-management-0.0.1-SNAPSHOT.jar --spring.profiles.active=datagen --loan.datagen.users=1000000
+#   scripts/load-test.sh --duration=120 --concurrency=32 --mix=login:10,apply:20,approve:15,disburse:10,mark-paid:15,dashboard:30
+#
+# Error path throughput (404 storm): scripts/load-test.sh --duration=60 --concurrency=64 --mix=not-found:1
+#
+# Options: --base-url --duration (s) --concurrency --mix --users --active-users --managers --password
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+JAR="target/loan-management-0.0.1-SNAPSHOT.jar"
+[[ -f "$JAR" ]] || { echo "Missing $JAR; run ./mvnw package -DskipTests" >&2; exit 1; }
+
+exec "${JAVA_HOME:+$JAVA_HOME/bin/}java" -cp "$JAR" \
+  -Dloader.main=com.company.loan_management.loadtest.LoadDriver \
+  org.springframework.boot.loader.launch.PropertiesLauncher "$@"
@@ -0,0 +1,97 @@
+#!/usr/bin/env bash
+# Smoke test for the packaged service against a file-based H2 database: login, apply, approve, disburse.
+# Reports time-to-ready and resident memory for the JVM jar and, when built, the native executable.
+#
+#   ./mvnw package -DskipTests                         # JVM jar
+#   ./mvnw -Pnative native:compile -DskipTests         # target/loan-management (GraalVM)
+#
+# Usage: scripts/native-smoke-test.sh [jvm|native|all] [port]
+set -euo pipefail
+
+MODE="${1:-all}"
+PORT="${2:-18081}"
+cd "$(dirname "$0")/.."
+
+JAR="target/loan-management-0.0.1-SNAPSHOT.jar"
+BINARY="target/loan-management"
+BASE="http://localhost:$PORT"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+now_ms() { date +%s%3N; }
+
+fail() {
+  echo "FAIL: $*" >&2
+  exit 1
+}
+
+login() {
+  curl -sf -X POST "$BASE/api/auth/login" -H 'Content-Type: application/json' \
+    -d "{\"username\":\"$1\",\"password\":\"$2\"}" | jq -r '.token' || fail "login as $1"
+}
+
+# Sample manager credentials from DataInitializer, keyed by user ID
+manager_credentials() {
+  case "$1" in
+    3) echo "dwight_schrute beetsbears" ;;
+    4) echo "andy_bernard cornellrules" ;;
+    *) fail "unexpected manager ID $1" ;;
+  esac
+}
+
+run() {
+  local label="$1"; shift
+  local work; work="$(mktemp -d)"
+  local args=(--server.port="$PORT"
+    --spring.datasource.url="jdbc:h2:file:$work/loandb;DB_CLOSE_ON_EXIT=FALSE")
+
+  local start; start="$(now_ms)"
+  "$@" "${args[@]}" >"$work/app.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' RETURN
+  # Ready once the sample users seeded after startup can log in
+  until curl -sf -o /dev/null -X POST "$BASE/api/auth/login" -H 'Content-Type: application/json' \
+      -d '{"username":"jim_halpert","password":"teapots"}'; do
+    kill -0 "$pid" 2>/dev/null || fail "$label exited during startup, see $work/app.log"
+    sleep 0.02
+  done
+  local ready=$(( $(now_ms) - start ))
+
+  local user_token; user_token="$(login jim_halpert teapots)"
+  local applied; applied="$(curl -sf -X POST "$BASE/api/loan-requests/apply" \
+    -H "Authorization: Bearer $user_token" -H 'Content-Type: application/json' \
+    -d '{"username":"jim_halpert","loanType":"Car Loan","requestedAmount":300000}')" || fail "apply"
+  local request_id; request_id="$(jq -r '.id' <<<"$applied")"
+  local manager_id; manager_id="$(jq -r '.managerDTO.id' <<<"$applied")"
+
+  local manager_token; manager_token="$(login $(manager_credentials "$manager_id"))"
+  curl -sf -o /dev/null -X POST "$BASE/api/loan-requests/manager/approve" \
+    -H "Authorization: Bearer $manager_token" -H 'Content-Type: application/json' \
+    -d "{\"requestId\":$request_id,\"managerId\":$manager_id,\"approvedAmount\":280000,\"remarks\":\"smoke test\"}" \
+    || fail "approve request $request_id"
+
+  local finance_token; finance_token="$(login angela_martin catsforever)"
+  curl -sf -o /dev/null -X POST "$BASE/api/finance/disburse/$request_id" -H "Authorization: Bearer $finance_token" \
+    || fail "disburse request $request_id"
+  local installments; installments="$(curl -sf "$BASE/api/finance/repayments/$request_id" \
+    -H "Authorization: Bearer $finance_token" | jq 'length')" || fail "repayment schedule"
+  [[ "$installments" -gt 0 ]] || fail "no repayment schedule for request $request_id"
+
+  local rss_kb; rss_kb="$(ps -o rss= -p "$pid" | tr -d ' ')"
+  printf '%-7s ready=%d ms  rss=%d MB  request=%s installments=%s\n' \
+    "$label" "$ready" "$(( rss_kb / 1024 ))" "$request_id" "$installments"
+  rm -rf "$work"
+}
+
+if [[ "$MODE" == "jvm" || "$MODE" == "all" ]]; then
+  [[ -f "$JAR" ]] || fail "missing $JAR"
+  run jvm "$JAVA" -jar "$JAR"
+fi
+if [[ "$MODE" == "native" || "$MODE" == "all" ]]; then
+  if [[ -x "$BINARY" ]]; then
+    run native "$BINARY"
+  elif [[ "$MODE" == "native" ]]; then
+    fail "missing $BINARY"
+  else
+    echo "native  skipped: $BINARY not built"
+  fi
+fi
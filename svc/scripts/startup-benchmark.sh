@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request for the default JVM start and the fast-startup mode
+# (AOT + AppCDS + lazy init). Build first with: ./mvnw -Pfast-startup package -DskipTests
+#
+# Usage: scripts/startup-benchmark.sh [runs] [port]
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${2:-18080}"
+cd "$(dirname "$0")/.."
+
+JAR="target/loan-management-0.0.1-SNAPSHOT.jar"
+CDS_DIR="target/cds"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+if [[ ! -f "$JAR" || ! -f "$CDS_DIR/application.jsa" ]]; then
+  echo "Missing $JAR or $CDS_DIR/application.jsa; run ./mvnw -Pfast-startup package -DskipTests" >&2
+  exit 1
+fi
+
+now_ms() { date +%s%3N; }
+
+# Starts the app, waits until any HTTP response comes back and prints elapsed milliseconds
+time_to_first_request() {
+  local workdir="$1"; shift
+  local start; start="$(now_ms)"
+  (cd "$workdir" && exec "$JAVA" "$@" --server.port="$PORT" >/dev/null 2>&1) &
+  local pid=$!
+  until curl -s -o /dev/null "http://localhost:$PORT/api/loans"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "application exited before serving a request" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  local elapsed=$(( $(now_ms) - start ))
+  local rss_kb; rss_kb="$(ps -o rss= -p "$pid" | tr -d ' ')"
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  echo "$elapsed $rss_kb"
+}
+
+report() {
+  local label="$1"; shift
+  local times=() rss=()
+  for ((i = 1; i <= RUNS; i++)); do
+    read -r t r < <(time_to_first_request "$@")
+    times+=("$t"); rss+=("$r")
+  done
+  local sorted; sorted="$(printf '%s\n' "${times[@]}" | sort -n)"
+  local median; median="$(echo "$sorted" | sed -n "$(( (RUNS + 1) / 2 ))p")"
+  printf '%-14s runs=%d  median=%d ms  min=%d ms  max=%d ms  rss=%d MB\n' "$label" "$RUNS" "$median" \
+    "$(echo "$sorted" | head -1)" "$(echo "$sorted" | tail -1)" "$(( ${rss[-1]} / 1024 ))"
+}
+
+report "default" . -jar "$JAR"
+report "fast-startup" "$CDS_DIR" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+  -Dspring.profiles.active=fast-startup -jar loan-management-0.0.1-SNAPSHOT.jar
@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# Compares request handling on platform threads and on virtual threads under high concurrency: starts the
+# packaged app once per mode with synthetic data, runs LoadDriver against it and prints both reports.
+# Build first with: ./mvnw package -DskipTests
+#
+# Usage: scripts/virtual-threads-benchmark.sh [concurrency] [duration-s] [users] [mix] [port]
+set -euo pipefail
+
+CONCURRENCY="${1:-1000}"
+DURATION="${2:-60}"
+USERS="${3:-100000}"
+MIX="${4:-composite:50,dashboard:50}"
+PORT="${5:-18080}"
+cd "$(dirname "$0")/.."
+
+JAR="target/loan-management-0.0.1-SNAPSHOT.jar"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+[[ -f "$JAR" ]] || { echo "Missing $JAR; run ./mvnw package -DskipTests" >&2; exit 1; }
+
+run_mode() {
+  local label="$1" virtual="$2"
+  local data_dir; data_dir="$(mktemp -d)"
+  "$JAVA" -jar "$JAR" --server.port="$PORT" \
+    --spring.profiles.active=datagen --loan.datagen.users="$USERS" \
+    --spring.threads.virtual.enabled="$virtual" >"$data_dir/app.log" 2>&1 &
+  local pid=$!
+  until grep -q "Generated .* users" "$data_dir/app.log"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "application exited during startup, see $data_dir/app.log" >&2
+      exit 1
+    fi
+    sleep 1
+  done
+
+  echo "== $label threads (spring.threads.virtual.enabled=$virtual), concurrency $CONCURRENCY"
+  scripts/load-test.sh --base-url="http://localhost:$PORT" --duration="$DURATION" --concurrency="$CONCURRENCY" \
+    --users="$USERS" --active-users="$(( USERS < 5000 ? USERS : 5000 ))" --mix="$MIX"
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  rm -rf "$data_dir"
+}
+
+run_mode "platform" false
+run_mode "virtual" true
@@ -0,0 +1,43 @@
+package com.company.loan_management.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration for distributing new loan requests across the managers
+ * eligible to approve a loan type.
+ */
+@Component
+@ConfigurationProperties(prefix = "loan.assignment")
+@Getter
+@Setter
+public class AssignmentProperties {
+
+    /**
+     * Policy used to pick a manager for a new loan request.
+     */
+    public enum Policy {
+        LEAST_LOADED,
+        WEIGHTED_ROUND_ROBIN
+    }
+
+    private Policy policy = Policy.LEAST_LOADED;
+
+    /** Pending requests older than this many days are considered stale and can be reassigned. */
+    private int staleAfterDays = 7;
+
+    /** Interval in milliseconds at which the pending counters are resynced from the database. */
+    private long counterRefreshMs = 60000;
+
+    /** Relative capacity per manager ID; managers without an entry have weight 1. */
+    private Map<Long, Integer> weights = new HashMap<>();
+
+    public int weightOf(Long managerId) {
+        return Math.max(1, weights.getOrDefault(managerId, 1));
+    }
+}
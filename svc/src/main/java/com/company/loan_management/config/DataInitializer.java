@@ -7,12 +7,16 @@ import com.company.loan_management.service.LoanRequestService;
 import com.company.loan_management.service.LoanService;
 import com.company.loan_management.service.UserService;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 
+// Sample data for local development; disabled in the fast-startup profile
 @Component
+@ConditionalOnProperty(name = "loan.sample-data.enabled", havingValue = "true", matchIfMissing = true)
 public class DataInitializer {
 
     private final UserService userService;
@@ -24,6 +28,7 @@ public class DataInitializer {
     }
 
     @Bean
+    @Order(0) // Before the synthetic data generator, which needs the loan types
     public CommandLineRunner initData(UserService userService, LoanService loanService, LoanRequestService loanRequestService, LoanRepaymentService loanRepaymentService) {
         return args -> {
             // Create Users
@@ -103,17 +108,17 @@ public class DataInitializer {
 
                 // APPROVED request
                 var approvedRequest = loanRequestService.applyForLoan(defaultAdmin.getId(), carLoan, 200000.0);
-                loanRequestService.approveLoanRequest(approvedRequest.getId(), carLoan.getApproverManager().getId(), 190000.0, "Approved with minor deduction");
+                loanRequestService.approveLoanRequest(approvedRequest.getId(), approvedRequest.getAssignedManager().getId(), 190000.0, "Approved with minor deduction");
                 System.out.println("Sample APPROVED loan request created");
 
                 // REJECTED request
                 var rejectedRequest = loanRequestService.applyForLoan(defaultAdmin.getId(), eduLoan, 300000.0);
-                loanRequestService.rejectLoanRequest(rejectedRequest.getId(), eduLoan.getApproverManager().getId(), "Rejected due to low salary");
+                loanRequestService.rejectLoanRequest(rejectedRequest.getId(), rejectedRequest.getAssignedManager().getId(), "Rejected due to low salary");
                 System.out.println("Sample REJECTED loan request created");
 
                 // DISBURSED request + repayments
                 var disbursedRequest = loanRequestService.applyForLoan(defaultAdmin.getId(), carLoan, 500000.0);
-                loanRequestService.approveLoanRequest(disbursedRequest.getId(), carLoan.getApproverManager().getId(), 480000.0, "Eligible for disbursal");
+                loanRequestService.approveLoanRequest(disbursedRequest.getId(), disbursedRequest.getAssignedManager().getId(), 480000.0, "Eligible for disbursal");
                 loanRequestService.disburseLoan(disbursedRequest.getId());
                 loanRepaymentService.generateRepayments(disbursedRequest.getId());
                 System.out.println("Sample DISBURSED loan request created and repayments generated");
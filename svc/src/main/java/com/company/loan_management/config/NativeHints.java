@@ -0,0 +1,69 @@
+package com.company.loan_management.config;
+
+import com.company.loan_management.dto.*;
+import com.company.loan_management.model.*;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.stream.Stream;
+
+/**
+ * Reflection and resource hints for the GraalVM native image (see the native Maven profile).
+ * Spring AOT infers most of these from the controllers and repositories; the ones here cover
+ * entities bound directly from request bodies, DTOs only reached through generics, and the
+ * classes jjwt and springdoc load by name.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    // jjwt-api instantiates its implementation classes reflectively
+    private static final String[] JJWT_IMPL_TYPES = {
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        Stream.of(User.class, Loan.class, LoanRequest.class, LoanRepayment.class, OutboxEvent.class,
+                        ArchivedLoanRequest.class, ArchivedLoanRepayment.class, InterestAccrual.class, AccrualCheckpoint.class,
+                        JobWatermark.class, UserDelinquency.class, UserLoanSummary.class, CollectionFailure.class,
+                        JobLease.class, ClusterNode.class, PortfolioRollup.class, LoanRiskScore.class, EventLogEntry.class, Role.class)
+                .forEach(type -> hints.reflection().registerType(type, MemberCategory.values()));
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                AccruedInterestSummaryDTO.class, BulkDecisionItemDTO.class, BulkDecisionRequestDTO.class, BulkDecisionResultDTO.class,
+                CoalescingStatsDTO.class, CollectionFailureDTO.class, CollectionRunSummaryDTO.class, DashboardDTO.class,
+                EventRecordDTO.class, LoanDTO.class, LoanRepaymentDTO.class, LoanRequestSearchCriteria.class, LoginRequestDTO.class, LoginResponseDTO.class,
+                ManagerApprovalRequestDTO.class, ManagerDTO.class, ManagerLoanRequestDTO.class, OverdueRunSummaryDTO.class,
+                PortfolioAnalyticsDTO.class, PortfolioSegmentDTO.class, RiskScoringRunDTO.class,
+                UserDTO.class, UserDelinquencyDTO.class, UserImportErrorDTO.class, UserImportResultDTO.class,
+                UserLoanRequestDTO.class, UserLoanSummaryDTO.class, UserSearchResultDTO.class);
+
+        for (String type : JJWT_IMPL_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        // Swagger UI assets and the webjar version springdoc resolves them with
+        hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/*");
+        hints.resources().registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+
+        // Second-level cache region settings read by Caffeine JCache
+        hints.resources().registerPattern("application.conf");
+    }
+}
@@ -3,6 +3,7 @@ package com.company.loan_management.config;
 import com.company.loan_management.jwt.JwtRequestFilter;
 import com.company.loan_management.service.CustomUserDetailsService;
 
+import jakarta.servlet.DispatcherType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
@@ -63,7 +64,9 @@ public class SecurityConfig {
 
         // Allow certain endpoints to be accessed without authentication
         http.authorizeHttpRequests(requests ->
-                requests.requestMatchers("/api/auth/login", "/","/h2-console/**",
+                // Async dispatches continue a request that was already authorized, e.g. the event stream
+                requests.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/api/auth/login", "/","/h2-console/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
                                 "/v3/api-docs/**",
@@ -71,11 +74,17 @@ public class SecurityConfig {
                                 "/swagger-resources/**",
                                 "/webjars/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/loans","/api/finance/loanRepayments").authenticated()// Allow login/register
-                        .requestMatchers("/api/loans","/api/loan-requests/apply/**","/api/loan-requests/cancel/**","/api/users/me").hasRole("USER")
+                        .requestMatchers("/api/loans","/api/loan-requests/apply/**","/api/loan-requests/cancel/**","/api/users/me","/api/users/me/loan-summary").hasRole("USER")
                         .requestMatchers("/api/users/**","/api/loans/**").hasRole("ADMIN")
                         .requestMatchers("/api/loans").hasRole("USER")// Only allow admin access to /admin/**
                         .requestMatchers("/api/loan-requests/manager/**").hasRole("MANAGER")
+                        .requestMatchers("/api/loan-requests/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/api/loan-requests/search").hasAnyRole("ADMIN", "FINANCE")
                         .requestMatchers("/api/finance/**").hasRole("FINANCE")
+                        .requestMatchers("/api/dashboard/manager").hasRole("MANAGER")
+                        .requestMatchers("/api/dashboard/finance").hasRole("FINANCE")
+                        .requestMatchers("/api/events/stream").authenticated()
+                        .requestMatchers("/api/events/**").hasAnyRole("ADMIN", "FINANCE")
                         .anyRequest().authenticated() // Secure all other endpoints
         );
 
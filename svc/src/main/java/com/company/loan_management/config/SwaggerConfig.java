@@ -8,6 +8,7 @@ import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,8 +17,10 @@ import org.springframework.context.annotation.Configuration;
  * This configuration provides interactive API documentation via Swagger UI
  * for managing users, loans, and other related entities.
  * It also sets up security for API access using JWT Bearer authentication.
+ * Skipped when springdoc is switched off, as in the fast-startup profile.
  */
 @Configuration
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", matchIfMissing = true)
 public class SwaggerConfig {
 
     // Logger for tracking the configuration process
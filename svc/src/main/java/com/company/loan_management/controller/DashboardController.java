@@ -0,0 +1,64 @@
+package com.company.loan_management.controller;
+
+import com.company.loan_management.dto.DashboardDTO;
+import com.company.loan_management.service.DashboardService;
+import com.company.loan_management.service.UserDetailsImpl;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * One call per dashboard page instead of one per panel. The sections are loaded for the authenticated
+ * user, so the token is checked and the user looked up once for the whole page.
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    /**
+     * Borrower dashboard: profile, loan requests, repayments, loan summary (active loans, EMI total,
+     * outstanding principal and next due installment) and delinquency.
+     */
+    @Operation(summary = "Get borrower dashboard",
+            description = "Returns the caller's profile, loan requests, repayments, loan summary (active loans, monthly EMI total, outstanding principal and next due installment) and delinquency in one payload. Sections that could not be loaded are listed in failedSections.")
+    @GetMapping("/user")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<DashboardDTO> getUserDashboard(@AuthenticationPrincipal UserDetailsImpl principal) {
+        log.debug("Loading borrower dashboard for {}", principal.getUsername());
+        return ResponseEntity.ok(dashboardService.getUserDashboard(principal.getUser()));
+    }
+
+    /**
+     * Manager dashboard: profile, pending queue and the manager's portfolio segment.
+     */
+    @Operation(summary = "Get manager dashboard",
+            description = "Returns the caller's profile, pending loan requests and portfolio totals in one payload. Sections that could not be loaded are listed in failedSections.")
+    @GetMapping("/manager")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<DashboardDTO> getManagerDashboard(@AuthenticationPrincipal UserDetailsImpl principal) {
+        log.debug("Loading manager dashboard for {}", principal.getUsername());
+        return ResponseEntity.ok(dashboardService.getManagerDashboard(principal.getUser()));
+    }
+
+    /**
+     * Finance dashboard: profile, disbursal queue, today's collection failures and portfolio totals.
+     */
+    @Operation(summary = "Get finance dashboard",
+            description = "Returns the caller's profile, the disbursal queue, today's collection failures and portfolio totals in one payload. Sections that could not be loaded are listed in failedSections.")
+    @GetMapping("/finance")
+    @PreAuthorize("hasRole('FINANCE')")
+    public ResponseEntity<DashboardDTO> getFinanceDashboard(@AuthenticationPrincipal UserDetailsImpl principal) {
+        log.debug("Loading finance dashboard for {}", principal.getUsername());
+        return ResponseEntity.ok(dashboardService.getFinanceDashboard(principal.getUser()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.company.loan_management.controller;
+
+import com.company.loan_management.dto.EventRecordDTO;
+import com.company.loan_management.service.EventLog;
+import com.company.loan_management.service.EventStream;
+import com.company.loan_management.service.UserDetailsImpl;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read access to the loan lifecycle event log for downstream systems.
+ */
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@Slf4j
+public class EventController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final EventLog eventLog;
+    private final EventStream eventStream;
+
+    /**
+     * Reads events sequentially from an offset.
+     *
+     * @param fromOffset first offset to return
+     * @param limit      maximum number of events
+     * @return events in offset order
+     */
+    @Operation(summary = "Read lifecycle events", description = "Returns loan request and repayment lifecycle events starting at the given offset.")
+    @GetMapping
+    public ResponseEntity<List<EventRecordDTO>> readEvents(@RequestParam(defaultValue = "0") long fromOffset,
+                                                           @RequestParam(defaultValue = "100") int limit) {
+        log.debug("Reading events from offset {} (limit {})", fromOffset, limit);
+        return ResponseEntity.ok(eventLog.read(fromOffset, Math.min(limit, MAX_LIMIT)));
+    }
+
+    /**
+     * Returns the offset past the last event, so consumers can tell whether they are caught up.
+     */
+    @Operation(summary = "Get event log end offset", description = "Returns the offset past the last appended event; later events get this offset or a higher one.")
+    @GetMapping("/end-offset")
+    public ResponseEntity<Map<String, Long>> getEndOffset() {
+        return ResponseEntity.ok(Map.of("endOffset", eventLog.endOffset()));
+    }
+
+    /**
+     * Returns the offset of the oldest retained event; a consumer whose next offset is below it missed pruned events.
+     */
+    @Operation(summary = "Get event log start offset", description = "Returns the offset of the oldest retained event; older events have been pruned.")
+    @GetMapping("/start-offset")
+    public ResponseEntity<Map<String, Long>> getStartOffset() {
+        return ResponseEntity.ok(Map.of("startOffset", eventLog.startOffset()));
+    }
+
+    /**
+     * Pushes the lifecycle events the caller may see as server-sent events, so pages refetch only on change.
+     *
+     * @param principal   the authenticated user
+     * @param lastEventId offset of the last event received, sent by EventSource when it reconnects
+     * @return the event stream; a {@code resync} event means events were missed and the client should refetch
+     */
+    @Operation(summary = "Stream lifecycle events",
+            description = "Server-sent events for the caller's own loan requests and repayments, the requests assigned to a manager, or the finance disbursal queue. Resumes after the Last-Event-ID header.")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal UserDetailsImpl principal,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.debug("User {} opening event stream after offset {}", principal.getUsername(), lastEventId);
+        return eventStream.subscribe(principal.getUser().getId(), principal.getUser().getRole(), lastEventId);
+    }
+}
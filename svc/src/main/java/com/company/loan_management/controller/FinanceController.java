@@ -1,20 +1,37 @@
 package com.company.loan_management.controller;
 
+import com.company.loan_management.dto.AccruedInterestSummaryDTO;
+import com.company.loan_management.dto.CoalescingStatsDTO;
+import com.company.loan_management.dto.CollectionFailureDTO;
+import com.company.loan_management.dto.CollectionRunSummaryDTO;
 import com.company.loan_management.dto.LoanRepaymentDTO;
 import com.company.loan_management.dto.ManagerLoanRequestDTO;
-import com.company.loan_management.mapper.LoanRepaymentMapper;
-import com.company.loan_management.mapper.ManagerLoanRequestMapper;
-import com.company.loan_management.model.LoanRepayment;
-import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.dto.OverdueRunSummaryDTO;
+import com.company.loan_management.dto.PortfolioAnalyticsDTO;
+import com.company.loan_management.dto.RiskScoringRunDTO;
+import com.company.loan_management.dto.UserDelinquencyDTO;
+import com.company.loan_management.dto.UserLoanSummaryDTO;
+import com.company.loan_management.service.AutoDebitService;
+import com.company.loan_management.service.CoalescedReads;
+import com.company.loan_management.service.InterestAccrualService;
 import com.company.loan_management.service.LoanRepaymentService;
 import com.company.loan_management.service.LoanRequestService;
+import com.company.loan_management.service.OverdueService;
+import com.company.loan_management.service.PortfolioRollupService;
+import com.company.loan_management.service.ReportStreamService;
+import com.company.loan_management.service.RiskScoringService;
+import com.company.loan_management.service.UserLoanSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -29,6 +46,14 @@ public class FinanceController {
 
     private final LoanRepaymentService loanRepaymentService;
     private final LoanRequestService loanRequestService;
+    private final InterestAccrualService interestAccrualService;
+    private final OverdueService overdueService;
+    private final AutoDebitService autoDebitService;
+    private final PortfolioRollupService portfolioRollupService;
+    private final CoalescedReads coalescedReads;
+    private final ReportStreamService reportStreamService;
+    private final UserLoanSummaryService loanSummaryService;
+    private final RiskScoringService riskScoringService;
 
     /**
      * Disburses a loan and generates the repayment schedule.
@@ -54,10 +79,7 @@ public class FinanceController {
     @GetMapping("/repayments/{loanRequestId}")
     public ResponseEntity<List<LoanRepaymentDTO>> getRepaymentSchedule(@PathVariable Long loanRequestId) {
         log.info("Fetching repayment schedule for LoanRequestId: {}", loanRequestId);
-        return ResponseEntity.ok(loanRepaymentService.getRepaymentsByRequest(loanRequestId)
-                .stream()
-                .map(LoanRepaymentMapper::toDTO)
-                .toList());
+        return ResponseEntity.ok(coalescedReads.getRepaymentsByRequest(loanRequestId));
     }
 
     /**
@@ -88,16 +110,8 @@ public class FinanceController {
             @RequestParam(required = false) String status) {
         log.info("Finance Department fetching their loan requests, status filter: {}", status);
 
-        // Fetch loan requests by user ID with an optional status filter
-        List<LoanRequest> loanRequests = loanRequestService.getApprovedLoansForDisbursal(status);
-
-
-        // Map loan requests to UserLoanRequestDTO, ensuring no sensitive data is exposed
-        // Exposing only username, not sensitive user data
-
-        return ResponseEntity.ok(loanRequests.stream()
-                .map(ManagerLoanRequestMapper::toDTO)
-                .toList());
+        // Identical concurrent calls share one query and mapping
+        return ResponseEntity.ok(coalescedReads.getApprovedLoansForDisbursal(status));
     }
 
 
@@ -106,25 +120,201 @@ public class FinanceController {
      *
      * @param userId ID of the user whose repayments are being queried
      * @param status Optional repayment status (e.g., PENDING, PAID)
+     * @param includeArchived Whether to include repayments of archived loans
      * @return List of loan repayment entries associated with the user
      */
     @Operation(summary = "Get loan repayments for user",
             description = "Retrieves all loan repayments for a specific user ID. Can optionally filter by repayment status (e.g., PENDING, PAID).")
     @GetMapping("/loanRepayments")
     public ResponseEntity<List<LoanRepaymentDTO>> getLoanRepayments(@RequestParam(required = true) Long userId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         log.info("User fetching their loan repayments, status filter: {}", status);
 
-        // Fetch loan requests by user ID with an optional status filter
-        List<LoanRepayment> loanRepayments = loanRepaymentService.getRepaymentsByUser(userId,status);
+        return ResponseEntity.ok(coalescedReads.getRepaymentsByUser(userId, status, includeArchived));
+    }
+
+    /**
+     * Streams repayments as newline-delimited JSON, for listings too large to build in one response.
+     *
+     * @param userId Optional user whose repayments to stream, all users when absent
+     * @param status Optional repayment status (e.g., PENDING, PAID)
+     * @return One LoanRepaymentDTO per line, in ID order
+     */
+    @Operation(summary = "Stream loan repayments",
+            description = "Streams repayments as newline-delimited JSON, optionally filtered by user and status. Rows are read and sent a page at a time, so listings of any size use constant memory.")
+    @GetMapping(value = "/stream/loanRepayments", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamLoanRepayments(@RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String status) {
+        log.info("Finance streaming loan repayments, user filter: {}, status filter: {}", userId, status);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> reportStreamService.streamRepayments(userId, status, out));
+    }
+
+    /**
+     * Streams loan requests as newline-delimited JSON.
+     *
+     * @param status Optional loan status, the disbursal queue (APPROVED and DISBURSED) when absent
+     * @return One ManagerLoanRequestDTO per line, in ID order
+     */
+    @Operation(summary = "Stream loan requests for disbursal",
+            description = "Streams loan requests as newline-delimited JSON, by default those approved or disbursed. Rows are read and sent a page at a time.")
+    @GetMapping(value = "/stream/loanRequests", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamLoanRequests(@RequestParam(required = false) String status) {
+        log.info("Finance streaming loan requests, status filter: {}", status);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> reportStreamService.streamLoanRequests(status, out));
+    }
+
+    /**
+     * Runs (or resumes) the interest accrual for a day.
+     *
+     * @param date Day to accrue, defaults to today
+     * @return Accrued interest for that day after the run
+     */
+    @Operation(summary = "Run interest accrual",
+            description = "Accrues one day of interest on all disbursed loans. Re-running a day resumes from its checkpoints and never accrues a loan twice.")
+    @PostMapping("/accruals/run")
+    public ResponseEntity<AccruedInterestSummaryDTO> runAccrual(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate accrualDate = date != null ? date : LocalDate.now();
+        log.info("Finance triggered interest accrual for {}", accrualDate);
+        interestAccrualService.accrue(accrualDate);
+        return ResponseEntity.ok(interestAccrualService.getSummary(accrualDate));
+    }
 
-        // Map loan requests to UserLoanRequestDTO, ensuring no sensitive data is exposed
-        // Exposing only username, not sensitive user data
+    /**
+     * Interest accrued on a day, and accrued up to it but not yet paid.
+     *
+     * @param date Day to report, defaults to today
+     * @return Accrual summary
+     */
+    @Operation(summary = "Get accrued interest", description = "Returns interest accrued on the given day and the interest accrued up to that day less the interest of installments paid by then.")
+    @GetMapping("/accruals/summary")
+    public ResponseEntity<AccruedInterestSummaryDTO> getAccrualSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(interestAccrualService.getSummary(date != null ? date : LocalDate.now()));
+    }
 
-        return ResponseEntity.ok(loanRepayments.stream()
-                .map(LoanRepaymentMapper::toDTO)
-                .toList());
+    /**
+     * Runs the overdue scan now instead of waiting for the nightly job.
+     *
+     * @param date Day to evaluate due dates against, defaults to today
+     * @return Installments flagged and penalties charged by this run
+     */
+    @Operation(summary = "Run overdue scan",
+            description = "Flags PENDING installments past their due date as OVERDUE and charges the late penalty. Only installments not seen by an earlier run are read.")
+    @PostMapping("/overdue/run")
+    public ResponseEntity<OverdueRunSummaryDTO> runOverdueScan(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate today = date != null ? date : LocalDate.now();
+        log.info("Finance triggered overdue scan for {}", today);
+        return ResponseEntity.ok(overdueService.detectOverdue(today));
     }
 
+    /**
+     * Delinquency counters of a user.
+     *
+     * @param userId ID of the user
+     * @return Current and lifetime overdue installments and penalties charged
+     */
+    @Operation(summary = "Get user delinquency", description = "Returns the number of overdue installments and penalties charged for a user.")
+    @GetMapping("/delinquency/{userId}")
+    public ResponseEntity<UserDelinquencyDTO> getDelinquency(@PathVariable Long userId) {
+        return ResponseEntity.ok(overdueService.getDelinquency(userId));
+    }
 
+    /**
+     * What a user currently owes and when the next installment is due.
+     *
+     * @param userId ID of the user
+     * @return Outstanding principal, active loans, monthly EMI total and the next due date and amount
+     */
+    @Operation(summary = "Get user loan summary", description = "Returns the outstanding principal, active loan count, monthly EMI total and next due installment of a user.")
+    @GetMapping("/loan-summary/{userId}")
+    public ResponseEntity<UserLoanSummaryDTO> getLoanSummary(@PathVariable Long userId) {
+        return ResponseEntity.ok(loanSummaryService.getSummary(userId));
+    }
+
+    /**
+     * Runs the auto-debit collection now instead of waiting for the morning job.
+     *
+     * @param date Collection date, defaults to today
+     * @return Installments collected and failed by this run
+     */
+    @Operation(summary = "Run auto-debit collection",
+            description = "Debits PENDING installments due on or before the date from each borrower's account balance. Installments the balance cannot cover are recorded as failures.")
+    @PostMapping("/collections/run")
+    public ResponseEntity<CollectionRunSummaryDTO> runCollection(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate collectionDate = date != null ? date : LocalDate.now();
+        log.info("Finance triggered auto-debit collection for {}", collectionDate);
+        return ResponseEntity.ok(autoDebitService.collectDue(collectionDate));
+    }
+
+    /**
+     * Installments that could not be collected on a day.
+     *
+     * @param date Collection date, defaults to today
+     * @return Failed attempts with the amount due and the balance available
+     */
+    @Operation(summary = "Get collection failures", description = "Lists auto-debit attempts that failed for insufficient funds on the given day.")
+    @GetMapping("/collections/failures")
+    public ResponseEntity<List<CollectionFailureDTO>> getCollectionFailures(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(autoDebitService.getFailures(date != null ? date : LocalDate.now()));
+    }
+
+    /**
+     * Portfolio totals per loan type and per manager.
+     *
+     * @return Request counts by status, disbursed volume, outstanding principal and interest due
+     */
+    @Operation(summary = "Get portfolio analytics",
+            description = "Returns counts by status, disbursed volume, outstanding principal and interest due, in total, per loan type and per manager. Read from rollups kept current by every loan and repayment change.")
+    @GetMapping("/portfolio")
+    public ResponseEntity<PortfolioAnalyticsDTO> getPortfolioAnalytics() {
+        return ResponseEntity.ok(portfolioRollupService.getAnalytics());
+    }
+
+    /**
+     * Recomputes the portfolio rollups now instead of waiting for the nightly job.
+     *
+     * @return Portfolio analytics after the rebuild
+     */
+    @Operation(summary = "Rebuild portfolio rollups", description = "Recomputes the portfolio rollups from the loan and repayment tables.")
+    @PostMapping("/portfolio/rebuild")
+    public ResponseEntity<PortfolioAnalyticsDTO> rebuildPortfolio() {
+        log.info("Finance triggered portfolio rollup rebuild");
+        portfolioRollupService.rebuild();
+        return ResponseEntity.ok(portfolioRollupService.getAnalytics());
+    }
+
+    /**
+     * Runs the risk scoring now instead of waiting for the scheduled job.
+     *
+     * @param full Rescore every PENDING request instead of only new ones and applicants whose repayments changed
+     * @return Applicants and requests scored by this run
+     */
+    @Operation(summary = "Run risk scoring",
+            description = "Scores PENDING loan requests from the applicant's salary, balance and repayment history and the requested share of the product's maximum amount.")
+    @PostMapping("/risk-scores/run")
+    public ResponseEntity<RiskScoringRunDTO> runRiskScoring(@RequestParam(defaultValue = "false") boolean full) {
+        log.info("Finance triggered {} risk scoring", full ? "full" : "incremental");
+        return ResponseEntity.ok(full ? riskScoringService.scoreAll() : riskScoringService.scoreChanged());
+    }
+
+    /**
+     * How often the coalesced finance reads were shared instead of loaded.
+     *
+     * @return Per-read call, load and sharing counters since startup
+     */
+    @Operation(summary = "Get read coalescing stats",
+            description = "Returns, per coalesced read, how many calls ran the query and how many joined an identical call in flight or were served from the result TTL.")
+    @GetMapping("/coalescing")
+    public ResponseEntity<List<CoalescingStatsDTO>> getCoalescingStats() {
+        return ResponseEntity.ok(coalescedReads.getStats());
+    }
 }
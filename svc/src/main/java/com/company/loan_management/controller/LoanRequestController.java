@@ -1,5 +1,8 @@
 package com.company.loan_management.controller;
 
+import com.company.loan_management.dto.BulkDecisionRequestDTO;
+import com.company.loan_management.dto.BulkDecisionResultDTO;
+import com.company.loan_management.dto.LoanRequestSearchCriteria;
 import com.company.loan_management.dto.ManagerApprovalRequestDTO;
 import com.company.loan_management.dto.ManagerLoanRequestDTO;
 import com.company.loan_management.dto.UserLoanRequestDTO;
@@ -8,22 +11,31 @@ import com.company.loan_management.mapper.ManagerLoanRequestMapper;
 import com.company.loan_management.model.Loan;
 import com.company.loan_management.model.LoanRequest;
 import com.company.loan_management.model.User;
+import com.company.loan_management.service.ArchiveService;
 import com.company.loan_management.service.LoanRequestService;
 import com.company.loan_management.service.LoanService;
+import com.company.loan_management.service.ManagerAssignmentService;
 import com.company.loan_management.service.UserService;
+import com.company.loan_management.exception.BusinessException;
 import com.company.loan_management.exception.LoanNotFoundException;
 import com.company.loan_management.exception.UserNotFoundException;
 import com.company.loan_management.exception.InvalidLoanRequestException;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Controller to handle Loan Request related operations
@@ -35,16 +47,22 @@ import java.util.Optional;
 @Slf4j
 public class LoanRequestController {
 
+    // Sortable columns; each one is the leading or second column of an index on loan_request
+    private static final Set<String> SEARCH_SORT_PROPERTIES =
+            Set.of("id", "status", "requestDate", "approvalDate", "disbursementDate", "requestedAmount");
+
     private final LoanRequestService loanRequestService;
     private final UserService userService;
     private final LoanService loanService;
+    private final ManagerAssignmentService managerAssignmentService;
+    private final ArchiveService archiveService;
 
     // ------------------ User Endpoints ------------------
 
     /**
      * User applies for a new loan.
      */
-    @Operation(summary = "Apply for a loan", description = "User applies for a loan by providing Details.")
+    @Operation(summary = "Apply for a loan", description = "User applies for a loan by providing Details. Requests failing the affordability rules are refused with LOAN_NOT_ELIGIBLE; requests that pass with concerns carry eligibility flags for the manager.")
     @PostMapping("/apply")
     public ResponseEntity<UserLoanRequestDTO> applyForLoan(@RequestBody UserLoanRequestDTO loanRequestDto) {
         // Fetch the User and Loan objects using the username and loan type from the request
@@ -81,6 +99,9 @@ public class LoanRequestController {
             // Return success response with the loan request details
             URI location = URI.create("/api/loan-requests/" + savedLoanRequest.getId());
             return ResponseEntity.created(location).body(responseDto);
+        } catch (BusinessException e) {
+            // Expected outcome such as a failed eligibility check, logged by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             log.error("Error applying for loan: {}", e.getMessage(), e);
             throw new InvalidLoanRequestException("Something went wrong while processing the loan request.");
@@ -130,11 +151,12 @@ public class LoanRequestController {
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<UserLoanRequestDTO>> getUserLoanRequests(
             @PathVariable Long userId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         log.info("User {} fetching their loan requests, status filter: {}", userId, status);
 
-        // Fetch loan requests by user ID with an optional status filter
-        List<LoanRequest> loanRequests = loanRequestService.getLoanRequestsByUser(userId, status);
+        // Fetch loan requests by user ID with an optional status filter, adding archived ones on request
+        List<LoanRequest> loanRequests = loanRequestService.getLoanRequestsByUser(userId, status, includeArchived);
 
         // Map loan requests to UserLoanRequestDTO, ensuring no sensitive data is exposed
         // Exposing only username, not sensitive user data
@@ -156,14 +178,15 @@ public class LoanRequestController {
     /**
      * Manager views assigned loan requests with optional status filtering.
      */
-    @Operation(summary = "View manager's assigned loan requests", description = "Fetch all loan requests assigned to manager.")
+    @Operation(summary = "View manager's assigned loan requests", description = "Fetch all loan requests assigned to manager, optionally riskiest first.")
     @PreAuthorize("hasRole('MANAGER')")
     @GetMapping("/manager/{managerId}")
     public ResponseEntity<List<ManagerLoanRequestDTO>> getManagerLoanRequests(
             @PathVariable Long managerId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean riskiestFirst) {
         log.info("Manager {} fetching assigned loan requests, status filter: {}", managerId, status);
-        List<LoanRequest> loanRequests = loanRequestService.getLoanRequestsAssignedToManager(managerId, status);
+        List<LoanRequest> loanRequests = loanRequestService.getLoanRequestsAssignedToManager(managerId, status, riskiestFirst);
         // Map LoanRequest entities to ManagerLoanRequestDTOs
 
         return ResponseEntity.ok(loanRequests.stream()
@@ -207,4 +230,106 @@ public class LoanRequestController {
         );
         return ResponseEntity.ok("Loan Rejected");
     }
+
+    /**
+     * Manager approves many loan requests in one call.
+     */
+    @Operation(summary = "Bulk approve loan requests", description = "Manager approves many pending loan requests assigned to them and receives an outcome per request ID.")
+    @PreAuthorize("hasRole('MANAGER')")
+    @PostMapping("/manager/approve/bulk")
+    public ResponseEntity<List<BulkDecisionResultDTO>> bulkApproveLoanRequests(
+            @RequestBody BulkDecisionRequestDTO bulkRequest) {
+        validate(bulkRequest);
+        log.info("Manager {} bulk approving {} loan requests", bulkRequest.getManagerId(), bulkRequest.getItems().size());
+        return ResponseEntity.ok(toResults(loanRequestService.bulkApproveLoanRequests(
+                bulkRequest.getManagerId(), bulkRequest.getItems(), bulkRequest.getRemarks())));
+    }
+
+    /**
+     * Manager rejects many loan requests in one call.
+     */
+    @Operation(summary = "Bulk reject loan requests", description = "Manager rejects many pending loan requests assigned to them and receives an outcome per request ID.")
+    @PreAuthorize("hasRole('MANAGER')")
+    @PostMapping("/manager/reject/bulk")
+    public ResponseEntity<List<BulkDecisionResultDTO>> bulkRejectLoanRequests(
+            @RequestBody BulkDecisionRequestDTO bulkRequest) {
+        validate(bulkRequest);
+        log.info("Manager {} bulk rejecting {} loan requests", bulkRequest.getManagerId(), bulkRequest.getItems().size());
+        return ResponseEntity.ok(toResults(loanRequestService.bulkRejectLoanRequests(
+                bulkRequest.getManagerId(), bulkRequest.getItems(), bulkRequest.getRemarks())));
+    }
+
+    private static void validate(BulkDecisionRequestDTO bulkRequest) {
+        if (bulkRequest.getItems() == null || bulkRequest.getItems().isEmpty()) {
+            throw new InvalidLoanRequestException("At least one item is required.");
+        }
+        if (bulkRequest.getItems().stream().anyMatch(item -> item == null || item.getRequestId() == null)) {
+            throw new InvalidLoanRequestException("Every item needs a request ID.");
+        }
+    }
+
+    private static List<BulkDecisionResultDTO> toResults(Map<Long, String> outcomes) {
+        return outcomes.entrySet().stream()
+                .map(e -> BulkDecisionResultDTO.builder().requestId(e.getKey()).outcome(e.getValue()).build())
+                .toList();
+    }
+
+    // ------------------ Finance / Admin Endpoints ------------------
+
+    /**
+     * Finance and admins search loan requests by any combination of filters.
+     */
+    @Operation(summary = "Search loan requests",
+            description = "Filters loan requests by statuses, loan type, manager, user, request/approval/disbursement date ranges and amount range, with paging and sorting.")
+    @GetMapping("/search")
+    public ResponseEntity<PagedModel<ManagerLoanRequestDTO>> searchLoanRequests(
+            @ModelAttribute LoanRequestSearchCriteria criteria,
+            @PageableDefault(size = 50, sort = "requestDate", direction = Sort.Direction.DESC) Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SEARCH_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidLoanRequestException("Cannot sort loan requests by: " + order.getProperty());
+            }
+        }
+        return ResponseEntity.ok(new PagedModel<>(loanRequestService.searchLoanRequests(criteria, pageable)
+                .map(ManagerLoanRequestMapper::toDTO)));
+    }
+
+    // ------------------ Admin Endpoints ------------------
+
+    /**
+     * Admin moves stale pending requests to less loaded managers.
+     */
+    @Operation(summary = "Reassign stale loan requests", description = "Moves pending loan requests held by their manager for more than the given number of days to the least loaded other eligible manager.")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/admin/reassign-stale")
+    public ResponseEntity<List<UserLoanRequestDTO>> reassignStaleRequests(
+            @RequestParam(required = false) Integer olderThanDays) {
+        log.info("Admin reassigning stale loan requests, older than {} days", olderThanDays);
+        return ResponseEntity.ok(managerAssignmentService.reassignStaleRequests(olderThanDays)
+                .stream()
+                .map(UserLoanRequestMapper::toDTO)
+                .toList());
+    }
+
+    /**
+     * Admin views the live pending queue size per manager.
+     */
+    @Operation(summary = "View manager queue load", description = "Returns the number of pending loan requests currently assigned to each manager.")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/admin/manager-load")
+    public ResponseEntity<Map<Long, Integer>> getManagerLoad() {
+        return ResponseEntity.ok(managerAssignmentService.getPendingCounts());
+    }
+
+    /**
+     * Admin triggers an archival run outside the nightly schedule.
+     */
+    @Operation(summary = "Archive closed loan requests", description = "Moves closed loan requests older than the retention period, and their repayments, to the archive tables.")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/admin/archive")
+    public ResponseEntity<Map<String, Integer>> archiveClosedLoans(
+            @RequestParam(required = false) Integer retentionDays) {
+        log.info("Admin triggering archival, retention {} days", retentionDays);
+        return ResponseEntity.ok(archiveService.archiveClosedLoans(retentionDays));
+    }
 }
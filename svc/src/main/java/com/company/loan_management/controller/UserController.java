@@ -1,22 +1,31 @@
 package com.company.loan_management.controller;
 
 import com.company.loan_management.dto.UserDTO;
-import com.company.loan_management.exception.DuplicateUsernameException;
+import com.company.loan_management.dto.UserImportResultDTO;
+import com.company.loan_management.dto.UserLoanSummaryDTO;
+import com.company.loan_management.dto.UserSearchResultDTO;
 import com.company.loan_management.exception.InvalidRoleException;
 import com.company.loan_management.exception.UserNotFoundException;
 import com.company.loan_management.mapper.UserMapper;
 import com.company.loan_management.model.Role;
 import com.company.loan_management.model.User;
+import com.company.loan_management.service.UserDetailsImpl;
+import com.company.loan_management.service.UserImportService;
+import com.company.loan_management.service.UserLoanSummaryService;
 import com.company.loan_management.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
@@ -31,6 +40,8 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserLoanSummaryService loanSummaryService;
 
     /**
      * Create a new user (Admin functionality).
@@ -43,15 +54,41 @@ public class UserController {
     public ResponseEntity<UserDTO> createUser(@RequestBody User user) {
         log.info("Creating new user: {}", user.getUsername());
 
-        if (userService.findByUsername(user.getUsername()).isPresent()) {
-            throw new DuplicateUsernameException("Username already exists: " + user.getUsername());
-        }
-
+        // createUser rejects a taken username itself
         User savedUser = userService.createUser(user);
         URI location = URI.create("/api/users/" + savedUser.getId());
         return ResponseEntity.created(location).body(UserMapper.toDTO(savedUser));
     }
 
+    /**
+     * Bulk import of users from a CSV file with a header row (Admin functionality).
+     *
+     * @param body CSV with columns name, username, email, password, role, salary, bankAccountNumber,
+     *             accountBalance and department
+     * @return Counts of received and imported rows, and the reason each failed row was skipped
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Import users from CSV (Admin only)",
+            description = "Creates users from a CSV upload in chunks. Rows with missing fields, an invalid role or a taken username or email are skipped and reported by row number; the other rows are imported.")
+    public ResponseEntity<UserImportResultDTO> importUsersCsv(InputStream body) throws IOException {
+        log.info("Importing users from CSV");
+        return ResponseEntity.ok(userImportService.importCsv(body));
+    }
+
+    /**
+     * Bulk import of users from a JSON array (Admin functionality).
+     *
+     * @param body JSON array of user objects with the same fields as the CSV columns
+     * @return Counts of received and imported rows, and the reason each failed row was skipped
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Import users from JSON (Admin only)",
+            description = "Creates users from a JSON array in chunks, reporting rows that could not be imported.")
+    public ResponseEntity<UserImportResultDTO> importUsersJson(InputStream body) throws IOException {
+        log.info("Importing users from JSON");
+        return ResponseEntity.ok(userImportService.importJson(body));
+    }
+
     /**
      * Get all users (Admin functionality).
      *
@@ -67,6 +104,22 @@ public class UserController {
                 .toList());
     }
 
+    /**
+     * Typeahead search over username, name, email and bank account number (Admin functionality).
+     *
+     * @param q     Text to search for; matching is case-insensitive
+     * @param limit Maximum number of results, capped at 100
+     * @return Matching users, entries starting with the text first
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search users (Admin only)",
+            description = "Searches users by username, name, email or bank account number using an in-memory index.")
+    public ResponseEntity<List<UserSearchResultDTO>> searchUsers(@RequestParam String q,
+                                                                 @RequestParam(defaultValue = "20") int limit) {
+        log.info("Searching users for: {}", q);
+        return ResponseEntity.ok(userService.searchUsers(q, Math.min(Math.max(limit, 1), 100)));
+    }
+
     /**
      * Get user by ID.
      *
@@ -163,4 +216,16 @@ public class UserController {
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new UserNotFoundException("User with username '" + username + "' not found"));
     }
+
+    /**
+     * API to fetch what the logged-in user owes across their loans.
+     *
+     * @param principal The authenticated user (auto-injected).
+     * @return Outstanding principal, active loans, monthly EMI total and the next due date and amount.
+     */
+    @Operation(summary = "Get My Loan Summary", description = "Returns the outstanding principal, active loan count, monthly EMI total and next due installment of the currently logged-in user.")
+    @GetMapping("/me/loan-summary")
+    public ResponseEntity<UserLoanSummaryDTO> getMyLoanSummary(@AuthenticationPrincipal UserDetailsImpl principal) {
+        return ResponseEntity.ok(loanSummaryService.getSummary(principal.getUser().getId()));
+    }
 }
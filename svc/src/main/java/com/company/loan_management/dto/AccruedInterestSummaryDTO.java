@@ -0,0 +1,19 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Interest accrued on disbursed loans for a day, and accrued up to it but not yet covered by paid installments.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccruedInterestSummaryDTO {
+    private LocalDate date;
+    private long loanCount;
+    private double accruedOnDate;
+    private double unpaidAccruedToDate;
+}
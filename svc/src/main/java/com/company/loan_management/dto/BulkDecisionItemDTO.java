@@ -0,0 +1,19 @@
+package com.company.loan_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single loan request in a bulk approve/reject call.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDecisionItemDTO {
+    private Long requestId;
+    private Double approvedAmount;  // Optional, approval only; keeps the requested amount when null
+    private String remarks;         // Optional, falls back to the batch remarks
+}
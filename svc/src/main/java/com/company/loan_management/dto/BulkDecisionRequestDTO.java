@@ -0,0 +1,21 @@
+package com.company.loan_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request body for deciding many loan requests of one manager in a single call.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDecisionRequestDTO {
+    private Long managerId;
+    private String remarks;  // Default remarks for items without their own
+    private List<BulkDecisionItemDTO> items;
+}
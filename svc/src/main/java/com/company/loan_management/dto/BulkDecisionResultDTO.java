@@ -0,0 +1,18 @@
+package com.company.loan_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one loan request in a bulk approve/reject call.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDecisionResultDTO {
+    private Long requestId;
+    private String outcome; // APPROVED, REJECTED, NOT_FOUND, NOT_ASSIGNED, NOT_PENDING
+}
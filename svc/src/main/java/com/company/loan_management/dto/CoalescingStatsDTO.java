@@ -0,0 +1,21 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+/**
+ * Counters of one coalesced read since startup. {@code coalescingRatio} is the share of calls answered
+ * without running the read themselves, either by joining one in flight or from a result still within its TTL.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CoalescingStatsDTO {
+    private String operation;
+    private long calls;
+    private long loads;
+    private long joinedInFlight;
+    private long servedFromTtl;
+    private long failures;
+    private double coalescingRatio;
+}
@@ -0,0 +1,17 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CollectionFailureDTO {
+    private Long repaymentId;
+    private Long userId;
+    private LocalDate attemptDate;
+    private double amountDue;
+    private double availableBalance;
+}
@@ -0,0 +1,20 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of one auto-debit collection run.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CollectionRunSummaryDTO {
+    private LocalDate date;
+    private int users;
+    private int collected;
+    private double collectedAmount;
+    private int failed;
+}
@@ -0,0 +1,42 @@
+package com.company.loan_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything a role's dashboard page renders, loaded in one request.
+ * Only the sections of the caller's role are set; a section that failed or timed out is left out and
+ * listed in {@code failedSections}, so the page can render the rest and retry that part on its own.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardDTO {
+
+    private String role;
+    private UserDTO profile;
+
+    // Borrower sections
+    private List<UserLoanRequestDTO> loanRequests;
+    private List<LoanRepaymentDTO> repayments;
+    private UserLoanSummaryDTO loanSummary;
+    private UserDelinquencyDTO delinquency;
+
+    // Manager sections
+    private List<ManagerLoanRequestDTO> pendingRequests;
+
+    // Finance sections
+    private List<ManagerLoanRequestDTO> disbursalQueue;
+    private List<CollectionFailureDTO> collectionFailures;
+
+    // Manager's own segment or, for finance, the whole book
+    private PortfolioSegmentDTO portfolio;
+
+    /** Section name to FAILED or TIMED_OUT */
+    private Map<String, String> failedSections;
+}
@@ -0,0 +1,18 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EligibilityResultDTO {
+    private String decision;           // ELIGIBLE, FLAGGED or REJECTED
+    private double emi;                // Monthly installment of the requested loan
+    private double existingEmi;        // Installments the user already pays each month
+    private Double emiToSalaryRatio;   // Both together over the monthly salary; null without a salary
+    private List<String> rejectReasons;
+    private List<String> flags;
+}
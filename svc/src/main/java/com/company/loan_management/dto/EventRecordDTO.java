@@ -0,0 +1,28 @@
+package com.company.loan_management.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One record of the append-only event log, as stored on disk and returned to consumers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventRecordDTO {
+
+    /** Position of the record in the log; consumers resume from the last offset they processed plus one */
+    private Long offset;
+
+    /** ID of the outbox row the record was drained from, usable for de-duplication */
+    private Long eventId;
+
+    private String aggregateType;
+    private Long aggregateId;
+    private String eventType;
+    private LocalDateTime createdAt;
+    private JsonNode payload;
+}
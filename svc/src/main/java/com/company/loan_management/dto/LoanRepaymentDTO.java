@@ -13,5 +13,6 @@ public class LoanRepaymentDTO {
     private Long loanRequestId; // Linked LoanRequest
     private Double emiAmount;
     private LocalDate repaymentDate;
-    private String status; // PAID, PENDING
+    private String status; // PAID, PENDING, OVERDUE
+    private Double penaltyAmount; // Set once the installment is OVERDUE
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Filters for the loan request search. Every field is optional and all given filters are combined with AND.
+ * Date and amount ranges are inclusive.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoanRequestSearchCriteria {
+
+    /** One or more statuses, e.g. APPROVED,DISBURSED */
+    private List<String> statuses;
+
+    private String loanType;
+
+    private Long managerId;
+
+    private Long userId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate requestDateFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate requestDateTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate approvalDateFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate approvalDateTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate disbursementDateFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate disbursementDateTo;
+
+    private Double minAmount;
+
+    private Double maxAmount;
+}
@@ -25,6 +25,10 @@ public class ManagerLoanRequestDTO {
 
     private String managerRemarks;
 
+    private String eligibilityFlags;
+
+    private Double riskScore;
+
     private LocalDate requestDate;
     private LocalDate approvalDate;
     private LocalDate rejectionDate;
@@ -0,0 +1,19 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of one overdue scan.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OverdueRunSummaryDTO {
+    private LocalDate dueBefore; // Installments due before this date were considered
+    private int flagged;
+    private int users;
+    private double penalties;
+}
@@ -0,0 +1,15 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PortfolioAnalyticsDTO {
+    private PortfolioSegmentDTO total;
+    private List<PortfolioSegmentDTO> byLoanType;
+    private List<PortfolioSegmentDTO> byManager;
+}
@@ -0,0 +1,21 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * Loan book figures for one loan type, one manager, or the whole portfolio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PortfolioSegmentDTO {
+    private Long id; // Loan ID or manager ID, null for the total
+    private String name; // Loan type or manager name
+    private Map<String, Long> countsByStatus;
+    private double disbursedVolume; // Amount of loans in DISBURSED status
+    private double outstandingPrincipal;
+    private double interestDue;
+}
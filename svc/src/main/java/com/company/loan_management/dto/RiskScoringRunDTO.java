@@ -0,0 +1,17 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+/**
+ * Outcome of one risk scoring run.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskScoringRunDTO {
+    private boolean incremental; // Only users whose history changed since their last score
+    private int users;
+    private int requests;
+    private long elapsedMillis;
+}
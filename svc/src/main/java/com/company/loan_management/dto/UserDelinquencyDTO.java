@@ -0,0 +1,17 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserDelinquencyDTO {
+    private Long userId;
+    private int overdueCount;
+    private long lifetimeOverdueCount;
+    private double totalPenalty;
+    private LocalDate lastOverdueDate;
+}
@@ -0,0 +1,17 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+/**
+ * A row of a bulk user import that was not imported.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportErrorDTO {
+    private int row;         // 1-based position in the upload, not counting the CSV header
+    private String username;
+    private String code;     // MISSING_FIELD, INVALID_ROLE, INVALID_NUMBER, DUPLICATE_USERNAME, DUPLICATE_EMAIL, MALFORMED
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import. Rows are imported chunk by chunk, so the users counted in
+ * {@code imported} stay created even when later rows fail.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportResultDTO {
+    private int received;
+    private int imported;
+    private int failed;
+    private long elapsedMillis;
+    private List<UserImportErrorDTO> errors;
+}
@@ -0,0 +1,18 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserLoanSummaryDTO {
+    private Long userId;
+    private double outstandingPrincipal;
+    private int activeLoanCount;
+    private double monthlyEmiTotal;
+    private LocalDate nextDueDate;   // Earliest unpaid installment; in the past while one is overdue
+    private double nextDueAmount;    // Including penalties of overdue installments due that day
+}
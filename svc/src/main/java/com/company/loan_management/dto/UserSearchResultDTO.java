@@ -0,0 +1,19 @@
+package com.company.loan_management.dto;
+
+import lombok.*;
+
+/**
+ * Lightweight user entry returned by the admin typeahead search.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSearchResultDTO {
+    private Long id;
+    private String username;
+    private String name;
+    private String email;
+    private String bankAccountNumber;
+    private String role;
+}
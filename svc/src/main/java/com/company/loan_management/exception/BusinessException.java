@@ -0,0 +1,20 @@
+package com.company.loan_management.exception;
+
+/**
+ * Base class of expected business errors such as unknown IDs or invalid transitions.
+ * They are part of normal control flow and always handled by {@link GlobalExceptionHandler}, so they
+ * skip stack trace capture and suppression: creating one costs about as much as creating its message.
+ */
+public abstract class BusinessException extends RuntimeException {
+
+    private final ErrorCode code;
+
+    protected BusinessException(ErrorCode code, String message) {
+        super(message != null ? message : code.getDefaultMessage(), null, false, false);
+        this.code = code;
+    }
+
+    public ErrorCode getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,7 @@
+package com.company.loan_management.exception;
+
+public class ConcurrentUpdateException extends BusinessException {
+    public ConcurrentUpdateException(String message) {
+        super(ErrorCode.CONCURRENT_UPDATE, message);
+    }
+}
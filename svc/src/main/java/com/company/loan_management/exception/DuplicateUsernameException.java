@@ -1,7 +1,7 @@
 package com.company.loan_management.exception;
 
-public class DuplicateUsernameException extends RuntimeException {
+public class DuplicateUsernameException extends BusinessException {
     public DuplicateUsernameException(String message) {
-        super(message);
+        super(ErrorCode.DUPLICATE_USERNAME, message);
     }
 }
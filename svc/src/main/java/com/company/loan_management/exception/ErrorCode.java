@@ -0,0 +1,78 @@
+package com.company.loan_management.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Stable machine-readable error codes returned in every error body, together with their HTTP status.
+ * Clients should branch on the code, never on the message text.
+ */
+public enum ErrorCode {
+
+    LOAN_NOT_FOUND(HttpStatus.NOT_FOUND, "Loan not found"),
+    LOAN_REQUEST_NOT_FOUND(HttpStatus.NOT_FOUND, "Loan request not found"),
+    REPAYMENT_NOT_FOUND(HttpStatus.NOT_FOUND, "Repayment not found"),
+    USER_NOT_FOUND(HttpStatus.NOT_FOUND, "User not found"),
+    RESOURCE_NOT_FOUND(HttpStatus.NOT_FOUND, "No such resource"),
+    UNAUTHORIZED_ACTION(HttpStatus.FORBIDDEN, "Action not allowed"),
+    INVALID_LOAN_REQUEST(HttpStatus.BAD_REQUEST, "Invalid loan request"),
+    LOAN_NOT_ELIGIBLE(HttpStatus.UNPROCESSABLE_ENTITY, "The loan request does not meet the eligibility rules"),
+    INVALID_LOAN_STATUS(HttpStatus.BAD_REQUEST, "Invalid loan status"),
+    INVALID_ROLE(HttpStatus.BAD_REQUEST, "Invalid role"),
+    DUPLICATE_USERNAME(HttpStatus.BAD_REQUEST, "Username already exists"),
+    INVALID_IMPORT_FILE(HttpStatus.BAD_REQUEST, "Invalid import file"),
+    CONCURRENT_UPDATE(HttpStatus.CONFLICT, "The record was modified by another request. Please reload and try again.");
+
+    private final HttpStatus status;
+    private final String defaultMessage;
+    // Everything in the JSON body before the message, and the whole body for the default message
+    private final String bodyPrefix;
+    private final String defaultBody;
+
+    ErrorCode(HttpStatus status, String defaultMessage) {
+        this.status = status;
+        this.defaultMessage = defaultMessage;
+        this.bodyPrefix = "{\"code\":\"" + name() + "\",\"status\":" + status.value() + ",\"message\":\"";
+        this.defaultBody = bodyPrefix + escape(defaultMessage) + "\"}";
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public String getDefaultMessage() {
+        return defaultMessage;
+    }
+
+    /**
+     * JSON error body; only the message is rendered per call, the rest is built once.
+     */
+    public String body(String message) {
+        if (message == null || message.equals(defaultMessage)) {
+            return defaultBody;
+        }
+        return bodyPrefix + escape(message) + "\"}";
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                if (escaped == null) {
+                    escaped = new StringBuilder(text.length() + 16).append(text, 0, i);
+                }
+                switch (c) {
+                    case '"' -> escaped.append("\\\"");
+                    case '\\' -> escaped.append("\\\\");
+                    case '\n' -> escaped.append("\\n");
+                    case '\r' -> escaped.append("\\r");
+                    case '\t' -> escaped.append("\\t");
+                    default -> escaped.append(String.format("\\u%04x", (int) c));
+                }
+            } else if (escaped != null) {
+                escaped.append(c);
+            }
+        }
+        return escaped != null ? escaped.toString() : text;
+    }
+}
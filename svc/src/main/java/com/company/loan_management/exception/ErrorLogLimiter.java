@@ -0,0 +1,61 @@
+package com.company.loan_management.exception;
+
+import org.slf4j.Logger;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs at most a fixed number of errors per code and second. A burst of the same error, like a client
+ * retrying a bad ID, is logged as its first few occurrences plus one line with the number left out.
+ */
+final class ErrorLogLimiter {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Logger logger;
+    private final int perSecond;
+    private final Map<ErrorCode, Window> windows = new EnumMap<>(ErrorCode.class);
+
+    private static final class Window {
+        long start = System.nanoTime();
+        int logged;
+        int suppressed;
+    }
+
+    ErrorLogLimiter(Logger logger, int perSecond) {
+        this.logger = logger;
+        this.perSecond = perSecond;
+        for (ErrorCode code : ErrorCode.values()) {
+            windows.put(code, new Window());
+        }
+    }
+
+    void warn(ErrorCode code, String message) {
+        Window window = windows.get(code);
+        int suppressedBefore = 0;
+        boolean log;
+        synchronized (window) {
+            long now = System.nanoTime();
+            if (now - window.start >= WINDOW_NANOS) {
+                suppressedBefore = window.suppressed;
+                window.start = now;
+                window.logged = 0;
+                window.suppressed = 0;
+            }
+            log = window.logged < perSecond;
+            if (log) {
+                window.logged++;
+            } else {
+                window.suppressed++;
+            }
+        }
+        if (suppressedBefore > 0) {
+            logger.warn("{} more {} errors were not logged in the previous window", suppressedBefore, code);
+        }
+        if (log) {
+            logger.warn("{}: {}", code, message);
+        }
+    }
+}
@@ -2,21 +2,27 @@ package com.company.loan_management.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final ErrorLogLimiter errorLog;
+
+    public GlobalExceptionHandler(@Value("${loan.errors.log-per-second:10}") int logPerSecond) {
+        this.errorLog = new ErrorLogLimiter(logger, logPerSecond);
+    }
+
     // Handle BadCredentialsException
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<String> handleBadCredentialsException(BadCredentialsException ex) {
@@ -31,65 +37,29 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>("An unexpected error occurred", HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
-    @ExceptionHandler(LoanNotFoundException.class)
-    public ResponseEntity<String> handleLoanNotFoundException(LoanNotFoundException ex) {
-        logger.warn("Loan not found: {}", ex.getMessage());
-        return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
+    // Not-found, validation, authorization and conflict errors of the domain, see ErrorCode
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<String> handleBusinessException(BusinessException ex) {
+        errorLog.warn(ex.getCode(), ex.getMessage());
+        return errorResponse(ex.getCode(), ex.getMessage());
     }
 
-    @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<String> handleUserNotFound(UserNotFoundException ex) {
-        logger.warn("User error: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        errorLog.warn(ErrorCode.CONCURRENT_UPDATE, ex.getMessage());
+        return errorResponse(ErrorCode.CONCURRENT_UPDATE, null);
     }
 
-    @ExceptionHandler(LoanRequestNotFoundException.class)
-    public ResponseEntity<String> handleLoanRequestNotFound(LoanRequestNotFoundException ex) {
-        logger.warn("Loan request error: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    // Unmapped paths, typically probing
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<String> handleNoResourceFound(NoResourceFoundException ex) {
+        errorLog.warn(ErrorCode.RESOURCE_NOT_FOUND, ex.getResourcePath());
+        return errorResponse(ErrorCode.RESOURCE_NOT_FOUND, null);
     }
 
-    @ExceptionHandler(UnauthorizedActionException.class)
-    public ResponseEntity<String> handleUnauthorized(UnauthorizedActionException ex) {
-        logger.warn("Unauthorized access: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ex.getMessage());
-    }
-
-    @ExceptionHandler(InvalidLoanStatusException.class)
-    public ResponseEntity<String> handleInvalidStatus(InvalidLoanStatusException ex) {
-        logger.warn("Invalid status: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
-    }
-
-
-    @ExceptionHandler(InvalidLoanRequestException.class)
-    public ResponseEntity<String> handleInvalidLoanRequest(InvalidLoanRequestException ex) {
-        logger.warn("Invalid loan request: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
-    }
-
-    @ExceptionHandler(DuplicateUsernameException.class)
-    public ResponseEntity<String> handleDuplicateUsername(DuplicateUsernameException ex) {
-        logger.warn("Duplicate username: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
-    }
-
-    @ExceptionHandler(InvalidRoleException.class)
-    public ResponseEntity<String> handleInvalidRole(InvalidRoleException ex) {
-        logger.warn("Invalid role provided: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
-    }
-
-    @ExceptionHandler(RepaymentNotFoundException.class)
-    public ResponseEntity<Object> handleRepaymentNotFoundException(RepaymentNotFoundException ex) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", LocalDateTime.now());
-        response.put("status", HttpStatus.NOT_FOUND.value());
-        response.put("error", "Repayment Not Found");
-        response.put("message", ex.getMessage());
-        response.put("path", "/repayments"); // optional: static or inject actual request path if needed
-
-        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+    private static ResponseEntity<String> errorResponse(ErrorCode code, String message) {
+        return ResponseEntity.status(code.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(code.body(message));
     }
 }
-
@@ -0,0 +1,7 @@
+package com.company.loan_management.exception;
+
+public class InvalidImportFileException extends BusinessException {
+    public InvalidImportFileException(String message) {
+        super(ErrorCode.INVALID_IMPORT_FILE, message);
+    }
+}
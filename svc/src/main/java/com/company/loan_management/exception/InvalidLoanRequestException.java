@@ -1,7 +1,7 @@
 package com.company.loan_management.exception;
 
-public class InvalidLoanRequestException extends RuntimeException {
+public class InvalidLoanRequestException extends BusinessException {
     public InvalidLoanRequestException(String message) {
-        super(message);
+        super(ErrorCode.INVALID_LOAN_REQUEST, message);
     }
 }
@@ -1,7 +1,7 @@
 package com.company.loan_management.exception;
 
-public class InvalidLoanStatusException extends RuntimeException {
+public class InvalidLoanStatusException extends BusinessException {
     public InvalidLoanStatusException(String message) {
-        super(message);
+        super(ErrorCode.INVALID_LOAN_STATUS, message);
     }
 }
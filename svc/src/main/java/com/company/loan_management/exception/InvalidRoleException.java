@@ -1,7 +1,7 @@
 package com.company.loan_management.exception;
 
-public class InvalidRoleException extends RuntimeException {
+public class InvalidRoleException extends BusinessException {
     public InvalidRoleException(String message) {
-        super(message);
+        super(ErrorCode.INVALID_ROLE, message);
     }
 }
@@ -0,0 +1,7 @@
+package com.company.loan_management.exception;
+
+public class LoanNotEligibleException extends BusinessException {
+    public LoanNotEligibleException(String message) {
+        super(ErrorCode.LOAN_NOT_ELIGIBLE, message);
+    }
+}
@@ -1,8 +1,8 @@
 package com.company.loan_management.exception;
 
-public class LoanNotFoundException extends RuntimeException {
+public class LoanNotFoundException extends BusinessException {
     public LoanNotFoundException(String message) {
-        super(message);
+        super(ErrorCode.LOAN_NOT_FOUND, message);
     }
 }
 
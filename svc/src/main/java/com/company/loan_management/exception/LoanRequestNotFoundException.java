@@ -1,7 +1,7 @@
 package com.company.loan_management.exception;
 
-public class LoanRequestNotFoundException extends RuntimeException {
+public class LoanRequestNotFoundException extends BusinessException {
   public LoanRequestNotFoundException(String message) {
-    super(message);
+    super(ErrorCode.LOAN_REQUEST_NOT_FOUND, message);
   }
 }
@@ -1,7 +1,7 @@
 package com.company.loan_management.exception;
 
-public class RepaymentNotFoundException extends RuntimeException {
+public class RepaymentNotFoundException extends BusinessException {
     public RepaymentNotFoundException(String message) {
-        super(message);
+        super(ErrorCode.REPAYMENT_NOT_FOUND, message);
     }
 }
@@ -1,7 +1,7 @@
 package com.company.loan_management.exception;
 
-public class UnauthorizedActionException extends RuntimeException {
+public class UnauthorizedActionException extends BusinessException {
     public UnauthorizedActionException(String message) {
-        super(message);
+        super(ErrorCode.UNAUTHORIZED_ACTION, message);
     }
 }
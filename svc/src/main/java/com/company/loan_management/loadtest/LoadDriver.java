@@ -0,0 +1,351 @@
+package com.company.loan_management.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Closed-loop HTTP load driver for a locally running instance, usually one filled by {@link SyntheticDataGenerator}.
+ * Each worker repeatedly picks a scenario from the weighted mix and times its main request; at the end it prints
+ * throughput and latency percentiles per scenario. Approve, disburse and mark-paid work off queues seeded from
+ * the managers' pending queues and the finance approved list, then fed by the preceding scenarios. Dashboard
+ * loads one panel per request the way the pages used to; composite loads a whole borrower or manager dashboard.
+ * Not-found hammers mark-paid with repayment IDs that do not exist and counts the expected 404s as successes;
+ * run it alone ({@code --mix=not-found:1}) to measure error path throughput.
+ * <p>
+ * Run with {@code scripts/load-test.sh}; options are {@code --name=value}:
+ * base-url, duration (seconds), concurrency, mix (scenario:weight,...), users, active-users, managers, password.
+ */
+public final class LoadDriver {
+
+    enum Scenario { LOGIN, APPLY, APPROVE, DISBURSE, MARK_PAID, DASHBOARD, COMPOSITE, NOT_FOUND }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String baseUrl;
+    private final int users;
+    private final int activeUsers;
+    private final int managers;
+    private final String password;
+
+    private final Map<Integer, JsonNode> userSessions = new ConcurrentHashMap<>();
+    private final Map<Long, String> managerTokens = new ConcurrentHashMap<>();
+    private String financeToken;
+    private List<JsonNode> loanTypes;
+
+    private record Pending(long requestId, long managerId, double amount) {
+    }
+
+    // Requests awaiting approval, approved request IDs and unpaid repayment IDs
+    private final Queue<Pending> pendingApprovals = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> approvedRequests = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> unpaidRepayments = new ConcurrentLinkedQueue<>();
+
+    private final Map<Scenario, Recorder> recorders = new EnumMap<>(Scenario.class);
+
+    private LoadDriver(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        this.users = Integer.parseInt(options.getOrDefault("users", "100000"));
+        this.activeUsers = Math.min(users, Integer.parseInt(options.getOrDefault("active-users", "1000")));
+        this.managers = Integer.parseInt(options.getOrDefault("managers", "50"));
+        this.password = options.getOrDefault("password", "loadtest");
+        for (Scenario scenario : Scenario.values()) {
+            recorders.put(scenario, new Recorder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        Map<Scenario, Integer> mix = parseMix(options.getOrDefault("mix",
+                "login:10,apply:20,approve:15,disburse:10,mark_paid:15,dashboard:30"));
+
+        LoadDriver driver = new LoadDriver(options);
+        driver.prepare();
+        driver.run(mix, duration, concurrency);
+    }
+
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.split(":");
+            String name = pair[0].trim().toUpperCase(Locale.ROOT).replace('-', '_');
+            if (Arrays.stream(Scenario.values()).anyMatch(s -> s.name().equals(name)) && Integer.parseInt(pair[1]) > 0) {
+                mix.put(Scenario.valueOf(name), Integer.parseInt(pair[1]));
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Scenario mix is empty: " + value);
+        }
+        return mix;
+    }
+
+    // Logs in the staff accounts and seeds the work queues from existing data
+    private void prepare() throws Exception {
+        financeToken = login("finance_1").path("token").asText();
+        loanTypes = new ArrayList<>();
+        get("/api/loans", financeToken).body().forEach(loanTypes::add);
+        for (int i = 1; i <= managers; i++) {
+            JsonNode session = login("manager_" + i);
+            long managerId = session.path("id").asLong();
+            managerTokens.put(managerId, session.path("token").asText());
+            for (JsonNode request : get("/api/loan-requests/manager/" + managerId + "?status=PENDING", session.path("token").asText()).body()) {
+                pendingApprovals.add(new Pending(request.path("id").asLong(), managerId, request.path("requestedAmount").asDouble()));
+            }
+        }
+        for (JsonNode request : get("/api/finance/loanRequests?status=APPROVED", financeToken).body()) {
+            approvedRequests.add(request.path("id").asLong());
+        }
+        System.out.printf("Prepared %d loan types, %d manager sessions, %d pending approvals, %d approved requests%n",
+                loanTypes.size(), managerTokens.size(), pendingApprovals.size(), approvedRequests.size());
+    }
+
+    private void run(Map<Scenario, Integer> mix, int durationSeconds, int concurrency) throws Exception {
+        Scenario[] wheel = mix.entrySet().stream()
+                .flatMap(e -> Collections.nCopies(e.getValue(), e.getKey()).stream())
+                .toArray(Scenario[]::new);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Scenario scenario = wheel[random.nextInt(wheel.length)];
+                    try {
+                        execute(scenario, random);
+                    } catch (Exception e) {
+                        recorders.get(scenario).error();
+                    }
+                }
+                return null;
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+        report(durationSeconds);
+    }
+
+    private void execute(Scenario scenario, ThreadLocalRandom random) throws Exception {
+        Recorder recorder = recorders.get(scenario);
+        switch (scenario) {
+            case LOGIN -> recorder.record(timed(() -> send(post("/api/auth/login", null,
+                    Map.of("username", "user_" + (1 + random.nextInt(users)), "password", password)))));
+            case APPLY -> {
+                JsonNode session = userSession(1 + random.nextInt(activeUsers));
+                JsonNode loan = loanTypes.get(random.nextInt(loanTypes.size()));
+                double amount = Math.round(loan.path("maxAmount").asDouble() * random.nextDouble(0.05, 0.3) / 1000) * 1000.0;
+                Timed result = timed(() -> send(post("/api/loan-requests/apply", session.path("token").asText(),
+                        Map.of("username", session.path("username").asText(), "loanType", loan.path("loanType").asText(),
+                                "requestedAmount", amount))));
+                recorder.record(result);
+                if (result.ok()) {
+                    long managerId = result.body().path("managerDTO").path("id").asLong();
+                    if (managerTokens.containsKey(managerId)) {
+                        pendingApprovals.add(new Pending(result.body().path("id").asLong(), managerId, amount));
+                    }
+                }
+            }
+            case APPROVE -> {
+                Pending pending = pendingApprovals.poll();
+                if (pending == null) {
+                    recorder.skip();
+                    return;
+                }
+                Timed result = timed(() -> send(post("/api/loan-requests/manager/approve", managerTokens.get(pending.managerId()),
+                        Map.of("requestId", pending.requestId(), "managerId", pending.managerId(),
+                                "approvedAmount", pending.amount(), "remarks", "load test"))));
+                recorder.record(result);
+                if (result.ok()) {
+                    approvedRequests.add(pending.requestId());
+                }
+            }
+            case DISBURSE -> {
+                Long requestId = approvedRequests.poll();
+                if (requestId == null) {
+                    recorder.skip();
+                    return;
+                }
+                Timed result = timed(() -> send(post("/api/finance/disburse/" + requestId, financeToken, null)));
+                recorder.record(result);
+                if (result.ok()) {
+                    // Only the first few installments, as a real collection run would see them
+                    JsonNode schedule = get("/api/finance/repayments/" + requestId, financeToken).body();
+                    for (int i = 0; i < Math.min(3, schedule.size()); i++) {
+                        unpaidRepayments.add(schedule.get(i).path("id").asLong());
+                    }
+                }
+            }
+            case MARK_PAID -> {
+                Long repaymentId = unpaidRepayments.poll();
+                if (repaymentId == null) {
+                    recorder.skip();
+                    return;
+                }
+                recorder.record(timed(() -> send(HttpRequest.newBuilder(uri("/api/finance/repayments/" + repaymentId + "/mark-paid"))
+                        .header("Authorization", "Bearer " + financeToken)
+                        .PUT(HttpRequest.BodyPublishers.noBody()))));
+            }
+            case DASHBOARD -> {
+                if (random.nextBoolean()) {
+                    JsonNode session = userSession(1 + random.nextInt(activeUsers));
+                    recorder.record(get("/api/loan-requests/user/" + session.path("id").asLong(), session.path("token").asText()));
+                } else {
+                    Map.Entry<Long, String> manager = managerTokens.entrySet().stream()
+                            .skip(random.nextInt(managerTokens.size())).findFirst().orElseThrow();
+                    recorder.record(get("/api/loan-requests/manager/" + manager.getKey() + "?status=PENDING", manager.getValue()));
+                }
+            }
+            case NOT_FOUND -> {
+                long missingId = Long.MAX_VALUE - random.nextInt(1_000_000);
+                Timed result = timed(() -> send(HttpRequest.newBuilder(uri("/api/finance/repayments/" + missingId + "/mark-paid"))
+                        .header("Authorization", "Bearer " + financeToken)
+                        .PUT(HttpRequest.BodyPublishers.noBody())));
+                recorder.record(result, result.status() == 404);
+            }
+            case COMPOSITE -> {
+                if (random.nextBoolean()) {
+                    JsonNode session = userSession(1 + random.nextInt(activeUsers));
+                    recorder.record(get("/api/dashboard/user", session.path("token").asText()));
+                } else {
+                    String token = managerTokens.values().stream().skip(random.nextInt(managerTokens.size())).findFirst().orElseThrow();
+                    recorder.record(get("/api/dashboard/manager", token));
+                }
+            }
+        }
+    }
+
+    private JsonNode userSession(int n) {
+        return userSessions.computeIfAbsent(n, key -> {
+            try {
+                return login("user_" + key);
+            } catch (Exception e) {
+                throw new IllegalStateException("Login failed for user_" + key, e);
+            }
+        });
+    }
+
+    private JsonNode login(String username) throws Exception {
+        Timed result = timed(() -> send(post("/api/auth/login", null, Map.of("username", username, "password", password))));
+        if (!result.ok()) {
+            throw new IllegalStateException("Login failed for " + username + ": HTTP " + result.status());
+        }
+        return result.body();
+    }
+
+    private Timed get(String path, String token) throws Exception {
+        Timed result = timed(() -> send(HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token).GET()));
+        if (!result.ok()) {
+            throw new IllegalStateException("GET " + path + " failed: HTTP " + result.status());
+        }
+        return result;
+    }
+
+    private HttpRequest.Builder post(String path, String token, Object body) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path)).header("Content-Type", "application/json")
+                .POST(body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private interface Call {
+        HttpResponse<String> send() throws Exception;
+    }
+
+    private record Timed(int status, long nanos, JsonNode body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private static Timed timed(Call call) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<String> response = call.send();
+        long nanos = System.nanoTime() - start;
+        JsonNode body = response.body() == null || response.body().isEmpty() || !response.body().startsWith("{") && !response.body().startsWith("[")
+                ? MAPPER.createObjectNode() : MAPPER.readTree(response.body());
+        return new Timed(response.statusCode(), nanos, body);
+    }
+
+    private void report(int durationSeconds) {
+        System.out.printf("%n%-10s %9s %7s %8s %10s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "skipped", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Map.Entry<Scenario, Recorder> entry : recorders.entrySet()) {
+            Recorder recorder = entry.getValue();
+            long[] latencies = recorder.sorted();
+            if (latencies.length == 0 && recorder.errors == 0 && recorder.skipped == 0) {
+                continue;
+            }
+            System.out.printf("%-10s %9d %7d %8d %10.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    entry.getKey().name().toLowerCase(Locale.ROOT), latencies.length, recorder.errors, recorder.skipped,
+                    (double) latencies.length / durationSeconds,
+                    percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99), percentile(latencies, 100));
+        }
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    // Latencies of successful requests; non-2xx responses and exceptions count as errors
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+        private long skipped;
+
+        synchronized void record(Timed result) {
+            record(result, result.ok());
+        }
+
+        synchronized void record(Timed result, boolean success) {
+            if (!success) {
+                errors++;
+                return;
+            }
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = result.nanos();
+        }
+
+        synchronized void error() {
+            errors++;
+        }
+
+        synchronized void skip() {
+            skipped++;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.company.loan_management.loadtest;
+
+import com.company.loan_management.service.PortfolioRollupService;
+import com.company.loan_management.service.UserLoanSummaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the database with production-scale synthetic data for local performance work.
+ * Enabled with the datagen profile; see application-datagen.properties for the knobs.
+ * <p>
+ * Users, loan requests and repayment schedules are written with JDBC batches on a fixed pool,
+ * one transaction per chunk of users, using pre-allocated ID ranges so chunks never coordinate.
+ * Rows bypass the services, so no outbox events are recorded for them. Manager load counters
+ * and the user search index are rebuilt from the tables on ApplicationReadyEvent, after this runs.
+ * <p>
+ * Generated accounts are user_N, manager_N and finance_N, all with the configured password,
+ * which is what {@link LoadDriver} logs in with.
+ */
+@Component
+@Profile("datagen")
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Slf4j
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final String INSERT_USER = "insert into users (id, name, email, role, username, password, salary, "
+            + "bank_account_number, account_balance, department, is_active, version) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, true, 0)";
+    private static final String INSERT_REQUEST = "insert into loan_request (id, user_id, loan_id, manager_id, status, "
+            + "requested_amount, manager_remarks, request_date, approval_date, rejection_date, disbursement_date, updated_at, version) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_REPAYMENT = "insert into loan_repayment (id, loan_request_id, emi_amount, "
+            + "principal_payment, interest_payment, remaining_balance, repayment_date, status, payment_date, version) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final PortfolioRollupService portfolioRollupService;
+    private final UserLoanSummaryService loanSummaryService;
+
+    private final int users;
+    private final int managers;
+    private final int financeUsers;
+    private final double requestsPerUser;
+    private final int chunkUsers;
+    private final int batchSize;
+    private final int threads;
+    private final String password;
+    private final long seed;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  PasswordEncoder passwordEncoder,
+                                  PortfolioRollupService portfolioRollupService,
+                                  UserLoanSummaryService loanSummaryService,
+                                  @Value("${loan.datagen.users:100000}") int users,
+                                  @Value("${loan.datagen.managers:50}") int managers,
+                                  @Value("${loan.datagen.finance-users:2}") int financeUsers,
+                                  @Value("${loan.datagen.requests-per-user:2.0}") double requestsPerUser,
+                                  @Value("${loan.datagen.chunk-users:1000}") int chunkUsers,
+                                  @Value("${loan.datagen.batch-size:1000}") int batchSize,
+                                  @Value("${loan.datagen.threads:4}") int threads,
+                                  @Value("${loan.datagen.password:loadtest}") String password,
+                                  @Value("${loan.datagen.seed:42}") long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.portfolioRollupService = portfolioRollupService;
+        this.loanSummaryService = loanSummaryService;
+        this.users = users;
+        this.managers = managers;
+        this.financeUsers = financeUsers;
+        this.requestsPerUser = requestsPerUser;
+        this.chunkUsers = chunkUsers;
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.password = password;
+        this.seed = seed;
+    }
+
+    private record LoanType(long id, double maxAmount, double interestRate, int durationMonths) {
+    }
+
+    private record UserRow(long id, String name, String email, String role, String username, String password,
+                           double salary, String bankAccountNumber, double accountBalance, String department) {
+    }
+
+    private record RequestRow(long id, long userId, LoanType loan, long managerId, String status, double amount,
+                              String remarks, LocalDate requestDate, LocalDate approvalDate,
+                              LocalDate rejectionDate, LocalDate disbursementDate) {
+    }
+
+    private record RepaymentRow(long id, long requestId, double emi, double principal, double interest,
+                                double remainingBalance, LocalDate repaymentDate, String status, LocalDate paymentDate) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Integer existing = jdbcTemplate.queryForObject("select count(*) from users where username = 'user_1'", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("Synthetic data already present, skipping generation");
+            return;
+        }
+        List<LoanType> loans = jdbcTemplate.query("select id, max_amount, interest_rate, duration_months from loan order by id",
+                (rs, i) -> new LoanType(rs.getLong(1), rs.getDouble(2), rs.getDouble(3), rs.getInt(4)));
+        if (managers < 1) {
+            throw new IllegalStateException("loan.datagen.managers must be at least 1");
+        }
+        if (loans.isEmpty()) {
+            throw new IllegalStateException("No loan types found; enable sample data or create loans before generating");
+        }
+
+        long start = System.currentTimeMillis();
+        // One hash for every generated account; BCrypt per user would dominate the run
+        String passwordHash = passwordEncoder.encode(password);
+        AtomicLong userIds = new AtomicLong(nextId("users"));
+        AtomicLong requestIds = new AtomicLong(nextId("loan_request"));
+        AtomicLong repaymentIds = new AtomicLong(nextId("loan_repayment"));
+
+        long[] managerIds = insertStaffAndPools(loans, passwordHash, userIds);
+
+        AtomicLong requestCount = new AtomicLong();
+        AtomicLong repaymentCount = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int from = 0; from < users; from += chunkUsers) {
+                int chunkFrom = from;
+                int chunkTo = Math.min(from + chunkUsers, users);
+                chunks.add(pool.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                    long[] counts = insertChunk(chunkFrom, chunkTo, loans, managerIds, passwordHash, userIds, requestIds, repaymentIds);
+                    requestCount.addAndGet(counts[0]);
+                    repaymentCount.addAndGet(counts[1]);
+                })));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        restartIdentity("users", userIds.get());
+        restartIdentity("loan_request", requestIds.get());
+        restartIdentity("loan_repayment", repaymentIds.get());
+        // The rows bypass the services, so the rollups and summaries are recomputed once at the end
+        portfolioRollupService.rebuild();
+        loanSummaryService.rebuild();
+
+        long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+        long rows = users + managers + financeUsers + requestCount.get() + repaymentCount.get();
+        log.info("Generated {} users, {} managers, {} finance users, {} loan requests and {} repayments in {} ms ({} rows/s)",
+                users, managers, financeUsers, requestCount.get(), repaymentCount.get(), elapsed, rows * 1000 / elapsed);
+    }
+
+    // Managers and finance users, with every generated manager added to each loan type's approver pool
+    private long[] insertStaffAndPools(List<LoanType> loans, String passwordHash, AtomicLong userIds) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<UserRow> staff = new ArrayList<>();
+        long[] managerIds = new long[managers];
+        for (int i = 1; i <= managers; i++) {
+            long id = userIds.getAndIncrement();
+            managerIds[i - 1] = id;
+            staff.add(new UserRow(id, "Load Manager " + i, "manager_" + i + "@loadtest.local", "MANAGER", "manager_" + i,
+                    passwordHash, 60000 + random.nextInt(60000), String.valueOf(8_000_000_000L + i),
+                    random.nextInt(50000), "Lending"));
+        }
+        for (int i = 1; i <= financeUsers; i++) {
+            staff.add(new UserRow(userIds.getAndIncrement(), "Load Finance " + i, "finance_" + i + "@loadtest.local", "FINANCE",
+                    "finance_" + i, passwordHash, 60000 + random.nextInt(40000), String.valueOf(8_500_000_000L + i),
+                    random.nextInt(50000), "Finance"));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER, staff, batchSize, USER_SETTER);
+            List<long[]> pool = new ArrayList<>();
+            for (LoanType loan : loans) {
+                for (long managerId : managerIds) {
+                    pool.add(new long[]{loan.id(), managerId});
+                }
+            }
+            jdbcTemplate.batchUpdate("insert into loan_approver_pool (loan_id, manager_id) values (?, ?)", pool, batchSize,
+                    (ps, row) -> {
+                        ps.setLong(1, row[0]);
+                        ps.setLong(2, row[1]);
+                    });
+        });
+        return managerIds;
+    }
+
+    private long[] insertChunk(int from, int to, List<LoanType> loans, long[] managerIds, String passwordHash,
+                               AtomicLong userIds, AtomicLong requestIds, AtomicLong repaymentIds) {
+        SplittableRandom random = new SplittableRandom(seed + from);
+        LocalDate today = LocalDate.now();
+
+        long firstUserId = userIds.getAndAdd(to - from);
+        List<UserRow> userRows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int n = i + 1;
+            userRows.add(new UserRow(firstUserId + (i - from), "Load User " + n, "user_" + n + "@loadtest.local", "USER",
+                    "user_" + n, passwordHash, 25000 + random.nextInt(175000), String.valueOf(9_000_000_000L + n),
+                    random.nextInt(100000), "Retail"));
+        }
+
+        // ID ranges are reserved up front so each chunk can number its rows without coordination
+        int[] requestsPerRow = new int[userRows.size()];
+        int requestTotal = 0;
+        for (int i = 0; i < requestsPerRow.length; i++) {
+            requestsPerRow[i] = random.nextInt((int) Math.round(requestsPerUser * 2) + 1);
+            requestTotal += requestsPerRow[i];
+        }
+        long requestId = requestIds.getAndAdd(requestTotal);
+        List<RequestRow> requestRows = new ArrayList<>(requestTotal);
+        int repaymentTotal = 0;
+        for (int i = 0; i < requestsPerRow.length; i++) {
+            for (int k = 0; k < requestsPerRow[i]; k++) {
+                RequestRow request = newRequest(random, today, requestId++, userRows.get(i).id(),
+                        loans.get(random.nextInt(loans.size())), managerIds[random.nextInt(managerIds.length)]);
+                requestRows.add(request);
+                if ("DISBURSED".equals(request.status())) {
+                    repaymentTotal += request.loan().durationMonths();
+                }
+            }
+        }
+
+        long repaymentId = repaymentIds.getAndAdd(repaymentTotal);
+        List<RepaymentRow> repaymentRows = new ArrayList<>(repaymentTotal);
+        for (RequestRow request : requestRows) {
+            if ("DISBURSED".equals(request.status())) {
+                repaymentId = addSchedule(random, today, request, repaymentId, repaymentRows);
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_USER, userRows, batchSize, USER_SETTER);
+        jdbcTemplate.batchUpdate(INSERT_REQUEST, requestRows, batchSize, REQUEST_SETTER);
+        jdbcTemplate.batchUpdate(INSERT_REPAYMENT, repaymentRows, batchSize, REPAYMENT_SETTER);
+        log.debug("Generated users {}..{}: {} requests, {} repayments", from + 1, to, requestRows.size(), repaymentRows.size());
+        return new long[]{requestRows.size(), repaymentRows.size()};
+    }
+
+    // Recent requests are mostly still open; older ones have mostly been decided and disbursed
+    private RequestRow newRequest(SplittableRandom random, LocalDate today, long id, long userId, LoanType loan, long managerId) {
+        int ageDays = random.nextInt(3 * 365);
+        LocalDate requestDate = today.minusDays(ageDays);
+        int roll = random.nextInt(100);
+        String status;
+        if (ageDays < 14) {
+            status = roll < 70 ? "PENDING" : roll < 85 ? "APPROVED" : roll < 95 ? "REJECTED" : "CANCELED";
+        } else {
+            status = roll < 55 ? "DISBURSED" : roll < 80 ? "REJECTED" : roll < 88 ? "CANCELED" : roll < 95 ? "APPROVED" : "PENDING";
+        }
+        double amount = Math.round(loan.maxAmount() * (0.05 + 0.45 * random.nextDouble()) / 1000) * 1000.0;
+
+        LocalDate approvalDate = null;
+        LocalDate rejectionDate = null;
+        LocalDate disbursementDate = null;
+        String remarks = null;
+        switch (status) {
+            case "APPROVED", "DISBURSED" -> {
+                approvalDate = min(requestDate.plusDays(1 + random.nextInt(7)), today);
+                amount = Math.round(amount * (0.9 + 0.1 * random.nextDouble()) / 1000) * 1000.0;
+                remarks = "Approved";
+                if ("DISBURSED".equals(status)) {
+                    disbursementDate = min(approvalDate.plusDays(1 + random.nextInt(5)), today);
+                }
+            }
+            case "REJECTED" -> {
+                rejectionDate = min(requestDate.plusDays(1 + random.nextInt(7)), today);
+                remarks = "Rejected";
+            }
+            default -> {
+            }
+        }
+        return new RequestRow(id, userId, loan, managerId, status, amount, remarks, requestDate, approvalDate,
+                rejectionDate, disbursementDate);
+    }
+
+    // Same amortisation as LoanRepaymentServiceImpl, dated from disbursement; past installments are mostly paid
+    private long addSchedule(SplittableRandom random, LocalDate today, RequestRow request, long nextId, List<RepaymentRow> rows) {
+        double monthlyRate = request.loan().interestRate() / 100 / 12;
+        int months = request.loan().durationMonths();
+        double emi = request.amount() * (monthlyRate * Math.pow(1 + monthlyRate, months)) / (Math.pow(1 + monthlyRate, months) - 1);
+        double remaining = request.amount();
+        for (int i = 1; i <= months; i++) {
+            double interest = remaining * monthlyRate;
+            double principal = emi - interest;
+            remaining -= principal;
+            LocalDate dueDate = request.disbursementDate().plusMonths(i);
+            boolean paid = dueDate.isBefore(today) && random.nextInt(100) < 97;
+            rows.add(new RepaymentRow(nextId++, request.id(), emi, principal, interest, Math.max(remaining, 0), dueDate,
+                    paid ? "PAID" : "PENDING", paid ? dueDate : null));
+        }
+        return nextId;
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    // MySQL moves AUTO_INCREMENT past explicit IDs on its own; H2 identity columns need a restart
+    private void restartIdentity(String table, long next) {
+        String product = jdbcTemplate.execute((Connection connection) -> connection.getMetaData().getDatabaseProductName());
+        if ("H2".equals(product)) {
+            jdbcTemplate.execute("alter table " + table + " alter column id restart with " + next);
+        }
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static Date toDate(LocalDate date) {
+        return date == null ? null : Date.valueOf(date);
+    }
+
+    private static final ParameterizedPreparedStatementSetter<UserRow> USER_SETTER = (ps, row) -> {
+        ps.setLong(1, row.id());
+        ps.setString(2, row.name());
+        ps.setString(3, row.email());
+        ps.setString(4, row.role());
+        ps.setString(5, row.username());
+        ps.setString(6, row.password());
+        ps.setDouble(7, row.salary());
+        ps.setString(8, row.bankAccountNumber());
+        ps.setDouble(9, row.accountBalance());
+        ps.setString(10, row.department());
+    };
+
+    private static final ParameterizedPreparedStatementSetter<RequestRow> REQUEST_SETTER = (ps, row) -> {
+        ps.setLong(1, row.id());
+        ps.setLong(2, row.userId());
+        ps.setLong(3, row.loan().id());
+        ps.setLong(4, row.managerId());
+        ps.setString(5, row.status());
+        ps.setDouble(6, row.amount());
+        ps.setString(7, row.remarks());
+        ps.setDate(8, toDate(row.requestDate()));
+        ps.setDate(9, toDate(row.approvalDate()));
+        ps.setDate(10, toDate(row.rejectionDate()));
+        ps.setDate(11, toDate(row.disbursementDate()));
+        ps.setTimestamp(12, Timestamp.valueOf(LocalDateTime.now()));
+    };
+
+    private static final ParameterizedPreparedStatementSetter<RepaymentRow> REPAYMENT_SETTER = (ps, row) -> {
+        ps.setLong(1, row.id());
+        ps.setLong(2, row.requestId());
+        ps.setDouble(3, row.emi());
+        ps.setDouble(4, row.principal());
+        ps.setDouble(5, row.interest());
+        ps.setDouble(6, row.remainingBalance());
+        ps.setDate(7, toDate(row.repaymentDate()));
+        ps.setString(8, row.status());
+        ps.setDate(9, toDate(row.paymentDate()));
+    };
+}
@@ -0,0 +1,60 @@
+package com.company.loan_management.mapper;
+
+import com.company.loan_management.model.ArchivedLoanRepayment;
+import com.company.loan_management.model.ArchivedLoanRequest;
+import com.company.loan_management.model.LoanRepayment;
+import com.company.loan_management.model.LoanRequest;
+
+/**
+ * Converts archived rows back into detached live entities so read paths and
+ * existing DTO mappers can treat both tiers the same way.
+ */
+public class ArchiveMapper {
+
+    private ArchiveMapper(){}
+
+    /**
+     * Maps an archived loan request to a detached LoanRequest.
+     *
+     * @param archived The archived loan request.
+     * @return A LoanRequest carrying the archived values.
+     */
+    public static LoanRequest toLoanRequest(ArchivedLoanRequest archived) {
+        return LoanRequest.builder()
+                .id(archived.getId())
+                .user(archived.getUser())
+                .loan(archived.getLoan())
+                .assignedManager(archived.getAssignedManager())
+                .status(archived.getStatus())
+                .requestedAmount(archived.getRequestedAmount())
+                .managerRemarks(archived.getManagerRemarks())
+                .requestDate(archived.getRequestDate())
+                .approvalDate(archived.getApprovalDate())
+                .rejectionDate(archived.getRejectionDate())
+                .disbursementDate(archived.getDisbursementDate())
+                .updatedAt(archived.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Maps an archived repayment to a detached LoanRepayment.
+     *
+     * @param archived The archived repayment.
+     * @return A LoanRepayment carrying the archived values.
+     */
+    public static LoanRepayment toLoanRepayment(ArchivedLoanRepayment archived) {
+        return LoanRepayment.builder()
+                .id(archived.getId())
+                .loanRequest(toLoanRequest(archived.getLoanRequest()))
+                .emiAmount(archived.getEmiAmount())
+                .principalPayment(archived.getPrincipalPayment())
+                .interestPayment(archived.getInterestPayment())
+                .remainingBalance(archived.getRemainingBalance())
+                .repaymentDate(archived.getRepaymentDate())
+                .status(archived.getStatus())
+                .paymentDate(archived.getPaymentDate())
+                .paymentMode(archived.getPaymentMode())
+                .penaltyAmount(archived.getPenaltyAmount())
+                .build();
+    }
+}
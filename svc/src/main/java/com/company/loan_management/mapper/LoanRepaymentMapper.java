@@ -14,6 +14,7 @@ public class LoanRepaymentMapper {
                 .emiAmount(repayment.getEmiAmount())
                 .repaymentDate(repayment.getRepaymentDate())
                 .status(repayment.getStatus())
+                .penaltyAmount(repayment.getPenaltyAmount())
                 .build();
     }
 }
\ No newline at end of file
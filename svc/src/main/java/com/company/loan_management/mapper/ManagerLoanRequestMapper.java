@@ -26,6 +26,8 @@ public class ManagerLoanRequestMapper {
                 .requestedAmount(loanRequest.getRequestedAmount())
                 .status(loanRequest.getStatus())
                 .managerRemarks(loanRequest.getManagerRemarks())
+                .eligibilityFlags(loanRequest.getEligibilityFlags())
+                .riskScore(loanRequest.getRiskScore())
                 .requestDate(loanRequest.getRequestDate())
                 .approvalDate(loanRequest.getApprovalDate())
                 .rejectionDate(loanRequest.getRejectionDate())
@@ -0,0 +1,39 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one ID-range partition of a daily accrual run. Updated in the same transaction
+ * as each batch of accruals, so a restarted run resumes after the last committed loan request.
+ */
+@Entity
+@Table(name = "accrual_checkpoint",
+        uniqueConstraints = @UniqueConstraint(name = "uk_accrual_checkpoint_partition", columnNames = {"accrual_date", "partition_start"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class AccrualCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate accrualDate;
+
+    @Column(nullable = false)
+    private Long partitionStart; // First loan request ID of the partition
+
+    @Column(nullable = false)
+    private Long lastProcessedId; // Highest loan request ID accrued so far
+
+    private boolean completed;
+
+    private LocalDateTime updatedAt;
+}
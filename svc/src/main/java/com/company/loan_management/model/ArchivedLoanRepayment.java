@@ -0,0 +1,44 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Cold-tier copy of a repayment that belonged to an archived loan request.
+ */
+@Entity
+@Table(name = "archived_loan_repayment")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ArchivedLoanRepayment {
+
+    @Id
+    private Long id; // Same ID the repayment had in loan_repayment
+
+    @ManyToOne
+    @JoinColumn(name = "loan_request_id", nullable = false)
+    private ArchivedLoanRequest loanRequest;
+
+    private double emiAmount;
+
+    private double principalPayment;
+
+    private double interestPayment;
+
+    private double remainingBalance;
+
+    private LocalDate repaymentDate;
+
+    private String status;
+
+    private LocalDate paymentDate;
+
+    private String paymentMode;
+
+    private Double penaltyAmount;
+}
@@ -0,0 +1,54 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cold-tier copy of a closed loan request (canceled, rejected or fully repaid).
+ * Keeps the original ID so archived rows can be merged with live ones on read.
+ */
+@Entity
+@Table(name = "archived_loan_request")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ArchivedLoanRequest {
+
+    @Id
+    private Long id; // Same ID the request had in loan_request
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne
+    @JoinColumn(name = "loan_id", nullable = false)
+    private Loan loan;
+
+    @ManyToOne
+    @JoinColumn(name = "manager_id", nullable = false)
+    private User assignedManager;
+
+    private String status;
+
+    private Double requestedAmount;
+
+    private String managerRemarks;
+
+    private LocalDate requestDate;
+
+    private LocalDate approvalDate;
+
+    private LocalDate rejectionDate;
+
+    private LocalDate disbursementDate;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime archivedAt; // When the row was moved out of loan_request
+}
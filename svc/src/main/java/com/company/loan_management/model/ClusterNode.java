@@ -0,0 +1,28 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A running instance of the service. Nodes whose heartbeat is older than the node TTL count as dead.
+ */
+@Entity
+@Table(name = "cluster_node")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class ClusterNode {
+
+    @Id
+    @Column(length = 128)
+    private String nodeId;
+
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime heartbeatAt;
+}
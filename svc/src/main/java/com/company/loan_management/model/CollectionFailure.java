@@ -0,0 +1,42 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An auto-debit attempt that could not collect an installment because the borrower's balance was too low.
+ * One row per installment and run date; a rerun on the same date updates it.
+ */
+@Entity
+@Table(name = "collection_failure",
+        uniqueConstraints = @UniqueConstraint(name = "uk_collection_failure_repayment_date", columnNames = {"repayment_id", "attempt_date"}),
+        indexes = @Index(name = "idx_collection_failure_date", columnList = "attempt_date"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class CollectionFailure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long repaymentId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDate attemptDate; // Collection run date
+
+    private double amountDue;
+
+    private double availableBalance; // Balance left when this installment was attempted
+
+    private LocalDateTime createdAt;
+}
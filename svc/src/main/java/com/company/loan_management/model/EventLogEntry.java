@@ -0,0 +1,46 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One record of the loan lifecycle event log, shared by every node of the cluster.
+ * The identity ID is the record's offset, so all nodes serve the same offsets; it may skip values but
+ * only ever grows. Written by the outbox relay in the transaction that deletes the outbox rows, and the
+ * unique outbox event ID stops a second relay from appending the same rows again. Pruned from the lowest
+ * offsets up once past the retention.
+ */
+@Entity
+@Table(name = "event_log",
+        uniqueConstraints = @UniqueConstraint(name = "uk_event_log_event_id", columnNames = "event_id"),
+        indexes = @Index(name = "idx_event_log_created_at", columnList = "created_at"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class EventLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // Offset
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId; // ID of the outbox row the record was drained from
+
+    @Column(nullable = false)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    private LocalDateTime createdAt; // When the outbox row was written
+}
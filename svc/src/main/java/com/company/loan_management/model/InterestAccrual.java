@@ -0,0 +1,48 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One day of interest accrued on a disbursed loan's outstanding principal.
+ * Written in bulk by the daily accrual job; the loan request is referenced by ID only,
+ * so archiving the request does not touch its accrual history.
+ */
+@Entity
+@Table(name = "interest_accrual",
+        uniqueConstraints = @UniqueConstraint(name = "uk_interest_accrual_request_date", columnNames = {"loan_request_id", "accrual_date"}),
+        indexes = @Index(name = "idx_interest_accrual_date", columnList = "accrual_date"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class InterestAccrual {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "loan_request_id", nullable = false)
+    private Long loanRequestId;
+
+    @Column(nullable = false)
+    private LocalDate accrualDate;
+
+    @Column(nullable = false)
+    private double outstandingPrincipal; // Requested amount less principal of paid installments
+
+    @Column(nullable = false)
+    private double annualRate; // Loan interest rate in percent
+
+    @Column(nullable = false)
+    private double amount; // outstandingPrincipal * annualRate / 100 / 365
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,39 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time-bound lock on a scheduled job, or on one shard of it, held by a single cluster node.
+ * The holder extends the lease while it runs; once it lapses any node may take the job over.
+ */
+@Entity
+@Table(name = "job_lease")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class JobLease {
+
+    @Id
+    @Column(length = 128)
+    private String leaseName; // Job name, suffixed with "#<shard>" for shards
+
+    @Column(nullable = false, length = 128)
+    private String owner; // Node ID of the current or last holder
+
+    @Column(nullable = false, length = 64)
+    private String runKey; // Identifies one run of the job, e.g. its business date; empty for repeating jobs
+
+    private boolean running; // The holder is executing the job
+
+    private boolean completed; // The run identified by runKey finished successfully
+
+    private LocalDateTime acquiredAt;
+
+    @Column(nullable = false)
+    private LocalDateTime leaseUntil;
+}
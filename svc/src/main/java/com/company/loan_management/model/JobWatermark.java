@@ -0,0 +1,33 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * High-water mark of an incremental scan over rows ordered by (date, id).
+ * The next run only reads rows strictly after this position.
+ */
+@Entity
+@Table(name = "job_watermark")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class JobWatermark {
+
+    @Id
+    @Column(length = 64)
+    private String jobName;
+
+    @Column(nullable = false)
+    private LocalDate watermarkDate; // Date of the last row processed
+
+    @Column(nullable = false)
+    private Long watermarkId; // ID of the last row processed on that date
+
+    private LocalDateTime updatedAt;
+}
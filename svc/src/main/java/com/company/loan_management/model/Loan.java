@@ -2,8 +2,14 @@ package com.company.loan_management.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "loan") // Loan types are read on every request listing
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -29,4 +35,10 @@ public class Loan {
 
     @Column(nullable = false)
     private Integer durationMonths; // total months for repayment
+
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "loan_approver_pool",
+            joinColumns = @JoinColumn(name = "loan_id"),
+            inverseJoinColumns = @JoinColumn(name = "manager_id"))
+    private Set<User> approverPool; // additional managers eligible to approve this loan type
 }
\ No newline at end of file
@@ -2,10 +2,13 @@ package com.company.loan_management.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
 @Entity
+// Overdue scan reads PENDING installments in due-date order straight off this index
+@Table(indexes = @Index(name = "idx_loan_repayment_status_date", columnList = "status, repayment_date, id"))
 @Builder
 @Getter
 @Setter
@@ -39,5 +42,11 @@ public class LoanRepayment {
     private LocalDate paymentDate; // (Optional) Date when actually paid
 
     private String paymentMode; // (Optional) Mode of payment
+
+    private Double penaltyAmount; // Late fee charged when the installment went OVERDUE
+
+    @Version
+    @ColumnDefault("0")
+    private Long version; // Optimistic lock, incremented on every update
 }
 
@@ -2,6 +2,7 @@ package com.company.loan_management.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -9,6 +10,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_loan_request_status_request_date", columnList = "status, request_date"),
+        @Index(name = "idx_loan_request_status_assigned_at", columnList = "status, assigned_at"),
+        @Index(name = "idx_loan_request_status_approval_date", columnList = "status, approval_date"),
+        @Index(name = "idx_loan_request_status_disbursement_date", columnList = "status, disbursement_date"),
+        @Index(name = "idx_loan_request_manager_status", columnList = "manager_id, status"),
+        @Index(name = "idx_loan_request_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_loan_request_loan_status", columnList = "loan_id, status")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -32,12 +42,20 @@ public class LoanRequest {
     @JoinColumn(name = "manager_id", nullable = false) // Manager who approves/rejects the loan request
     private User assignedManager;
 
+    private LocalDateTime assignedAt; // When the current manager was assigned, at apply time or on reassignment
+
     private String status; // PENDING, APPROVED, REJECTED, DISBURSED
 
     private Double requestedAmount; // Amount approved for the loan
 
     private String managerRemarks; // Any remarks from the manager
 
+    private String eligibilityFlags; // Comma-separated eligibility flags raised at apply time, null if none
+
+    // Not persisted; the manager queue fills it from loan_risk_score, which only the risk scoring job writes
+    @Transient
+    private Double riskScore; // 0 (safest) to 100 (riskiest), null until scored
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDate requestDate; // Date when the loan was requested
@@ -50,4 +68,8 @@ public class LoanRequest {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version; // Optimistic lock, incremented on every update
 }
\ No newline at end of file
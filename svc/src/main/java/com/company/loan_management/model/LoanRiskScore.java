@@ -0,0 +1,30 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Credit risk score of a loan request, written by the risk scoring job while the request is PENDING.
+ * The last score stays after the request is decided, as the score the manager saw.
+ */
+@Entity
+@Table(name = "loan_risk_score", indexes = @Index(name = "idx_loan_risk_score_user", columnList = "user_id"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class LoanRiskScore {
+
+    @Id
+    private Long loanRequestId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private double score; // 0 (safest) to 100 (riskiest)
+
+    private LocalDateTime scoredAt; // Start of the run that computed the score
+}
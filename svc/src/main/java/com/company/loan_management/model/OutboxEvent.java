@@ -0,0 +1,41 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lifecycle event written in the same transaction as the state change it describes.
+ * Rows are drained into the append-only event log by the outbox relay and then deleted.
+ */
+@Entity
+@Table(name = "outbox_event")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String aggregateType; // LoanRequest, LoanRepayment
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false)
+    private String eventType; // APPLIED, APPROVED, REJECTED, CANCELED, DISBURSED, REPAYMENTS_SCHEDULED, REPAID
+
+    @Column(nullable = false, length = 4000)
+    private String payload; // JSON snapshot of the aggregate after the change
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,45 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running totals of the loan book for one loan type or one manager, and one loan request status.
+ * Kept up to date by the services that change loan requests and repayments, in the same transaction,
+ * and recomputed from the live and archive tables by the rebuild job.
+ */
+@Entity
+@Table(name = "portfolio_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_portfolio_rollup_segment", columnNames = {"dimension", "dimension_key", "status"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class PortfolioRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 16)
+    private String dimension; // LOAN or MANAGER
+
+    @Column(nullable = false)
+    private Long dimensionKey; // Loan ID or manager user ID
+
+    @Column(nullable = false, length = 32)
+    private String status; // Loan request status
+
+    private long requestCount;
+
+    private double requestedAmount; // Sum of requested (or approved) amounts
+
+    private double outstandingPrincipal; // Principal of installments not yet PAID
+
+    private double interestDue; // Interest of installments not yet PAID
+
+    private LocalDateTime updatedAt;
+}
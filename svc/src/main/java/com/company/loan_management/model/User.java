@@ -2,10 +2,15 @@ package com.company.loan_management.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user") // Applicants and managers referenced by loan requests
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -44,4 +49,8 @@ public class User {
     private String department;
 
     private boolean isActive = true;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version; // Optimistic lock, incremented on every update
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Per-user delinquency counters, maintained by the overdue scan and by repayments of overdue installments.
+ */
+@Entity
+@Table(name = "user_delinquency")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class UserDelinquency {
+
+    @Id
+    private Long userId;
+
+    private int overdueCount; // Installments currently OVERDUE
+
+    private long lifetimeOverdueCount; // Installments that have ever gone OVERDUE
+
+    private double totalPenalty; // Sum of all penalties charged
+
+    private LocalDate lastOverdueDate; // Due date of the most recent installment to go OVERDUE
+
+    private LocalDateTime updatedAt;
+}
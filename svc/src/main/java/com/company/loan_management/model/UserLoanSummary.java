@@ -0,0 +1,36 @@
+package com.company.loan_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * What a user currently owes, derived from their unpaid (PENDING or OVERDUE) installments.
+ * Refreshed in the transaction of every repayment change and recomputed for all users by the rebuild job.
+ */
+@Entity
+@Table(name = "user_loan_summary")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class UserLoanSummary {
+
+    @Id
+    private Long userId;
+
+    private double outstandingPrincipal; // Principal part of all unpaid installments
+
+    private int activeLoanCount; // Loans with at least one unpaid installment
+
+    private double monthlyEmiTotal; // Sum of the EMI of the active loans
+
+    private LocalDate nextDueDate; // Earliest unpaid installment, in the past when one is overdue
+
+    private double nextDueAmount; // EMI plus penalties of the unpaid installments due on nextDueDate
+
+    private LocalDateTime updatedAt;
+}
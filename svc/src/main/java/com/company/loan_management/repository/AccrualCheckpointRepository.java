@@ -0,0 +1,15 @@
+package com.company.loan_management.repository;
+
+import com.company.loan_management.model.AccrualCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccrualCheckpointRepository extends JpaRepository<AccrualCheckpoint, Long> {
+
+    Optional<AccrualCheckpoint> findByAccrualDateAndPartitionStart(LocalDate accrualDate, Long partitionStart);
+
+    List<AccrualCheckpoint> findByAccrualDate(LocalDate accrualDate);
+}
@@ -0,0 +1,27 @@
+package com.company.loan_management.repository;
+
+import com.company.loan_management.model.ArchivedLoanRepayment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedLoanRepaymentRepository extends JpaRepository<ArchivedLoanRepayment, Long> {
+    List<ArchivedLoanRepayment> findByLoanRequestId(Long requestId);
+
+    List<ArchivedLoanRepayment> findByLoanRequestUserId(Long userId);
+
+    List<ArchivedLoanRepayment> findByLoanRequestUserIdAndStatus(Long userId, String status);
+
+    // Copies every live repayment of the given loan requests into the archive in one statement
+    @Modifying
+    @Query(value = "insert into archived_loan_repayment (id, loan_request_id, emi_amount, principal_payment, " +
+            "interest_payment, remaining_balance, repayment_date, status, payment_date, payment_mode, penalty_amount) " +
+            "select id, loan_request_id, emi_amount, principal_payment, interest_payment, remaining_balance, " +
+            "repayment_date, status, payment_date, payment_mode, penalty_amount from loan_repayment where loan_request_id in (:requestIds)",
+            nativeQuery = true)
+    int copyFromLive(@Param("requestIds") Collection<Long> requestIds);
+}
@@ -0,0 +1,26 @@
+package com.company.loan_management.repository;
+
+import com.company.loan_management.model.ArchivedLoanRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedLoanRequestRepository extends JpaRepository<ArchivedLoanRequest, Long> {
+    List<ArchivedLoanRequest> findByUserId(Long userId);
+
+    List<ArchivedLoanRequest> findByUserIdAndStatus(Long userId, String status);
+
+    // Copies the given live rows into the archive in one statement
+    @Modifying
+    @Query(value = "insert into archived_loan_request (id, user_id, loan_id, manager_id, status, requested_amount, " +
+            "manager_remarks, request_date, approval_date, rejection_date, disbursement_date, updated_at, archived_at) " +
+            "select id, user_id, loan_id, manager_id, status, requested_amount, manager_remarks, request_date, " +
+            "approval_date, rejection_date, disbursement_date, updated_at, :archivedAt from loan_request where id in (:ids)",
+            nativeQuery = true)
+    int copyFromLive(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
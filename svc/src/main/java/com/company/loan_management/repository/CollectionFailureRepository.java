@@ -0,0 +1,15 @@
+package com.company.loan_management.repository;
+
+import com.company.loan_management.model.CollectionFailure;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface CollectionFailureRepository extends JpaRepository<CollectionFailure, Long> {
+
+    List<CollectionFailure> findByAttemptDateOrderByUserIdAscRepaymentIdAsc(LocalDate attemptDate);
+
+    List<CollectionFailure> findByAttemptDateAndRepaymentIdIn(LocalDate attemptDate, Collection<Long> repaymentIds);
+}
@@ -0,0 +1,30 @@
+package com.company.loan_management.repository;
+
+import com.company.loan_management.model.InterestAccrual;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface InterestAccrualRepository extends JpaRepository<InterestAccrual, Long> {
+
+    // Single row of [loanCount, totalAmount] for the day
+    @Query("select count(a), coalesce(sum(a.amount), 0) from InterestAccrual a where a.accrualDate = :date")
+    List<Object[]> summarizeDay(@Param("date") LocalDate date);
+
+    // Per loan, interest accrued up to the date less interest of installments paid by then (archived ones included,
+    // installments marked paid without a payment date count from their due date), floored at zero so installments paid before accrual started do not offset other loans
+    @Query(value = "select coalesce(sum(greatest(a.accrued - coalesce(p.paid, 0), 0)), 0) "
+            + "from (select loan_request_id, sum(amount) accrued from interest_accrual "
+            + "where accrual_date <= :date group by loan_request_id) a "
+            + "left join (select loan_request_id, sum(interest_payment) paid from ("
+            + "select loan_request_id, interest_payment from loan_repayment where status = 'PAID' and coalesce(payment_date, repayment_date) <= :date "
+            + "union all select loan_request_id, interest_payment from archived_loan_repayment where status = 'PAID' and coalesce(payment_date, repayment_date) <= :date"
+            + ") r group by loan_request_id) p on p.loan_request_id = a.loan_request_id",
+            nativeQuery = true)
+    double sumUnpaidThrough(@Param("date") LocalDate date);
+
+    List<InterestAccrual> findByLoanRequestIdOrderByAccrualDateAsc(Long loanRequestId);
+}
@@ -2,7 +2,11 @@ package com.company.loan_management.repository;
 
 import com.company.loan_management.model.LoanRepayment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface LoanRepaymentRepository extends JpaRepository<LoanRepayment, Long> {
@@ -11,4 +15,8 @@ public interface LoanRepaymentRepository extends JpaRepository<LoanRepayment, Lo
     List<LoanRepayment> findByLoanRequestUserId(Long userId);
     List<LoanRepayment> findByLoanRequestUserIdAndStatus(Long userId, String status);
 
+    @Modifying
+    @Query("delete from LoanRepayment r where r.loanRequest.id in :requestIds")
+    int deleteByLoanRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
 }
\ No newline at end of file
@@ -1,11 +1,18 @@
 package com.company.loan_management.repository;
 
 import com.company.loan_management.model.Loan;
+import com.company.loan_management.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface LoanRepository extends JpaRepository<Loan, Long> {
     Optional<Loan> findByLoanType(String loanType);
+
+    @Query("select m from Loan l join l.approverPool m where l.id = :loanId")
+    List<User> findApproverPool(@Param("loanId") Long loanId);
 }
 
@@ -1,17 +1,102 @@
 package com.company.loan_management.repository;
 
 import com.company.loan_management.model.LoanRequest;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface LoanRequestRepository extends JpaRepository<LoanRequest, Long> {
+public interface LoanRequestRepository extends JpaRepository<LoanRequest, Long>, JpaSpecificationExecutor<LoanRequest> {
     List<LoanRequest> findByUserId(Long userId);
     List<LoanRequest> findByStatus(String status);
 
+    List<LoanRequest> findByStatusIn(Collection<String> statuses);
+
+    // Search results fetch their user, loan and manager in the same query
+    @Override
+    @EntityGraph(attributePaths = {"user", "loan", "assignedManager"})
+    Page<LoanRequest> findAll(Specification<LoanRequest> spec, Pageable pageable);
+
     List<LoanRequest> findByUserIdAndStatus(Long userId, String statusFilter);
 
-    List<LoanRequest> findByAssignedManagerId(Long managerId);
+    // Filter on the manager_id column directly; the derived queries joined users just to read the key
+    @Query("select lr from LoanRequest lr where lr.assignedManager.id = :managerId")
+    List<LoanRequest> findByAssignedManagerId(@Param("managerId") Long managerId);
+
+    @Query("select lr from LoanRequest lr where lr.assignedManager.id = :managerId and lr.status = :status")
+    List<LoanRequest> findByAssignedManagerIdAndStatus(@Param("managerId") Long managerId, @Param("status") String statusFilter);
+
+    // Pending requests their current manager has held since before the cutoff; requests from before
+    // assignedAt was recorded fall back to their request date
+    @Query("select lr from LoanRequest lr where lr.status = 'PENDING' and (lr.assignedAt < :cutoff " +
+            "or (lr.assignedAt is null and lr.requestDate < :cutoffDate))")
+    List<LoanRequest> findPendingAssignedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("cutoffDate") LocalDate cutoffDate);
+
+    // Each row is [managerId, pendingCount]
+    @Query("select lr.assignedManager.id, count(lr) from LoanRequest lr where lr.status = 'PENDING' group by lr.assignedManager.id")
+    List<Object[]> countPendingByManager();
+
+    // Each row is [requestedAmount, interestRate, durationMonths] of a request not yet disbursed or turned down
+    @Query("select lr.requestedAmount, lr.loan.interestRate, lr.loan.durationMonths from LoanRequest lr " +
+            "where lr.user.id = :userId and lr.status in ('PENDING', 'APPROVED')")
+    List<Object[]> findOpenRequestTerms(@Param("userId") Long userId);
+
+    // Locks the request until the transaction ends, before any rollup row a decision goes on to update
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select lr from LoanRequest lr where lr.id = :id")
+    Optional<LoanRequest> lockById(@Param("id") Long id);
+
+    // Decided requests with what their event payload reads, in one query
+    @EntityGraph(attributePaths = {"user", "loan", "assignedManager"})
+    List<LoanRequest> findByIdIn(Collection<Long> ids);
+
+    // Each row is [id, managerId, status, loanId, requestedAmount]; the rows stay locked until the
+    // transaction ends, taken in ID order so overlapping bulk decisions cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select lr.id, lr.assignedManager.id, lr.status, lr.loan.id, lr.requestedAmount from LoanRequest lr " +
+            "where lr.id in :ids order by lr.id")
+    List<Object[]> lockDecisionStateByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update LoanRequest lr set lr.status = 'APPROVED', lr.approvalDate = :today, lr.managerRemarks = :remarks, " +
+            "lr.requestedAmount = coalesce(:amount, lr.requestedAmount), lr.updatedAt = current_timestamp, " +
+            "lr.version = lr.version + 1 " +
+            "where lr.id in :ids and lr.assignedManager.id = :managerId and lr.status = 'PENDING'")
+    int approvePending(@Param("ids") Collection<Long> ids, @Param("managerId") Long managerId,
+                       @Param("amount") Double amount, @Param("remarks") String remarks, @Param("today") LocalDate today);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update LoanRequest lr set lr.status = 'REJECTED', lr.rejectionDate = :today, lr.managerRemarks = :remarks, " +
+            "lr.updatedAt = current_timestamp, lr.version = lr.version + 1 " +
+            "where lr.id in :ids and lr.assignedManager.id = :managerId and lr.status = 'PENDING'")
+    int rejectPending(@Param("ids") Collection<Long> ids, @Param("managerId") Long managerId,
+                      @Param("remarks") String remarks, @Param("today") LocalDate today);
+
+    // Closed requests past retention: canceled/rejected ones, and disbursed ones whose every EMI is paid
+    @Query("select lr.id from LoanRequest lr where lr.id > :afterId and (" +
+            "(lr.status in ('CANCELED', 'REJECTED') and lr.updatedAt < :cutoff) or " +
+            "(lr.status = 'DISBURSED' " +
+            "and exists (select 1 from LoanRepayment r where r.loanRequest = lr) " +
+            "and not exists (select 1 from LoanRepayment r where r.loanRequest = lr " +
+            "and (r.status <> 'PAID' or r.repaymentDate >= :cutoffDate)))) " +
+            "order by lr.id")
+    List<Long> findArchivableIds(@Param("afterId") Long afterId, @Param("cutoff") LocalDateTime cutoff,
+                                 @Param("cutoffDate") LocalDate cutoffDate, Pageable pageable);
 
-    List<LoanRequest> findByAssignedManagerIdAndStatus(Long managerId, String statusFilter);
-}
\ No newline at end of file
+    @Modifying
+    @Query("delete from LoanRequest lr where lr.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
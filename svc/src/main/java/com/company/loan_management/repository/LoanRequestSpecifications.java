@@ -0,0 +1,56 @@
+package com.company.loan_management.repository;
+
+import com.company.loan_management.dto.LoanRequestSearchCriteria;
+import com.company.loan_management.model.LoanRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a single LoanRequest query from search criteria. Only the filters that are set become
+ * predicates, and they map onto the composite indexes declared on {@link LoanRequest}:
+ * status with one of the date columns, manager with status, user with status and loan with status.
+ */
+public final class LoanRequestSpecifications {
+
+    private LoanRequestSpecifications(){}
+
+    public static Specification<LoanRequest> fromCriteria(LoanRequestSearchCriteria criteria) {
+        List<Specification<LoanRequest>> filters = new ArrayList<>();
+
+        if (criteria.getStatuses() != null && !criteria.getStatuses().isEmpty()) {
+            filters.add((root, query, cb) -> root.get("status").in(criteria.getStatuses()));
+        }
+        if (criteria.getLoanType() != null && !criteria.getLoanType().isEmpty()) {
+            filters.add((root, query, cb) -> cb.equal(root.get("loan").get("loanType"), criteria.getLoanType()));
+        }
+        if (criteria.getManagerId() != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("assignedManager").get("id"), criteria.getManagerId()));
+        }
+        if (criteria.getUserId() != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("user").get("id"), criteria.getUserId()));
+        }
+        addDateRange(filters, "requestDate", criteria.getRequestDateFrom(), criteria.getRequestDateTo());
+        addDateRange(filters, "approvalDate", criteria.getApprovalDateFrom(), criteria.getApprovalDateTo());
+        addDateRange(filters, "disbursementDate", criteria.getDisbursementDateFrom(), criteria.getDisbursementDateTo());
+        if (criteria.getMinAmount() != null) {
+            filters.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("requestedAmount"), criteria.getMinAmount()));
+        }
+        if (criteria.getMaxAmount() != null) {
+            filters.add((root, query, cb) -> cb.lessThanOrEqualTo(root.get("requestedAmount"), criteria.getMaxAmount()));
+        }
+
+        return Specification.allOf(filters);
+    }
+
+    private static void addDateRange(List<Specification<LoanRequest>> filters, String attribute, LocalDate from, LocalDate to) {
+        if (from != null) {
+            filters.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get(attribute), from));
+        }
+        if (to != null) {
+            filters.add((root, query, cb) -> cb.lessThanOrEqualTo(root.get(attribute), to));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.company.loan_management.repository;
+
+import com.company.loan_management.model.LoanRiskScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LoanRiskScoreRepository extends JpaRepository<LoanRiskScore, Long> {
+}
@@ -0,0 +1,13 @@
+package com.company.loan_management.repository;
+
+import com.company.loan_management.model.PortfolioRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface PortfolioRollupRepository extends JpaRepository<PortfolioRollup, Long> {
+
+    List<PortfolioRollup> findByDimension(String dimension);
+
+    List<PortfolioRollup> findByDimensionAndDimensionKey(String dimension, Long dimensionKey);
+}
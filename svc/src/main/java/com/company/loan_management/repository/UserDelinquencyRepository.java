@@ -0,0 +1,26 @@
+package com.company.loan_management.repository;
+
+import com.company.loan_management.model.UserDelinquency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+public interface UserDelinquencyRepository extends JpaRepository<UserDelinquency, Long> {
+
+    // In-place increments so concurrent writers never overwrite each other; 0 means the user has no row yet
+    @Modifying
+    @Query("update UserDelinquency d set d.overdueCount = d.overdueCount + :count, " +
+            "d.lifetimeOverdueCount = d.lifetimeOverdueCount + :count, d.totalPenalty = d.totalPenalty + :penalty, " +
+            "d.lastOverdueDate = case when d.lastOverdueDate is null or d.lastOverdueDate < :dueDate then :dueDate else d.lastOverdueDate end, " +
+            "d.updatedAt = current_timestamp where d.userId = :userId")
+    int addOverdue(@Param("userId") Long userId, @Param("count") int count,
+                   @Param("penalty") double penalty, @Param("dueDate") LocalDate dueDate);
+
+    @Modifying
+    @Query("update UserDelinquency d set d.overdueCount = d.overdueCount - 1, d.updatedAt = current_timestamp " +
+            "where d.userId = :userId and d.overdueCount > 0")
+    int settleOverdue(@Param("userId") Long userId);
+}
@@ -0,0 +1,7 @@
+package com.company.loan_management.repository;
+
+import com.company.loan_management.model.UserLoanSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UserLoanSummaryRepository extends JpaRepository<UserLoanSummary, Long> {
+}
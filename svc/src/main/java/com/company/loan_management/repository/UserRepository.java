@@ -2,8 +2,12 @@ package com.company.loan_management.repository;
 
 import com.company.loan_management.model.Role;
 import com.company.loan_management.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +17,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(Role role);
 
     boolean existsByUsername(String username);
-}
\ No newline at end of file
+
+    // Each row is [username, email] of an existing user holding one of the usernames or emails
+    @Query("select u.username, u.email from User u where u.username in :usernames or u.email in :emails")
+    List<Object[]> findTakenUsernamesAndEmails(@Param("usernames") Collection<String> usernames,
+                                               @Param("emails") Collection<String> emails);
+
+    // Each row is [id, username]
+    @Query("select u.id, u.username from User u where u.username in :usernames")
+    List<Object[]> findIdsByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    // Next page of users after the given ID, for keyset paging through the whole table
+    @Query("select u from User u where u.id > :afterId order by u.id")
+    List<User> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.company.loan_management.service;
+
+import java.util.Map;
+
+public interface ArchiveService {
+
+    // Move closed loan requests older than the retention period, and their repayments, to the archive tables
+    Map<String, Integer> archiveClosedLoans(Integer retentionDays);
+}
@@ -0,0 +1,108 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.repository.ArchivedLoanRepaymentRepository;
+import com.company.loan_management.repository.ArchivedLoanRequestRepository;
+import com.company.loan_management.repository.LoanRepaymentRepository;
+import com.company.loan_management.repository.LoanRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves closed loan requests (canceled, rejected, or disbursed with every EMI paid) and their
+ * repayments out of the live tables once they are past the retention period.
+ * Each chunk is copied and deleted in its own transaction, so an interrupted run keeps the chunks
+ * it finished and the next run simply picks up the remaining candidates.
+ */
+@Service
+@Slf4j
+public class ArchiveServiceImpl implements ArchiveService {
+
+    private final LoanRequestRepository loanRequestRepository;
+    private final LoanRepaymentRepository loanRepaymentRepository;
+    private final ArchivedLoanRequestRepository archivedLoanRequestRepository;
+    private final ArchivedLoanRepaymentRepository archivedLoanRepaymentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterScheduler clusterScheduler;
+    private final int retentionDays;
+    private final int chunkSize;
+
+    public ArchiveServiceImpl(LoanRequestRepository loanRequestRepository,
+                              LoanRepaymentRepository loanRepaymentRepository,
+                              ArchivedLoanRequestRepository archivedLoanRequestRepository,
+                              ArchivedLoanRepaymentRepository archivedLoanRepaymentRepository,
+                              TransactionTemplate transactionTemplate,
+                              ClusterScheduler clusterScheduler,
+                              @Value("${loan.archive.retention-days:365}") int retentionDays,
+                              @Value("${loan.archive.chunk-size:500}") int chunkSize) {
+        this.loanRequestRepository = loanRequestRepository;
+        this.loanRepaymentRepository = loanRepaymentRepository;
+        this.archivedLoanRequestRepository = archivedLoanRequestRepository;
+        this.archivedLoanRepaymentRepository = archivedLoanRepaymentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterScheduler = clusterScheduler;
+        this.retentionDays = retentionDays;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Nightly archival run with the configured retention.
+     */
+    @Scheduled(cron = "${loan.archive.cron:0 30 2 * * *}")
+    public void scheduledArchive() {
+        clusterScheduler.runExclusive("loan-archive", LocalDate.now().toString(), () -> archiveClosedLoans(null));
+    }
+
+    /**
+     * Archives closed loan requests in chunks, walking candidates in ID order.
+     *
+     * @param retentionDays minimum age in days of a closed request, defaults to the configured value
+     * @return number of loan requests and repayments moved
+     */
+    @Override
+    public Map<String, Integer> archiveClosedLoans(Integer retentionDays) {
+        int days = retentionDays != null ? retentionDays : this.retentionDays;
+        LocalDate cutoffDate = LocalDate.now().minusDays(days);
+        LocalDateTime cutoff = cutoffDate.atStartOfDay();
+        log.info("Archiving loan requests closed before {}", cutoffDate);
+
+        long afterId = 0;
+        int requests = 0;
+        int repayments = 0;
+        while (true) {
+            List<Long> ids = loanRequestRepository.findArchivableIds(afterId, cutoff, cutoffDate, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            int[] moved = transactionTemplate.execute(status -> moveChunk(ids));
+            requests += moved[0];
+            repayments += moved[1];
+            afterId = ids.get(ids.size() - 1);
+            log.info("Archived chunk of {} loan requests and {} repayments up to ID {}", moved[0], moved[1], afterId);
+        }
+
+        log.info("Archival finished: {} loan requests, {} repayments", requests, repayments);
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("loanRequests", requests);
+        result.put("repayments", repayments);
+        return result;
+    }
+
+    // Copy first, then delete children before parents; all in the caller's transaction
+    private int[] moveChunk(List<Long> ids) {
+        int requests = archivedLoanRequestRepository.copyFromLive(ids, LocalDateTime.now());
+        int repayments = archivedLoanRepaymentRepository.copyFromLive(ids);
+        loanRepaymentRepository.deleteByLoanRequestIdIn(ids);
+        loanRequestRepository.deleteByIdIn(ids);
+        return new int[]{requests, repayments};
+    }
+}
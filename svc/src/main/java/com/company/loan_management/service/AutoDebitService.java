@@ -0,0 +1,15 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.CollectionFailureDTO;
+import com.company.loan_management.dto.CollectionRunSummaryDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AutoDebitService {
+
+    // Debit every PENDING installment due on or before the date from its borrower's account balance
+    CollectionRunSummaryDTO collectDue(LocalDate date);
+
+    List<CollectionFailureDTO> getFailures(LocalDate date);
+}
@@ -0,0 +1,255 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.CollectionFailureDTO;
+import com.company.loan_management.dto.CollectionRunSummaryDTO;
+import com.company.loan_management.exception.ConcurrentUpdateException;
+import com.company.loan_management.exception.UserNotFoundException;
+import com.company.loan_management.model.CollectionFailure;
+import com.company.loan_management.model.LoanRepayment;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.CollectionFailureRepository;
+import com.company.loan_management.repository.LoanRepaymentRepository;
+import com.company.loan_management.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Due-date collection that settles installments from the borrower's account balance.
+ * Borrowers with something due are split into chunks of consecutive user IDs that a fixed pool works
+ * through in parallel. Every borrower belongs to exactly one chunk and is handled by one thread in one
+ * transaction, so installments of a borrower's different loans are debited one after another against
+ * the same balance; the version check on the user row guards against writers outside the run.
+ */
+@Service
+@Slf4j
+public class AutoDebitServiceImpl implements AutoDebitService {
+
+    private static final String SELECT_DUE_USERS = "select distinct lr.user_id from loan_repayment rp "
+            + "join loan_request lr on lr.id = rp.loan_request_id "
+            + "where rp.status = 'PENDING' and rp.repayment_date <= ? order by lr.user_id";
+
+    private static final String SELECT_DUE_FOR_USERS = "select rp.id, lr.user_id from loan_repayment rp "
+            + "join loan_request lr on lr.id = rp.loan_request_id "
+            + "where rp.status = 'PENDING' and rp.repayment_date <= ? and lr.user_id between ? and ? "
+            + "order by lr.user_id, rp.repayment_date, rp.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final ClusterScheduler clusterScheduler;
+    private final UserRepository userRepository;
+    private final LoanRepaymentRepository repaymentRepository;
+    private final CollectionFailureRepository failureRepository;
+    private final OutboxService outboxService;
+    private final PortfolioRollupService portfolioRollupService;
+    private final UserLoanSummaryService loanSummaryService;
+    private final int chunkSize;
+    private final int parallelism;
+    private final String paymentMode;
+
+    public AutoDebitServiceImpl(JdbcTemplate jdbcTemplate,
+                                OptimisticRetryExecutor retryExecutor,
+                                ClusterScheduler clusterScheduler,
+                                UserRepository userRepository,
+                                LoanRepaymentRepository repaymentRepository,
+                                CollectionFailureRepository failureRepository,
+                                OutboxService outboxService,
+                                PortfolioRollupService portfolioRollupService,
+                                UserLoanSummaryService loanSummaryService,
+                                @Value("${loan.collection.chunk-size:200}") int chunkSize,
+                                @Value("${loan.collection.parallelism:4}") int parallelism,
+                                @Value("${loan.collection.payment-mode:AUTO_DEBIT}") String paymentMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retryExecutor = retryExecutor;
+        this.clusterScheduler = clusterScheduler;
+        this.userRepository = userRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.failureRepository = failureRepository;
+        this.outboxService = outboxService;
+        this.portfolioRollupService = portfolioRollupService;
+        this.loanSummaryService = loanSummaryService;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.paymentMode = paymentMode;
+    }
+
+    private record UserResult(int collected, double collectedAmount, int failed) {
+    }
+
+    /**
+     * Morning collection run, ahead of the overdue scan.
+     */
+    @Scheduled(cron = "${loan.collection.cron:0 30 0 * * *}")
+    public void scheduledCollection() {
+        LocalDate today = LocalDate.now();
+        clusterScheduler.runExclusive("auto-debit-collection", today.toString(), () -> collectDue(today));
+    }
+
+    /**
+     * Installments left PENDING by an earlier failed attempt are retried until the overdue scan flags them.
+     */
+    @Override
+    public CollectionRunSummaryDTO collectDue(LocalDate date) {
+        long start = System.currentTimeMillis();
+        List<Long> userIds = jdbcTemplate.queryForList(SELECT_DUE_USERS, Long.class, Date.valueOf(date));
+
+        List<UserResult> results = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<List<UserResult>>> chunks = new ArrayList<>();
+            for (int from = 0; from < userIds.size(); from += chunkSize) {
+                List<Long> chunk = userIds.subList(from, Math.min(from + chunkSize, userIds.size()));
+                chunks.add(pool.submit(() -> collectChunk(date, chunk.get(0), chunk.get(chunk.size() - 1))));
+            }
+            for (Future<List<UserResult>> chunk : chunks) {
+                results.addAll(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while collecting installments due " + date, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        CollectionRunSummaryDTO summary = CollectionRunSummaryDTO.builder()
+                .date(date)
+                .users(userIds.size())
+                .collected(results.stream().mapToInt(UserResult::collected).sum())
+                .collectedAmount(results.stream().mapToDouble(UserResult::collectedAmount).sum())
+                .failed(results.stream().mapToInt(UserResult::failed).sum())
+                .build();
+        log.info("Collection for {} debited {} installments ({}) from {} users, {} failed for insufficient funds, in {} ms",
+                date, summary.getCollected(), summary.getCollectedAmount(), summary.getUsers(), summary.getFailed(),
+                System.currentTimeMillis() - start);
+        return summary;
+    }
+
+    @Override
+    public List<CollectionFailureDTO> getFailures(LocalDate date) {
+        return failureRepository.findByAttemptDateOrderByUserIdAscRepaymentIdAsc(date).stream()
+                .map(failure -> CollectionFailureDTO.builder()
+                        .repaymentId(failure.getRepaymentId())
+                        .userId(failure.getUserId())
+                        .attemptDate(failure.getAttemptDate())
+                        .amountDue(failure.getAmountDue())
+                        .availableBalance(failure.getAvailableBalance())
+                        .build())
+                .toList();
+    }
+
+    // Due installment IDs of the chunk's users in one range query, then one transaction per user
+    private List<UserResult> collectChunk(LocalDate date, long firstUserId, long lastUserId) {
+        Map<Long, List<Long>> dueByUser = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_DUE_FOR_USERS,
+                (RowCallbackHandler) rs -> dueByUser.computeIfAbsent(rs.getLong(2), id -> new ArrayList<>()).add(rs.getLong(1)),
+                Date.valueOf(date), firstUserId, lastUserId);
+
+        List<UserResult> results = new ArrayList<>(dueByUser.size());
+        dueByUser.forEach((userId, repaymentIds) -> {
+            try {
+                results.add(retryExecutor.execute("Collecting installments of User " + userId,
+                        () -> collectUser(date, userId, repaymentIds)));
+            } catch (ConcurrentUpdateException e) {
+                // Left PENDING for the next run rather than failing the whole chunk
+                log.warn("Skipped collection for User {}: {}", userId, e.getMessage());
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent run for the same date recorded the failure first
+                log.warn("Skipped collection for User {}, already being collected for {}", userId, date);
+            }
+        });
+        return results;
+    }
+
+    // Debits the installments oldest first while the balance covers them; once an installment of a loan
+    // fails, that loan's later installments wait for a later run so they are never paid ahead of it
+    private UserResult collectUser(LocalDate date, Long userId, List<Long> repaymentIds) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
+        List<LoanRepayment> due = repaymentRepository.findAllById(repaymentIds).stream()
+                .filter(repayment -> "PENDING".equals(repayment.getStatus()))
+                .sorted(Comparator.comparing(LoanRepayment::getRepaymentDate).thenComparing(LoanRepayment::getId))
+                .toList();
+
+        // Failures already recorded by an earlier run on the same date are updated, not repeated
+        Map<Long, CollectionFailure> failedToday = due.isEmpty() ? Map.of()
+                : failureRepository.findByAttemptDateAndRepaymentIdIn(date, repaymentIds).stream()
+                        .collect(Collectors.toMap(CollectionFailure::getRepaymentId, Function.identity()));
+
+        double balance = user.getAccountBalance() != null ? user.getAccountBalance() : 0.0;
+        int collected = 0;
+        double collectedAmount = 0;
+        int failed = 0;
+        Set<Long> blockedLoans = new HashSet<>();
+        for (LoanRepayment repayment : due) {
+            if (blockedLoans.contains(repayment.getLoanRequest().getId())) {
+                continue;
+            }
+            if (balance < repayment.getEmiAmount()) {
+                failed++;
+                blockedLoans.add(repayment.getLoanRequest().getId());
+                CollectionFailure earlier = failedToday.get(repayment.getId());
+                if (earlier != null) {
+                    earlier.setAmountDue(repayment.getEmiAmount());
+                    earlier.setAvailableBalance(balance);
+                    failureRepository.save(earlier);
+                    continue;
+                }
+                failureRepository.save(CollectionFailure.builder()
+                        .repaymentId(repayment.getId())
+                        .userId(userId)
+                        .attemptDate(date)
+                        .amountDue(repayment.getEmiAmount())
+                        .availableBalance(balance)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+                outboxService.record("LoanRepayment", repayment.getId(), "COLLECTION_FAILED", Map.of(
+                        "loanRequestId", repayment.getLoanRequest().getId(),
+                        "userId", userId,
+                        "amountDue", repayment.getEmiAmount(),
+                        "availableBalance", balance));
+                continue;
+            }
+            balance -= repayment.getEmiAmount();
+            repayment.setStatus("PAID");
+            repayment.setPaymentDate(date);
+            repayment.setPaymentMode(paymentMode);
+            outboxService.recordRepaymentEvent(repaymentRepository.save(repayment), "REPAID");
+            LoanRequest request = repayment.getLoanRequest();
+            portfolioRollupService.repaymentsChanged(request.getLoan().getId(), request.getAssignedManager().getId(),
+                    request.getStatus(), -repayment.getPrincipalPayment(), -repayment.getInterestPayment());
+            collected++;
+            collectedAmount += repayment.getEmiAmount();
+        }
+
+        if (collected > 0) {
+            user.setAccountBalance(balance);
+            userRepository.save(user);
+            loanSummaryService.refresh(userId);
+        }
+        return new UserResult(collected, collectedAmount, failed);
+    }
+}
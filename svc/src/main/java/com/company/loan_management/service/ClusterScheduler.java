@@ -0,0 +1,341 @@
+package com.company.loan_management.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Coordinates scheduled jobs across replicas through the job_lease and cluster_node tables.
+ * <p>
+ * Every replica fires the same {@code @Scheduled} triggers and hands the work to {@link #runExclusive} or
+ * {@link #runSharded}; a conditional update on the lease row lets exactly one node run each job (or shard)
+ * per run key, and a completed run key is not run again. A heartbeat thread, independent of the Spring
+ * task scheduler, keeps this node's row in cluster_node fresh and extends the leases it holds. Nodes that
+ * lost a lease remember the job, and once the holder stops heartbeating and its lease lapses one of them
+ * takes the run over. Shards are spread over the live nodes by hash range of their lease name and move
+ * to the survivors when a node dies. All times come from the database clock, so node clock skew does not
+ * matter. A job that is taken over may already be partly done, so jobs must resume safely; the existing
+ * batch jobs do, through checkpoints, watermarks or status-guarded updates.
+ */
+@Component
+@Slf4j
+public class ClusterScheduler {
+
+    private static final String NO_RUN_KEY = "";
+
+    // Pending takeovers older than this are forgotten
+    private static final Duration TAKEOVER_WINDOW = Duration.ofDays(1);
+
+    private static final String ACQUIRE = "update job_lease set owner = ?, run_key = ?, running = true, completed = false, "
+            + "acquired_at = localtimestamp, lease_until = timestampadd(MICROSECOND, ?, localtimestamp) "
+            + "where lease_name = ? and (running = false or lease_until < localtimestamp) "
+            + "and not (completed = true and run_key = ?)";
+
+    private static final String INSERT_LEASE = "insert into job_lease "
+            + "(lease_name, owner, run_key, running, completed, acquired_at, lease_until) "
+            + "values (?, ?, ?, true, false, localtimestamp, timestampadd(MICROSECOND, ?, localtimestamp))";
+
+    // Guarded on owner so a node whose lease was taken over cannot release or complete the new holder's run
+    private static final String RELEASE = "update job_lease set running = false, completed = ?, lease_until = localtimestamp "
+            + "where lease_name = ? and owner = ? and running = true";
+
+    private static final String EXTEND = "update job_lease set lease_until = timestampadd(MICROSECOND, ?, localtimestamp) "
+            + "where lease_name = ? and owner = ? and running = true";
+
+    private static final String LEASE_STATE = "select run_key, running, completed, "
+            + "case when lease_until < localtimestamp then 1 else 0 end from job_lease where lease_name = ?";
+
+    private static final String HEARTBEAT = "update cluster_node set heartbeat_at = localtimestamp where node_id = ?";
+
+    private static final String JOIN = "insert into cluster_node (node_id, started_at, heartbeat_at) "
+            + "values (?, localtimestamp, localtimestamp)";
+
+    private static final String LIVE_NODES = "select node_id from cluster_node "
+            + "where heartbeat_at >= timestampadd(MICROSECOND, ?, localtimestamp) order by node_id";
+
+    private static final String PURGE_NODES = "delete from cluster_node where heartbeat_at < timestampadd(MICROSECOND, ?, localtimestamp)";
+
+    private static final String LEAVE = "delete from cluster_node where node_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+    private final long heartbeatMillis;
+    private final long leaseTtlMicros;
+    private final long nodeTtlMicros;
+
+    // Leases this node is executing right now
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+    // Runs that another node holds (or, for shards, that belong to another node) and that this node may take over
+    private final Map<String, PendingRun> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService heartbeat;
+    private final ExecutorService takeovers;
+    private volatile List<String> liveNodes;
+
+    public ClusterScheduler(JdbcTemplate jdbcTemplate,
+                            @Value("${loan.cluster.node-id:}") String nodeId,
+                            @Value("${loan.cluster.heartbeat-ms:5000}") long heartbeatMillis,
+                            @Value("${loan.cluster.lease-ttl-ms:30000}") long leaseTtlMillis,
+                            @Value("${loan.cluster.node-ttl-ms:15000}") long nodeTtlMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.heartbeatMillis = heartbeatMillis;
+        this.leaseTtlMicros = leaseTtlMillis * 1000;
+        this.nodeTtlMicros = nodeTtlMillis * 1000;
+        this.liveNodes = List.of(this.nodeId);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("cluster-heartbeat").daemon().factory());
+        this.takeovers = Executors.newCachedThreadPool(Thread.ofPlatform()
+                .name("cluster-takeover-", 0).daemon().factory());
+    }
+
+    private record PendingRun(String runKey, Runnable job, boolean shard, long registeredAt) {
+    }
+
+    private record LeaseState(String runKey, boolean running, boolean completed, boolean expired) {
+    }
+
+    /**
+     * Joins the cluster and starts heartbeating once the schema is in place.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        heartbeat.scheduleWithFixedDelay(this::beat, 0, heartbeatMillis, TimeUnit.MILLISECONDS);
+        log.info("Cluster node {} started, heartbeat every {} ms", nodeId, heartbeatMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        takeovers.shutdownNow();
+        try {
+            jdbcTemplate.update(LEAVE, nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Could not remove cluster node {} on shutdown: {}", nodeId, e.getMessage());
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Runs the job on this node unless another node holds its lease or already completed the run.
+     *
+     * @param jobName lease name
+     * @param runKey  identifies the run, e.g. the business date of a daily job; a completed run key is not
+     *                run again. {@code null} for jobs that simply repeat, such as the outbox relay
+     * @param job     the work
+     * @return whether the job ran here
+     */
+    public boolean runExclusive(String jobName, String runKey, Runnable job) {
+        String key = runKey != null ? runKey : NO_RUN_KEY;
+        if (!held.add(jobName)) {
+            return false;
+        }
+        if (!acquire(jobName, key)) {
+            held.remove(jobName);
+            if (!key.isEmpty()) {
+                pending.putIfAbsent(jobName, new PendingRun(key, job, false, System.currentTimeMillis()));
+            }
+            return false;
+        }
+        execute(jobName, key, job);
+        return true;
+    }
+
+    /**
+     * Splits a run into shards, each under its own lease, and runs the shards whose hash range falls to this
+     * node. Shards of other nodes are taken over if their node dies before or while running them.
+     *
+     * @param jobName    lease name prefix; shard {@code i} uses {@code jobName#i}
+     * @param runKey     identifies the run, as for {@link #runExclusive}
+     * @param shardCount number of shards, the same on every node
+     * @param work       runs one shard
+     * @return number of shards run on this node during the call
+     */
+    public int runSharded(String jobName, String runKey, int shardCount, IntConsumer work) {
+        String key = runKey != null ? runKey : NO_RUN_KEY;
+        List<String> nodes = refreshLiveNodes();
+        int ran = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            String leaseName = jobName + "#" + shard;
+            int current = shard;
+            Runnable job = () -> work.accept(current);
+            if (!ownsShard(leaseName, nodes)) {
+                pending.putIfAbsent(leaseName, new PendingRun(key, job, true, System.currentTimeMillis()));
+            } else if (runExclusive(leaseName, key, job)) {
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    /**
+     * Nodes with a heartbeat within the node TTL, sorted by ID; always includes this node.
+     */
+    public List<String> getLiveNodes() {
+        return liveNodes;
+    }
+
+    // Position of the lease name's 32-bit hash in [0, 2^32), cut into one equal range per live node
+    static int rangeOwner(String leaseName, int nodeCount) {
+        int hash = leaseName.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (int) (((hash & 0xffffffffL) * nodeCount) >>> 32);
+    }
+
+    private boolean ownsShard(String leaseName, List<String> nodes) {
+        return nodes.get(rangeOwner(leaseName, nodes.size())).equals(nodeId);
+    }
+
+    private boolean acquire(String leaseName, String runKey) {
+        if (jdbcTemplate.update(ACQUIRE, nodeId, runKey, leaseTtlMicros, leaseName, runKey) == 1) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_LEASE, leaseName, nodeId, runKey, leaseTtlMicros) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // Expects the lease to be in held already; a failed run is released without completing its run key
+    private void execute(String leaseName, String runKey, Runnable job) {
+        boolean succeeded = false;
+        try {
+            // Repeating jobs such as the outbox relay would flood the log
+            if (runKey.isEmpty()) {
+                log.debug("Node {} running {}", nodeId, leaseName);
+            } else {
+                log.info("Node {} running {} (run {})", nodeId, leaseName, runKey);
+            }
+            job.run();
+            succeeded = true;
+        } finally {
+            held.remove(leaseName);
+            pending.remove(leaseName);
+            if (jdbcTemplate.update(RELEASE, succeeded && !runKey.isEmpty(), leaseName, nodeId) == 0) {
+                log.warn("Node {} lost the lease on {} while running it; another node took it over", nodeId, leaseName);
+            }
+        }
+    }
+
+    private void beat() {
+        try {
+            if (jdbcTemplate.update(HEARTBEAT, nodeId) == 0) {
+                jdbcTemplate.update(JOIN, nodeId);
+            }
+            for (String leaseName : held) {
+                if (jdbcTemplate.update(EXTEND, leaseTtlMicros, leaseName, nodeId) == 0 && held.contains(leaseName)) {
+                    log.warn("Node {} could not extend its lease on {}", nodeId, leaseName);
+                }
+            }
+            jdbcTemplate.update(PURGE_NODES, -10 * nodeTtlMicros);
+            List<String> nodes = refreshLiveNodes();
+            sweepPending(nodes);
+        } catch (RuntimeException e) {
+            // An exception would cancel the heartbeat for good
+            log.warn("Cluster heartbeat of node {} failed: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private List<String> refreshLiveNodes() {
+        List<String> nodes = new ArrayList<>(jdbcTemplate.queryForList(LIVE_NODES, String.class, -nodeTtlMicros));
+        if (!nodes.contains(nodeId)) {
+            nodes.add(nodeId);
+            nodes.sort(null);
+        }
+        liveNodes = List.copyOf(nodes);
+        return liveNodes;
+    }
+
+    // Takes over runs whose holder died, and shards that now fall to this node
+    private void sweepPending(List<String> nodes) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, PendingRun> entry : pending.entrySet()) {
+            String leaseName = entry.getKey();
+            PendingRun run = entry.getValue();
+            if (now - run.registeredAt() > TAKEOVER_WINDOW.toMillis()) {
+                pending.remove(leaseName, run);
+                continue;
+            }
+            if (held.contains(leaseName)) {
+                continue;
+            }
+            LeaseState state = leaseState(leaseName);
+            boolean sameRun = state != null && state.runKey().equals(run.runKey());
+            if (sameRun && state.completed()) {
+                pending.remove(leaseName, run);
+                continue;
+            }
+            boolean orphaned = sameRun && state.running() && state.expired();
+            boolean unclaimed = state == null || !state.running();
+            if (orphaned || (run.shard() && unclaimed && ownsShard(leaseName, nodes))) {
+                takeOver(leaseName, run);
+            } else if (!run.shard() && unclaimed) {
+                // The holder gave up without completing; the next trigger retries it
+                pending.remove(leaseName, run);
+            }
+        }
+    }
+
+    private void takeOver(String leaseName, PendingRun run) {
+        if (!held.add(leaseName)) {
+            return;
+        }
+        takeovers.execute(() -> {
+            try {
+                if (!acquire(leaseName, run.runKey())) {
+                    held.remove(leaseName);
+                    return;
+                }
+                log.info("Node {} taking over {} (run {})", nodeId, leaseName, run.runKey());
+                execute(leaseName, run.runKey(), run.job());
+            } catch (RuntimeException e) {
+                log.error("Takeover of {} on node {} failed", leaseName, nodeId, e);
+            }
+        });
+    }
+
+    private LeaseState leaseState(String leaseName) {
+        List<LeaseState> states = jdbcTemplate.query(LEASE_STATE,
+                (rs, i) -> new LeaseState(rs.getString(1), rs.getBoolean(2), rs.getBoolean(3), rs.getInt(4) == 1),
+                leaseName);
+        return states.isEmpty() ? null : states.get(0);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
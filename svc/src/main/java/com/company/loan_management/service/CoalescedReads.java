@@ -0,0 +1,156 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.CoalescingStatsDTO;
+import com.company.loan_management.dto.LoanRepaymentDTO;
+import com.company.loan_management.dto.ManagerLoanRequestDTO;
+import com.company.loan_management.mapper.LoanRepaymentMapper;
+import com.company.loan_management.mapper.ManagerLoanRequestMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight front for the finance read paths that many people hit at once, such as the disbursal queue
+ * at month end. Concurrent calls with the same arguments share one run of the query and the DTO mapping:
+ * the first caller loads, the others wait for its result. With {@code loan.coalescing.result-ttl-ms} above
+ * zero a result also answers identical calls for that long after it was loaded, at the cost of reads that
+ * may miss changes made within the TTL.
+ * <p>
+ * Results are immutable DTO lists, never entities, so they can be handed to any number of request threads.
+ * A failed load is not kept: its callers all get the exception and the next call loads again.
+ */
+@Component
+@Slf4j
+public class CoalescedReads {
+
+    static final String APPROVED_LOANS_FOR_DISBURSAL = "approvedLoansForDisbursal";
+    static final String REPAYMENTS_BY_REQUEST = "repaymentsByRequest";
+    static final String REPAYMENTS_BY_USER = "repaymentsByUser";
+
+    private final LoanRequestService loanRequestService;
+    private final LoanRepaymentService loanRepaymentService;
+    private final long resultTtlMillis;
+    private final Executor expiry;
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public CoalescedReads(LoanRequestService loanRequestService,
+                          LoanRepaymentService loanRepaymentService,
+                          @Value("${loan.coalescing.result-ttl-ms:0}") long resultTtlMillis) {
+        this.loanRequestService = loanRequestService;
+        this.loanRepaymentService = loanRepaymentService;
+        this.resultTtlMillis = resultTtlMillis;
+        this.expiry = CompletableFuture.delayedExecutor(resultTtlMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private record Key(String operation, List<Object> arguments) {
+    }
+
+    private static final class Counters {
+        final LongAdder calls = new LongAdder();
+        final LongAdder loads = new LongAdder();
+        final LongAdder joinedInFlight = new LongAdder();
+        final LongAdder servedFromTtl = new LongAdder();
+        final LongAdder failures = new LongAdder();
+    }
+
+    public List<ManagerLoanRequestDTO> getApprovedLoansForDisbursal(String statusFilter) {
+        return coalesce(APPROVED_LOANS_FOR_DISBURSAL, () -> loanRequestService.getApprovedLoansForDisbursal(statusFilter)
+                .stream()
+                .map(ManagerLoanRequestMapper::toDTO)
+                .toList(), statusFilter);
+    }
+
+    public List<LoanRepaymentDTO> getRepaymentsByRequest(Long loanRequestId) {
+        return coalesce(REPAYMENTS_BY_REQUEST, () -> loanRepaymentService.getRepaymentsByRequest(loanRequestId)
+                .stream()
+                .map(LoanRepaymentMapper::toDTO)
+                .toList(), loanRequestId);
+    }
+
+    public List<LoanRepaymentDTO> getRepaymentsByUser(Long userId, String status, boolean includeArchived) {
+        return coalesce(REPAYMENTS_BY_USER, () -> loanRepaymentService.getRepaymentsByUser(userId, status, includeArchived)
+                .stream()
+                .map(LoanRepaymentMapper::toDTO)
+                .toList(), userId, status, includeArchived);
+    }
+
+    public List<CoalescingStatsDTO> getStats() {
+        return counters.entrySet().stream()
+                .map(entry -> {
+                    Counters c = entry.getValue();
+                    long calls = c.calls.sum();
+                    long shared = c.joinedInFlight.sum() + c.servedFromTtl.sum();
+                    return CoalescingStatsDTO.builder()
+                            .operation(entry.getKey())
+                            .calls(calls)
+                            .loads(c.loads.sum())
+                            .joinedInFlight(c.joinedInFlight.sum())
+                            .servedFromTtl(c.servedFromTtl.sum())
+                            .failures(c.failures.sum())
+                            .coalescingRatio(calls == 0 ? 0 : (double) shared / calls)
+                            .build();
+                })
+                .sorted(Comparator.comparing(CoalescingStatsDTO::getOperation))
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(String operation, Supplier<T> loader, Object... arguments) {
+        Counters c = counters.computeIfAbsent(operation, name -> new Counters());
+        c.calls.increment();
+
+        Key key = new Key(operation, Arrays.asList(arguments));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> current = flights.putIfAbsent(key, flight);
+        if (current != null) {
+            (current.isDone() ? c.servedFromTtl : c.joinedInFlight).increment();
+            return (T) await(current);
+        }
+
+        c.loads.increment();
+        T result;
+        try {
+            result = loader.get();
+        } catch (RuntimeException | Error e) {
+            c.failures.increment();
+            flights.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        flight.complete(result);
+        if (resultTtlMillis > 0) {
+            expiry.execute(() -> flights.remove(key, flight));
+        } else {
+            flights.remove(key, flight);
+        }
+        return result;
+    }
+
+    // Rethrows the loader's own exception, so waiting callers get the same error response as the loading one
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.DashboardDTO;
+import com.company.loan_management.model.User;
+
+public interface DashboardService {
+
+    // The user is the authenticated principal, so no section has to look it up again
+    DashboardDTO getUserDashboard(User user);
+
+    DashboardDTO getManagerDashboard(User manager);
+
+    DashboardDTO getFinanceDashboard(User financeUser);
+}
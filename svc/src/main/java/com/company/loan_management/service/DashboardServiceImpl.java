@@ -0,0 +1,182 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.CollectionFailureDTO;
+import com.company.loan_management.dto.DashboardDTO;
+import com.company.loan_management.dto.LoanRepaymentDTO;
+import com.company.loan_management.dto.ManagerLoanRequestDTO;
+import com.company.loan_management.dto.PortfolioSegmentDTO;
+import com.company.loan_management.dto.UserDelinquencyDTO;
+import com.company.loan_management.dto.UserLoanRequestDTO;
+import com.company.loan_management.dto.UserLoanSummaryDTO;
+import com.company.loan_management.mapper.ManagerLoanRequestMapper;
+import com.company.loan_management.mapper.UserLoanRequestMapper;
+import com.company.loan_management.mapper.UserMapper;
+import com.company.loan_management.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Role dashboards composed from independent sections that load in parallel, one virtual thread each.
+ * Every section runs in its own read-only transaction, so entities can be mapped to DTOs on the section's
+ * thread. All sections share one deadline: the response waits for the slowest section up to that point,
+ * and a section that failed or is still running by then is reported in {@code failedSections} instead of
+ * failing the whole dashboard.
+ */
+@Service
+@Slf4j
+public class DashboardServiceImpl implements DashboardService {
+
+    static final String FAILED = "FAILED";
+    static final String TIMED_OUT = "TIMED_OUT";
+
+    private final LoanRequestService loanRequestService;
+    private final CoalescedReads coalescedReads;
+    private final OverdueService overdueService;
+    private final AutoDebitService autoDebitService;
+    private final PortfolioRollupService portfolioRollupService;
+    private final UserLoanSummaryService loanSummaryService;
+    private final TransactionTemplate readOnly;
+    private final long sectionTimeoutMillis;
+    private final ThreadFactory sectionThreads = Thread.ofVirtual().name("dashboard-", 0).factory();
+
+    public DashboardServiceImpl(LoanRequestService loanRequestService,
+                                CoalescedReads coalescedReads,
+                                OverdueService overdueService,
+                                AutoDebitService autoDebitService,
+                                PortfolioRollupService portfolioRollupService,
+                                UserLoanSummaryService loanSummaryService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${loan.dashboard.section-timeout-ms:2000}") long sectionTimeoutMillis) {
+        this.loanRequestService = loanRequestService;
+        this.coalescedReads = coalescedReads;
+        this.overdueService = overdueService;
+        this.autoDebitService = autoDebitService;
+        this.portfolioRollupService = portfolioRollupService;
+        this.loanSummaryService = loanSummaryService;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.sectionTimeoutMillis = sectionTimeoutMillis;
+    }
+
+    /**
+     * The sections of one dashboard. Closing it interrupts sections still running after the deadline,
+     * so none keeps working for a response that has already been sent.
+     */
+    private final class Sections implements AutoCloseable {
+        private final ExecutorService executor = Executors.newThreadPerTaskExecutor(sectionThreads);
+        private final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+        private final Map<String, String> failures = new TreeMap<>();
+
+        <T> Future<T> fork(Supplier<T> section) {
+            return executor.submit(() -> readOnly.execute(status -> section.get()));
+        }
+
+        <T> T join(String name, Future<T> section) {
+            try {
+                return section.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                section.cancel(true);
+                failures.put(name, TIMED_OUT);
+                log.warn("Dashboard section {} timed out after {} ms", name, sectionTimeoutMillis);
+            } catch (ExecutionException e) {
+                failures.put(name, FAILED);
+                log.warn("Dashboard section {} failed: {}", name, e.getCause().toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                section.cancel(true);
+                failures.put(name, FAILED);
+            }
+            return null;
+        }
+
+        Map<String, String> failures() {
+            return failures.isEmpty() ? null : failures;
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public DashboardDTO getUserDashboard(User user) {
+        Long userId = user.getId();
+        try (Sections sections = new Sections()) {
+            Future<List<UserLoanRequestDTO>> loanRequests = sections.fork(() -> loanRequestService
+                    .getLoanRequestsByUser(userId, null, false).stream()
+                    .map(UserLoanRequestMapper::toDTO)
+                    .toList());
+            Future<List<LoanRepaymentDTO>> repayments = sections.fork(() ->
+                    coalescedReads.getRepaymentsByUser(userId, null, false));
+            Future<UserLoanSummaryDTO> loanSummary = sections.fork(() -> loanSummaryService.getSummary(userId));
+            Future<UserDelinquencyDTO> delinquency = sections.fork(() -> overdueService.getDelinquency(userId));
+
+            return DashboardDTO.builder()
+                    .role(user.getRole().name())
+                    .profile(UserMapper.toDTO(user))
+                    .loanRequests(sections.join("loanRequests", loanRequests))
+                    .repayments(sections.join("repayments", repayments))
+                    .loanSummary(sections.join("loanSummary", loanSummary))
+                    .delinquency(sections.join("delinquency", delinquency))
+                    .failedSections(sections.failures())
+                    .build();
+        }
+    }
+
+    @Override
+    public DashboardDTO getManagerDashboard(User manager) {
+        Long managerId = manager.getId();
+        try (Sections sections = new Sections()) {
+            Future<List<ManagerLoanRequestDTO>> pending = sections.fork(() -> loanRequestService
+                    .getLoanRequestsAssignedToManager(managerId, "PENDING", false).stream()
+                    .map(ManagerLoanRequestMapper::toDTO)
+                    .toList());
+            Future<PortfolioSegmentDTO> portfolio = sections.fork(() ->
+                    portfolioRollupService.getManagerSegment(managerId, manager.getName()));
+
+            return DashboardDTO.builder()
+                    .role(manager.getRole().name())
+                    .profile(UserMapper.toDTO(manager))
+                    .pendingRequests(sections.join("pendingRequests", pending))
+                    .portfolio(sections.join("portfolio", portfolio))
+                    .failedSections(sections.failures())
+                    .build();
+        }
+    }
+
+    @Override
+    public DashboardDTO getFinanceDashboard(User financeUser) {
+        try (Sections sections = new Sections()) {
+            Future<List<ManagerLoanRequestDTO>> queue = sections.fork(() ->
+                    coalescedReads.getApprovedLoansForDisbursal("APPROVED"));
+            Future<List<CollectionFailureDTO>> failures = sections.fork(() -> autoDebitService.getFailures(LocalDate.now()));
+            Future<PortfolioSegmentDTO> portfolio = sections.fork(() -> portfolioRollupService.getAnalytics().getTotal());
+
+            return DashboardDTO.builder()
+                    .role(financeUser.getRole().name())
+                    .profile(UserMapper.toDTO(financeUser))
+                    .disbursalQueue(sections.join("disbursalQueue", queue))
+                    .collectionFailures(sections.join("collectionFailures", failures))
+                    .portfolio(sections.join("portfolio", portfolio))
+                    .failedSections(sections.failures())
+                    .build();
+        }
+    }
+}
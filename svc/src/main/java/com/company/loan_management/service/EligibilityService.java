@@ -0,0 +1,15 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.EligibilityResultDTO;
+import com.company.loan_management.model.Loan;
+import com.company.loan_management.model.User;
+
+public interface EligibilityService {
+
+    String ELIGIBLE = "ELIGIBLE";
+    String FLAGGED = "FLAGGED";
+    String REJECTED = "REJECTED";
+
+    // Affordability of a new request against the user's salary and the EMIs they already pay
+    EligibilityResultDTO evaluate(User user, Loan loan, double requestedAmount);
+}
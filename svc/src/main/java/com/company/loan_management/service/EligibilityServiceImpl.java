@@ -0,0 +1,105 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.EligibilityResultDTO;
+import com.company.loan_management.dto.UserLoanSummaryDTO;
+import com.company.loan_management.model.Loan;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.LoanRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Affordability rules applied when a loan is requested, so requests that could never be approved do not
+ * reach a manager's queue. The existing obligations come from the user's loan summary, a single row, plus the
+ * user's requests still PENDING or APPROVED, so several applications in a row cannot each pass on their own;
+ * the rules themselves are a few comparisons against thresholds read once at startup. A reject rule
+ * stops the request; a flag rule lets it through with the flag stored on the request for the manager.
+ */
+@Service
+@Slf4j
+public class EligibilityServiceImpl implements EligibilityService {
+
+    static final String EMI_RATIO_OVER_LIMIT = "EMI_RATIO_OVER_LIMIT";
+    static final String TOO_MANY_ACTIVE_LOANS = "TOO_MANY_ACTIVE_LOANS";
+    static final String HIGH_EMI_RATIO = "HIGH_EMI_RATIO";
+    static final String NO_SALARY = "NO_SALARY";
+    static final String OVERDUE_INSTALLMENTS = "OVERDUE_INSTALLMENTS";
+    static final String NEAR_PRODUCT_MAXIMUM = "NEAR_PRODUCT_MAXIMUM";
+
+    private final UserLoanSummaryService loanSummaryService;
+    private final LoanRequestRepository loanRequestRepository;
+    private final double rejectEmiRatio;
+    private final double flagEmiRatio;
+    private final int maxActiveLoans;
+    private final double flagAmountRatio;
+
+    public EligibilityServiceImpl(UserLoanSummaryService loanSummaryService,
+                                  LoanRequestRepository loanRequestRepository,
+                                  @Value("${loan.eligibility.reject-emi-ratio:0.6}") double rejectEmiRatio,
+                                  @Value("${loan.eligibility.flag-emi-ratio:0.4}") double flagEmiRatio,
+                                  @Value("${loan.eligibility.max-active-loans:5}") int maxActiveLoans,
+                                  @Value("${loan.eligibility.flag-amount-ratio:0.9}") double flagAmountRatio) {
+        this.loanSummaryService = loanSummaryService;
+        this.loanRequestRepository = loanRequestRepository;
+        this.rejectEmiRatio = rejectEmiRatio;
+        this.flagEmiRatio = flagEmiRatio;
+        this.maxActiveLoans = maxActiveLoans;
+        this.flagAmountRatio = flagAmountRatio;
+    }
+
+    @Override
+    public EligibilityResultDTO evaluate(User user, Loan loan, double requestedAmount) {
+        UserLoanSummaryDTO summary = loanSummaryService.getSummary(user.getId());
+        List<Double> openRequestEmis = loanRequestRepository.findOpenRequestTerms(user.getId()).stream()
+                .map(terms -> emi(((Number) terms[0]).doubleValue(), ((Number) terms[1]).doubleValue(), ((Number) terms[2]).intValue()))
+                .toList();
+        return evaluate(user.getSalary(), loan, requestedAmount, summary, openRequestEmis, LocalDate.now());
+    }
+
+    EligibilityResultDTO evaluate(Double salary, Loan loan, double requestedAmount, UserLoanSummaryDTO summary,
+                                  List<Double> openRequestEmis, LocalDate today) {
+        double emi = emi(requestedAmount, loan.getInterestRate(), loan.getDurationMonths());
+        double existingEmi = summary.getMonthlyEmiTotal() + openRequestEmis.stream().mapToDouble(Double::doubleValue).sum();
+        List<String> rejectReasons = new ArrayList<>(2);
+        List<String> flags = new ArrayList<>(2);
+
+        Double ratio = null;
+        if (salary == null || salary <= 0) {
+            flags.add(NO_SALARY);
+        } else {
+            ratio = (existingEmi + emi) / salary;
+            if (ratio > rejectEmiRatio) {
+                rejectReasons.add(EMI_RATIO_OVER_LIMIT);
+            } else if (ratio > flagEmiRatio) {
+                flags.add(HIGH_EMI_RATIO);
+            }
+        }
+        if (summary.getActiveLoanCount() + openRequestEmis.size() >= maxActiveLoans) {
+            rejectReasons.add(TOO_MANY_ACTIVE_LOANS);
+        }
+        if (summary.getNextDueDate() != null && summary.getNextDueDate().isBefore(today)) {
+            flags.add(OVERDUE_INSTALLMENTS);
+        }
+        if (requestedAmount > loan.getMaxAmount() * flagAmountRatio) {
+            flags.add(NEAR_PRODUCT_MAXIMUM);
+        }
+
+        return EligibilityResultDTO.builder()
+                .decision(!rejectReasons.isEmpty() ? REJECTED : !flags.isEmpty() ? FLAGGED : ELIGIBLE)
+                .emi(emi)
+                .existingEmi(existingEmi)
+                .emiToSalaryRatio(ratio)
+                .rejectReasons(rejectReasons)
+                .flags(flags)
+                .build();
+    }
+
+    private static double emi(double amount, double annualRatePercent, int months) {
+        return LoanRepaymentServiceImpl.calculateMonthlyRepayment(amount, annualRatePercent / 100 / 12, months);
+    }
+}
@@ -0,0 +1,144 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.EventRecordDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Append-only event log in the {@code event_log} table, so every node of the cluster reads the same records
+ * at the same offsets whichever node relayed them. A record's offset is its identity ID: offsets grow in
+ * append order but may skip values, so consumers resume from the last offset they processed plus one and
+ * read through {@link #read(long, int)}, which returns the next records from there on. Tailing this way
+ * relies on one relay appending at a time, so a lower offset is never committed after a higher one.
+ * Records older than the retention are pruned from the head of the log, so a consumer that falls behind
+ * {@link #startOffset()} has to resynchronize from the source tables.
+ */
+@Component
+@Slf4j
+public class EventLog {
+
+    private static final String INSERT_RECORD = "insert into event_log "
+            + "(event_id, aggregate_type, aggregate_id, event_type, payload, created_at) values (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_FROM_OFFSET = "select id, event_id, aggregate_type, aggregate_id, event_type, payload, created_at "
+            + "from event_log where id >= ? order by id limit ?";
+
+    private static final String SELECT_LAST_BEFORE = "select max(id) from event_log where created_at < ?";
+
+    private static final String DELETE_BEFORE_OFFSET = "delete from event_log where id < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RowMapper<EventRecordDTO> recordMapper;
+
+    public EventLog(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.recordMapper = (rs, i) -> {
+            Timestamp createdAt = rs.getTimestamp(7);
+            return EventRecordDTO.builder()
+                    .offset(rs.getLong(1))
+                    .eventId(rs.getLong(2))
+                    .aggregateType(rs.getString(3))
+                    .aggregateId(rs.getLong(4))
+                    .eventType(rs.getString(5))
+                    .payload(readPayload(rs.getLong(2), rs.getString(6)))
+                    .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                    .build();
+        };
+    }
+
+    /**
+     * Appends records drained from the outbox, in the caller's transaction. The records must be in
+     * outbox order; appending an event ID that is already in the log fails on its unique key.
+     */
+    public void append(List<EventRecordDTO> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_RECORD, records, records.size(), (ps, record) -> {
+            ps.setLong(1, record.getEventId());
+            ps.setString(2, record.getAggregateType());
+            ps.setLong(3, record.getAggregateId());
+            ps.setString(4, record.getEventType());
+            ps.setString(5, writePayload(record));
+            ps.setTimestamp(6, record.getCreatedAt() != null ? Timestamp.valueOf(record.getCreatedAt()) : null);
+        });
+    }
+
+    /**
+     * Reads up to {@code limit} records from {@code fromOffset} on, in offset order.
+     */
+    public List<EventRecordDTO> read(long fromOffset, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT_FROM_OFFSET, recordMapper, fromOffset, limit);
+    }
+
+    /**
+     * Offset past the last appended record; every record appended later has this offset or a higher one.
+     */
+    public long endOffset() {
+        Long last = jdbcTemplate.queryForObject("select max(id) from event_log", Long.class);
+        return last != null ? last + 1 : 0;
+    }
+
+    /**
+     * Offset of the oldest retained record, or {@link #endOffset()} when the log is empty.
+     */
+    public long startOffset() {
+        Long first = jdbcTemplate.queryForObject("select min(id) from event_log", Long.class);
+        return first != null ? first : endOffset();
+    }
+
+    /**
+     * Offset past the last record written before the given time, or 0 if there is none.
+     */
+    public long offsetAfterWrittenBefore(LocalDateTime time) {
+        Long last = jdbcTemplate.queryForObject(SELECT_LAST_BEFORE, Long.class, Timestamp.valueOf(time));
+        return last != null ? last + 1 : 0;
+    }
+
+    /**
+     * Deletes the records below {@code beforeOffset}, oldest first, in primary key ranges of at most
+     * {@code batchSize} offsets, each deleted in its own statement so no single delete holds many locks.
+     *
+     * @return number of records deleted
+     */
+    public int prune(long beforeOffset, int batchSize) {
+        int deleted = 0;
+        long from = startOffset();
+        while (from < beforeOffset) {
+            long upTo = Math.min(beforeOffset, from + batchSize);
+            deleted += jdbcTemplate.update(DELETE_BEFORE_OFFSET, upTo);
+            from = upTo;
+        }
+        return deleted;
+    }
+
+    private String writePayload(EventRecordDTO record) {
+        try {
+            return objectMapper.writeValueAsString(record.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize payload of event " + record.getEventId(), e);
+        }
+    }
+
+    private JsonNode readPayload(long eventId, String payload) {
+        try {
+            return objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt payload in event log record of event " + eventId, e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.company.loan_management.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keeps the event log from growing without bound on the transactional database. A record is pruned once it
+ * is older than {@code retention-hours} or more than {@code retention-records} offsets behind the end of
+ * the log, whichever bound cuts more; both cutoffs are found through an index and the delete walks the
+ * primary key from the head of the log.
+ */
+@Component
+@Slf4j
+public class EventLogRetention {
+
+    private final EventLog eventLog;
+    private final ClusterScheduler clusterScheduler;
+    private final long retentionHours;
+    private final long retentionRecords;
+    private final int batchSize;
+
+    public EventLogRetention(EventLog eventLog, ClusterScheduler clusterScheduler,
+                             @Value("${loan.events.retention-hours:168}") long retentionHours,
+                             @Value("${loan.events.retention-records:1000000}") long retentionRecords,
+                             @Value("${loan.events.prune-batch-size:5000}") int batchSize) {
+        this.eventLog = eventLog;
+        this.clusterScheduler = clusterScheduler;
+        this.retentionHours = retentionHours;
+        this.retentionRecords = retentionRecords;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Periodic prune, run by one node of the cluster at a time.
+     */
+    @Scheduled(cron = "${loan.events.prune-cron:0 15 * * * *}")
+    public void scheduledPrune() {
+        clusterScheduler.runExclusive("event-log-prune", null, this::prune);
+    }
+
+    /**
+     * Deletes the records past either retention bound.
+     *
+     * @return number of records deleted
+     */
+    public int prune() {
+        long byAge = eventLog.offsetAfterWrittenBefore(LocalDateTime.now().minusHours(retentionHours));
+        long byCount = eventLog.endOffset() - retentionRecords;
+        long beforeOffset = Math.max(byAge, byCount);
+        int deleted = eventLog.prune(beforeOffset, batchSize);
+        if (deleted > 0) {
+            log.info("Pruned {} event log records, log now starts at offset {}", deleted, eventLog.startOffset());
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,250 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.EventRecordDTO;
+import com.company.loan_management.model.Role;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes lifecycle events to server-sent event subscribers. Every node tails the shared event log from the
+ * last offset it published and feeds its own subscribers, whichever node runs the outbox relay.
+ * Borrowers see events of their own requests and repayments, managers additionally those of the requests
+ * assigned to them, finance the disbursal queue and all repayment events, and admins everything.
+ * <p>
+ * Each subscriber has a bounded buffer drained by its own virtual thread, so a slow client never holds up
+ * the tailing or other clients; when the buffer overflows it is replaced by a single {@code resync} event
+ * telling the client to refetch. The SSE id is the event log offset, the same on every node: a client
+ * reconnecting to any node sends it back as Last-Event-ID and gets the events it missed, read from the log,
+ * or a {@code resync} when it missed more than {@code replay-size} or its last event was pruned from the log.
+ */
+@Component
+@Slf4j
+public class EventStream {
+
+    // Loan request events that move a request into or out of the finance disbursal queue
+    private static final Set<String> FINANCE_QUEUE_EVENTS = Set.of("APPROVED", "DISBURSED", "REPAYMENTS_SCHEDULED");
+
+    private final EventLog eventLog;
+    private final int bufferSize;
+    private final int replaySize;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Offset past the last event published to subscribers, guarded by this
+    private long position;
+
+    private final ScheduledExecutorService heartbeat;
+    private final ExecutorService writers;
+
+    public EventStream(EventLog eventLog,
+                       @Value("${loan.events.stream.buffer-size:256}") int bufferSize,
+                       @Value("${loan.events.stream.replay-size:1000}") int replaySize,
+                       @Value("${loan.events.stream.heartbeat-ms:15000}") long heartbeatMillis,
+                       @Value("${loan.events.stream.timeout-ms:1800000}") long timeoutMillis) {
+        this.eventLog = eventLog;
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.heartbeatMillis = heartbeatMillis;
+        this.timeoutMillis = timeoutMillis;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("event-stream-heartbeat").daemon().factory());
+        this.writers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("event-stream-", 0).factory());
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Long userId;
+        final Role role;
+        final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        final AtomicBoolean flushing = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Long userId, Role role, int bufferSize) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.role = role;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    /**
+     * Starts tailing at the end of the event log; earlier events are only read for resuming clients.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        position = eventLog.endOffset();
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        log.info("Event stream started at offset {}, heartbeat every {} ms", position, heartbeatMillis);
+    }
+
+    /**
+     * Publishes the events appended to the log since the last poll, by the relay on this node or any other.
+     * Runs on every node, outside the cluster lease.
+     */
+    @Scheduled(fixedDelayString = "${loan.events.stream.poll-ms:500}", initialDelayString = "${loan.events.stream.poll-ms:500}")
+    public void poll() {
+        List<EventRecordDTO> events;
+        do {
+            events = eventLog.read(currentPosition(), replaySize);
+            publish(events);
+        } while (events.size() == replaySize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        writers.shutdownNow();
+    }
+
+    /**
+     * Opens a stream for a user.
+     *
+     * @param lastEventId offset of the last event the client received, or null for a fresh subscription
+     */
+    public synchronized SseEmitter subscribe(Long userId, Role role, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), userId, role, bufferSize);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+
+        subscriber.buffer.offer(SseEmitter.event().comment("subscribed"));
+        if (lastEventId != null && lastEventId + 1 < position && lastEventId < eventLog.startOffset()) {
+            // The client's last event has been pruned, and possibly events it missed after it
+            subscriber.buffer.offer(resync(position - 1));
+        } else if (lastEventId != null && lastEventId + 1 < position) {
+            // Events after the position are left to the next poll
+            List<EventRecordDTO> missed = eventLog.read(lastEventId + 1, replaySize + 1).stream()
+                    .filter(event -> event.getOffset() < position)
+                    .toList();
+            if (missed.size() > replaySize) {
+                subscriber.buffer.offer(resync(position - 1));
+            } else {
+                missed.forEach(event -> deliver(subscriber, event));
+            }
+        }
+        subscribers.add(subscriber);
+        flush(subscriber);
+        log.debug("User {} ({}) subscribed to the event stream, {} subscribers", userId, role, subscribers.size());
+        return subscriber.emitter;
+    }
+
+    // Fans events read from the log out to the subscribers allowed to see them, skipping any already published
+    private synchronized void publish(List<EventRecordDTO> events) {
+        for (EventRecordDTO event : events) {
+            if (event.getOffset() < position) {
+                continue;
+            }
+            position = event.getOffset() + 1;
+            for (Subscriber subscriber : subscribers) {
+                deliver(subscriber, event);
+            }
+        }
+        subscribers.forEach(this::flush);
+    }
+
+    private synchronized long currentPosition() {
+        return position;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void deliver(Subscriber subscriber, EventRecordDTO event) {
+        if (!isVisible(event, subscriber.userId, subscriber.role)) {
+            return;
+        }
+        SseEmitter.SseEventBuilder message = SseEmitter.event()
+                .id(String.valueOf(event.getOffset()))
+                .name(event.getAggregateType())
+                .data(event, MediaType.APPLICATION_JSON);
+        if (!subscriber.buffer.offer(message)) {
+            // Whatever is buffered is stale once the client refetches
+            subscriber.buffer.clear();
+            subscriber.buffer.offer(resync(event.getOffset()));
+            log.debug("Event stream buffer of user {} overflowed, sent resync", subscriber.userId);
+        }
+    }
+
+    static boolean isVisible(EventRecordDTO event, Long userId, Role role) {
+        if (role == Role.ADMIN) {
+            return true;
+        }
+        JsonNode payload = event.getPayload();
+        if (payload != null && userId.equals(longField(payload, "userId"))) {
+            return true;
+        }
+        boolean loanRequest = "LoanRequest".equals(event.getAggregateType());
+        return switch (role) {
+            case MANAGER -> loanRequest && payload != null && userId.equals(longField(payload, "managerId"));
+            case FINANCE -> loanRequest ? FINANCE_QUEUE_EVENTS.contains(event.getEventType())
+                    : "LoanRepayment".equals(event.getAggregateType());
+            default -> false;
+        };
+    }
+
+    private static Long longField(JsonNode payload, String field) {
+        JsonNode value = payload.get(field);
+        return value != null && value.canConvertToLong() ? value.asLong() : null;
+    }
+
+    private static SseEmitter.SseEventBuilder resync(long offset) {
+        return SseEmitter.event().id(String.valueOf(offset)).name("resync").data(Map.of("offset", offset), MediaType.APPLICATION_JSON);
+    }
+
+    // At most one writer per subscriber, so its events go out in order
+    private void flush(Subscriber subscriber) {
+        if (subscriber.buffer.isEmpty() || !subscriber.flushing.compareAndSet(false, true)) {
+            return;
+        }
+        writers.execute(() -> {
+            try {
+                SseEmitter.SseEventBuilder message;
+                while ((message = subscriber.buffer.poll()) != null) {
+                    subscriber.emitter.send(message);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks may not fire for a broken connection
+                subscribers.remove(subscriber);
+                subscriber.buffer.clear();
+                log.debug("Dropped event stream subscriber of user {}: {}", subscriber.userId, e.getMessage());
+                return;
+            } finally {
+                subscriber.flushing.set(false);
+            }
+            flush(subscriber);
+        });
+    }
+
+    // Keeps idle connections open through proxies and detects clients that disconnected
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.buffer.isEmpty()) {
+                subscriber.buffer.offer(SseEmitter.event().comment("heartbeat"));
+                flush(subscriber);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.AccruedInterestSummaryDTO;
+
+import java.time.LocalDate;
+
+public interface InterestAccrualService {
+
+    // Accrue one day of interest on every active disbursed loan; resumes from checkpoints if the day was started before
+    long accrue(LocalDate accrualDate);
+
+    AccruedInterestSummaryDTO getSummary(LocalDate date);
+}
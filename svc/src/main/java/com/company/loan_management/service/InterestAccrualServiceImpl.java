@@ -0,0 +1,245 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.AccruedInterestSummaryDTO;
+import com.company.loan_management.model.AccrualCheckpoint;
+import com.company.loan_management.repository.AccrualCheckpointRepository;
+import com.company.loan_management.repository.InterestAccrualRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Daily interest accrual over all disbursed loan requests.
+ * The ID space is cut into fixed, aligned partitions that a fork-join pool works through in parallel.
+ * Within a partition, loans are read in keyset batches with a single set-based query and their accruals
+ * are written with a JDBC batch in the same transaction as the partition checkpoint, so a crashed or
+ * repeated run for the same day continues after the last committed batch and never accrues a loan twice.
+ */
+@Service
+@Slf4j
+public class InterestAccrualServiceImpl implements InterestAccrualService {
+
+    private static final String SELECT_BATCH = "select lr.id, lr.requested_amount, l.interest_rate "
+            + "from loan_request lr join loan l on l.id = lr.loan_id "
+            + "where lr.status = 'DISBURSED' and lr.disbursement_date < ? and lr.id > ? and lr.id < ? "
+            + "order by lr.id limit ?";
+
+    // Paid principal for the batch's ID range, read through the loan_request_id foreign key index
+    private static final String SELECT_PAID_PRINCIPAL = "select loan_request_id, sum(principal_payment) from loan_repayment "
+            + "where loan_request_id between ? and ? and status = 'PAID' group by loan_request_id";
+
+    private static final String INSERT_ACCRUAL = "insert into interest_accrual "
+            + "(loan_request_id, accrual_date, outstanding_principal, annual_rate, amount, created_at) values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InterestAccrualRepository interestAccrualRepository;
+    private final AccrualCheckpointRepository checkpointRepository;
+    private final ClusterScheduler clusterScheduler;
+    private final long partitionSize;
+    private final int batchSize;
+    private final int parallelism;
+    private final int shards;
+
+    public InterestAccrualServiceImpl(JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      InterestAccrualRepository interestAccrualRepository,
+                                      AccrualCheckpointRepository checkpointRepository,
+                                      ClusterScheduler clusterScheduler,
+                                      @Value("${loan.accrual.partition-size:10000}") long partitionSize,
+                                      @Value("${loan.accrual.batch-size:1000}") int batchSize,
+                                      @Value("${loan.accrual.parallelism:4}") int parallelism,
+                                      @Value("${loan.accrual.shards:8}") int shards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.interestAccrualRepository = interestAccrualRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.clusterScheduler = clusterScheduler;
+        this.partitionSize = partitionSize;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.shards = shards;
+    }
+
+    // Outstanding principal is the requested amount less the principal of paid installments
+    private record LoanBalance(long id, double principal, double annualRate, double paidPrincipal) {
+        double outstanding() {
+            return principal - paidPrincipal;
+        }
+
+        // Fully repaid loans stay DISBURSED; a remainder below a cent is rounding left over from the schedule
+        boolean accrues() {
+            return outstanding() > 0.005;
+        }
+    }
+
+    /**
+     * Nightly accrual for the current day, sharded across the cluster: partition {@code p} belongs to
+     * shard {@code p mod shards}.
+     */
+    @Scheduled(cron = "${loan.accrual.cron:0 15 1 * * *}")
+    public void scheduledAccrual() {
+        LocalDate today = LocalDate.now();
+        clusterScheduler.runSharded("interest-accrual", today.toString(), shards,
+                shard -> accrue(today, partition -> Math.floorMod(partition, shards) == shard));
+    }
+
+    /**
+     * Accrues one day of interest on every loan disbursed before the given date.
+     *
+     * @param accrualDate day to accrue
+     * @return number of accrual entries written by this call
+     */
+    @Override
+    public long accrue(LocalDate accrualDate) {
+        return accrue(accrualDate, partition -> true);
+    }
+
+    // Accrues the partitions accepted by the filter
+    private long accrue(LocalDate accrualDate, LongPredicate partitions) {
+        long[] bounds = jdbcTemplate.queryForObject("select min(id), max(id) from loan_request where status = 'DISBURSED'",
+                (rs, i) -> rs.getObject(1) == null ? null : new long[]{rs.getLong(1), rs.getLong(2)});
+        if (bounds == null) {
+            log.info("No disbursed loans to accrue for {}", accrualDate);
+            return 0;
+        }
+
+        long start = System.currentTimeMillis();
+        Set<Long> completed = checkpointRepository.findByAccrualDate(accrualDate).stream()
+                .filter(AccrualCheckpoint::isCompleted)
+                .map(AccrualCheckpoint::getPartitionStart)
+                .collect(Collectors.toSet());
+        long firstPartition = bounds[0] / partitionSize;
+        long lastPartition = bounds[1] / partitionSize;
+        log.info("Accruing interest for {} over partitions {}..{} ({} already complete)",
+                accrualDate, firstPartition, lastPartition, completed.size());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long written = pool.invoke(new PartitionTask(accrualDate, firstPartition, lastPartition + 1, completed, partitions));
+            log.info("Accrued interest for {} on {} loans in {} ms", accrualDate, written, System.currentTimeMillis() - start);
+            return written;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public AccruedInterestSummaryDTO getSummary(LocalDate date) {
+        Object[] day = interestAccrualRepository.summarizeDay(date).get(0);
+        return AccruedInterestSummaryDTO.builder()
+                .date(date)
+                .loanCount(((Number) day[0]).longValue())
+                .accruedOnDate(((Number) day[1]).doubleValue())
+                .unpaidAccruedToDate(interestAccrualRepository.sumUnpaidThrough(date))
+                .build();
+    }
+
+    // Splits a range of partition numbers in half until a single partition is left
+    private class PartitionTask extends RecursiveTask<Long> {
+        private final LocalDate accrualDate;
+        private final long fromPartition;
+        private final long toPartition;
+        private final Set<Long> completed;
+        private final LongPredicate partitions;
+
+        PartitionTask(LocalDate accrualDate, long fromPartition, long toPartition, Set<Long> completed, LongPredicate partitions) {
+            this.accrualDate = accrualDate;
+            this.fromPartition = fromPartition;
+            this.toPartition = toPartition;
+            this.completed = completed;
+            this.partitions = partitions;
+        }
+
+        @Override
+        protected Long compute() {
+            if (toPartition - fromPartition == 1) {
+                long partitionStart = fromPartition * partitionSize;
+                return completed.contains(partitionStart) || !partitions.test(fromPartition) ? 0L
+                        : accruePartition(accrualDate, partitionStart, partitionStart + partitionSize);
+            }
+            long middle = (fromPartition + toPartition) >>> 1;
+            PartitionTask upper = new PartitionTask(accrualDate, middle, toPartition, completed, partitions);
+            upper.fork();
+            long lower = new PartitionTask(accrualDate, fromPartition, middle, completed, partitions).compute();
+            return lower + upper.join();
+        }
+    }
+
+    // Loan request IDs in [partitionStart, partitionEnd), resuming after the checkpoint if there is one
+    private long accruePartition(LocalDate accrualDate, long partitionStart, long partitionEnd) {
+        long cursor = checkpointRepository.findByAccrualDateAndPartitionStart(accrualDate, partitionStart)
+                .map(AccrualCheckpoint::getLastProcessedId)
+                .orElse(partitionStart - 1);
+        long written = 0;
+        boolean done = false;
+        while (!done) {
+            List<LoanBalance> batch = readBatch(accrualDate, cursor, partitionEnd);
+            done = batch.size() < batchSize;
+            long lastId = batch.isEmpty() ? cursor : batch.get(batch.size() - 1).id();
+            List<LoanBalance> accruing = batch.stream().filter(LoanBalance::accrues).toList();
+            boolean finished = done;
+            transactionTemplate.executeWithoutResult(status -> {
+                insertAccruals(accrualDate, accruing);
+                saveCheckpoint(accrualDate, partitionStart, lastId, finished);
+            });
+            written += accruing.size();
+            cursor = lastId;
+        }
+        return written;
+    }
+
+    private List<LoanBalance> readBatch(LocalDate accrualDate, long afterId, long partitionEnd) {
+        List<LoanBalance> loans = jdbcTemplate.query(SELECT_BATCH,
+                (rs, i) -> new LoanBalance(rs.getLong(1), rs.getDouble(2), rs.getDouble(3), 0),
+                Date.valueOf(accrualDate), afterId, partitionEnd, batchSize);
+        if (loans.isEmpty()) {
+            return loans;
+        }
+        Map<Long, Double> paid = new HashMap<>();
+        jdbcTemplate.query(SELECT_PAID_PRINCIPAL, (RowCallbackHandler) rs -> paid.put(rs.getLong(1), rs.getDouble(2)),
+                loans.get(0).id(), loans.get(loans.size() - 1).id());
+        return loans.stream()
+                .map(loan -> new LoanBalance(loan.id(), loan.principal(), loan.annualRate(), paid.getOrDefault(loan.id(), 0.0)))
+                .toList();
+    }
+
+    private void insertAccruals(LocalDate accrualDate, List<LoanBalance> loans) {
+        Date date = Date.valueOf(accrualDate);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_ACCRUAL, loans, batchSize, (ps, loan) -> {
+            ps.setLong(1, loan.id());
+            ps.setDate(2, date);
+            ps.setDouble(3, loan.outstanding());
+            ps.setDouble(4, loan.annualRate());
+            ps.setDouble(5, loan.outstanding() * loan.annualRate() / 100 / 365);
+            ps.setTimestamp(6, now);
+        });
+    }
+
+    private void saveCheckpoint(LocalDate accrualDate, long partitionStart, long lastId, boolean completed) {
+        AccrualCheckpoint checkpoint = checkpointRepository.findByAccrualDateAndPartitionStart(accrualDate, partitionStart)
+                .orElseGet(() -> AccrualCheckpoint.builder().accrualDate(accrualDate).partitionStart(partitionStart).build());
+        checkpoint.setLastProcessedId(lastId);
+        checkpoint.setCompleted(completed);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+}
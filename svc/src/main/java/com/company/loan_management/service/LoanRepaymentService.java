@@ -15,6 +15,6 @@ public interface LoanRepaymentService {
     // Mark an EMI as paid
     void markAsPaid(Long repaymentId);
 
-    // (NEW) Get all repayments for a user across loans
-    List<LoanRepayment> getRepaymentsByUser(Long userId,String status);
+    // (NEW) Get all repayments for a user across loans, optionally including archived loans
+    List<LoanRepayment> getRepaymentsByUser(Long userId, String status, boolean includeArchived);
 }
@@ -2,11 +2,14 @@ package com.company.loan_management.service;
 
 import com.company.loan_management.exception.LoanRequestNotFoundException;
 import com.company.loan_management.exception.RepaymentNotFoundException;
+import com.company.loan_management.mapper.ArchiveMapper;
 import com.company.loan_management.model.LoanRepayment;
 import com.company.loan_management.model.LoanRequest;
 import com.company.loan_management.model.User;
+import com.company.loan_management.repository.ArchivedLoanRepaymentRepository;
 import com.company.loan_management.repository.LoanRepaymentRepository;
 import com.company.loan_management.repository.LoanRequestRepository;
+import com.company.loan_management.repository.UserDelinquencyRepository;
 import com.company.loan_management.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,9 +27,18 @@ import java.util.List;
 @Slf4j
 public class LoanRepaymentServiceImpl implements LoanRepaymentService {
 
+    // Payment mode of installments marked as paid by hand rather than collected by auto-debit
+    static final String MANUAL_PAYMENT_MODE = "MANUAL";
+
     private final LoanRepaymentRepository repaymentRepository;
+    private final ArchivedLoanRepaymentRepository archivedRepaymentRepository;
     private final LoanRequestRepository loanRequestRepository;
     private final UserRepository userRepository;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final OutboxService outboxService;
+    private final UserDelinquencyRepository delinquencyRepository;
+    private final PortfolioRollupService portfolioRollupService;
+    private final UserLoanSummaryService loanSummaryService;
 
     /**
      * Generates a full EMI repayment schedule for a loan request.
@@ -36,57 +48,73 @@ public class LoanRepaymentServiceImpl implements LoanRepaymentService {
     public void generateRepayments(Long loanRequestId) {
         log.info("Generating repayment schedule for Loan Request ID: {}", loanRequestId);
 
-        LoanRequest request = loanRequestRepository.findById(loanRequestId)
-                .orElseThrow(() -> new LoanRequestNotFoundException("Loan Request not found with ID: " + loanRequestId));
-
-        double principalAmount = request.getRequestedAmount();
-        double annualInterestRate = request.getLoan().getInterestRate();
-        int months = request.getLoan().getDurationMonths();
-
-        double monthlyInterestRate = annualInterestRate / 100 / 12;
-        double emi = calculateMonthlyRepayment(principalAmount, monthlyInterestRate, months);
-
-        List<LoanRepayment> schedule = new ArrayList<>();
-        double remainingBalance = principalAmount;
-
-        for (int i = 1; i <= months; i++) {
-            double interestPayment = remainingBalance * monthlyInterestRate;
-            double principalPayment = emi - interestPayment;
-            remainingBalance -= principalPayment;
-
-            LoanRepayment repayment = LoanRepayment.builder()
-                    .loanRequest(request)
-                    .emiAmount(emi)
-                    .principalPayment(principalPayment)
-                    .interestPayment(interestPayment)
-                    .remainingBalance(Math.max(remainingBalance, 0)) // Avoid negative balance
-                    .repaymentDate(LocalDate.now().plusMonths(i))
-                    .status("PENDING")
-                    .build();
-
-            schedule.add(repayment);
-        }
-
-        repaymentRepository.saveAll(schedule);
-        log.info("Repayment schedule generated successfully for Loan Request ID: {}", loanRequestId);
-
-        // Credit loan amount to user's bank account
-        User user = request.getUser();
-        double newBalance = user.getAccountBalance() + request.getRequestedAmount();
-        user.setAccountBalance(newBalance);
-        userRepository.save(user);
-        log.info("Credited {} to User ID {}. New balance: {}", request.getRequestedAmount(), user.getId(), newBalance);
+        // Schedule creation and balance credit commit together, so a lost version check re-runs both
+        retryExecutor.run("Generating repayments for Loan Request " + loanRequestId, () -> {
+            LoanRequest request = loanRequestRepository.findById(loanRequestId)
+                    .orElseThrow(() -> new LoanRequestNotFoundException("Loan Request not found with ID: " + loanRequestId));
+
+            double principalAmount = request.getRequestedAmount();
+            double annualInterestRate = request.getLoan().getInterestRate();
+            int months = request.getLoan().getDurationMonths();
+
+            double monthlyInterestRate = annualInterestRate / 100 / 12;
+            double emi = calculateMonthlyRepayment(principalAmount, monthlyInterestRate, months);
+
+            List<LoanRepayment> schedule = new ArrayList<>();
+            double remainingBalance = principalAmount;
+
+            for (int i = 1; i <= months; i++) {
+                double interestPayment = remainingBalance * monthlyInterestRate;
+                double principalPayment = emi - interestPayment;
+                remainingBalance -= principalPayment;
+
+                LoanRepayment repayment = LoanRepayment.builder()
+                        .loanRequest(request)
+                        .emiAmount(emi)
+                        .principalPayment(principalPayment)
+                        .interestPayment(interestPayment)
+                        .remainingBalance(Math.max(remainingBalance, 0)) // Avoid negative balance
+                        .repaymentDate(LocalDate.now().plusMonths(i))
+                        .status("PENDING")
+                        .build();
+
+                schedule.add(repayment);
+            }
+
+            repaymentRepository.saveAll(schedule);
+            portfolioRollupService.repaymentsChanged(request.getLoan().getId(), request.getAssignedManager().getId(),
+                    request.getStatus(), schedule.stream().mapToDouble(LoanRepayment::getPrincipalPayment).sum(),
+                    schedule.stream().mapToDouble(LoanRepayment::getInterestPayment).sum());
+            loanSummaryService.refresh(request.getUser().getId());
+            log.info("Repayment schedule generated successfully for Loan Request ID: {}", loanRequestId);
+
+            // Credit loan amount to user's bank account
+            User user = request.getUser();
+            double newBalance = user.getAccountBalance() + request.getRequestedAmount();
+            user.setAccountBalance(newBalance);
+            userRepository.save(user);
+            log.info("Credited {} to User ID {}. New balance: {}", request.getRequestedAmount(), user.getId(), newBalance);
+
+            outboxService.recordLoanRequestEvent(request, "REPAYMENTS_SCHEDULED");
+        });
     }
 
     /**
      * Retrieves the list of repayments for a given loan request.
+     * Falls back to the archive when the loan request has been archived.
      * @param loanRequestId Loan request ID
      * @return List of LoanRepayment entities
      */
     @Override
     public List<LoanRepayment> getRepaymentsByRequest(Long loanRequestId) {
         log.info("Fetching repayments for Loan Request ID: {}", loanRequestId);
-        return repaymentRepository.findByLoanRequestId(loanRequestId);
+        List<LoanRepayment> repayments = repaymentRepository.findByLoanRequestId(loanRequestId);
+        if (repayments.isEmpty()) {
+            return archivedRepaymentRepository.findByLoanRequestId(loanRequestId).stream()
+                    .map(ArchiveMapper::toLoanRepayment)
+                    .toList();
+        }
+        return repayments;
     }
 
     /**
@@ -97,11 +125,29 @@ public class LoanRepaymentServiceImpl implements LoanRepaymentService {
     public void markAsPaid(Long repaymentId) {
         log.info("Marking repayment as PAID for Repayment ID: {}", repaymentId);
 
-        LoanRepayment repayment = repaymentRepository.findById(repaymentId)
-                .orElseThrow(() -> new RepaymentNotFoundException("Repayment not found with ID: " + repaymentId));
-
-        repayment.setStatus("PAID");
-        repaymentRepository.save(repayment);
+        retryExecutor.run("Marking repayment " + repaymentId + " as paid", () -> {
+            LoanRepayment repayment = repaymentRepository.findById(repaymentId)
+                    .orElseThrow(() -> new RepaymentNotFoundException("Repayment not found with ID: " + repaymentId));
+
+            String previousStatus = repayment.getStatus();
+            if (!"PAID".equals(previousStatus)) {
+                repayment.setStatus("PAID");
+                repayment.setPaymentDate(LocalDate.now());
+                repayment.setPaymentMode(MANUAL_PAYMENT_MODE);
+            }
+            LoanRepayment saved = repaymentRepository.save(repayment);
+            if (!"PAID".equals(previousStatus)) {
+                LoanRequest request = repayment.getLoanRequest();
+                portfolioRollupService.repaymentsChanged(request.getLoan().getId(), request.getAssignedManager().getId(),
+                        request.getStatus(), -repayment.getPrincipalPayment(), -repayment.getInterestPayment());
+                outboxService.recordRepaymentEvent(saved, "REPAID");
+                loanSummaryService.refresh(request.getUser().getId());
+            }
+            // Paying a late installment clears it from the user's current delinquency
+            if ("OVERDUE".equals(previousStatus)) {
+                delinquencyRepository.settleOverdue(repayment.getLoanRequest().getUser().getId());
+            }
+        });
 
         log.info("Repayment marked as PAID successfully for Repayment ID: {}", repaymentId);
     }
@@ -109,20 +155,30 @@ public class LoanRepaymentServiceImpl implements LoanRepaymentService {
     /**
      * Retrieves all repayments for a specific user across all loan requests.
      * @param userId User ID
+     * @param status Optional repayment status
+     * @param includeArchived Whether to add repayments of archived loan requests
      * @return List of LoanRepayment entities
      */
     @Override
-    public List<LoanRepayment> getRepaymentsByUser(Long userId,String status) {
-        log.info("Fetching repayments for User ID: {}", userId);
-        if (status == null) {
-            return repaymentRepository.findByLoanRequestUserId(userId);
-        } else {
-            return repaymentRepository.findByLoanRequestUserIdAndStatus(userId, status);
+    public List<LoanRepayment> getRepaymentsByUser(Long userId, String status, boolean includeArchived) {
+        log.info("Fetching repayments for User ID: {}, include archived: {}", userId, includeArchived);
+        List<LoanRepayment> result = new ArrayList<>(status == null
+                ? repaymentRepository.findByLoanRequestUserId(userId)
+                : repaymentRepository.findByLoanRequestUserIdAndStatus(userId, status));
+        if (includeArchived) {
+            (status == null
+                    ? archivedRepaymentRepository.findByLoanRequestUserId(userId)
+                    : archivedRepaymentRepository.findByLoanRequestUserIdAndStatus(userId, status))
+                    .forEach(archived -> result.add(ArchiveMapper.toLoanRepayment(archived)));
         }
+        return result;
     }
 
-    // Private helper method to calculate EMI
-    private double calculateMonthlyRepayment(double principalAmount, double monthlyInterestRate, int months) {
+    // Helper method to calculate EMI, shared with the eligibility check; an interest-free loan is repaid in equal parts
+    static double calculateMonthlyRepayment(double principalAmount, double monthlyInterestRate, int months) {
+        if (monthlyInterestRate == 0) {
+            return principalAmount / months;
+        }
         return principalAmount * (monthlyInterestRate * Math.pow(1 + monthlyInterestRate, months)) /
                 (Math.pow(1 + monthlyInterestRate, months) - 1);
     }
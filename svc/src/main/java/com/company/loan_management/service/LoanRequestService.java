@@ -1,9 +1,15 @@
 package com.company.loan_management.service;
 
+import com.company.loan_management.dto.BulkDecisionItemDTO;
+import com.company.loan_management.dto.LoanRequestSearchCriteria;
 import com.company.loan_management.model.Loan;
 import com.company.loan_management.model.LoanRequest;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import java.util.List;
+import java.util.Map;
 
 
 
@@ -14,15 +20,22 @@ public interface LoanRequestService {
     LoanRequest applyForLoan(Long userId, Loan loan,Double requestedAmount);
 
     LoanRequest cancelLoanRequest(Long requestId, Long userId);
-    List<LoanRequest> getLoanRequestsByUser(Long userId, String statusFilter);
+    List<LoanRequest> getLoanRequestsByUser(Long userId, String statusFilter, boolean includeArchived);
 
     // Manager functionalities
     List<LoanRequest> getLoanRequestsAssignedToManager(Long managerId, String statusFilter);
+    // Riskiest first by the latest risk score, requests not scored yet last
+    List<LoanRequest> getLoanRequestsAssignedToManager(Long managerId, String statusFilter, boolean riskiestFirst);
     LoanRequest approveLoanRequest(Long requestId, Long managerId, Double approvedAmount, String managerRemarks);
     LoanRequest rejectLoanRequest(Long requestId, Long managerId, String managerRemarks);
+    Map<Long, String> bulkApproveLoanRequests(Long managerId, List<BulkDecisionItemDTO> items, String defaultRemarks);
+    Map<Long, String> bulkRejectLoanRequests(Long managerId, List<BulkDecisionItemDTO> items, String defaultRemarks);
 
     // Finance department functionalities
     List<LoanRequest> getApprovedLoansForDisbursal(String statusFilter);
     LoanRequest disburseLoan(Long requestId);
 
+    // Finance and admin search
+    Page<LoanRequest> searchLoanRequests(LoanRequestSearchCriteria criteria, Pageable pageable);
+
 }
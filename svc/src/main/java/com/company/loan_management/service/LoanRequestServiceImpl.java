@@ -1,18 +1,29 @@
 package com.company.loan_management.service;
 
+import com.company.loan_management.dto.BulkDecisionItemDTO;
+import com.company.loan_management.dto.EligibilityResultDTO;
+import com.company.loan_management.dto.LoanRequestSearchCriteria;
 import com.company.loan_management.exception.*;
+import com.company.loan_management.mapper.ArchiveMapper;
 import com.company.loan_management.model.Loan;
 import com.company.loan_management.model.LoanRequest;
 import com.company.loan_management.model.User;
+import com.company.loan_management.repository.ArchivedLoanRequestRepository;
 import com.company.loan_management.repository.LoanRequestRepository;
+import com.company.loan_management.repository.LoanRequestSpecifications;
+import com.company.loan_management.repository.LoanRiskScoreRepository;
 import com.company.loan_management.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.ToIntBiFunction;
 
 @Service
 @RequiredArgsConstructor
@@ -20,35 +31,55 @@ import java.util.List;
 public class LoanRequestServiceImpl implements LoanRequestService {
 
     private final LoanRequestRepository loanRequestRepository;
+    private final ArchivedLoanRequestRepository archivedLoanRequestRepository;
     private final UserRepository userRepository;
+    private final ManagerAssignmentService managerAssignmentService;
+    private final OutboxService outboxService;
+    private final PortfolioRollupService portfolioRollupService;
+    private final EligibilityService eligibilityService;
+    private final LoanRiskScoreRepository loanRiskScoreRepository;
 
     /**
      * User applies for a new loan.
      */
     @Override
+    @Transactional
     public LoanRequest applyForLoan(Long userId, Loan loan, Double requestedAmount) {
         log.info("User {} applying for {} Loan", userId, loan.getLoanType());
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
 
+        // Checked before a manager is assigned, so a rejected request takes no queue slot
+        EligibilityResultDTO eligibility = eligibilityService.evaluate(user, loan, requestedAmount);
+        if (EligibilityService.REJECTED.equals(eligibility.getDecision())) {
+            throw new LoanNotEligibleException("Loan request rejected by eligibility rules: "
+                    + String.join(", ", eligibility.getRejectReasons()));
+        }
+
         LoanRequest request = LoanRequest.builder()
                 .user(user)
                 .loan(loan) // assuming you have Loan entity's constructor with id
                 .status("PENDING")
-                .assignedManager(loan.getApproverManager())
+                .assignedManager(managerAssignmentService.assignManager(loan))
+                .assignedAt(LocalDateTime.now())
                 .requestedAmount(requestedAmount)
+                .eligibilityFlags(eligibility.getFlags().isEmpty() ? null : String.join(",", eligibility.getFlags()))
                 .build();
 
-        return loanRequestRepository.save(request);
+        LoanRequest saved = loanRequestRepository.save(request);
+        portfolioRollupService.requestChanged(loan.getId(), saved.getAssignedManager().getId(), null, null, "PENDING", requestedAmount);
+        outboxService.recordLoanRequestEvent(saved, "APPLIED");
+        return saved;
     }
 
     /**
      * User cancels their pending loan request.
      */
     @Override
+    @Transactional
     public LoanRequest cancelLoanRequest(Long requestId, Long userId) {
         log.info("User {} attempting to cancel loan request {}", userId, requestId);
-        LoanRequest request = loanRequestRepository.findById(requestId)
+        LoanRequest request = loanRequestRepository.lockById(requestId)
                 .orElseThrow(() -> new LoanRequestNotFoundException("Loan request not found with ID: " + requestId));
 
         if (!request.getUser().getId().equals(userId)) {
@@ -60,19 +91,31 @@ public class LoanRequestServiceImpl implements LoanRequestService {
         }
 
         request.setStatus("CANCELED");
-        return loanRequestRepository.save(request);
+        LoanRequest saved = loanRequestRepository.save(request);
+        portfolioRollupService.requestChanged(request.getLoan().getId(), request.getAssignedManager().getId(),
+                "PENDING", request.getRequestedAmount(), "CANCELED", request.getRequestedAmount());
+        managerAssignmentService.releaseManager(request.getAssignedManager().getId());
+        outboxService.recordLoanRequestEvent(saved, "CANCELED");
+        return saved;
     }
 
     /**
-     * User views/searches their loan requests.
+     * User views/searches their loan requests, optionally including archived ones.
      */
     @Override
-    public List<LoanRequest> getLoanRequestsByUser(Long userId, String statusFilter) {
-        log.info("Fetching loan requests for user {}, status filter: {}", userId, statusFilter);
-        if (statusFilter == null || statusFilter.isEmpty()) {
-            return loanRequestRepository.findByUserId(userId);
+    public List<LoanRequest> getLoanRequestsByUser(Long userId, String statusFilter, boolean includeArchived) {
+        log.info("Fetching loan requests for user {}, status filter: {}, include archived: {}", userId, statusFilter, includeArchived);
+        boolean unfiltered = statusFilter == null || statusFilter.isEmpty();
+        List<LoanRequest> result = new ArrayList<>(unfiltered
+                ? loanRequestRepository.findByUserId(userId)
+                : loanRequestRepository.findByUserIdAndStatus(userId, statusFilter));
+        if (includeArchived) {
+            (unfiltered
+                    ? archivedLoanRequestRepository.findByUserId(userId)
+                    : archivedLoanRequestRepository.findByUserIdAndStatus(userId, statusFilter))
+                    .forEach(archived -> result.add(ArchiveMapper.toLoanRequest(archived)));
         }
-        return loanRequestRepository.findByUserIdAndStatus(userId, statusFilter);
+        return result;
     }
 
     /**
@@ -87,45 +130,109 @@ public class LoanRequestServiceImpl implements LoanRequestService {
         return loanRequestRepository.findByAssignedManagerIdAndStatus(managerId, statusFilter);
     }
 
+    /**
+     * Manager's queue with the latest risk scores, read for all requests in one query.
+     */
+    @Override
+    public List<LoanRequest> getLoanRequestsAssignedToManager(Long managerId, String statusFilter, boolean riskiestFirst) {
+        List<LoanRequest> requests = getLoanRequestsAssignedToManager(managerId, statusFilter);
+        Map<Long, Double> scores = new HashMap<>();
+        loanRiskScoreRepository.findAllById(requests.stream().map(LoanRequest::getId).toList())
+                .forEach(score -> scores.put(score.getLoanRequestId(), score.getScore()));
+        requests.forEach(request -> request.setRiskScore(scores.get(request.getId())));
+        if (!riskiestFirst) {
+            return requests;
+        }
+        List<LoanRequest> sorted = new ArrayList<>(requests);
+        sorted.sort(Comparator.comparing(LoanRequest::getRiskScore, Comparator.nullsLast(Comparator.reverseOrder())));
+        return sorted;
+    }
+
     /**
      * Manager approves a loan request.
      */
     @Override
+    @Transactional
     public LoanRequest approveLoanRequest(Long requestId, Long managerId, Double approvedAmount, String managerRemarks) {
         log.info("Manager {} approving loan request {}", managerId, requestId);
-        LoanRequest request = loanRequestRepository.findById(requestId)
+        LoanRequest request = loanRequestRepository.lockById(requestId)
                 .orElseThrow(() -> new LoanRequestNotFoundException("Loan request not found with ID: " + requestId));
 
         if (!request.getAssignedManager().getId().equals(managerId)) {
             throw new UnauthorizedActionException("Manager not authorized to approve this loan request.");
         }
 
+        if (!"PENDING".equals(request.getStatus())) {
+            throw new InvalidLoanStatusException("Only pending requests can be approved.");
+        }
+
+        Double previousAmount = request.getRequestedAmount();
         request.setStatus("APPROVED");
         request.setRequestedAmount(approvedAmount);
         request.setManagerRemarks(managerRemarks);
         request.setApprovalDate(LocalDate.now());
 
-        return loanRequestRepository.save(request);
+        LoanRequest saved = loanRequestRepository.save(request);
+        portfolioRollupService.requestChanged(request.getLoan().getId(), managerId, "PENDING", previousAmount, "APPROVED", approvedAmount);
+        managerAssignmentService.releaseManager(managerId);
+        outboxService.recordLoanRequestEvent(saved, "APPROVED");
+        return saved;
     }
 
     /**
      * Manager rejects a loan request.
      */
     @Override
+    @Transactional
     public LoanRequest rejectLoanRequest(Long requestId, Long managerId, String managerRemarks) {
         log.info("Manager {} rejecting loan request {}", managerId, requestId);
-        LoanRequest request = loanRequestRepository.findById(requestId)
+        LoanRequest request = loanRequestRepository.lockById(requestId)
                 .orElseThrow(() -> new LoanRequestNotFoundException("Loan request not found with ID: " + requestId));
 
         if (!request.getAssignedManager().getId().equals(managerId)) {
             throw new UnauthorizedActionException("Manager not authorized to reject this loan request.");
         }
 
+        if (!"PENDING".equals(request.getStatus())) {
+            throw new InvalidLoanStatusException("Only pending requests can be rejected.");
+        }
+
         request.setStatus("REJECTED");
         request.setManagerRemarks(managerRemarks);
         request.setRejectionDate(LocalDate.now());
 
-        return loanRequestRepository.save(request);
+        LoanRequest saved = loanRequestRepository.save(request);
+        portfolioRollupService.requestChanged(request.getLoan().getId(), managerId,
+                "PENDING", request.getRequestedAmount(), "REJECTED", request.getRequestedAmount());
+        managerAssignmentService.releaseManager(managerId);
+        outboxService.recordLoanRequestEvent(saved, "REJECTED");
+        return saved;
+    }
+
+    /**
+     * Manager approves many loan requests at once.
+     * Items sharing the same amount and remarks are approved with one conditional UPDATE.
+     */
+    @Override
+    @Transactional
+    public Map<Long, String> bulkApproveLoanRequests(Long managerId, List<BulkDecisionItemDTO> items, String defaultRemarks) {
+        log.info("Manager {} bulk approving {} loan requests", managerId, items.size());
+        LocalDate today = LocalDate.now();
+        return decideInBulk(managerId, items, defaultRemarks, "APPROVED",
+                (ids, decision) -> loanRequestRepository.approvePending(ids, managerId, decision.amount(), decision.remarks(), today));
+    }
+
+    /**
+     * Manager rejects many loan requests at once.
+     * Items sharing the same remarks are rejected with one conditional UPDATE.
+     */
+    @Override
+    @Transactional
+    public Map<Long, String> bulkRejectLoanRequests(Long managerId, List<BulkDecisionItemDTO> items, String defaultRemarks) {
+        log.info("Manager {} bulk rejecting {} loan requests", managerId, items.size());
+        LocalDate today = LocalDate.now();
+        return decideInBulk(managerId, items, defaultRemarks, "REJECTED",
+                (ids, decision) -> loanRequestRepository.rejectPending(ids, managerId, decision.remarks(), today));
     }
 
     /**
@@ -135,16 +242,10 @@ public class LoanRequestServiceImpl implements LoanRequestService {
     public List<LoanRequest> getApprovedLoansForDisbursal(String statusFilter) {
         log.info("Fetching loans ready for disbursal, status filter: {}", statusFilter);
 
-        List<LoanRequest> result = new ArrayList<>();
-
         if (statusFilter == null || statusFilter.isEmpty()) {
-            result.addAll(loanRequestRepository.findByStatus("APPROVED"));
-            result.addAll(loanRequestRepository.findByStatus("DISBURSED"));
-            return result;
+            return loanRequestRepository.findByStatusIn(List.of("APPROVED", "DISBURSED"));
         }
-
-        result.addAll(loanRequestRepository.findByStatus(statusFilter));
-        return result;
+        return loanRequestRepository.findByStatus(statusFilter);
     }
 
 
@@ -152,6 +253,7 @@ public class LoanRequestServiceImpl implements LoanRequestService {
      * Finance department disburses an approved loan.
      */
     @Override
+    @Transactional
     public LoanRequest disburseLoan(Long requestId) {
         log.info("Disbursing loan request {}", requestId);
         LoanRequest request = loanRequestRepository.findById(requestId)
@@ -165,6 +267,101 @@ public class LoanRequestServiceImpl implements LoanRequestService {
         request.setDisbursementDate(LocalDate.now());
         // You can also update user's accountBalance here separately in a transaction
 
-        return loanRequestRepository.save(request);
+        LoanRequest saved = loanRequestRepository.save(request);
+        portfolioRollupService.requestChanged(request.getLoan().getId(), request.getAssignedManager().getId(),
+                "APPROVED", request.getRequestedAmount(), "DISBURSED", request.getRequestedAmount());
+        outboxService.recordLoanRequestEvent(saved, "DISBURSED");
+        return saved;
+    }
+
+    /**
+     * Finance/admin search over loan requests with any combination of filters, paged and sorted.
+     */
+    @Override
+    public Page<LoanRequest> searchLoanRequests(LoanRequestSearchCriteria criteria, Pageable pageable) {
+        log.info("Searching loan requests with {} and {}", criteria, pageable);
+        return loanRequestRepository.findAll(LoanRequestSpecifications.fromCriteria(criteria), pageable);
+    }
+
+    // Amount and remarks applied together to a group of requests
+    private record Decision(Double amount, String remarks) {}
+
+    /**
+     * Locks the requests and classifies every item against their current state, then runs one conditional
+     * update per distinct decision. A request decided concurrently is either decided before the lock and
+     * reported as NOT_PENDING, or waits for this transaction, so the updates change exactly the requests
+     * classified as decided here and each gets one event and one rollup delta.
+     */
+    private Map<Long, String> decideInBulk(Long managerId, List<BulkDecisionItemDTO> items, String defaultRemarks,
+                                           String targetStatus, ToIntBiFunction<List<Long>, Decision> update) {
+        if (managerId == null) {
+            throw new InvalidLoanRequestException("Manager ID is required.");
+        }
+
+        Map<Long, BulkDecisionItemDTO> itemsById = new LinkedHashMap<>();
+        for (BulkDecisionItemDTO item : items) {
+            if (item.getRequestId() != null) {
+                itemsById.putIfAbsent(item.getRequestId(), item);
+            }
+        }
+        Map<Long, String> outcomes = new LinkedHashMap<>();
+        if (itemsById.isEmpty()) {
+            return outcomes;
+        }
+
+        Map<Long, Object[]> currentState = new HashMap<>();
+        for (Object[] row : loanRequestRepository.lockDecisionStateByIdIn(itemsById.keySet())) {
+            currentState.put((Long) row[0], row);
+        }
+
+        Map<Decision, List<Long>> groups = new LinkedHashMap<>();
+        for (BulkDecisionItemDTO item : itemsById.values()) {
+            Long id = item.getRequestId();
+            Object[] row = currentState.get(id);
+            if (row == null) {
+                outcomes.put(id, "NOT_FOUND");
+            } else if (!managerId.equals(row[1])) {
+                outcomes.put(id, "NOT_ASSIGNED");
+            } else if (!"PENDING".equals(row[2])) {
+                outcomes.put(id, "NOT_PENDING");
+            } else {
+                Double amount = "APPROVED".equals(targetStatus) ? item.getApprovedAmount() : null;
+                String remarks = item.getRemarks() != null ? item.getRemarks() : defaultRemarks;
+                groups.computeIfAbsent(new Decision(amount, remarks), k -> new ArrayList<>()).add(id);
+                outcomes.put(id, targetStatus);
+            }
+        }
+
+        for (Map.Entry<Decision, List<Long>> group : groups.entrySet()) {
+            List<Long> ids = group.getValue();
+            int updated = update.applyAsInt(ids, group.getKey());
+            if (updated != ids.size()) {
+                throw new IllegalStateException("Decided " + updated + " of " + ids.size() + " locked pending loan requests");
+            }
+            for (int i = 0; i < updated; i++) {
+                managerAssignmentService.releaseManager(managerId);
+            }
+        }
+
+        List<Long> decidedIds = new ArrayList<>();
+        List<PortfolioRollupService.RequestChange> changes = new ArrayList<>();
+        for (Map.Entry<Long, String> outcome : outcomes.entrySet()) {
+            if (targetStatus.equals(outcome.getValue())) {
+                Object[] row = currentState.get(outcome.getKey());
+                Double previousAmount = (Double) row[4];
+                Double approvedAmount = "APPROVED".equals(targetStatus) ? itemsById.get(outcome.getKey()).getApprovedAmount() : null;
+                changes.add(new PortfolioRollupService.RequestChange((Long) row[3], managerId, "PENDING", previousAmount,
+                        targetStatus, approvedAmount != null ? approvedAmount : previousAmount));
+                decidedIds.add(outcome.getKey());
+            }
+        }
+        portfolioRollupService.requestsChanged(changes);
+        // Reloaded after the updates so the events carry the same payload as single decisions
+        if (!decidedIds.isEmpty()) {
+            loanRequestRepository.findByIdIn(decidedIds).stream()
+                    .sorted(Comparator.comparing(LoanRequest::getId))
+                    .forEach(decided -> outboxService.recordLoanRequestEvent(decided, targetStatus));
+        }
+        return outcomes;
     }
 }
@@ -2,6 +2,7 @@ package com.company.loan_management.service;
 
 import com.company.loan_management.exception.LoanNotFoundException;
 import com.company.loan_management.model.Loan;
+import com.company.loan_management.model.Role;
 import com.company.loan_management.model.User;
 import com.company.loan_management.repository.LoanRepository;
 import com.company.loan_management.repository.UserRepository;
@@ -10,8 +11,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service implementation for managing loan metadata.
@@ -56,6 +59,10 @@ public class LoanServiceImpl implements LoanService {
         }
 
 
+        if (loan.getApproverPool() != null) {
+            loan.setApproverPool(resolveManagers(loan.getApproverPool()));
+        }
+
         // Save the loan
         Loan saved = loanRepository.save(loan);
         log.info("Loan type created successfully: {}", saved.getLoanType());
@@ -117,6 +124,9 @@ public class LoanServiceImpl implements LoanService {
                     .orElseThrow(() -> new EntityNotFoundException("Manager not found with ID: " + managerId));
             existing.setApproverManager(manager);
         }
+        if (loan.getApproverPool() != null) {
+            existing.setApproverPool(resolveManagers(loan.getApproverPool()));
+        }
 
 
         Loan updated = loanRepository.save(existing);
@@ -141,4 +151,18 @@ public class LoanServiceImpl implements LoanService {
     public Optional<Loan> getLoanByType(String loanType) {
         return loanRepository.findByLoanType(loanType);
     }
+
+    // Loads every referenced user and ensures each one is a manager
+    private Set<User> resolveManagers(Set<User> managers) {
+        Set<User> resolved = new HashSet<>();
+        for (User ref : managers) {
+            User manager = userRepository.findById(ref.getId())
+                    .orElseThrow(() -> new EntityNotFoundException("Manager not found with ID: " + ref.getId()));
+            if (manager.getRole() != Role.MANAGER) {
+                throw new IllegalArgumentException("User with ID " + ref.getId() + " is not a manager");
+            }
+            resolved.add(manager);
+        }
+        return resolved;
+    }
 }
@@ -0,0 +1,26 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.model.Loan;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.User;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ManagerAssignmentService {
+
+    // Pick a manager for a new request of the given loan type and reserve a slot in their queue
+    User assignManager(Loan loan);
+
+    // Free a queue slot once a request assigned to the manager leaves PENDING
+    void releaseManager(Long managerId);
+
+    // Move pending requests their manager has held for more than the given number of days to less loaded eligible managers
+    List<LoanRequest> reassignStaleRequests(Integer olderThanDays);
+
+    // Snapshot of the live pending count per manager ID
+    Map<Long, Integer> getPendingCounts();
+
+    // Reload the pending counts from the database
+    void rebuildCounters();
+}
@@ -0,0 +1,265 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.config.AssignmentProperties;
+import com.company.loan_management.model.Loan;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.Role;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.LoanRepository;
+import com.company.loan_management.repository.LoanRequestRepository;
+import com.company.loan_management.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Spreads new loan requests across the managers eligible for a loan type.
+ * Pending counts are kept in memory, rebuilt from the database at startup,
+ * and adjusted as requests are assigned, decided or reassigned. Other replicas assign and decide
+ * requests too, so the counters are also resynced from the database periodically.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ManagerAssignmentServiceImpl implements ManagerAssignmentService {
+
+    private final LoanRepository loanRepository;
+    private final LoanRequestRepository loanRequestRepository;
+    private final UserRepository userRepository;
+    private final AssignmentProperties properties;
+    private final PortfolioRollupService portfolioRollupService;
+    private final OutboxService outboxService;
+
+    // Live number of PENDING requests per manager ID
+    private final Map<Long, AtomicInteger> pendingCounts = new ConcurrentHashMap<>();
+
+    // Held while a manager is picked and its counter reserved, so concurrent applies see each other's picks
+    private final ReentrantLock assignmentLock = new ReentrantLock();
+
+    // Smooth weighted round-robin state per loan ID: manager ID -> current weight
+    private final Map<Long, Map<Long, Integer>> roundRobinState = new ConcurrentHashMap<>();
+
+    /**
+     * Rebuilds the pending counters from the database once the application is ready.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildCounters() {
+        log.info("Rebuilt pending counters for {} managers", refreshCounters());
+    }
+
+    /**
+     * Picks up assignments and decisions made on other replicas.
+     */
+    @Scheduled(fixedDelayString = "${loan.assignment.counter-refresh-ms:60000}",
+            initialDelayString = "${loan.assignment.counter-refresh-ms:60000}")
+    public void scheduledCounterRefresh() {
+        refreshCounters();
+    }
+
+    // Counters are set in place, so a pick never sees a manager missing halfway through the refresh
+    private int refreshCounters() {
+        Map<Long, Integer> fresh = new HashMap<>();
+        for (Object[] row : loanRequestRepository.countPendingByManager()) {
+            fresh.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+        assignmentLock.lock();
+        try {
+            pendingCounts.forEach((managerId, count) -> count.set(fresh.getOrDefault(managerId, 0)));
+            fresh.forEach((managerId, count) -> counter(managerId).set(count));
+        } finally {
+            assignmentLock.unlock();
+        }
+        return fresh.size();
+    }
+
+    /**
+     * Picks a manager for a new request using the configured policy.
+     * The slot is reserved immediately and given back if the surrounding transaction rolls back.
+     */
+    @Override
+    public User assignManager(Loan loan) {
+        List<User> pool = eligibleManagers(loan);
+        if (pool.isEmpty()) {
+            log.warn("No eligible managers for {}, falling back to approver manager", loan.getLoanType());
+            return loan.getApproverManager();
+        }
+
+        User manager = reserve(() -> properties.getPolicy() == AssignmentProperties.Policy.WEIGHTED_ROUND_ROBIN
+                ? nextRoundRobin(loan.getId(), pool)
+                : leastLoaded(pool));
+
+        Long managerId = manager.getId();
+        onRollback(() -> decrement(managerId));
+        log.info("Assigned {} request to manager {} using {}", loan.getLoanType(), managerId, properties.getPolicy());
+        return manager;
+    }
+
+    /**
+     * Frees a slot in the manager's queue once the surrounding transaction commits.
+     */
+    @Override
+    public void releaseManager(Long managerId) {
+        afterCommit(() -> decrement(managerId));
+    }
+
+    /**
+     * Moves pending requests their manager has held too long to the least loaded other manager eligible
+     * for the loan type. The move restarts the request's clock, so it stays with the new manager for at
+     * least as long, and is published as a REASSIGNED event for the new manager's stream.
+     *
+     * @param olderThanDays days a manager may hold a pending request before it is stale, defaults to the configured value
+     * @return the requests that were reassigned
+     */
+    @Override
+    @Transactional
+    public List<LoanRequest> reassignStaleRequests(Integer olderThanDays) {
+        int days = olderThanDays != null ? olderThanDays : properties.getStaleAfterDays();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(days);
+        log.info("Reassigning pending loan requests assigned before {}", cutoff);
+
+        List<LoanRequest> reassigned = new ArrayList<>();
+        for (LoanRequest request : loanRequestRepository.findPendingAssignedBefore(cutoff, cutoff.toLocalDate())) {
+            Long currentId = request.getAssignedManager().getId();
+            List<User> candidates = eligibleManagers(request.getLoan()).stream()
+                    .filter(m -> !m.getId().equals(currentId))
+                    .toList();
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            User target = reserve(() -> leastLoaded(candidates));
+            request.setAssignedManager(target);
+            request.setAssignedAt(now);
+            onRollback(() -> decrement(target.getId()));
+            releaseManager(currentId);
+            LoanRequest saved = loanRequestRepository.save(request);
+            reassigned.add(saved);
+            portfolioRollupService.managerChanged(currentId, target.getId(), "PENDING", request.getRequestedAmount());
+            outboxService.recordLoanRequestEvent(saved, "REASSIGNED");
+            log.info("Reassigned loan request {} from manager {} to {}", request.getId(), currentId, target.getId());
+        }
+        return reassigned;
+    }
+
+    @Override
+    public Map<Long, Integer> getPendingCounts() {
+        Map<Long, Integer> snapshot = new TreeMap<>();
+        pendingCounts.forEach((id, count) -> snapshot.put(id, count.get()));
+        return snapshot;
+    }
+
+    // Managers configured for the loan type, or every active manager when no pool is configured
+    private List<User> eligibleManagers(Loan loan) {
+        List<User> pool = new ArrayList<>(loanRepository.findApproverPool(loan.getId()));
+        User approver = loan.getApproverManager();
+        if (pool.isEmpty()) {
+            pool.addAll(userRepository.findByRole(Role.MANAGER));
+        } else if (approver != null && pool.stream().noneMatch(m -> m.getId().equals(approver.getId()))) {
+            pool.add(approver);
+        }
+        return pool.stream()
+                .filter(User::isActive)
+                .sorted(Comparator.comparing(User::getId))
+                .toList();
+    }
+
+    // Lowest pending count relative to weight wins, ties go to the lowest manager ID
+    private User leastLoaded(List<User> pool) {
+        User best = null;
+        double bestLoad = Double.MAX_VALUE;
+        for (User manager : pool) {
+            double load = (double) counter(manager.getId()).get() / properties.weightOf(manager.getId());
+            if (load < bestLoad) {
+                best = manager;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    // Smooth weighted round-robin: every manager gains its weight, the highest is picked and pays back the total
+    private User nextRoundRobin(Long loanId, List<User> pool) {
+        Map<Long, Integer> state = roundRobinState.computeIfAbsent(loanId, k -> new HashMap<>());
+        synchronized (state) {
+            Set<Long> poolIds = new HashSet<>();
+            int totalWeight = 0;
+            User best = null;
+            int bestWeight = Integer.MIN_VALUE;
+            for (User manager : pool) {
+                int weight = properties.weightOf(manager.getId());
+                int current = state.merge(manager.getId(), weight, Integer::sum);
+                totalWeight += weight;
+                poolIds.add(manager.getId());
+                if (current > bestWeight) {
+                    best = manager;
+                    bestWeight = current;
+                }
+            }
+            state.keySet().retainAll(poolIds);
+            state.put(best.getId(), bestWeight - totalWeight);
+            return best;
+        }
+    }
+
+    // Picks a manager and takes a slot in its queue as one step
+    private User reserve(Supplier<User> pick) {
+        assignmentLock.lock();
+        try {
+            User manager = pick.get();
+            counter(manager.getId()).incrementAndGet();
+            return manager;
+        } finally {
+            assignmentLock.unlock();
+        }
+    }
+
+    private AtomicInteger counter(Long managerId) {
+        return pendingCounts.computeIfAbsent(managerId, k -> new AtomicInteger());
+    }
+
+    private void decrement(Long managerId) {
+        counter(managerId).updateAndGet(c -> Math.max(0, c - 1));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
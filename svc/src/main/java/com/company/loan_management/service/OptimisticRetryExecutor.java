@@ -0,0 +1,82 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.exception.ConcurrentUpdateException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs an operation in its own transaction and re-runs it on a fresh read when the
+ * commit loses an optimistic version check.
+ * Only use it for operations that are safe to execute again from scratch after a rollback
+ * (idempotent updates such as marking an EMI paid or patching user fields). State transitions
+ * like approve, reject and disburse are not retried, so the caller sees the conflict as a 409.
+ */
+@Component
+@Slf4j
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticRetryExecutor(TransactionTemplate transactionTemplate,
+                                   @Value("${loan.optimistic-retry.max-attempts:3}") int maxAttempts,
+                                   @Value("${loan.optimistic-retry.backoff-ms:10}") long backoffMillis) {
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+    }
+
+    /**
+     * Executes the action, retrying on optimistic lock conflicts.
+     * When a transaction is already active the action runs once and the outer caller owns the retry.
+     *
+     * @param operation short description used in logs and the conflict message
+     * @param action    the work to execute
+     * @return the action's result
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("{} failed after {} attempts due to concurrent updates", operation, attempt);
+                    throw new ConcurrentUpdateException(operation + " conflicted with a concurrent update, please retry.");
+                }
+                log.info("{} hit a concurrent update, retrying (attempt {}/{})", operation, attempt + 1, maxAttempts);
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Linear backoff with jitter so colliding writers do not retry in lockstep
+    private void backoff(int attempt) {
+        if (backoffMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(backoffMillis * attempt + ThreadLocalRandom.current().nextLong(backoffMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying a concurrent update.");
+        }
+    }
+}
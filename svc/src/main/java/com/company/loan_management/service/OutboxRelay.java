@@ -0,0 +1,94 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.EventRecordDTO;
+import com.company.loan_management.model.OutboxEvent;
+import com.company.loan_management.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drains the outbox table into the shared event log in batches.
+ * A batch is appended and its outbox rows deleted in one transaction, so every outbox row reaches the
+ * log exactly once; a relay that overlaps another one during a lease handover fails on the event ID key
+ * and rolls back. Subscribers of the event stream are fed by every node tailing the log, not by the relay.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventLog eventLog;
+    private final ObjectMapper objectMapper;
+    private final ClusterScheduler clusterScheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, EventLog eventLog, ObjectMapper objectMapper,
+                       ClusterScheduler clusterScheduler, TransactionTemplate transactionTemplate,
+                       @Value("${loan.events.relay-batch-size:500}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventLog = eventLog;
+        this.objectMapper = objectMapper;
+        this.clusterScheduler = clusterScheduler;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Periodic drain, run by one node of the cluster at a time so the event log keeps outbox order.
+     */
+    @Scheduled(fixedDelayString = "${loan.events.relay-interval-ms:1000}")
+    public void scheduledDrain() {
+        clusterScheduler.runExclusive("outbox-relay", null, this::drain);
+    }
+
+    /**
+     * Moves pending outbox rows to the event log until the outbox is empty.
+     *
+     * @return number of events relayed
+     */
+    public synchronized int drain() {
+        int relayed = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxEventRepository.findByOrderByIdAsc(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<OutboxEvent> events = batch;
+            transactionTemplate.executeWithoutResult(status -> {
+                eventLog.append(events.stream().map(this::toRecord).toList());
+                outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+            });
+            relayed += batch.size();
+        } while (batch.size() == batchSize);
+
+        if (relayed > 0) {
+            log.info("Relayed {} outbox events, event log end offset {}", relayed, eventLog.endOffset());
+        }
+        return relayed;
+    }
+
+    private EventRecordDTO toRecord(OutboxEvent event) {
+        try {
+            return EventRecordDTO.builder()
+                    .eventId(event.getId())
+                    .aggregateType(event.getAggregateType())
+                    .aggregateId(event.getAggregateId())
+                    .eventType(event.getEventType())
+                    .createdAt(event.getCreatedAt())
+                    .payload(objectMapper.readTree(event.getPayload()))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt payload in outbox event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.model.LoanRepayment;
+import com.company.loan_management.model.LoanRequest;
+
+import java.util.Map;
+
+public interface OutboxService {
+
+    // Record a lifecycle event in the caller's transaction
+    void record(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload);
+
+    void recordLoanRequestEvent(LoanRequest request, String eventType);
+
+    void recordRepaymentEvent(LoanRepayment repayment, String eventType);
+}
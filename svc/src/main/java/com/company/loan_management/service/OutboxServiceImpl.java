@@ -0,0 +1,76 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.model.LoanRepayment;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.OutboxEvent;
+import com.company.loan_management.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes lifecycle events to the outbox table. Must be called inside the transaction
+ * that performs the state change so the event commits or rolls back with it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void record(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .eventType(eventType)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .build());
+            log.debug("Recorded {} event for {} {}", eventType, aggregateType, aggregateId);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " event for " + aggregateType + " " + aggregateId, e);
+        }
+    }
+
+    @Override
+    public void recordLoanRequestEvent(LoanRequest request, String eventType) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("requestId", request.getId());
+        payload.put("userId", request.getUser().getId());
+        payload.put("managerId", request.getAssignedManager().getId());
+        payload.put("loanType", request.getLoan().getLoanType());
+        payload.put("status", request.getStatus());
+        payload.put("requestedAmount", request.getRequestedAmount());
+        payload.put("managerRemarks", request.getManagerRemarks());
+        payload.put("requestDate", request.getRequestDate());
+        payload.put("approvalDate", request.getApprovalDate());
+        payload.put("rejectionDate", request.getRejectionDate());
+        payload.put("disbursementDate", request.getDisbursementDate());
+        record("LoanRequest", request.getId(), eventType, payload);
+    }
+
+    @Override
+    public void recordRepaymentEvent(LoanRepayment repayment, String eventType) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("repaymentId", repayment.getId());
+        payload.put("loanRequestId", repayment.getLoanRequest().getId());
+        payload.put("userId", repayment.getLoanRequest().getUser().getId());
+        payload.put("emiAmount", repayment.getEmiAmount());
+        payload.put("repaymentDate", repayment.getRepaymentDate());
+        payload.put("status", repayment.getStatus());
+        payload.put("paymentDate", repayment.getPaymentDate());
+        payload.put("paymentMode", repayment.getPaymentMode());
+        record("LoanRepayment", repayment.getId(), eventType, payload);
+    }
+}
@@ -0,0 +1,14 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.OverdueRunSummaryDTO;
+import com.company.loan_management.dto.UserDelinquencyDTO;
+
+import java.time.LocalDate;
+
+public interface OverdueService {
+
+    // Flag PENDING installments past their due date (plus grace days) as OVERDUE, continuing from the last run's watermark
+    OverdueRunSummaryDTO detectOverdue(LocalDate today);
+
+    UserDelinquencyDTO getDelinquency(Long userId);
+}
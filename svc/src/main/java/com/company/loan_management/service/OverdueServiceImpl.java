@@ -0,0 +1,216 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.OverdueRunSummaryDTO;
+import com.company.loan_management.dto.UserDelinquencyDTO;
+import com.company.loan_management.model.JobWatermark;
+import com.company.loan_management.model.UserDelinquency;
+import com.company.loan_management.repository.JobWatermarkRepository;
+import com.company.loan_management.repository.UserDelinquencyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Overdue detection and late penalties.
+ * PENDING installments are range-scanned in (repayment_date, id) order through the status/date index,
+ * starting after the watermark the previous run left behind, so a daily run only reads the installments
+ * that fell due since then. Each batch flips its rows to OVERDUE with a conditional JDBC batch update and,
+ * in the same transaction, bumps the per-user delinquency counters, records outbox events and advances
+ * the watermark.
+ */
+@Service
+@Slf4j
+public class OverdueServiceImpl implements OverdueService {
+
+    static final String JOB_NAME = "overdue-scan";
+
+    private static final String SELECT_DUE = "select rp.id, rp.loan_request_id, lr.user_id, rp.emi_amount, rp.repayment_date "
+            + "from loan_repayment rp join loan_request lr on lr.id = rp.loan_request_id "
+            + "where rp.status = 'PENDING' and rp.repayment_date < ? "
+            + "and (rp.repayment_date > ? or (rp.repayment_date = ? and rp.id > ?)) "
+            + "order by rp.repayment_date, rp.id limit ?";
+
+    // Guarded on status so an installment paid since it was read is left alone
+    private static final String MARK_OVERDUE = "update loan_repayment set status = 'OVERDUE', penalty_amount = ?, "
+            + "version = version + 1 where id = ? and status = 'PENDING'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterScheduler clusterScheduler;
+    private final JobWatermarkRepository watermarkRepository;
+    private final UserDelinquencyRepository delinquencyRepository;
+    private final OutboxService outboxService;
+    private final UserLoanSummaryService loanSummaryService;
+    private final int batchSize;
+    private final int graceDays;
+    private final double flatFee;
+    private final double ratePercent;
+
+    public OverdueServiceImpl(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              ClusterScheduler clusterScheduler,
+                              JobWatermarkRepository watermarkRepository,
+                              UserDelinquencyRepository delinquencyRepository,
+                              OutboxService outboxService,
+                              UserLoanSummaryService loanSummaryService,
+                              @Value("${loan.overdue.batch-size:1000}") int batchSize,
+                              @Value("${loan.overdue.grace-days:0}") int graceDays,
+                              @Value("${loan.overdue.penalty.flat-fee:0}") double flatFee,
+                              @Value("${loan.overdue.penalty.rate-percent:2}") double ratePercent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterScheduler = clusterScheduler;
+        this.watermarkRepository = watermarkRepository;
+        this.delinquencyRepository = delinquencyRepository;
+        this.outboxService = outboxService;
+        this.loanSummaryService = loanSummaryService;
+        this.batchSize = batchSize;
+        this.graceDays = graceDays;
+        this.flatFee = flatFee;
+        this.ratePercent = ratePercent;
+    }
+
+    private record DueInstallment(long id, long loanRequestId, long userId, double emiAmount, LocalDate dueDate) {
+    }
+
+    // Penalties of one batch, grouped by user
+    private static final class UserTotals {
+        int count;
+        double penalty;
+        LocalDate lastDueDate;
+    }
+
+    /**
+     * Nightly overdue scan.
+     */
+    @Scheduled(cron = "${loan.overdue.cron:0 0 1 * * *}")
+    public void scheduledScan() {
+        LocalDate today = LocalDate.now();
+        clusterScheduler.runExclusive(JOB_NAME, today.toString(), () -> detectOverdue(today));
+    }
+
+    @Override
+    public OverdueRunSummaryDTO detectOverdue(LocalDate today) {
+        LocalDate dueBefore = today.minusDays(graceDays);
+        JobWatermark watermark = watermarkRepository.findById(JOB_NAME).orElse(null);
+        LocalDate afterDate = watermark != null ? watermark.getWatermarkDate() : LocalDate.EPOCH;
+        long afterId = watermark != null ? watermark.getWatermarkId() : 0L;
+
+        long start = System.currentTimeMillis();
+        int flagged = 0;
+        double penalties = 0;
+        Set<Long> users = new HashSet<>();
+        while (true) {
+            List<DueInstallment> batch = jdbcTemplate.query(SELECT_DUE,
+                    (rs, i) -> new DueInstallment(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getDouble(4),
+                            rs.getDate(5).toLocalDate()),
+                    Date.valueOf(dueBefore), Date.valueOf(afterDate), Date.valueOf(afterDate), afterId, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<Long, UserTotals> totals = transactionTemplate.execute(status -> flagBatch(batch));
+            for (Map.Entry<Long, UserTotals> entry : totals.entrySet()) {
+                flagged += entry.getValue().count;
+                penalties += entry.getValue().penalty;
+                users.add(entry.getKey());
+            }
+            DueInstallment last = batch.get(batch.size() - 1);
+            afterDate = last.dueDate();
+            afterId = last.id();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        log.info("Overdue scan for installments due before {} flagged {} installments of {} users in {} ms",
+                dueBefore, flagged, users.size(), System.currentTimeMillis() - start);
+        return OverdueRunSummaryDTO.builder()
+                .dueBefore(dueBefore)
+                .flagged(flagged)
+                .users(users.size())
+                .penalties(penalties)
+                .build();
+    }
+
+    @Override
+    public UserDelinquencyDTO getDelinquency(Long userId) {
+        UserDelinquency delinquency = delinquencyRepository.findById(userId)
+                .orElseGet(() -> UserDelinquency.builder().userId(userId).build());
+        return UserDelinquencyDTO.builder()
+                .userId(userId)
+                .overdueCount(delinquency.getOverdueCount())
+                .lifetimeOverdueCount(delinquency.getLifetimeOverdueCount())
+                .totalPenalty(delinquency.getTotalPenalty())
+                .lastOverdueDate(delinquency.getLastOverdueDate())
+                .build();
+    }
+
+    private double penaltyFor(DueInstallment installment) {
+        return flatFee + installment.emiAmount() * ratePercent / 100;
+    }
+
+    private Map<Long, UserTotals> flagBatch(List<DueInstallment> batch) {
+        int[][] updated = jdbcTemplate.batchUpdate(MARK_OVERDUE, batch, batchSize, (ps, installment) -> {
+            ps.setDouble(1, penaltyFor(installment));
+            ps.setLong(2, installment.id());
+        });
+
+        Map<Long, UserTotals> totals = new HashMap<>();
+        int index = 0;
+        for (int[] chunk : updated) {
+            for (int count : chunk) {
+                DueInstallment installment = batch.get(index++);
+                if (count == 0) {
+                    continue;
+                }
+                double penalty = penaltyFor(installment);
+                UserTotals user = totals.computeIfAbsent(installment.userId(), id -> new UserTotals());
+                user.count++;
+                user.penalty += penalty;
+                user.lastDueDate = installment.dueDate();
+                outboxService.record("LoanRepayment", installment.id(), "OVERDUE", Map.of(
+                        "loanRequestId", installment.loanRequestId(),
+                        "userId", installment.userId(),
+                        "repaymentDate", installment.dueDate().toString(),
+                        "penaltyAmount", penalty));
+            }
+        }
+
+        totals.forEach((userId, user) -> {
+            if (delinquencyRepository.addOverdue(userId, user.count, user.penalty, user.lastDueDate) == 0) {
+                delinquencyRepository.save(UserDelinquency.builder()
+                        .userId(userId)
+                        .overdueCount(user.count)
+                        .lifetimeOverdueCount(user.count)
+                        .totalPenalty(user.penalty)
+                        .lastOverdueDate(user.lastDueDate)
+                        .updatedAt(LocalDateTime.now())
+                        .build());
+            }
+        });
+
+        // Penalties raise the amount due next
+        loanSummaryService.refresh(totals.keySet());
+
+        DueInstallment last = batch.get(batch.size() - 1);
+        JobWatermark watermark = watermarkRepository.findById(JOB_NAME)
+                .orElseGet(() -> JobWatermark.builder().jobName(JOB_NAME).build());
+        watermark.setWatermarkDate(last.dueDate());
+        watermark.setWatermarkId(last.id());
+        watermark.setUpdatedAt(LocalDateTime.now());
+        watermarkRepository.save(watermark);
+        return totals;
+    }
+}
@@ -0,0 +1,35 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.PortfolioAnalyticsDTO;
+import com.company.loan_management.dto.PortfolioSegmentDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PortfolioRollupService {
+
+    // A loan request moved between statuses and/or amounts; fromStatus is null for a new request
+    record RequestChange(Long loanId, Long managerId, String fromStatus, Double fromAmount, String toStatus, Double toAmount) {
+    }
+
+    // Applies the changes in the caller's transaction
+    void requestsChanged(Collection<RequestChange> changes);
+
+    default void requestChanged(Long loanId, Long managerId, String fromStatus, Double fromAmount, String toStatus, Double toAmount) {
+        requestsChanged(List.of(new RequestChange(loanId, managerId, fromStatus, fromAmount, toStatus, toAmount)));
+    }
+
+    // A request moved to another manager without changing status. Caller's transaction.
+    void managerChanged(Long fromManagerId, Long toManagerId, String status, Double amount);
+
+    // Unpaid principal and interest of a request's installments changed by the given deltas. Caller's transaction.
+    void repaymentsChanged(Long loanId, Long managerId, String requestStatus, double principalDelta, double interestDelta);
+
+    // Recompute all rollups from the loan request, repayment and archive tables
+    void rebuild();
+
+    PortfolioAnalyticsDTO getAnalytics();
+
+    // One manager's segment, read from that manager's rollup rows only
+    PortfolioSegmentDTO getManagerSegment(Long managerId, String managerName);
+}
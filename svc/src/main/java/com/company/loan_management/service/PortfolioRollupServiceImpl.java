@@ -0,0 +1,267 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.PortfolioAnalyticsDTO;
+import com.company.loan_management.dto.PortfolioSegmentDTO;
+import com.company.loan_management.model.Loan;
+import com.company.loan_management.model.PortfolioRollup;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.LoanRepository;
+import com.company.loan_management.repository.PortfolioRollupRepository;
+import com.company.loan_management.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Portfolio rollups per loan type and per manager, split by loan request status.
+ * Every change is applied as a delta to at most a handful of rows in the caller's transaction, always in
+ * the same row order so concurrent writers cannot deadlock, and the analytics read only touches the
+ * rollup rows, so its cost depends on the number of loan types, managers and statuses rather than on
+ * the size of the loan book. The nightly rebuild recomputes every row from the live and archive tables
+ * to correct any drift.
+ */
+@Service
+@Slf4j
+public class PortfolioRollupServiceImpl implements PortfolioRollupService {
+
+    static final String LOAN = "LOAN";
+    static final String MANAGER = "MANAGER";
+
+    private static final String APPLY_DELTA = "update portfolio_rollup set request_count = request_count + ?, "
+            + "requested_amount = requested_amount + ?, outstanding_principal = outstanding_principal + ?, "
+            + "interest_due = interest_due + ?, updated_at = ? where dimension = ? and dimension_key = ? and status = ?";
+
+    private static final String INSERT = "insert into portfolio_rollup (request_count, requested_amount, outstanding_principal, "
+            + "interest_due, updated_at, dimension, dimension_key, status) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SET_TOTALS = "update portfolio_rollup set request_count = ?, requested_amount = ?, "
+            + "outstanding_principal = ?, interest_due = ?, updated_at = ? where dimension = ? and dimension_key = ? and status = ?";
+
+    // Archived requests stay in the book; their repayments are all PAID, so they add nothing outstanding
+    private static final String SELECT_REQUEST_TOTALS = "select loan_id, manager_id, status, count(*), sum(requested_amount) from ("
+            + "select loan_id, manager_id, status, requested_amount from loan_request "
+            + "union all select loan_id, manager_id, status, requested_amount from archived_loan_request) r "
+            + "group by loan_id, manager_id, status";
+
+    private static final String SELECT_UNPAID_TOTALS = "select lr.loan_id, lr.manager_id, lr.status, "
+            + "sum(rp.principal_payment), sum(rp.interest_payment) from loan_repayment rp "
+            + "join loan_request lr on lr.id = rp.loan_request_id where rp.status <> 'PAID' "
+            + "group by lr.loan_id, lr.manager_id, lr.status";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PortfolioRollupRepository rollupRepository;
+    private final LoanRepository loanRepository;
+    private final UserRepository userRepository;
+    private final ClusterScheduler clusterScheduler;
+
+    public PortfolioRollupServiceImpl(JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      PortfolioRollupRepository rollupRepository,
+                                      LoanRepository loanRepository,
+                                      UserRepository userRepository,
+                                      ClusterScheduler clusterScheduler) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rollupRepository = rollupRepository;
+        this.loanRepository = loanRepository;
+        this.userRepository = userRepository;
+        this.clusterScheduler = clusterScheduler;
+    }
+
+    private record Segment(String dimension, long key, String status) implements Comparable<Segment> {
+        private static final Comparator<Segment> ORDER = Comparator.comparing(Segment::dimension)
+                .thenComparingLong(Segment::key)
+                .thenComparing(Segment::status);
+
+        @Override
+        public int compareTo(Segment other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    // count, requested amount, outstanding principal, interest due
+    private static void add(Map<Segment, double[]> totals, Segment segment, double count, double amount,
+                            double principal, double interest) {
+        double[] values = totals.computeIfAbsent(segment, s -> new double[4]);
+        values[0] += count;
+        values[1] += amount;
+        values[2] += principal;
+        values[3] += interest;
+    }
+
+    private static void addBoth(Map<Segment, double[]> totals, long loanId, long managerId, String status,
+                                double count, double amount, double principal, double interest) {
+        add(totals, new Segment(LOAN, loanId, status), count, amount, principal, interest);
+        add(totals, new Segment(MANAGER, managerId, status), count, amount, principal, interest);
+    }
+
+    @Override
+    public void requestsChanged(Collection<RequestChange> changes) {
+        Map<Segment, double[]> deltas = new TreeMap<>();
+        for (RequestChange change : changes) {
+            if (change.fromStatus() != null) {
+                addBoth(deltas, change.loanId(), change.managerId(), change.fromStatus(), -1, -amount(change.fromAmount()), 0, 0);
+            }
+            addBoth(deltas, change.loanId(), change.managerId(), change.toStatus(), 1, amount(change.toAmount()), 0, 0);
+        }
+        applyDeltas(deltas);
+    }
+
+    @Override
+    public void managerChanged(Long fromManagerId, Long toManagerId, String status, Double amount) {
+        Map<Segment, double[]> deltas = new TreeMap<>();
+        add(deltas, new Segment(MANAGER, fromManagerId, status), -1, -amount(amount), 0, 0);
+        add(deltas, new Segment(MANAGER, toManagerId, status), 1, amount(amount), 0, 0);
+        applyDeltas(deltas);
+    }
+
+    @Override
+    public void repaymentsChanged(Long loanId, Long managerId, String requestStatus, double principalDelta, double interestDelta) {
+        Map<Segment, double[]> deltas = new TreeMap<>();
+        addBoth(deltas, loanId, managerId, requestStatus, 0, 0, principalDelta, interestDelta);
+        applyDeltas(deltas);
+    }
+
+    private static double amount(Double amount) {
+        return amount != null ? amount : 0.0;
+    }
+
+    // Rows are touched in Segment order; a segment seen for the first time is inserted
+    private void applyDeltas(Map<Segment, double[]> deltas) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        deltas.forEach((segment, values) -> {
+            if (values[0] == 0 && values[1] == 0 && values[2] == 0 && values[3] == 0) {
+                return;
+            }
+            Object[] args = {(long) values[0], values[1], values[2], values[3], now,
+                    segment.dimension(), segment.key(), segment.status()};
+            if (jdbcTemplate.update(APPLY_DELTA, args) == 0) {
+                try {
+                    jdbcTemplate.update(INSERT, args);
+                } catch (DuplicateKeyException e) {
+                    // Another transaction inserted the row first
+                    jdbcTemplate.update(APPLY_DELTA, args);
+                }
+            }
+        });
+    }
+
+    /**
+     * Nightly drift correction.
+     */
+    @Scheduled(cron = "${loan.rollup.rebuild-cron:0 45 3 * * *}")
+    public void scheduledRebuild() {
+        clusterScheduler.runExclusive("portfolio-rollup-rebuild", LocalDate.now().toString(), this::rebuild);
+    }
+
+    /**
+     * Locks the existing rollup rows first, so writers that already applied a delta commit before the
+     * totals are read and writers that come later apply their delta on top of the rebuilt values.
+     */
+    @Override
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int rows = transactionTemplate.execute(status -> {
+            Map<Segment, Boolean> existing = new HashMap<>();
+            jdbcTemplate.query("select dimension, dimension_key, status from portfolio_rollup for update",
+                    (RowCallbackHandler) rs -> existing.put(new Segment(rs.getString(1), rs.getLong(2), rs.getString(3)), Boolean.TRUE));
+
+            Map<Segment, double[]> totals = new TreeMap<>();
+            existing.keySet().forEach(segment -> totals.put(segment, new double[4]));
+            jdbcTemplate.query(SELECT_REQUEST_TOTALS, (RowCallbackHandler) rs -> addBoth(totals,
+                    rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getLong(4), rs.getDouble(5), 0, 0));
+            jdbcTemplate.query(SELECT_UNPAID_TOTALS, (RowCallbackHandler) rs -> addBoth(totals,
+                    rs.getLong(1), rs.getLong(2), rs.getString(3), 0, 0, rs.getDouble(4), rs.getDouble(5)));
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            totals.forEach((segment, values) -> {
+                Object[] args = {(long) values[0], values[1], values[2], values[3], now,
+                        segment.dimension(), segment.key(), segment.status()};
+                (existing.containsKey(segment) ? updates : inserts).add(args);
+            });
+            jdbcTemplate.batchUpdate(SET_TOTALS, updates);
+            jdbcTemplate.batchUpdate(INSERT, inserts);
+            return totals.size();
+        });
+        log.info("Rebuilt {} portfolio rollup rows in {} ms", rows, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public PortfolioAnalyticsDTO getAnalytics() {
+        List<PortfolioRollup> rollups = rollupRepository.findAll();
+        Map<String, Map<Long, List<PortfolioRollup>>> byDimension = rollups.stream()
+                .collect(Collectors.groupingBy(PortfolioRollup::getDimension,
+                        Collectors.groupingBy(PortfolioRollup::getDimensionKey, TreeMap::new, Collectors.toList())));
+        Map<Long, List<PortfolioRollup>> loans = byDimension.getOrDefault(LOAN, Map.of());
+        Map<Long, List<PortfolioRollup>> managers = byDimension.getOrDefault(MANAGER, Map.of());
+
+        Map<Long, String> loanTypes = loanRepository.findAllById(loans.keySet()).stream()
+                .collect(Collectors.toMap(Loan::getId, Loan::getLoanType));
+        Map<Long, String> managerNames = userRepository.findAllById(managers.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, User::getName));
+
+        return PortfolioAnalyticsDTO.builder()
+                .total(toSegment(null, "All loans", rollups.stream().filter(r -> LOAN.equals(r.getDimension())).toList()))
+                .byLoanType(toSegments(loans, loanTypes::get))
+                .byManager(toSegments(managers, managerNames::get))
+                .build();
+    }
+
+    @Override
+    public PortfolioSegmentDTO getManagerSegment(Long managerId, String managerName) {
+        return toSegment(managerId, managerName, rollupRepository.findByDimensionAndDimensionKey(MANAGER, managerId));
+    }
+
+    private static List<PortfolioSegmentDTO> toSegments(Map<Long, List<PortfolioRollup>> rowsByKey, Function<Long, String> names) {
+        return rowsByKey.entrySet().stream()
+                .map(entry -> toSegment(entry.getKey(), Objects.requireNonNullElse(names.apply(entry.getKey()), "#" + entry.getKey()),
+                        entry.getValue()))
+                .toList();
+    }
+
+    private static PortfolioSegmentDTO toSegment(Long id, String name, List<PortfolioRollup> rows) {
+        Map<String, Long> counts = new TreeMap<>();
+        double disbursed = 0;
+        double principal = 0;
+        double interest = 0;
+        for (PortfolioRollup row : rows) {
+            if (row.getRequestCount() > 0) {
+                counts.merge(row.getStatus(), row.getRequestCount(), Long::sum);
+            }
+            if ("DISBURSED".equals(row.getStatus())) {
+                disbursed += row.getRequestedAmount();
+            }
+            principal += row.getOutstandingPrincipal();
+            interest += row.getInterestDue();
+        }
+        return PortfolioSegmentDTO.builder()
+                .id(id)
+                .name(name)
+                .countsByStatus(counts)
+                .disbursedVolume(disbursed)
+                .outstandingPrincipal(principal)
+                .interestDue(interest)
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.company.loan_management.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ReportStreamService {
+
+    // Writes one LoanRepaymentDTO per line; both filters are optional
+    void streamRepayments(Long userId, String status, OutputStream out) throws IOException;
+
+    // Writes one ManagerLoanRequestDTO per line; without a filter the disbursal queue (APPROVED and DISBURSED)
+    void streamLoanRequests(String statusFilter, OutputStream out) throws IOException;
+}
@@ -0,0 +1,164 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.LoanRepaymentDTO;
+import com.company.loan_management.dto.ManagerLoanRequestDTO;
+import com.company.loan_management.dto.UserDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streams large finance listings as newline-delimited JSON without loading them into memory.
+ * Rows are read straight into DTOs in keyset pages ordered by ID, each page with its own short query
+ * outside any transaction, so a connection is only borrowed while a page is read and never while the
+ * client is receiving it. The next page is read only once the previous one has been written, so a slow
+ * client slows its own reads down instead of buffering the listing.
+ * <p>
+ * A listing is consistent per page, not as a whole: rows changed while it streams show up with the
+ * state they had when their page was read.
+ */
+@Service
+@Slf4j
+public class ReportStreamServiceImpl implements ReportStreamService {
+
+    private static final String SELECT_REPAYMENTS = "select rp.id, rp.loan_request_id, rp.emi_amount, rp.repayment_date, "
+            + "rp.status, rp.penalty_amount from loan_repayment rp ";
+    private static final String JOIN_REQUEST = "join loan_request lr on lr.id = rp.loan_request_id ";
+
+    private static final String SELECT_LOAN_REQUESTS = "select lr.id, l.loan_type, lr.requested_amount, lr.status, "
+            + "lr.manager_remarks, lr.eligibility_flags, lrs.score as risk_score, "
+            + "lr.request_date, lr.approval_date, lr.rejection_date, lr.disbursement_date, "
+            + "u.id as user_id, u.name, u.username, u.email, u.role, u.salary, u.bank_account_number, "
+            + "u.account_balance, u.department "
+            + "from loan_request lr join loan l on l.id = lr.loan_id join users u on u.id = lr.user_id "
+            + "left join loan_risk_score lrs on lrs.loan_request_id = lr.id ";
+
+    private static final RowMapper<LoanRepaymentDTO> REPAYMENT_ROW = (rs, rowNum) -> LoanRepaymentDTO.builder()
+            .id(rs.getLong("id"))
+            .loanRequestId(rs.getLong("loan_request_id"))
+            .emiAmount(rs.getDouble("emi_amount"))
+            .repaymentDate(localDate(rs, "repayment_date"))
+            .status(rs.getString("status"))
+            .penaltyAmount(rs.getObject("penalty_amount", Double.class))
+            .build();
+
+    private static final RowMapper<ManagerLoanRequestDTO> LOAN_REQUEST_ROW = (rs, rowNum) -> ManagerLoanRequestDTO.builder()
+            .id(rs.getLong("id"))
+            .loanType(rs.getString("loan_type"))
+            .requestedAmount(rs.getObject("requested_amount", Double.class))
+            .status(rs.getString("status"))
+            .managerRemarks(rs.getString("manager_remarks"))
+            .eligibilityFlags(rs.getString("eligibility_flags"))
+            .riskScore(rs.getObject("risk_score", Double.class))
+            .requestDate(localDate(rs, "request_date"))
+            .approvalDate(localDate(rs, "approval_date"))
+            .rejectionDate(localDate(rs, "rejection_date"))
+            .disbursementDate(localDate(rs, "disbursement_date"))
+            .userDTO(UserDTO.builder()
+                    .id(rs.getLong("user_id"))
+                    .name(rs.getString("name"))
+                    .username(rs.getString("username"))
+                    .email(rs.getString("email"))
+                    .role(rs.getString("role"))
+                    .salary(rs.getObject("salary", Double.class))
+                    .bankAccountNumber(rs.getString("bank_account_number"))
+                    .accountBalance(rs.getObject("account_balance", Double.class))
+                    .department(rs.getString("department"))
+                    .build())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+
+    public ReportStreamServiceImpl(JdbcTemplate jdbcTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Value("${loan.streaming.page-size:500}") int pageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void streamRepayments(Long userId, String status, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(SELECT_REPAYMENTS);
+        List<Object> filters = new ArrayList<>();
+        if (userId != null) {
+            sql.append(JOIN_REQUEST).append("where lr.user_id = ? and ");
+            filters.add(userId);
+        } else {
+            sql.append("where ");
+        }
+        if (status != null && !status.isEmpty()) {
+            sql.append("rp.status = ? and ");
+            filters.add(status);
+        }
+        sql.append("rp.id > ? order by rp.id limit ?");
+
+        long rows = stream(sql.toString(), filters, REPAYMENT_ROW, LoanRepaymentDTO::getId, out);
+        log.info("Streamed {} repayments, user filter: {}, status filter: {}", rows, userId, status);
+    }
+
+    @Override
+    public void streamLoanRequests(String statusFilter, OutputStream out) throws IOException {
+        List<Object> filters = new ArrayList<>();
+        String where;
+        if (statusFilter == null || statusFilter.isEmpty()) {
+            where = "where lr.status in ('APPROVED', 'DISBURSED') and ";
+        } else {
+            where = "where lr.status = ? and ";
+            filters.add(statusFilter);
+        }
+        String sql = SELECT_LOAN_REQUESTS + where + "lr.id > ? order by lr.id limit ?";
+
+        long rows = stream(sql, filters, LOAN_REQUEST_ROW, ManagerLoanRequestDTO::getId, out);
+        log.info("Streamed {} loan requests, status filter: {}", rows, statusFilter);
+    }
+
+    // Query parameters are the filters followed by the last ID written and the page size
+    private <T> long stream(String sql, List<Object> filters, RowMapper<T> rowMapper, Function<T, Long> id,
+                            OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        Object[] args = filters.toArray(new Object[filters.size() + 2]);
+        long lastId = 0;
+        long rows = 0;
+        List<T> page;
+        do {
+            args[filters.size()] = lastId;
+            args[filters.size() + 1] = pageSize;
+            page = jdbcTemplate.query(sql, rowMapper, args);
+            for (T row : page) {
+                json.writeObject(row);
+                json.writeRaw('\n');
+            }
+            json.flush();
+            if (!page.isEmpty()) {
+                lastId = id.apply(page.get(page.size() - 1));
+                rows += page.size();
+            }
+        } while (page.size() == pageSize);
+        json.close();
+        return rows;
+    }
+
+    private static LocalDate localDate(ResultSet rs, String column) throws SQLException {
+        Date date = rs.getDate(column);
+        return date != null ? date.toLocalDate() : null;
+    }
+}
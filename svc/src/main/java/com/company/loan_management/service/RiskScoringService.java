@@ -0,0 +1,12 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.RiskScoringRunDTO;
+
+public interface RiskScoringService {
+
+    // Rescore the PENDING requests of every applicant
+    RiskScoringRunDTO scoreAll();
+
+    // Score new PENDING requests and rescore applicants whose repayments changed since their last score
+    RiskScoringRunDTO scoreChanged();
+}
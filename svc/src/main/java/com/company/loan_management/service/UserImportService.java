@@ -0,0 +1,15 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.UserImportResultDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserImportService {
+
+    // CSV with a header row naming the columns, e.g. name,username,email,password,role,salary,bankAccountNumber
+    UserImportResultDTO importCsv(InputStream in) throws IOException;
+
+    // JSON array of objects with the same fields as the CSV columns
+    UserImportResultDTO importJson(InputStream in) throws IOException;
+}
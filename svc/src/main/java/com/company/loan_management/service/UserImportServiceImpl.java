@@ -0,0 +1,464 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.UserImportErrorDTO;
+import com.company.loan_management.dto.UserImportResultDTO;
+import com.company.loan_management.exception.InvalidImportFileException;
+import com.company.loan_management.model.Role;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk onboarding of users from a CSV or JSON upload, read as a stream and imported in chunks.
+ * Each chunk checks its usernames and emails against the users table with one query, hashes the
+ * passwords in parallel on a CPU-bound pool shared by all imports, and inserts its users with one
+ * JDBC batch. Rows that fail validation or collide with an existing user are reported by row number
+ * and skipped; the rest of the file is still imported.
+ */
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String INSERT_USER = "insert into users (name, email, role, username, password, salary, "
+            + "bank_account_number, account_balance, department, is_active, version) values (?, ?, ?, ?, ?, ?, ?, ?, ?, true, 0)";
+
+    private static final ParameterizedPreparedStatementSetter<User> USER_SETTER = (ps, user) -> {
+        ps.setString(1, user.getName());
+        ps.setString(2, user.getEmail());
+        ps.setString(3, user.getRole().name());
+        ps.setString(4, user.getUsername());
+        ps.setString(5, user.getPassword());
+        ps.setDouble(6, user.getSalary());
+        ps.setString(7, user.getBankAccountNumber());
+        ps.setDouble(8, user.getAccountBalance());
+        ps.setString(9, user.getDepartment());
+    };
+
+    // Fields of an import row; the JSON field name is also the CSV header, matched ignoring case, '_', '-' and spaces
+    private enum Column {
+        NAME("name", false),
+        USERNAME("username", true),
+        EMAIL("email", true),
+        PASSWORD("password", true),
+        ROLE("role", true),
+        SALARY("salary", true),
+        BANK_ACCOUNT_NUMBER("bankAccountNumber", true),
+        ACCOUNT_BALANCE("accountBalance", false),
+        DEPARTMENT("department", false);
+
+        final String field;
+        final boolean required;
+
+        Column(String field, boolean required) {
+            this.field = field;
+            this.required = required;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final UserSearchIndex userSearchIndex;
+    private final OutboxService outboxService;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final ExecutorService hashing;
+
+    public UserImportServiceImpl(UserRepository userRepository,
+                                 UserSearchIndex userSearchIndex,
+                                 OutboxService outboxService,
+                                 PasswordEncoder passwordEncoder,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${loan.user-import.chunk-size:1000}") int chunkSize,
+                                 @Value("${loan.user-import.hash-parallelism:0}") int hashParallelism) {
+        this.userRepository = userRepository;
+        this.userSearchIndex = userSearchIndex;
+        this.outboxService = outboxService;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        int threads = hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors();
+        // BCrypt is pure CPU work, so more threads than cores would only make each import slower
+        this.hashing = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("user-import-hash-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    public void stop() {
+        hashing.shutdownNow();
+    }
+
+    @Override
+    public UserImportResultDTO importCsv(InputStream in) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            throw new InvalidImportFileException("The CSV file is empty");
+        }
+        int[] positions = columnPositions(header);
+
+        Import run = new Import();
+        try {
+            List<String> record;
+            while ((record = readCsvRecord(reader)) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                String[] values = new String[Column.values().length];
+                for (Column column : Column.values()) {
+                    int position = positions[column.ordinal()];
+                    values[column.ordinal()] = position >= 0 && position < record.size() ? record.get(position) : null;
+                }
+                run.add(values);
+            }
+        } catch (InvalidImportFileException e) {
+            run.malformed(e.getMessage());
+        }
+        return run.finish();
+    }
+
+    @Override
+    public UserImportResultDTO importJson(InputStream in) throws IOException {
+        Import run = new Import();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken first;
+            try {
+                first = parser.nextToken();
+            } catch (JsonProcessingException e) {
+                throw new InvalidImportFileException("Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new InvalidImportFileException("Expected a JSON array of users");
+            }
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.START_OBJECT) {
+                        run.malformed("Expected a JSON object for each user");
+                        break;
+                    }
+                    JsonNode node = parser.readValueAsTree();
+                    String[] values = new String[Column.values().length];
+                    for (Column column : Column.values()) {
+                        JsonNode value = node.get(column.field);
+                        values[column.ordinal()] = value == null || value.isNull() ? null : value.asText();
+                    }
+                    run.add(values);
+                }
+            } catch (JsonProcessingException e) {
+                run.malformed("Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    private record Candidate(int row, User user, String rawPassword) {
+    }
+
+    /**
+     * State of one import: the chunk being filled, the errors so far, and the usernames and emails already
+     * seen in the file, so duplicates within the upload are caught before they reach the database.
+     */
+    private final class Import {
+        private final long start = System.currentTimeMillis();
+        private final List<UserImportErrorDTO> errors = new ArrayList<>();
+        private final Map<String, Integer> seenUsernames = new HashMap<>();
+        private final Map<String, Integer> seenEmails = new HashMap<>();
+        private List<Candidate> chunk = new ArrayList<>();
+        private int received;
+        private int imported;
+
+        void add(String[] values) {
+            int row = ++received;
+            Candidate candidate = toCandidate(row, values);
+            if (candidate == null) {
+                return;
+            }
+            chunk.add(candidate);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        // Stops reading; rows before the malformed one are still imported
+        void malformed(String message) {
+            error(received + 1, null, "MALFORMED", message);
+        }
+
+        UserImportResultDTO finish() {
+            flush();
+            long elapsed = System.currentTimeMillis() - start;
+            log.info("Imported {} of {} users in {} ms, {} rows failed", imported, received, elapsed, errors.size());
+            return UserImportResultDTO.builder()
+                    .received(received)
+                    .imported(imported)
+                    .failed(received - imported)
+                    .elapsedMillis(elapsed)
+                    .errors(errors)
+                    .build();
+        }
+
+        private void flush() {
+            if (!chunk.isEmpty()) {
+                imported += importChunk(chunk, this);
+                chunk = new ArrayList<>();
+            }
+        }
+
+        void error(int row, String username, String code, String message) {
+            errors.add(UserImportErrorDTO.builder().row(row).username(username).code(code).message(message).build());
+        }
+
+        private Candidate toCandidate(int row, String[] values) {
+            String username = value(values, Column.USERNAME);
+            for (Column column : Column.values()) {
+                if (column.required && value(values, column) == null) {
+                    error(row, username, "MISSING_FIELD", "Missing " + column.field);
+                    return null;
+                }
+            }
+            Role role;
+            try {
+                role = Role.valueOf(value(values, Column.ROLE).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                error(row, username, "INVALID_ROLE", "Invalid role: " + value(values, Column.ROLE));
+                return null;
+            }
+            double salary;
+            double accountBalance;
+            try {
+                salary = Double.parseDouble(value(values, Column.SALARY));
+                String balance = value(values, Column.ACCOUNT_BALANCE);
+                accountBalance = balance != null ? Double.parseDouble(balance) : 0.0;
+            } catch (NumberFormatException e) {
+                error(row, username, "INVALID_NUMBER", "Salary and account balance must be numbers");
+                return null;
+            }
+
+            String email = value(values, Column.EMAIL);
+            Integer earlier = seenUsernames.putIfAbsent(username, row);
+            if (earlier != null) {
+                error(row, username, "DUPLICATE_USERNAME", "Username already used in row " + earlier);
+                return null;
+            }
+            earlier = seenEmails.putIfAbsent(email, row);
+            if (earlier != null) {
+                error(row, username, "DUPLICATE_EMAIL", "Email already used in row " + earlier);
+                return null;
+            }
+
+            User user = User.builder()
+                    .name(value(values, Column.NAME))
+                    .username(username)
+                    .email(email)
+                    .role(role)
+                    .salary(salary)
+                    .bankAccountNumber(value(values, Column.BANK_ACCOUNT_NUMBER))
+                    .accountBalance(accountBalance)
+                    .department(value(values, Column.DEPARTMENT))
+                    .build();
+            return new Candidate(row, user, value(values, Column.PASSWORD));
+        }
+    }
+
+    private static String value(String[] values, Column column) {
+        String value = values[column.ordinal()];
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Imports one chunk of validated rows and returns how many users were created.
+     */
+    private int importChunk(List<Candidate> chunk, Import run) {
+        // One query for every username and email of the chunk
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        List<String> usernames = chunk.stream().map(candidate -> candidate.user().getUsername()).toList();
+        List<String> emails = chunk.stream().map(candidate -> candidate.user().getEmail()).toList();
+        for (Object[] taken : userRepository.findTakenUsernamesAndEmails(usernames, emails)) {
+            takenUsernames.add((String) taken[0]);
+            takenEmails.add((String) taken[1]);
+        }
+
+        List<Candidate> fresh = new ArrayList<>(chunk.size());
+        for (Candidate candidate : chunk) {
+            User user = candidate.user();
+            if (takenUsernames.contains(user.getUsername())) {
+                run.error(candidate.row(), user.getUsername(), "DUPLICATE_USERNAME", "Username already exists: " + user.getUsername());
+            } else if (takenEmails.contains(user.getEmail())) {
+                run.error(candidate.row(), user.getUsername(), "DUPLICATE_EMAIL", "Email already exists: " + user.getEmail());
+            } else {
+                fresh.add(candidate);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+
+        hashPasswords(fresh);
+        List<User> inserted = insert(fresh, run);
+        userSearchIndex.indexAll(inserted);
+        return inserted.size();
+    }
+
+    private void hashPasswords(List<Candidate> candidates) {
+        List<Future<String>> hashes = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            hashes.add(hashing.submit(() -> passwordEncoder.encode(candidate.rawPassword())));
+        }
+        try {
+            for (int i = 0; i < candidates.size(); i++) {
+                candidates.get(i).user().setPassword(hashes.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            hashes.forEach(hash -> hash.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User import interrupted", e);
+        } catch (ExecutionException e) {
+            hashes.forEach(hash -> hash.cancel(true));
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    // One batch in one transaction; if a concurrent request took a username or email since the check,
+    // the batch is rolled back and the chunk retried row by row so only the colliding rows fail
+    private List<User> insert(List<Candidate> candidates, Import run) {
+        List<User> users = candidates.stream().map(Candidate::user).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_USER, users, users.size(), USER_SETTER);
+                recordCreated(users);
+            });
+            return users;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch insert of {} imported users hit a unique constraint, retrying row by row", users.size());
+        }
+        List<User> inserted = new ArrayList<>(users.size());
+        for (Candidate candidate : candidates) {
+            User user = candidate.user();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(INSERT_USER, ps -> USER_SETTER.setValues(ps, user));
+                    recordCreated(List.of(user));
+                });
+                inserted.add(user);
+            } catch (DataIntegrityViolationException e) {
+                run.error(candidate.row(), user.getUsername(), "DUPLICATE_USERNAME",
+                        "Username or email was taken while importing: " + user.getUsername());
+            }
+        }
+        return inserted;
+    }
+
+    // Sets the generated IDs and records a CREATED event per user, in the inserting transaction, so the
+    // search index of every replica picks the users up from the event log
+    private void recordCreated(List<User> users) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Object[] row : userRepository.findIdsByUsernameIn(users.stream().map(User::getUsername).toList())) {
+            ids.put((String) row[1], (Long) row[0]);
+        }
+        for (User user : users) {
+            user.setId(ids.get(user.getUsername()));
+            outboxService.record("User", user.getId(), "CREATED", Map.of("userId", user.getId()));
+        }
+    }
+
+    /**
+     * Maps each column to its position in the CSV header, -1 for absent optional columns.
+     */
+    private static int[] columnPositions(List<String> header) {
+        int[] positions = new int[Column.values().length];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").replaceAll("[_\\-\\s]", "").toLowerCase(Locale.ROOT);
+            for (Column column : Column.values()) {
+                if (column.field.toLowerCase(Locale.ROOT).equals(name)) {
+                    positions[column.ordinal()] = i;
+                }
+            }
+        }
+        for (Column column : Column.values()) {
+            if (column.required && positions[column.ordinal()] < 0) {
+                throw new InvalidImportFileException("CSV header has no " + column.field + " column");
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Reads one RFC 4180 record: comma-separated, optionally double-quoted fields, where quoted
+     * fields may contain commas, line breaks and doubled quotes. Returns null at the end of input.
+     */
+    private static List<String> readCsvRecord(Reader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new InvalidImportFileException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,21 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.UserLoanSummaryDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserLoanSummaryService {
+
+    // Recomputes the users' summaries from their unpaid installments. Call in the transaction that changed them.
+    void refresh(Collection<Long> userIds);
+
+    default void refresh(Long userId) {
+        refresh(List.of(userId));
+    }
+
+    // Recompute every summary from the repayment table
+    void rebuild();
+
+    UserLoanSummaryDTO getSummary(Long userId);
+}
@@ -0,0 +1,201 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.UserLoanSummaryDTO;
+import com.company.loan_management.model.UserLoanSummary;
+import com.company.loan_management.repository.LoanRepaymentRepository;
+import com.company.loan_management.repository.UserLoanSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-user loan summaries, so profile and dashboard reads fetch one row instead of every installment.
+ * A repayment change refreshes the summaries of the users it touched in its own transaction: the summary
+ * rows are locked first, in user ID order, and then recomputed from the users' unpaid installments with
+ * two aggregate queries. Writers of the same user therefore run one after the other and each sees the
+ * installments of the ones before it, so no update is lost. The nightly rebuild recomputes every row.
+ */
+@Service
+@Slf4j
+public class UserLoanSummaryServiceImpl implements UserLoanSummaryService {
+
+    private static final String TOUCH = "update user_loan_summary set updated_at = ? where user_id = ?";
+
+    private static final String INSERT = "insert into user_loan_summary (active_loan_count, monthly_emi_total, "
+            + "outstanding_principal, next_due_date, next_due_amount, updated_at, user_id) values (0, 0, 0, null, 0, ?, ?)";
+
+    private static final String SET_TOTALS = "update user_loan_summary set active_loan_count = ?, monthly_emi_total = ?, "
+            + "outstanding_principal = ?, next_due_date = ?, next_due_amount = ?, updated_at = ? where user_id = ?";
+
+    private static final String INSERT_TOTALS = "insert into user_loan_summary (active_loan_count, monthly_emi_total, "
+            + "outstanding_principal, next_due_date, next_due_amount, updated_at, user_id) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UNPAID = "from loan_repayment rp join loan_request lr on lr.id = rp.loan_request_id "
+            + "where rp.status <> 'PAID' ";
+
+    // Per loan with unpaid installments its EMI, unpaid principal and earliest unpaid due date, then summed per user
+    private static final String SELECT_LOAN_TOTALS = "select user_id, count(*), sum(emi), sum(principal), min(next_due) from ("
+            + "select lr.user_id, max(rp.emi_amount) as emi, sum(rp.principal_payment) as principal, "
+            + "min(rp.repayment_date) as next_due " + UNPAID + "%s group by lr.user_id, rp.loan_request_id) l group by user_id";
+
+    private static final String SELECT_NEXT_DUE_AMOUNTS = "select lr.user_id, sum(rp.emi_amount + coalesce(rp.penalty_amount, 0)) "
+            + "from loan_repayment rp join loan_request lr on lr.id = rp.loan_request_id "
+            + "join (select lr.user_id, min(rp.repayment_date) as next_due " + UNPAID + "%s group by lr.user_id) n "
+            + "on n.user_id = lr.user_id and n.next_due = rp.repayment_date "
+            + "where rp.status <> 'PAID' %s group by lr.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserLoanSummaryRepository summaryRepository;
+    private final LoanRepaymentRepository repaymentRepository;
+    private final ClusterScheduler clusterScheduler;
+
+    public UserLoanSummaryServiceImpl(JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      UserLoanSummaryRepository summaryRepository,
+                                      LoanRepaymentRepository repaymentRepository,
+                                      ClusterScheduler clusterScheduler) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.summaryRepository = summaryRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.clusterScheduler = clusterScheduler;
+    }
+
+    private static final class Totals {
+        int activeLoans;
+        double monthlyEmi;
+        double outstandingPrincipal;
+        LocalDate nextDueDate;
+        double nextDueAmount;
+
+        Object[] args(Timestamp now, long userId) {
+            return new Object[]{activeLoans, monthlyEmi, outstandingPrincipal,
+                    nextDueDate != null ? Date.valueOf(nextDueDate) : null, nextDueAmount, now, userId};
+        }
+    }
+
+    @Override
+    public void refresh(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<Long> ordered = userIds.stream().distinct().sorted().toList();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Long userId : ordered) {
+            if (jdbcTemplate.update(TOUCH, now, userId) == 0) {
+                try {
+                    jdbcTemplate.update(INSERT, now, userId);
+                } catch (DuplicateKeyException e) {
+                    // Another transaction inserted the row first; wait for its lock
+                    jdbcTemplate.update(TOUCH, now, userId);
+                }
+            }
+        }
+
+        // The aggregates read through JDBC, so pending repayment changes of this transaction go out first
+        repaymentRepository.flush();
+        String filter = "and lr.user_id in (" + String.join(", ", Collections.nCopies(ordered.size(), "?")) + ") ";
+        Map<Long, Totals> totals = computeTotals(filter, ordered.toArray());
+
+        List<Object[]> updates = new ArrayList<>(ordered.size());
+        for (Long userId : ordered) {
+            updates.add(totals.getOrDefault(userId, new Totals()).args(now, userId));
+        }
+        jdbcTemplate.batchUpdate(SET_TOTALS, updates);
+    }
+
+    /**
+     * Nightly drift correction.
+     */
+    @Scheduled(cron = "${loan.summary.rebuild-cron:0 50 3 * * *}")
+    public void scheduledRebuild() {
+        clusterScheduler.runExclusive("user-loan-summary-rebuild", LocalDate.now().toString(), this::rebuild);
+    }
+
+    /**
+     * Locks the existing rows first, like a refresh, so refreshes that started earlier commit before the
+     * installments are read and later ones wait for the rebuilt rows.
+     */
+    @Override
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int rows = transactionTemplate.execute(status -> {
+            Set<Long> existing = new HashSet<>();
+            jdbcTemplate.query("select user_id from user_loan_summary for update",
+                    (RowCallbackHandler) rs -> existing.add(rs.getLong(1)));
+            Map<Long, Totals> totals = computeTotals("", new Object[0]);
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            for (Long userId : existing) {
+                updates.add(totals.getOrDefault(userId, new Totals()).args(now, userId));
+            }
+            totals.forEach((userId, userTotals) -> {
+                if (!existing.contains(userId)) {
+                    inserts.add(userTotals.args(now, userId));
+                }
+            });
+            jdbcTemplate.batchUpdate(SET_TOTALS, updates);
+            jdbcTemplate.batchUpdate(INSERT_TOTALS, inserts);
+            return updates.size() + inserts.size();
+        });
+        log.info("Rebuilt {} user loan summaries in {} ms", rows, System.currentTimeMillis() - start);
+    }
+
+    // Users without unpaid installments are absent from the result
+    private Map<Long, Totals> computeTotals(String userFilter, Object[] userIds) {
+        Map<Long, Totals> totals = new HashMap<>();
+        jdbcTemplate.query(SELECT_LOAN_TOTALS.formatted(userFilter), (RowCallbackHandler) rs -> {
+            Totals user = new Totals();
+            user.activeLoans = rs.getInt(2);
+            user.monthlyEmi = rs.getDouble(3);
+            user.outstandingPrincipal = rs.getDouble(4);
+            user.nextDueDate = rs.getDate(5).toLocalDate();
+            totals.put(rs.getLong(1), user);
+        }, userIds);
+
+        Object[] twice = new Object[userIds.length * 2];
+        System.arraycopy(userIds, 0, twice, 0, userIds.length);
+        System.arraycopy(userIds, 0, twice, userIds.length, userIds.length);
+        jdbcTemplate.query(SELECT_NEXT_DUE_AMOUNTS.formatted(userFilter, userFilter), (RowCallbackHandler) rs -> {
+            Totals user = totals.get(rs.getLong(1));
+            if (user != null) {
+                user.nextDueAmount = rs.getDouble(2);
+            }
+        }, twice);
+        return totals;
+    }
+
+    @Override
+    public UserLoanSummaryDTO getSummary(Long userId) {
+        UserLoanSummary summary = summaryRepository.findById(userId)
+                .orElseGet(() -> UserLoanSummary.builder().userId(userId).build());
+        return UserLoanSummaryDTO.builder()
+                .userId(userId)
+                .outstandingPrincipal(summary.getOutstandingPrincipal())
+                .activeLoanCount(summary.getActiveLoanCount())
+                .monthlyEmiTotal(summary.getMonthlyEmiTotal())
+                .nextDueDate(summary.getNextDueDate())
+                .nextDueAmount(summary.getNextDueAmount())
+                .build();
+    }
+}
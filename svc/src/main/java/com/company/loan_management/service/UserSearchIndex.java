@@ -0,0 +1,408 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.EventRecordDTO;
+import com.company.loan_management.dto.UserSearchResultDTO;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process search index over username, name, email and bank account number for the admin typeahead.
+ * Queries of three or more characters intersect trigram posting lists; shorter ones walk a sorted
+ * token map by prefix. Postings are primitive int arrays of internal document numbers, so lookups
+ * never touch the database. The index is built at startup and kept current by {@link UserServiceImpl};
+ * users created, changed or deleted on other replicas are picked up by a periodic refresh that tails the
+ * {@code User} events of the event log from the offset the index is current to, and reloads only those
+ * users. If that offset has been pruned from the log the index is rebuilt instead. Replaced and removed
+ * entries are tombstoned until enough of them pile up to compact the index.
+ */
+@Component
+@Slf4j
+public class UserSearchIndex {
+
+    private static final int GRAM = 3;
+
+    // Stop verifying candidates after this many matches per requested result
+    private static final int SCAN_FACTOR = 50;
+
+    private final UserRepository userRepository;
+    private final EventLog eventLog;
+    private final int buildPageSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Held by a rebuild or refresh, so they do not interleave and the position only moves forward
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private State state = new State();
+    // Event log offset up to which changes made elsewhere are indexed, guarded by refreshLock
+    private long position;
+
+    public UserSearchIndex(UserRepository userRepository, EventLog eventLog,
+                           @Value("${loan.user-search.build-page-size:10000}") int buildPageSize) {
+        this.userRepository = userRepository;
+        this.eventLog = eventLog;
+        this.buildPageSize = buildPageSize;
+    }
+
+    /**
+     * Builds a fresh index from the users table, paging by ID, and swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        refreshLock.lock();
+        try {
+            build();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void build() {
+        long start = System.currentTimeMillis();
+        // Read first: a change committed while the table is read is then replayed by the next refresh
+        long fromOffset = eventLog.endOffset();
+        State fresh = new State();
+        List<User> page;
+        long afterId = 0;
+        do {
+            page = userRepository.findPageAfterId(afterId, PageRequest.of(0, buildPageSize));
+            page.forEach(user -> fresh.add(toDocument(user), versionOf(user)));
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == buildPageSize);
+
+        lock.writeLock().lock();
+        try {
+            state = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        position = fromOffset;
+        log.info("User search index built with {} users in {} ms", fresh.docByUserId.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Adds the user or replaces its previous entry.
+     */
+    public void index(User user) {
+        indexAll(List.of(user));
+    }
+
+    /**
+     * Adds or replaces many users under one write lock, for bulk imports.
+     */
+    public void indexAll(Collection<User> users) {
+        List<User> ordered = List.copyOf(users);
+        List<UserSearchResultDTO> documents = ordered.stream().map(UserSearchIndex::toDocument).toList();
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < documents.size(); i++) {
+                UserSearchResultDTO document = documents.get(i);
+                long version = versionOf(ordered.get(i));
+                // A delta refresh may load a user that was already indexed at a newer version here
+                Long indexed = state.versionByUserId.get(document.getId());
+                if (indexed != null && indexed > version) {
+                    continue;
+                }
+                state.remove(document.getId());
+                state.add(document, version);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId) {
+        removeAll(List.of(userId));
+    }
+
+    private void removeAll(Collection<Long> userIds) {
+        lock.writeLock().lock();
+        try {
+            userIds.forEach(state::remove);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called under the write lock
+    private void compactIfNeeded() {
+        if (state.deletedCount > 1000 && state.deletedCount > state.docs.size() / 4) {
+            state = state.compact();
+        }
+    }
+
+    /**
+     * Reindexes the users that have {@code User} events in the event log since the last refresh, and drops
+     * those no longer in the table. Users without events are not read.
+     */
+    @Scheduled(fixedDelayString = "${loan.user-search.refresh-ms:30000}", initialDelayString = "${loan.user-search.refresh-ms:30000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            if (position < eventLog.startOffset()) {
+                log.warn("User search index is behind the retained event log at offset {}, rebuilding", position);
+                build();
+            } else {
+                applyEvents();
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void applyEvents() {
+        Set<Long> touched = new LinkedHashSet<>();
+        long next = position;
+        List<EventRecordDTO> events;
+        do {
+            events = eventLog.read(next, buildPageSize);
+            for (EventRecordDTO event : events) {
+                if ("User".equals(event.getAggregateType())) {
+                    touched.add(event.getAggregateId());
+                }
+                next = event.getOffset() + 1;
+            }
+        } while (events.size() == buildPageSize);
+
+        List<Long> ids = new ArrayList<>(touched);
+        int changed = 0;
+        List<Long> gone = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += buildPageSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + buildPageSize, ids.size()));
+            List<User> found = userRepository.findAllById(batch);
+            indexAll(found);
+            changed += found.size();
+            Set<Long> foundIds = new HashSet<>();
+            found.forEach(user -> foundIds.add(user.getId()));
+            batch.stream().filter(id -> !foundIds.contains(id)).forEach(gone::add);
+        }
+        if (!gone.isEmpty()) {
+            removeAll(gone);
+        }
+        position = next;
+        if (changed > 0 || !gone.isEmpty()) {
+            log.info("User search index refreshed {} changed and {} removed users", changed, gone.size());
+        }
+    }
+
+    /**
+     * Finds users whose indexed fields contain the query, case-insensitively.
+     * Entries where a field starts with the query are ranked first.
+     */
+    public List<UserSearchResultDTO> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int[] candidates = q.length() >= GRAM ? state.gramCandidates(q) : state.prefixCandidates(q, limit * SCAN_FACTOR);
+            List<UserSearchResultDTO> prefixMatches = new ArrayList<>();
+            List<UserSearchResultDTO> otherMatches = new ArrayList<>();
+            int scanLimit = limit * SCAN_FACTOR;
+            for (int doc : candidates) {
+                if (prefixMatches.size() >= limit || prefixMatches.size() + otherMatches.size() >= scanLimit) {
+                    break;
+                }
+                if (state.deleted.get(doc)) {
+                    continue;
+                }
+                int match = state.match(doc, q);
+                if (match == 2) {
+                    prefixMatches.add(state.docs.get(doc));
+                } else if (match == 1) {
+                    otherMatches.add(state.docs.get(doc));
+                }
+            }
+            List<UserSearchResultDTO> result = new ArrayList<>(prefixMatches);
+            for (UserSearchResultDTO doc : otherMatches) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(doc);
+            }
+            log.debug("User search '{}' matched {} in {} us", q, result.size(), (System.nanoTime() - start) / 1000);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Live and tombstoned entries held, which compaction keeps bounded
+    int storedDocuments() {
+        lock.readLock().lock();
+        try {
+            return state.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static UserSearchResultDTO toDocument(User user) {
+        return UserSearchResultDTO.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .name(user.getName())
+                .email(user.getEmail())
+                .bankAccountNumber(user.getBankAccountNumber())
+                .role(user.getRole() != null ? user.getRole().name() : null)
+                .build();
+    }
+
+    // Inserts that bypass JPA leave the version to the column default
+    private static long versionOf(User user) {
+        return user.getVersion() != null ? user.getVersion() : 0L;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Index contents; mutated only under the write lock
+    private static final class State {
+        final List<UserSearchResultDTO> docs = new ArrayList<>();
+        final List<String[]> fields = new ArrayList<>();
+        final BitSet deleted = new BitSet();
+        final Map<Long, Integer> docByUserId = new HashMap<>();
+        final Map<Long, Long> versionByUserId = new HashMap<>();
+        final Map<String, IntList> grams = new HashMap<>();
+        final NavigableMap<String, IntList> tokens = new TreeMap<>();
+        int deletedCount;
+
+        void add(UserSearchResultDTO document, long version) {
+            int doc = docs.size();
+            String[] values = {
+                    normalize(document.getUsername()),
+                    normalize(document.getName()),
+                    normalize(document.getEmail()),
+                    normalize(document.getBankAccountNumber())
+            };
+            docs.add(document);
+            fields.add(values);
+            docByUserId.put(document.getId(), doc);
+            versionByUserId.put(document.getId(), version);
+
+            Set<String> docGrams = new HashSet<>();
+            Set<String> docTokens = new HashSet<>();
+            for (String value : values) {
+                for (int i = 0; i + GRAM <= value.length(); i++) {
+                    docGrams.add(value.substring(i, i + GRAM));
+                }
+                if (!value.isEmpty()) {
+                    docTokens.add(value);
+                }
+                for (String token : value.split("[^\\p{Alnum}]+")) {
+                    if (!token.isEmpty()) {
+                        docTokens.add(token);
+                    }
+                }
+            }
+            // Document numbers only grow, so every posting list stays sorted
+            docGrams.forEach(gram -> grams.computeIfAbsent(gram, k -> new IntList()).add(doc));
+            docTokens.forEach(token -> tokens.computeIfAbsent(token, k -> new IntList()).add(doc));
+        }
+
+        void remove(Long userId) {
+            Integer doc = docByUserId.remove(userId);
+            versionByUserId.remove(userId);
+            if (doc != null) {
+                deleted.set(doc);
+                deletedCount++;
+            }
+        }
+
+        // Rebuilds without tombstoned documents
+        State compact() {
+            State fresh = new State();
+            for (int doc = 0; doc < docs.size(); doc++) {
+                if (!deleted.get(doc)) {
+                    UserSearchResultDTO document = docs.get(doc);
+                    fresh.add(document, versionByUserId.get(document.getId()));
+                }
+            }
+            return fresh;
+        }
+
+        // Documents containing every trigram of the query, smallest posting list first
+        int[] gramCandidates(String q) {
+            List<IntList> lists = new ArrayList<>();
+            for (int i = 0; i + GRAM <= q.length(); i++) {
+                IntList postings = grams.get(q.substring(i, i + GRAM));
+                if (postings == null) {
+                    return new int[0];
+                }
+                lists.add(postings);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            int[] result = Arrays.copyOf(lists.get(0).data, lists.get(0).size);
+            int size = result.length;
+            for (int l = 1; l < lists.size() && size > 0; l++) {
+                IntList other = lists.get(l);
+                int kept = 0;
+                for (int i = 0; i < size; i++) {
+                    if (Arrays.binarySearch(other.data, 0, other.size, result[i]) >= 0) {
+                        result[kept++] = result[i];
+                    }
+                }
+                size = kept;
+            }
+            return Arrays.copyOf(result, size);
+        }
+
+        // Documents having a token that starts with the query, capped at max
+        int[] prefixCandidates(String q, int max) {
+            Set<Integer> seen = new LinkedHashSet<>();
+            for (IntList postings : tokens.subMap(q, true, q + Character.MAX_VALUE, true).values()) {
+                for (int i = 0; i < postings.size && seen.size() < max; i++) {
+                    seen.add(postings.data[i]);
+                }
+                if (seen.size() >= max) {
+                    break;
+                }
+            }
+            return seen.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // 2 when a field starts with the query, 1 when a field contains it, 0 otherwise
+        int match(int doc, String q) {
+            int result = 0;
+            for (String value : fields.get(doc)) {
+                if (value.startsWith(q)) {
+                    return 2;
+                }
+                if (value.contains(q)) {
+                    result = 1;
+                }
+            }
+            return result;
+        }
+    }
+
+    // Growable primitive int array used for posting lists
+    private static final class IntList {
+        int[] data = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+    }
+}
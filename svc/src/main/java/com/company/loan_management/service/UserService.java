@@ -1,5 +1,6 @@
 package com.company.loan_management.service;
 
+import com.company.loan_management.dto.UserSearchResultDTO;
 import com.company.loan_management.model.Role;
 import com.company.loan_management.model.User;
 import java.util.List;
@@ -13,5 +14,6 @@ public interface UserService {
     void deleteUser(Long id);
     List<User> getUsersByRole(Role role);
     Optional<User> findByUsername(String username);
+    List<UserSearchResultDTO> searchUsers(String query, int limit);
 }
 
@@ -1,5 +1,8 @@
 package com.company.loan_management.service;
 
+import com.company.loan_management.dto.UserSearchResultDTO;
+import com.company.loan_management.exception.BusinessException;
+import com.company.loan_management.exception.DuplicateUsernameException;
 import com.company.loan_management.exception.UserNotFoundException;
 import com.company.loan_management.model.Role;
 import com.company.loan_management.model.User;
@@ -10,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -19,10 +23,23 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final UserSearchIndex userSearchIndex;
+    private final OutboxService outboxService;
 
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           OptimisticRetryExecutor retryExecutor, UserSearchIndex userSearchIndex,
+                           OutboxService outboxService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.retryExecutor = retryExecutor;
+        this.userSearchIndex = userSearchIndex;
+        this.outboxService = outboxService;
+    }
+
+    // Lets the search index of every replica pick the change up from the event log; only the ID is published
+    private void recordUserEvent(Long userId, String eventType) {
+        outboxService.record("User", userId, eventType, Map.of("userId", userId));
     }
 
 
@@ -37,16 +54,24 @@ public class UserServiceImpl implements UserService {
             logger.info("Registering user with username: {}", user.getUsername());
 
             if (userRepository.existsByUsername(user.getUsername())) {
-                throw new com.company.loan_management.exception.DuplicateUsernameException(
+                throw new DuplicateUsernameException(
                         "Username already exists: " + user.getUsername());
             }
 
             String encodedPassword = passwordEncoder.encode(user.getPassword());
             user.setPassword(encodedPassword);
-            User savedUser = userRepository.save(user);
+            User savedUser = retryExecutor.execute("Registering user " + user.getUsername(), () -> {
+                User saved = userRepository.save(user);
+                recordUserEvent(saved.getId(), "CREATED");
+                return saved;
+            });
+            userSearchIndex.index(savedUser);
 
             logger.info("User registered successfully with username: {}", user.getUsername());
             return savedUser;
+        } catch (BusinessException e) {
+            // Expected outcome, logged by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             logger.error("Error registering user with username: {}", user.getUsername(), e);
             throw e;
@@ -107,7 +132,8 @@ public class UserServiceImpl implements UserService {
     public User updateUser(Long id, User updatedUser) {
         try {
             logger.info("Updating user with ID: {}", id);
-            return userRepository.findById(id).map(existingUser -> {
+            // Only the provided fields are applied, so re-running on a fresh read after a conflict loses nothing
+            User savedUser = retryExecutor.execute("Updating user " + id, () -> userRepository.findById(id).map(existingUser -> {
                 if (updatedUser.getName() != null) {
                     existingUser.setName(updatedUser.getName());
                 }
@@ -129,12 +155,22 @@ public class UserServiceImpl implements UserService {
                 if (updatedUser.getPassword() != null) {
                     existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
                 }
+                // Only changes to searchable fields concern the search index of other replicas
+                if (updatedUser.getName() != null || updatedUser.getEmail() != null
+                        || updatedUser.getBankAccountNumber() != null || updatedUser.getRole() != null) {
+                    recordUserEvent(id, "UPDATED");
+                }
                 logger.info("User updated successfully with ID: {}", id);
                 return userRepository.save(existingUser);
             }).orElseThrow(() -> {
                 logger.warn("User with ID: {} not found for update", id);
                 return new UserNotFoundException("User with ID " + id + " not found");
-            });
+            }));
+            // Indexed only once the update has committed
+            userSearchIndex.index(savedUser);
+            return savedUser;
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error updating user with ID: {}", id, e);
             throw e;
@@ -149,12 +185,18 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long id) {
         try {
             if (userRepository.existsById(id)) {
-                userRepository.deleteById(id);
+                retryExecutor.run("Deleting user " + id, () -> {
+                    userRepository.deleteById(id);
+                    recordUserEvent(id, "DELETED");
+                });
+                userSearchIndex.remove(id);
                 logger.info("Deleted user with ID: {}", id);
             } else {
                 logger.warn("User with ID: {} does not exist", id);
                 throw new UserNotFoundException("User with ID " + id + " does not exist");
             }
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error deleting user with ID: {}", id, e);
             throw e;
@@ -187,12 +229,26 @@ public class UserServiceImpl implements UserService {
             logger.info("Finding user by ID: {}", id);
             return userRepository.findById(id)
                     .orElseThrow(() -> new UserNotFoundException("User with ID " + id + " not found"));
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error finding user by ID: {}", id, e);
             throw e;
         }
     }
 
+    /**
+     * Searches users through the in-memory index by username, name, email or bank account number.
+     *
+     * @param query The text to search for.
+     * @param limit The maximum number of results.
+     * @return Matching users, prefix matches first.
+     */
+    public List<UserSearchResultDTO> searchUsers(String query, int limit) {
+        logger.info("Searching users for: {}", query);
+        return userSearchIndex.search(query, limit);
+    }
+
     /**
      * Finds users by their role.
      *
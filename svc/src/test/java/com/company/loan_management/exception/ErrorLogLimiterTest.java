@@ -0,0 +1,40 @@
+package com.company.loan_management.exception;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks that a burst of one error code is logged only up to the per-second limit, that other codes keep
+ * their own budget, and that the next window starts with one line counting what was left out.
+ */
+class ErrorLogLimiterTest {
+
+    private final Logger logger = mock(Logger.class);
+    private final ErrorLogLimiter limiter = new ErrorLogLimiter(logger, 3);
+
+    @Test
+    void burstBeyondLimitIsSuppressedAndCounted() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            limiter.warn(ErrorCode.LOAN_REQUEST_NOT_FOUND, "Loan request not found with ID: " + i);
+        }
+        limiter.warn(ErrorCode.USER_NOT_FOUND, "User not found with ID: 1");
+
+        verify(logger, times(3)).warn(eq("{}: {}"), eq(ErrorCode.LOAN_REQUEST_NOT_FOUND), anyString());
+        verify(logger).warn("{}: {}", ErrorCode.LOAN_REQUEST_NOT_FOUND, "Loan request not found with ID: 2");
+        verify(logger, never()).warn("{}: {}", ErrorCode.LOAN_REQUEST_NOT_FOUND, "Loan request not found with ID: 3");
+        verify(logger).warn("{}: {}", ErrorCode.USER_NOT_FOUND, "User not found with ID: 1");
+
+        Thread.sleep(1_100);
+        limiter.warn(ErrorCode.LOAN_REQUEST_NOT_FOUND, "Loan request not found with ID: 10");
+
+        verify(logger).warn("{} more {} errors were not logged in the previous window", 7, ErrorCode.LOAN_REQUEST_NOT_FOUND);
+        verify(logger).warn("{}: {}", ErrorCode.LOAN_REQUEST_NOT_FOUND, "Loan request not found with ID: 10");
+    }
+}
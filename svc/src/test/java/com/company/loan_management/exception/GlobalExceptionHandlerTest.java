@@ -0,0 +1,91 @@
+package com.company.loan_management.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that business errors, optimistic locking conflicts and unmapped paths are answered with their
+ * code's HTTP status and a JSON body of code, status and message, the message falling back to the code's
+ * default when the exception's own message is internal.
+ */
+class GlobalExceptionHandlerTest {
+
+    @RestController
+    static class FailingController {
+
+        @GetMapping("/fail/{kind}")
+        String fail(@PathVariable String kind) throws Exception {
+            throw switch (kind) {
+                case "request" -> new LoanRequestNotFoundException("Loan request not found with ID: 42");
+                case "unauthorized" -> new UnauthorizedActionException("Manager not authorized to approve this loan request.");
+                case "status" -> new InvalidLoanStatusException("Only pending requests can be approved.");
+                case "eligibility" -> new LoanNotEligibleException("Loan request rejected by eligibility rules: \"TOO_MANY_ACTIVE_LOANS\"");
+                case "conflict" -> new OptimisticLockingFailureException("Row was updated or deleted by another transaction");
+                default -> new NoResourceFoundException(HttpMethod.GET, "fail/" + kind);
+            };
+        }
+    }
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+            .setControllerAdvice(new GlobalExceptionHandler(10))
+            .build();
+
+    @Test
+    void businessErrorsCarryTheirCodeStatusAndMessage() throws Exception {
+        mockMvc.perform(get("/fail/request"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.code").value("LOAN_REQUEST_NOT_FOUND"))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message").value("Loan request not found with ID: 42"));
+        mockMvc.perform(get("/fail/unauthorized"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("UNAUTHORIZED_ACTION"))
+                .andExpect(jsonPath("$.status").value(403))
+                .andExpect(jsonPath("$.message").value("Manager not authorized to approve this loan request."));
+        mockMvc.perform(get("/fail/status"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_LOAN_STATUS"))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Only pending requests can be approved."));
+        // Quotes in the message are escaped, so the body stays valid JSON
+        mockMvc.perform(get("/fail/eligibility"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value("LOAN_NOT_ELIGIBLE"))
+                .andExpect(jsonPath("$.status").value(422))
+                .andExpect(jsonPath("$.message").value("Loan request rejected by eligibility rules: \"TOO_MANY_ACTIVE_LOANS\""));
+    }
+
+    @Test
+    void optimisticLockingFailureIsConflictWithDefaultMessage() throws Exception {
+        mockMvc.perform(get("/fail/conflict"))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.code").value("CONCURRENT_UPDATE"))
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.message").value(ErrorCode.CONCURRENT_UPDATE.getDefaultMessage()));
+    }
+
+    @Test
+    void unmappedPathIsNotFound() throws Exception {
+        mockMvc.perform(get("/fail/wp-login.php"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.code").value("RESOURCE_NOT_FOUND"))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message").value("No such resource"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.company.loan_management.repository;
+
+import com.company.loan_management.dto.LoanRequestSearchCriteria;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.service.LoanRequestService;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Captures the SQL generated for typical search filter combinations and checks with EXPLAIN
+ * that H2 answers each of them through the intended composite index instead of a table scan.
+ */
+@SpringBootTest
+class LoanRequestSearchQueryPlanTest {
+
+    private static final List<String> CAPTURED_SQL = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+        @Bean
+        HibernatePropertiesCustomizer sqlCapture() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                CAPTURED_SQL.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    @Autowired
+    private LoanRequestService loanRequestService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    void statusesWithRequestDateRangeUseStatusRequestDateIndex() throws SQLException {
+        assertSearchUsesIndex(LoanRequestSearchCriteria.builder()
+                .statuses(List.of("APPROVED", "DISBURSED"))
+                .requestDateFrom(today.minusMonths(1))
+                .requestDateTo(today)
+                .build(), "idx_loan_request_status_request_date");
+    }
+
+    @Test
+    void statusWithApprovalDateRangeUsesStatusApprovalDateIndex() throws SQLException {
+        assertSearchUsesIndex(LoanRequestSearchCriteria.builder()
+                .statuses(List.of("APPROVED"))
+                .approvalDateFrom(today.minusMonths(1))
+                .approvalDateTo(today)
+                .build(), "idx_loan_request_status_approval_date");
+    }
+
+    @Test
+    void statusWithDisbursementDateRangeUsesStatusDisbursementDateIndex() throws SQLException {
+        assertSearchUsesIndex(LoanRequestSearchCriteria.builder()
+                .statuses(List.of("DISBURSED"))
+                .disbursementDateFrom(today.minusMonths(1))
+                .disbursementDateTo(today)
+                .build(), "idx_loan_request_status_disbursement_date");
+    }
+
+    @Test
+    void managerWithStatusUsesManagerStatusIndex() throws SQLException {
+        assertSearchUsesIndex(LoanRequestSearchCriteria.builder()
+                .managerId(3L)
+                .statuses(List.of("PENDING"))
+                .build(), "idx_loan_request_manager_status");
+    }
+
+    @Test
+    void userWithStatusUsesUserStatusIndex() throws SQLException {
+        assertSearchUsesIndex(LoanRequestSearchCriteria.builder()
+                .userId(2L)
+                .statuses(List.of("PENDING"))
+                .build(), "idx_loan_request_user_status");
+    }
+
+    @Test
+    void searchAppliesEveryFilter() {
+        Page<LoanRequest> page = loanRequestService.searchLoanRequests(LoanRequestSearchCriteria.builder()
+                .statuses(List.of("APPROVED", "DISBURSED"))
+                .loanType("Car Loan")
+                .minAmount(100000.0)
+                .maxAmount(1000000.0)
+                .build(), PageRequest.of(0, 10, Sort.by("requestedAmount")));
+
+        assertFalse(page.isEmpty());
+        for (LoanRequest request : page) {
+            assertTrue(List.of("APPROVED", "DISBURSED").contains(request.getStatus()));
+            assertEquals("Car Loan", request.getLoan().getLoanType());
+            assertTrue(request.getRequestedAmount() >= 100000.0 && request.getRequestedAmount() <= 1000000.0);
+        }
+    }
+
+    @Test
+    void disbursalQueueIsFetchedWithOneQuery() {
+        CAPTURED_SQL.clear();
+        List<LoanRequest> queue = loanRequestService.getApprovedLoansForDisbursal(null);
+
+        assertTrue(queue.stream().allMatch(r -> List.of("APPROVED", "DISBURSED").contains(r.getStatus())));
+        assertEquals(1, CAPTURED_SQL.stream().filter(sql -> sql.contains("from loan_request")).count());
+    }
+
+    private void assertSearchUsesIndex(LoanRequestSearchCriteria criteria, String index) throws SQLException {
+        CAPTURED_SQL.clear();
+        loanRequestService.searchLoanRequests(criteria, PageRequest.of(0, 20, Sort.by("requestDate").descending()));
+        String sql = CAPTURED_SQL.stream()
+                .filter(q -> q.startsWith("select") && q.contains("from loan_request") && !q.contains("count("))
+                .findFirst()
+                .orElseThrow();
+
+        String plan = explain(sql);
+        assertTrue(plan.toLowerCase().contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    // Binds a representative value of the right type to every parameter and returns H2's plan
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+            ParameterMetaData parameters = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                statement.setObject(i, sampleValue(parameters.getParameterType(i)));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private Object sampleValue(int sqlType) {
+        return switch (sqlType) {
+            case Types.DATE -> Date.valueOf(today);
+            case Types.TIMESTAMP -> Timestamp.valueOf(today.atStartOfDay());
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT -> 1;
+            case Types.DOUBLE, Types.FLOAT, Types.DECIMAL, Types.NUMERIC -> 1.0;
+            default -> "PENDING";
+        };
+    }
+}
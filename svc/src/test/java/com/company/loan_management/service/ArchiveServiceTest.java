@@ -0,0 +1,226 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.model.LoanRepayment;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.Role;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.ArchivedLoanRepaymentRepository;
+import com.company.loan_management.repository.ArchivedLoanRequestRepository;
+import com.company.loan_management.repository.LoanRepaymentRepository;
+import com.company.loan_management.repository.LoanRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks which closed requests the archival run moves: canceled and rejected ones past the retention and
+ * disbursed ones whose every EMI is paid, but not recent ones, disbursed ones with an unpaid EMI or without
+ * a schedule. A moved request and its repayments leave the live tables and appear in the archive together,
+ * a run interrupted between chunks is finished by the next one without copying anything twice, and the
+ * includeArchived reads union both tables.
+ */
+@SpringBootTest
+class ArchiveServiceTest {
+
+    private static final LocalDateTime LONG_AGO = LocalDateTime.of(2001, 1, 1, 0, 0);
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private LoanRequestService loanRequestService;
+
+    @Autowired
+    private LoanRepaymentService loanRepaymentService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LoanRequestRepository loanRequestRepository;
+
+    @Autowired
+    private LoanRepaymentRepository loanRepaymentRepository;
+
+    @Autowired
+    private ArchivedLoanRequestRepository archivedLoanRequestRepository;
+
+    @Autowired
+    private ArchivedLoanRepaymentRepository archivedLoanRepaymentRepository;
+
+    @Autowired
+    private ClusterScheduler clusterScheduler;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User borrower() {
+        String username = "archive_borrower_" + UUID.randomUUID();
+        return userService.createUser(User.builder()
+                .username(username)
+                .name("Archive Borrower")
+                .email(username + "@dundermifflin.com")
+                .password("paper")
+                .role(Role.USER)
+                .bankAccountNumber("5700000001")
+                .salary(60_000.0)
+                .accountBalance(0.0)
+                .build());
+    }
+
+    private LoanRequest apply(User borrower) {
+        return loanRequestService.applyForLoan(borrower.getId(),
+                loanService.getLoanByType("Education Loan").orElseThrow(), 20_000.0);
+    }
+
+    private LoanRequest disbursed(User borrower, boolean withSchedule) {
+        LoanRequest request = apply(borrower);
+        loanRequestService.approveLoanRequest(request.getId(), request.getAssignedManager().getId(), 20_000.0, "ok");
+        loanRequestService.disburseLoan(request.getId());
+        if (withSchedule) {
+            loanRepaymentService.generateRepayments(request.getId());
+        }
+        return request;
+    }
+
+    // Every EMI paid, all of them due long before the retention cutoff
+    private void paidOffLongAgo(LoanRequest request) {
+        jdbcTemplate.update("update loan_repayment set status = 'PAID', payment_date = repayment_date, "
+                + "repayment_date = dateadd('MONTH', -300, repayment_date) where loan_request_id = ?", request.getId());
+    }
+
+    private void closedLongAgo(LoanRequest request) {
+        jdbcTemplate.update("update loan_request set updated_at = ? where id = ?", LONG_AGO, request.getId());
+    }
+
+    private boolean live(LoanRequest request) {
+        return loanRequestRepository.existsById(request.getId());
+    }
+
+    private boolean archived(LoanRequest request) {
+        return archivedLoanRequestRepository.existsById(request.getId());
+    }
+
+    @Test
+    void movesOnlyClosedRequestsPastRetention() {
+        User borrower = borrower();
+        LoanRequest canceled = apply(borrower);
+        loanRequestService.cancelLoanRequest(canceled.getId(), borrower.getId());
+        closedLongAgo(canceled);
+        LoanRequest rejected = apply(borrower);
+        loanRequestService.rejectLoanRequest(rejected.getId(), rejected.getAssignedManager().getId(), "no");
+        closedLongAgo(rejected);
+        LoanRequest recentlyRejected = apply(borrower);
+        loanRequestService.rejectLoanRequest(recentlyRejected.getId(), recentlyRejected.getAssignedManager().getId(), "no");
+        LoanRequest paidOff = disbursed(borrower, true);
+        paidOffLongAgo(paidOff);
+        LoanRequest unpaid = disbursed(borrower, true);
+        jdbcTemplate.update("update loan_repayment set repayment_date = dateadd('MONTH', -300, repayment_date) "
+                + "where loan_request_id = ?", unpaid.getId());
+        LoanRequest withoutSchedule = disbursed(borrower, false);
+        closedLongAgo(withoutSchedule);
+        List<LoanRepayment> paidOffSchedule = loanRepaymentService.getRepaymentsByRequest(paidOff.getId());
+
+        archiveService.archiveClosedLoans(365);
+
+        for (LoanRequest moved : List.of(canceled, rejected, paidOff)) {
+            assertFalse(live(moved), "request " + moved.getId() + " should have left the live table");
+            assertTrue(archived(moved), "request " + moved.getId() + " should be archived");
+        }
+        for (LoanRequest kept : List.of(recentlyRejected, unpaid, withoutSchedule)) {
+            assertTrue(live(kept), "request " + kept.getId() + " should stay live");
+            assertFalse(archived(kept), "request " + kept.getId() + " should not be archived");
+        }
+
+        // The repayments moved with their request, unchanged, and are still served by request
+        assertTrue(loanRepaymentRepository.findByLoanRequestId(paidOff.getId()).isEmpty());
+        assertEquals(paidOffSchedule.size(), loanRepaymentService.getRepaymentsByRequest(paidOff.getId()).size());
+        assertEquals(paidOffSchedule.stream().map(LoanRepayment::getId).sorted().toList(),
+                archivedLoanRepaymentRepository.findByLoanRequestId(paidOff.getId()).stream()
+                        .map(archivedRepayment -> archivedRepayment.getId()).sorted().toList());
+        assertEquals("REJECTED", archivedLoanRequestRepository.findById(rejected.getId()).orElseThrow().getStatus());
+        assertEquals(20_000.0, archivedLoanRequestRepository.findById(paidOff.getId()).orElseThrow().getRequestedAmount());
+
+        // Live reads leave archived requests out, includeArchived adds them back
+        List<Long> liveOnly = loanRequestService.getLoanRequestsByUser(borrower.getId(), null, false).stream()
+                .map(LoanRequest::getId).toList();
+        List<Long> withArchived = loanRequestService.getLoanRequestsByUser(borrower.getId(), null, true).stream()
+                .map(LoanRequest::getId).toList();
+        assertFalse(liveOnly.contains(paidOff.getId()));
+        assertTrue(withArchived.containsAll(List.of(canceled.getId(), rejected.getId(), paidOff.getId(),
+                recentlyRejected.getId(), unpaid.getId(), withoutSchedule.getId())));
+        assertEquals(List.of(rejected.getId(), recentlyRejected.getId()),
+                loanRequestService.getLoanRequestsByUser(borrower.getId(), "REJECTED", true).stream()
+                        .map(LoanRequest::getId).sorted().toList());
+
+        List<Long> liveRepayments = loanRepaymentService.getRepaymentsByUser(borrower.getId(), null, false).stream()
+                .map(LoanRepayment::getId).toList();
+        List<Long> allRepayments = loanRepaymentService.getRepaymentsByUser(borrower.getId(), null, true).stream()
+                .map(LoanRepayment::getId).toList();
+        assertTrue(paidOffSchedule.stream().noneMatch(repayment -> liveRepayments.contains(repayment.getId())));
+        assertTrue(allRepayments.containsAll(paidOffSchedule.stream().map(LoanRepayment::getId).toList()));
+        assertEquals(liveRepayments.size() + paidOffSchedule.size(), allRepayments.size());
+        assertEquals(paidOffSchedule.size(), loanRepaymentService.getRepaymentsByUser(borrower.getId(), "PAID", true).size());
+    }
+
+    @Test
+    void interruptedRunIsFinishedByTheNextOne() {
+        User borrower = borrower();
+        List<LoanRequest> paidOff = List.of(disbursed(borrower, true), disbursed(borrower, true), disbursed(borrower, true));
+        paidOff.forEach(this::paidOffLongAgo);
+        int scheduleSize = loanRepaymentService.getRepaymentsByRequest(paidOff.get(0).getId()).size();
+
+        // One request per chunk, and the process dies as the second chunk starts
+        TransactionTemplate dying = new TransactionTemplate(transactionManager) {
+            private int chunks;
+
+            @Override
+            public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+                if (++chunks == 2) {
+                    throw new IllegalStateException("interrupted");
+                }
+                return super.execute(action);
+            }
+        };
+        ArchiveServiceImpl interrupted = new ArchiveServiceImpl(loanRequestRepository, loanRepaymentRepository,
+                archivedLoanRequestRepository, archivedLoanRepaymentRepository, dying, clusterScheduler, 365, 1);
+        assertThrows(IllegalStateException.class, () -> interrupted.archiveClosedLoans(null));
+
+        // Every request is either fully moved or fully live, never half copied
+        for (LoanRequest request : paidOff) {
+            int archivedRepayments = archivedLoanRepaymentRepository.findByLoanRequestId(request.getId()).size();
+            int liveRepayments = loanRepaymentRepository.findByLoanRequestId(request.getId()).size();
+            assertNotEquals(live(request), archived(request));
+            assertEquals(archived(request) ? scheduleSize : 0, archivedRepayments);
+            assertEquals(live(request) ? scheduleSize : 0, liveRepayments);
+        }
+        assertTrue(paidOff.stream().anyMatch(this::live), "the interrupted run should have left work behind");
+
+        archiveService.archiveClosedLoans(365);
+
+        for (LoanRequest request : paidOff) {
+            assertFalse(live(request));
+            assertTrue(archived(request));
+            assertEquals(scheduleSize, archivedLoanRepaymentRepository.findByLoanRequestId(request.getId()).size());
+        }
+        assertEquals(3, loanRequestService.getLoanRequestsByUser(borrower.getId(), null, true).size());
+        assertEquals(3 * scheduleSize, loanRepaymentService.getRepaymentsByUser(borrower.getId(), null, true).size());
+    }
+}
@@ -0,0 +1,173 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.CollectionFailureDTO;
+import com.company.loan_management.dto.CollectionRunSummaryDTO;
+import com.company.loan_management.model.LoanRepayment;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.Role;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a collection run debits what the balance covers, records one failure for the installment it
+ * cannot cover, and that rerunning the same date neither repeats the failure nor its event. Once an
+ * installment fails, later installments of the same loan are left alone even if the balance covers them.
+ * The borrower's first installments are moved to a date no other loan is due on, so the run touches only them.
+ */
+@SpringBootTest
+class AutoDebitServiceTest {
+
+    private static final double DELTA = 1e-6;
+    private static final LocalDate RUN_DATE = LocalDate.of(2000, 2, 15);
+
+    @Autowired
+    private AutoDebitService autoDebitService;
+
+    @Autowired
+    private LoanRequestService loanRequestService;
+
+    @Autowired
+    private LoanRepaymentService loanRepaymentService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<CollectionFailureDTO> failures(Long userId) {
+        return failures(RUN_DATE, userId);
+    }
+
+    private List<CollectionFailureDTO> failures(LocalDate date, Long userId) {
+        return autoDebitService.getFailures(date).stream()
+                .filter(failure -> failure.getUserId().equals(userId))
+                .toList();
+    }
+
+    private String status(Long repaymentId) {
+        return jdbcTemplate.queryForObject("select status from loan_repayment where id = ?", String.class, repaymentId);
+    }
+
+    // Still in the outbox or already relayed to the event log
+    private int failedEvents(Long repaymentId) {
+        String where = " where aggregate_type = 'LoanRepayment' and aggregate_id = ? and event_type = 'COLLECTION_FAILED'";
+        return jdbcTemplate.queryForObject("select (select count(*) from outbox_event" + where + ") + (select count(*) from event_log"
+                + where + ")", Integer.class, repaymentId, repaymentId);
+    }
+
+    // A borrower with no balance and a disbursed car loan, returning the loan's installments in order
+    private List<LoanRepayment> disbursedInstallments(User borrower) {
+        LoanRequest request = loanRequestService.applyForLoan(borrower.getId(),
+                loanService.getLoanByType("Car Loan").orElseThrow(), 100_000.0);
+        loanRequestService.approveLoanRequest(request.getId(), request.getAssignedManager().getId(), 100_000.0, "ok");
+        loanRequestService.disburseLoan(request.getId());
+        loanRepaymentService.generateRepayments(request.getId());
+        return loanRepaymentService.getRepaymentsByRequest(request.getId());
+    }
+
+    @Test
+    void paidInsufficientFundsAndRerun() {
+        User borrower = userService.createUser(User.builder()
+                .username("creed_bratton_autodebit")
+                .name("Creed Bratton")
+                .email("creed.autodebit@dundermifflin.com")
+                .password("williamcharlesschneider")
+                .role(Role.USER)
+                .bankAccountNumber("5709990000")
+                .salary(50_000.0)
+                .accountBalance(0.0)
+                .build());
+        List<LoanRepayment> installments = disbursedInstallments(borrower);
+        LoanRepayment first = installments.get(0);
+        LoanRepayment second = installments.get(1);
+        jdbcTemplate.update("update loan_repayment set repayment_date = ? where id = ?", LocalDate.of(2000, 1, 1), first.getId());
+        jdbcTemplate.update("update loan_repayment set repayment_date = ? where id = ?", LocalDate.of(2000, 2, 1), second.getId());
+
+        // The balance covers the first installment and half of the second
+        double emi = first.getEmiAmount();
+        User funded = userRepository.findById(borrower.getId()).orElseThrow();
+        funded.setAccountBalance(1.5 * emi);
+        userRepository.save(funded);
+
+        CollectionRunSummaryDTO run = autoDebitService.collectDue(RUN_DATE);
+        assertEquals(1, run.getCollected());
+        assertEquals(1, run.getFailed());
+        assertEquals("PAID", status(first.getId()));
+        assertEquals("PENDING", status(second.getId()));
+        assertEquals(0.5 * emi, userRepository.findById(borrower.getId()).orElseThrow().getAccountBalance(), DELTA);
+        List<CollectionFailureDTO> failures = failures(borrower.getId());
+        assertEquals(1, failures.size());
+        assertEquals(second.getId(), failures.get(0).getRepaymentId());
+        assertEquals(0.5 * emi, failures.get(0).getAvailableBalance(), DELTA);
+
+        CollectionRunSummaryDTO rerun = autoDebitService.collectDue(RUN_DATE);
+        assertEquals(0, rerun.getCollected());
+        assertEquals(1, rerun.getFailed());
+        assertEquals(1, failures(borrower.getId()).size());
+        assertEquals(1, failedEvents(second.getId()));
+
+        // Topped up before a third run on the same date
+        funded = userRepository.findById(borrower.getId()).orElseThrow();
+        funded.setAccountBalance(emi);
+        userRepository.save(funded);
+
+        CollectionRunSummaryDTO afterTopUp = autoDebitService.collectDue(RUN_DATE);
+        assertEquals(1, afterTopUp.getCollected());
+        assertEquals(0, afterTopUp.getFailed());
+        assertEquals("PAID", status(second.getId()));
+        assertEquals(0, userRepository.findById(borrower.getId()).orElseThrow().getAccountBalance(), DELTA);
+    }
+
+    @Test
+    void laterInstallmentWaitsForFailedOne() {
+        LocalDate runDate = LocalDate.of(2000, 3, 15);
+        User borrower = userService.createUser(User.builder()
+                .username("meredith_palmer_autodebit")
+                .name("Meredith Palmer")
+                .email("meredith.autodebit@dundermifflin.com")
+                .password("supplierrelations")
+                .role(Role.USER)
+                .bankAccountNumber("5709990001")
+                .salary(50_000.0)
+                .accountBalance(0.0)
+                .build());
+        List<LoanRepayment> installments = disbursedInstallments(borrower);
+        LoanRepayment first = installments.get(0);
+        LoanRepayment second = installments.get(1);
+        jdbcTemplate.update("update loan_repayment set repayment_date = ? where id = ?", LocalDate.of(2000, 3, 1), first.getId());
+        // A smaller later installment, as the last one of a schedule can be after rounding
+        double emi = first.getEmiAmount();
+        jdbcTemplate.update("update loan_repayment set repayment_date = ?, emi_amount = ? where id = ?",
+                LocalDate.of(2000, 3, 10), 0.1 * emi, second.getId());
+
+        User funded = userRepository.findById(borrower.getId()).orElseThrow();
+        funded.setAccountBalance(0.5 * emi);
+        userRepository.save(funded);
+
+        CollectionRunSummaryDTO run = autoDebitService.collectDue(runDate);
+        assertEquals(0, run.getCollected());
+        assertEquals(1, run.getFailed());
+        assertEquals("PENDING", status(first.getId()));
+        assertEquals("PENDING", status(second.getId()));
+        assertEquals(0.5 * emi, userRepository.findById(borrower.getId()).orElseThrow().getAccountBalance(), DELTA);
+        assertEquals(List.of(first.getId()), failures(runDate, borrower.getId()).stream()
+                .map(CollectionFailureDTO::getRepaymentId).toList());
+        assertEquals(0, failedEvents(second.getId()));
+    }
+}
@@ -0,0 +1,181 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.BulkDecisionItemDTO;
+import com.company.loan_management.exception.InvalidLoanStatusException;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.Role;
+import com.company.loan_management.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that bulk decisions only move requests that are still PENDING: a second decision on a decided
+ * request, sequential or racing the first, reports NOT_PENDING instead of overwriting it. Single decisions
+ * on a decided request are refused outright, and a single decision racing a bulk one to the same status
+ * leaves one APPROVED event. Bulk decisions publish the same event payload as single ones.
+ */
+@SpringBootTest
+class BulkDecisionTest {
+
+    @Autowired
+    private LoanRequestService loanRequestService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // A new applicant per request, as approved requests count towards the applicant's active-loan limit
+    private LoanRequest apply() {
+        String username = "bulk_applicant_" + UUID.randomUUID();
+        User applicant = userService.createUser(User.builder()
+                .username(username)
+                .name("Bulk Applicant")
+                .email(username + "@dundermifflin.com")
+                .password("paper")
+                .role(Role.USER)
+                .bankAccountNumber("5700000000")
+                .salary(50_000.0)
+                .build());
+        return loanRequestService.applyForLoan(applicant.getId(),
+                loanService.getLoanByType("Education Loan").orElseThrow(), 20_000.0);
+    }
+
+    private static List<BulkDecisionItemDTO> items(LoanRequest request) {
+        return List.of(BulkDecisionItemDTO.builder().requestId(request.getId()).build());
+    }
+
+    private String status(LoanRequest request) {
+        return loanRequestService.getLoanRequestsByUser(request.getUser().getId(), null, false).stream()
+                .filter(r -> r.getId().equals(request.getId()))
+                .findFirst().orElseThrow()
+                .getStatus();
+    }
+
+    // Still in the outbox or already relayed to the event log
+    private int approvedEvents(LoanRequest request) {
+        String where = " where aggregate_type = 'LoanRequest' and aggregate_id = ? and event_type = 'APPROVED'";
+        return jdbcTemplate.queryForObject("select (select count(*) from outbox_event" + where + ") + (select count(*) from event_log"
+                + where + ")", Integer.class, request.getId(), request.getId());
+    }
+
+    // Payload of the request's APPROVED event, still in the outbox or already relayed
+    private String approvedPayload(LoanRequest request) {
+        String where = " where aggregate_type = 'LoanRequest' and aggregate_id = ? and event_type = 'APPROVED'";
+        return jdbcTemplate.queryForObject("select payload from outbox_event" + where + " union all select payload from event_log"
+                + where, String.class, request.getId(), request.getId());
+    }
+
+    @Test
+    void secondDecisionOnDecidedRequestIsNotPending() {
+        LoanRequest request = apply();
+        Long managerId = request.getAssignedManager().getId();
+
+        assertEquals(Map.of(request.getId(), "APPROVED"),
+                loanRequestService.bulkApproveLoanRequests(managerId, items(request), "ok"));
+        // Same payload as a single approval
+        String payload = approvedPayload(request);
+        assertTrue(payload.contains("\"loanType\":\"Education Loan\""), payload);
+        assertTrue(payload.contains("\"managerRemarks\":\"ok\""), payload);
+        assertTrue(payload.contains("\"approvalDate\":"), payload);
+        assertEquals(Map.of(request.getId(), "NOT_PENDING"),
+                loanRequestService.bulkRejectLoanRequests(managerId, items(request), "too late"));
+        assertEquals("APPROVED", status(request));
+    }
+
+    @Test
+    void singleDecisionOnDecidedRequestIsRefused() {
+        LoanRequest request = apply();
+        Long managerId = request.getAssignedManager().getId();
+        loanRequestService.approveLoanRequest(request.getId(), managerId, 20_000.0, "ok");
+        loanRequestService.disburseLoan(request.getId());
+
+        assertThrows(InvalidLoanStatusException.class,
+                () -> loanRequestService.approveLoanRequest(request.getId(), managerId, 30_000.0, "again"));
+        assertThrows(InvalidLoanStatusException.class,
+                () -> loanRequestService.rejectLoanRequest(request.getId(), managerId, "too late"));
+        assertEquals("DISBURSED", status(request));
+    }
+
+    @Test
+    void racingDecisionsOnlyOneWins() throws Exception {
+        for (int round = 0; round < 5; round++) {
+            LoanRequest request = apply();
+            Long managerId = request.getAssignedManager().getId();
+
+            ExecutorService pool = Executors.newFixedThreadPool(2);
+            CountDownLatch start = new CountDownLatch(1);
+            try {
+                Future<Map<Long, String>> approve = pool.submit(() -> {
+                    start.await();
+                    return loanRequestService.bulkApproveLoanRequests(managerId, items(request), "ok");
+                });
+                Future<Map<Long, String>> reject = pool.submit(() -> {
+                    start.await();
+                    return loanRequestService.bulkRejectLoanRequests(managerId, items(request), "no");
+                });
+                start.countDown();
+
+                String approved = approve.get().get(request.getId());
+                String rejected = reject.get().get(request.getId());
+                assertTrue("APPROVED".equals(approved) ^ "REJECTED".equals(rejected),
+                        "exactly one decision should win, got " + approved + " and " + rejected);
+                assertTrue("NOT_PENDING".equals(approved) || "NOT_PENDING".equals(rejected));
+                assertEquals("APPROVED".equals(approved) ? "APPROVED" : "REJECTED", status(request));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void singleAndBulkApprovalRacingRecordOneEvent() throws Exception {
+        for (int round = 0; round < 5; round++) {
+            LoanRequest request = apply();
+            Long managerId = request.getAssignedManager().getId();
+
+            ExecutorService pool = Executors.newFixedThreadPool(2);
+            CountDownLatch start = new CountDownLatch(1);
+            try {
+                Future<Map<Long, String>> bulk = pool.submit(() -> {
+                    start.await();
+                    return loanRequestService.bulkApproveLoanRequests(managerId, items(request), "ok");
+                });
+                Future<Boolean> single = pool.submit(() -> {
+                    start.await();
+                    try {
+                        loanRequestService.approveLoanRequest(request.getId(), managerId, 20_000.0, "ok");
+                        return true;
+                    } catch (RuntimeException lost) {
+                        // Refused as no longer pending, or a stale write after the bulk update
+                        return false;
+                    }
+                });
+                start.countDown();
+
+                boolean bulkWon = "APPROVED".equals(bulk.get().get(request.getId()));
+                assertTrue(bulkWon ^ single.get(), "exactly one approval should win");
+                assertEquals("APPROVED", status(request));
+                assertEquals(1, approvedEvents(request));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.LoanManagementApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs three application contexts in one JVM against a shared in-memory H2 database and checks that
+ * jobs run on exactly one node, that shards spread over the nodes, and that a job whose node dies
+ * mid-run is taken over by a survivor.
+ */
+class ClusterSchedulerTest {
+
+    private static final String DATABASE_URL = "jdbc:h2:mem:cluster-test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final List<ConfigurableApplicationContext> NODES = new ArrayList<>();
+
+    @BeforeAll
+    static void startCluster() {
+        for (int i = 1; i <= 3; i++) {
+            NODES.add(startNode("node-" + i));
+        }
+        awaitTrue(() -> scheduler(NODES.get(0)).getLiveNodes().size() == 3, "all nodes should see each other");
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        NODES.forEach(ConfigurableApplicationContext::close);
+    }
+
+    // Sample data, the second-level cache and the outbox relay are off: the nodes only share the lease tables.
+    // Passed as arguments so they override application.properties.
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(LoanManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + DATABASE_URL,
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--loan.sample-data.enabled=false",
+                        "--loan.events.relay-interval-ms=3600000",
+                        "--loan.cluster.node-id=" + nodeId,
+                        "--loan.cluster.heartbeat-ms=100",
+                        "--loan.cluster.lease-ttl-ms=600",
+                        "--loan.cluster.node-ttl-ms=600");
+    }
+
+    private static ClusterScheduler scheduler(ConfigurableApplicationContext node) {
+        return node.getBean(ClusterScheduler.class);
+    }
+
+    @Test
+    void exclusiveJobRunsOnceAcrossNodes() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(NODES.size());
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (ConfigurableApplicationContext node : NODES) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return scheduler(node).runExclusive("test-exclusive", "2026-01-01", () -> {
+                        runs.incrementAndGet();
+                        sleep(200);
+                    });
+                }));
+            }
+            start.countDown();
+            int ranHere = 0;
+            for (Future<Boolean> result : results) {
+                ranHere += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(1, ranHere);
+        } finally {
+            callers.shutdown();
+        }
+        assertEquals(1, runs.get());
+
+        // The completed run key is not run again, by any node
+        for (ConfigurableApplicationContext node : NODES) {
+            assertFalse(scheduler(node).runExclusive("test-exclusive", "2026-01-01", runs::incrementAndGet));
+        }
+        assertEquals(1, runs.get());
+        assertTrue(scheduler(NODES.get(1)).runExclusive("test-exclusive", "2026-01-02", runs::incrementAndGet));
+    }
+
+    @Test
+    void shardsRunOnceAndSpreadOverNodes() throws Exception {
+        int shardCount = 12;
+        Map<Integer, String> ranOn = new ConcurrentHashMap<>();
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(NODES.size());
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (ConfigurableApplicationContext node : NODES) {
+                ClusterScheduler scheduler = scheduler(node);
+                results.add(callers.submit(() -> scheduler.runSharded("test-sharded", "2026-01-01", shardCount, shard -> {
+                    runs.incrementAndGet();
+                    ranOn.put(shard, scheduler.getNodeId());
+                })));
+            }
+            for (Future<Integer> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdown();
+        }
+
+        awaitTrue(() -> ranOn.size() == shardCount, "every shard should run");
+        assertEquals(shardCount, runs.get());
+        assertTrue(ranOn.values().stream().distinct().count() > 1, "shards should be spread over the nodes: " + ranOn);
+    }
+
+    @Test
+    void survivorTakesOverJobOfDeadNode() throws Exception {
+        ConfigurableApplicationContext doomed = startNode("node-doomed");
+        try {
+            awaitTrue(() -> scheduler(NODES.get(0)).getLiveNodes().contains("node-doomed"), "new node should join");
+
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Thread holder = new Thread(() -> scheduler(doomed).runExclusive("test-takeover", "2026-01-01", () -> {
+                started.countDown();
+                awaitQuietly(release);
+            }));
+            holder.start();
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            AtomicInteger survivorRuns = new AtomicInteger();
+            assertFalse(scheduler(NODES.get(0)).runExclusive("test-takeover", "2026-01-01", survivorRuns::incrementAndGet));
+            sleep(1000);
+            assertEquals(0, survivorRuns.get(), "a heartbeating holder keeps its lease");
+
+            // Stops the doomed node's heartbeat while its job is still running
+            doomed.close();
+            awaitTrue(() -> survivorRuns.get() == 1, "survivor should take the job over");
+
+            release.countDown();
+            holder.join(10_000);
+            JdbcTemplate jdbc = NODES.get(0).getBean(JdbcTemplate.class);
+            Map<String, Object> lease = jdbc.queryForMap("select owner, completed from job_lease where lease_name = 'test-takeover'");
+            assertEquals("node-1", lease.get("OWNER"));
+            assertEquals(Boolean.TRUE, lease.get("COMPLETED"));
+            assertEquals(1, survivorRuns.get());
+        } finally {
+            doomed.close();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            sleep(50);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
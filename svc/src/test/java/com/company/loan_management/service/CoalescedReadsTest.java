@@ -0,0 +1,149 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.CoalescingStatsDTO;
+import com.company.loan_management.dto.LoanRepaymentDTO;
+import com.company.loan_management.exception.LoanRequestNotFoundException;
+import com.company.loan_management.model.LoanRepayment;
+import com.company.loan_management.model.LoanRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that identical concurrent reads run the repayment query once, that different arguments do not
+ * share, and that a failed load reaches every waiting caller without being kept.
+ */
+class CoalescedReadsTest {
+
+    private static final int CALLERS = 20;
+
+    private final LoanRepaymentService repayments = mock(LoanRepaymentService.class);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private CoalescedReads coalescedReads(long resultTtlMillis) {
+        return new CoalescedReads(mock(LoanRequestService.class), repayments, resultTtlMillis);
+    }
+
+    // Holds every load until all callers have been started, so they overlap with it
+    private void loadBlockingOn(CountDownLatch release, RuntimeException failure) {
+        when(repayments.getRepaymentsByRequest(anyLong())).thenAnswer(invocation -> {
+            loads.incrementAndGet();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            if (failure != null) {
+                throw failure;
+            }
+            return List.of(repayment(invocation.getArgument(0)));
+        });
+    }
+
+    private static LoanRepayment repayment(Long loanRequestId) {
+        LoanRequest request = new LoanRequest();
+        request.setId(loanRequestId);
+        LoanRepayment repayment = new LoanRepayment();
+        repayment.setLoanRequest(request);
+        repayment.setStatus("PENDING");
+        return repayment;
+    }
+
+    private static List<Future<List<LoanRepaymentDTO>>> callConcurrently(ExecutorService callers, CoalescedReads reads,
+                                                                        long loanRequestId) {
+        List<Future<List<LoanRepaymentDTO>>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> reads.getRepaymentsByRequest(loanRequestId)));
+        }
+        return results;
+    }
+
+    // Callers count once they are loading or holding the flight they wait on
+    private static void awaitWaiting(CoalescedReads reads, long expectedCallers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (reads.getStats().isEmpty()
+                || reads.getStats().get(0).getLoads() + reads.getStats().get(0).getJoinedInFlight() < expectedCallers) {
+            assertTrue(System.nanoTime() < deadline, "callers should have arrived");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void identicalConcurrentReadsShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        loadBlockingOn(release, null);
+        CoalescedReads reads = coalescedReads(0);
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<LoanRepaymentDTO>>> results = callConcurrently(callers, reads, 7L);
+            awaitWaiting(reads, CALLERS);
+            release.countDown();
+            for (Future<List<LoanRepaymentDTO>> result : results) {
+                assertEquals(7L, result.get().get(0).getLoanRequestId());
+            }
+        }
+
+        assertEquals(1, loads.get());
+        CoalescingStatsDTO stats = reads.getStats().get(0);
+        assertEquals(CALLERS, stats.getCalls());
+        assertEquals(1, stats.getLoads());
+        assertEquals(CALLERS - 1, stats.getJoinedInFlight());
+        assertEquals((double) (CALLERS - 1) / CALLERS, stats.getCoalescingRatio(), 1e-9);
+
+        // Without a TTL the next call after completion loads again
+        reads.getRepaymentsByRequest(7L);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void differentArgumentsDoNotShare() {
+        loadBlockingOn(new CountDownLatch(0), null);
+        CoalescedReads reads = coalescedReads(0);
+
+        assertEquals(1L, reads.getRepaymentsByRequest(1L).get(0).getLoanRequestId());
+        assertEquals(2L, reads.getRepaymentsByRequest(2L).get(0).getLoanRequestId());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void resultIsReusedWithinTtl() {
+        loadBlockingOn(new CountDownLatch(0), null);
+        CoalescedReads reads = coalescedReads(60_000);
+
+        List<LoanRepaymentDTO> first = reads.getRepaymentsByRequest(3L);
+        assertSame(first, reads.getRepaymentsByRequest(3L));
+        assertEquals(1, loads.get());
+        assertEquals(1, reads.getStats().get(0).getServedFromTtl());
+    }
+
+    @Test
+    void failedLoadReachesAllCallersAndIsNotKept() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        loadBlockingOn(release, new LoanRequestNotFoundException("Loan request not found with ID: 9"));
+        CoalescedReads reads = coalescedReads(60_000);
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<LoanRepaymentDTO>>> results = callConcurrently(callers, reads, 9L);
+            awaitWaiting(reads, CALLERS);
+            release.countDown();
+            for (Future<List<LoanRepaymentDTO>> result : results) {
+                ExecutionException e = assertThrows(ExecutionException.class, result::get);
+                assertInstanceOf(LoanRequestNotFoundException.class, e.getCause());
+            }
+        }
+        assertEquals(1, loads.get());
+
+        assertThrows(LoanRequestNotFoundException.class, () -> reads.getRepaymentsByRequest(9L));
+        assertEquals(2, loads.get());
+        assertEquals(2, reads.getStats().get(0).getFailures());
+    }
+}
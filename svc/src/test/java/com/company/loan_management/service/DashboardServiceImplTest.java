@@ -0,0 +1,84 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.DashboardDTO;
+import com.company.loan_management.dto.UserDelinquencyDTO;
+import com.company.loan_management.dto.UserLoanSummaryDTO;
+import com.company.loan_management.model.Role;
+import com.company.loan_management.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that a dashboard section that throws is reported as FAILED and one still running at the deadline
+ * as TIMED_OUT, while the other sections are returned, and that the slow section is interrupted rather
+ * than left running after the response.
+ */
+class DashboardServiceImplTest {
+
+    private static final long SECTION_TIMEOUT_MS = 200;
+
+    private final LoanRequestService loanRequestService = mock(LoanRequestService.class);
+    private final CoalescedReads coalescedReads = mock(CoalescedReads.class);
+    private final OverdueService overdueService = mock(OverdueService.class);
+    private final UserLoanSummaryService loanSummaryService = mock(UserLoanSummaryService.class);
+    private final DashboardServiceImpl dashboards = new DashboardServiceImpl(loanRequestService, coalescedReads,
+            overdueService, mock(AutoDebitService.class), mock(PortfolioRollupService.class), loanSummaryService,
+            mock(PlatformTransactionManager.class), SECTION_TIMEOUT_MS);
+
+    @Test
+    void failedAndSlowSectionsAreReportedAndTheRestReturned() throws Exception {
+        User borrower = User.builder().id(7L).username("kevin_malone").name("Kevin Malone").role(Role.USER).build();
+        UserLoanSummaryDTO summary = UserLoanSummaryDTO.builder().userId(7L).activeLoanCount(1).build();
+        UserDelinquencyDTO delinquency = UserDelinquencyDTO.builder().userId(7L).overdueCount(2).build();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(loanRequestService.getLoanRequestsByUser(7L, null, false)).thenThrow(new IllegalStateException("database down"));
+        when(coalescedReads.getRepaymentsByUser(7L, null, false)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return List.of();
+        });
+        when(loanSummaryService.getSummary(7L)).thenReturn(summary);
+        when(overdueService.getDelinquency(7L)).thenReturn(delinquency);
+
+        long start = System.currentTimeMillis();
+        DashboardDTO dashboard = dashboards.getUserDashboard(borrower);
+
+        assertTrue(System.currentTimeMillis() - start < 5_000, "the response should not wait for the slow section");
+        assertEquals(Map.of("loanRequests", DashboardServiceImpl.FAILED, "repayments", DashboardServiceImpl.TIMED_OUT),
+                dashboard.getFailedSections());
+        assertNull(dashboard.getLoanRequests());
+        assertNull(dashboard.getRepayments());
+        assertSame(summary, dashboard.getLoanSummary());
+        assertSame(delinquency, dashboard.getDelinquency());
+        assertEquals("USER", dashboard.getRole());
+        assertEquals("kevin_malone", dashboard.getProfile().getUsername());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "the timed out section should be interrupted");
+    }
+
+    @Test
+    void noFailedSectionsWhenAllLoad() {
+        User borrower = User.builder().id(8L).username("oscar_martinez").name("Oscar Martinez").role(Role.USER).build();
+        when(loanRequestService.getLoanRequestsByUser(8L, null, false)).thenReturn(List.of());
+        when(coalescedReads.getRepaymentsByUser(8L, null, false)).thenReturn(List.of());
+        when(loanSummaryService.getSummary(8L)).thenReturn(UserLoanSummaryDTO.builder().userId(8L).build());
+        when(overdueService.getDelinquency(8L)).thenReturn(UserDelinquencyDTO.builder().userId(8L).build());
+
+        DashboardDTO dashboard = dashboards.getUserDashboard(borrower);
+
+        assertNull(dashboard.getFailedSections());
+        assertEquals(List.of(), dashboard.getLoanRequests());
+        assertEquals(List.of(), dashboard.getRepayments());
+    }
+}
@@ -0,0 +1,110 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.EligibilityResultDTO;
+import com.company.loan_management.dto.UserLoanSummaryDTO;
+import com.company.loan_management.model.Loan;
+import com.company.loan_management.repository.LoanRequestRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks each affordability rule on its own, with the EMI of a 100,000 car loan (8% over 60 months,
+ * about 2,028 a month) against different salaries, existing loans and requests still open.
+ */
+class EligibilityServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    private final EligibilityServiceImpl eligibility =
+            new EligibilityServiceImpl(mock(UserLoanSummaryService.class), mock(LoanRequestRepository.class), 0.6, 0.4, 2, 0.9);
+
+    private final Loan carLoan = Loan.builder()
+            .loanType("Car Loan")
+            .maxAmount(1_000_000.0)
+            .interestRate(8.0)
+            .durationMonths(60)
+            .build();
+
+    private static UserLoanSummaryDTO summary(int activeLoans, double monthlyEmi, LocalDate nextDue) {
+        return UserLoanSummaryDTO.builder()
+                .activeLoanCount(activeLoans)
+                .monthlyEmiTotal(monthlyEmi)
+                .nextDueDate(nextDue)
+                .build();
+    }
+
+    private EligibilityResultDTO evaluate(Double salary, double amount, UserLoanSummaryDTO summary) {
+        return evaluate(salary, amount, summary, List.of());
+    }
+
+    private EligibilityResultDTO evaluate(Double salary, double amount, UserLoanSummaryDTO summary, List<Double> openRequestEmis) {
+        return eligibility.evaluate(salary, carLoan, amount, summary, openRequestEmis, TODAY);
+    }
+
+    @Test
+    void affordableRequestIsEligible() {
+        EligibilityResultDTO result = evaluate(10_000.0, 100_000, summary(0, 0, null));
+
+        assertEquals(EligibilityService.ELIGIBLE, result.getDecision());
+        assertEquals(2027.64, result.getEmi(), 0.01);
+        assertEquals(0.2028, result.getEmiToSalaryRatio(), 0.0001);
+        assertTrue(result.getFlags().isEmpty());
+    }
+
+    @Test
+    void emiRatioFlagsThenRejects() {
+        assertEquals(List.of(EligibilityServiceImpl.HIGH_EMI_RATIO), evaluate(4_000.0, 100_000, summary(0, 0, null)).getFlags());
+
+        EligibilityResultDTO rejected = evaluate(3_000.0, 100_000, summary(0, 0, null));
+        assertEquals(EligibilityService.REJECTED, rejected.getDecision());
+        assertEquals(List.of(EligibilityServiceImpl.EMI_RATIO_OVER_LIMIT), rejected.getRejectReasons());
+    }
+
+    @Test
+    void existingEmisCountTowardsRatio() {
+        EligibilityResultDTO result = evaluate(10_000.0, 100_000, summary(1, 2_000, TODAY.plusDays(10)));
+
+        assertEquals(2_000, result.getExistingEmi(), 0.001);
+        assertEquals(EligibilityService.FLAGGED, result.getDecision());
+        assertEquals(List.of(EligibilityServiceImpl.HIGH_EMI_RATIO), result.getFlags());
+    }
+
+    @Test
+    void tooManyActiveLoansRejects() {
+        EligibilityResultDTO result = evaluate(100_000.0, 100_000, summary(2, 1_000, TODAY.plusDays(10)));
+
+        assertEquals(EligibilityService.REJECTED, result.getDecision());
+        assertEquals(List.of(EligibilityServiceImpl.TOO_MANY_ACTIVE_LOANS), result.getRejectReasons());
+    }
+
+    @Test
+    void openRequestsCountTowardsRatioAndLimit() {
+        EligibilityResultDTO flagged = evaluate(10_000.0, 100_000, summary(0, 0, null), List.of(2_000.0));
+        assertEquals(2_000, flagged.getExistingEmi(), 0.001);
+        assertEquals(List.of(EligibilityServiceImpl.HIGH_EMI_RATIO), flagged.getFlags());
+
+        EligibilityResultDTO rejected = evaluate(100_000.0, 100_000, summary(1, 1_000, TODAY.plusDays(10)), List.of(500.0));
+        assertEquals(EligibilityService.REJECTED, rejected.getDecision());
+        assertEquals(List.of(EligibilityServiceImpl.TOO_MANY_ACTIVE_LOANS), rejected.getRejectReasons());
+    }
+
+    @Test
+    void interestFreeLoanIsRepaidInEqualParts() {
+        assertEquals(1_000, LoanRepaymentServiceImpl.calculateMonthlyRepayment(60_000, 0, 60), 1e-9);
+    }
+
+    @Test
+    void missingSalaryOverdueInstallmentsAndLargeAmountsAreFlagged() {
+        EligibilityResultDTO result = evaluate(null, 950_000, summary(1, 1_000, TODAY.minusDays(3)));
+
+        assertEquals(EligibilityService.FLAGGED, result.getDecision());
+        assertNull(result.getEmiToSalaryRatio());
+        assertEquals(List.of(EligibilityServiceImpl.NO_SALARY, EligibilityServiceImpl.OVERDUE_INSTALLMENTS,
+                EligibilityServiceImpl.NEAR_PRODUCT_MAXIMUM), result.getFlags());
+    }
+}
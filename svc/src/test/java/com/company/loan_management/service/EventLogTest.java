@@ -0,0 +1,119 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.EventRecordDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the relay moves outbox rows into the shared event_log table in outbox order with growing
+ * offsets, that an outbox row can reach the log only once, and that retention prunes the head of the log
+ * by age and by record count.
+ */
+@SpringBootTest
+class EventLogTest {
+
+    @Autowired
+    private EventLog eventLog;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClusterScheduler clusterScheduler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private EventRecordDTO append(long aggregateId, String eventType, LocalDateTime createdAt) {
+        EventRecordDTO record = EventRecordDTO.builder()
+                .eventId(ThreadLocalRandom.current().nextLong(1L << 40, Long.MAX_VALUE))
+                .aggregateType("LoanRequest")
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .createdAt(createdAt)
+                .payload(objectMapper.valueToTree(Map.of("userId", 1)))
+                .build();
+        transactionTemplate.executeWithoutResult(status -> eventLog.append(List.of(record)));
+        return logged(0, aggregateId).stream()
+                .filter(logged -> logged.getEventId().equals(record.getEventId()))
+                .findFirst().orElseThrow();
+    }
+
+    // Reads the whole log from the offset, keeping this test's aggregate only
+    private List<EventRecordDTO> logged(long fromOffset, long aggregateId) {
+        return eventLog.read(fromOffset, Integer.MAX_VALUE).stream()
+                .filter(record -> record.getAggregateId() == aggregateId)
+                .toList();
+    }
+
+    @Test
+    void relayAppendsOutboxRowsOnceInOrder() {
+        long aggregateId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+        long fromOffset = eventLog.endOffset();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String eventType : List.of("APPLIED", "APPROVED", "DISBURSED")) {
+                outboxService.record("LoanRequest", aggregateId, eventType, Map.of("userId", 1, "step", eventType));
+            }
+        });
+
+        outboxRelay.drain();
+
+        List<EventRecordDTO> records = logged(fromOffset, aggregateId);
+        assertEquals(List.of("APPLIED", "APPROVED", "DISBURSED"), records.stream().map(EventRecordDTO::getEventType).toList());
+        assertTrue(records.get(0).getOffset() >= fromOffset);
+        assertTrue(records.get(0).getOffset() < records.get(1).getOffset() && records.get(1).getOffset() < records.get(2).getOffset());
+        assertEquals("APPROVED", records.get(1).getPayload().get("step").asText());
+        assertTrue(eventLog.endOffset() > records.get(2).getOffset());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from outbox_event where aggregate_id = ?", Integer.class, aggregateId));
+
+        // Nothing left to relay, and the same outbox rows cannot be appended a second time
+        outboxRelay.drain();
+        assertEquals(3, logged(fromOffset, aggregateId).size());
+        assertThrows(DataIntegrityViolationException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> eventLog.append(records.subList(2, 3))));
+        assertEquals(3, logged(fromOffset, aggregateId).size());
+    }
+
+    @Test
+    void retentionPrunesByAgeThenByCount() {
+        long aggregateId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+        LocalDateTime now = LocalDateTime.now();
+        append(aggregateId, "APPLIED", now.minusDays(10));
+        append(aggregateId, "APPROVED", now.minusDays(9));
+        EventRecordDTO recent = append(aggregateId, "DISBURSED", now.minusHours(1));
+        EventRecordDTO last = append(aggregateId, "REPAYMENTS_SCHEDULED", now);
+
+        // A week of retention and room for far more records than the log holds; batches smaller than the range
+        assertTrue(new EventLogRetention(eventLog, clusterScheduler, 168, 1_000_000, 1).prune() >= 2);
+        assertEquals(List.of("DISBURSED", "REPAYMENTS_SCHEDULED"),
+                logged(0, aggregateId).stream().map(EventRecordDTO::getEventType).toList());
+        assertEquals(recent.getOffset(), eventLog.startOffset());
+
+        // Nothing is old enough now, but only one record may be kept
+        assertEquals(1, new EventLogRetention(eventLog, clusterScheduler, 168, 1, 1000).prune());
+        assertEquals(List.of(last.getOffset()), logged(0, aggregateId).stream().map(EventRecordDTO::getOffset).toList());
+        assertEquals(last.getOffset(), eventLog.startOffset());
+        assertEquals(0, new EventLogRetention(eventLog, clusterScheduler, 168, 1, 1000).prune());
+    }
+}
@@ -0,0 +1,125 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.EventRecordDTO;
+import com.company.loan_management.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Checks that a node streams events another node's relay appended to the shared event log, and that a
+ * client reconnecting with Last-Event-ID gets what it missed from the log, or a resync once its last event
+ * has been pruned. Records are appended straight
+ * to the log, as the relay on another node would, so the local relay plays no part.
+ */
+@SpringBootTest(properties = "loan.events.stream.poll-ms=100")
+@AutoConfigureMockMvc
+class EventStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventLog eventLog;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockHttpServletResponse subscribe(Long lastEventId) throws Exception {
+        User admin = userService.findByUsername("michael_scott").orElseThrow();
+        var request = get("/api/events/stream").with(user(new UserDetailsImpl(admin)));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        MvcResult result = mockMvc.perform(request).andReturn();
+        assertTrue(result.getRequest().isAsyncStarted());
+        return result.getResponse();
+    }
+
+    // Event IDs far above any outbox row ID, as only the relay draws from that sequence
+    private EventRecordDTO appendElsewhere(String eventType) {
+        EventRecordDTO record = EventRecordDTO.builder()
+                .eventId(ThreadLocalRandom.current().nextLong(1L << 40, Long.MAX_VALUE))
+                .aggregateType("LoanRequest")
+                .aggregateId(1L)
+                .eventType(eventType)
+                .createdAt(LocalDateTime.now())
+                .payload(objectMapper.valueToTree(Map.of("userId", 1)))
+                .build();
+        transactionTemplate.executeWithoutResult(status -> eventLog.append(List.of(record)));
+        return eventLog.read(0, Integer.MAX_VALUE).stream()
+                .filter(logged -> logged.getEventId().equals(record.getEventId()))
+                .findFirst().orElseThrow();
+    }
+
+    private static void awaitContains(MockHttpServletResponse response, String text) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!response.getContentAsString().contains(text)) {
+            assertTrue(System.currentTimeMillis() < deadline, "stream should contain " + text + ", got " + response.getContentAsString());
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void streamsEventsAppendedByAnotherNode() throws Exception {
+        MockHttpServletResponse stream = subscribe(null);
+        awaitContains(stream, ":subscribed");
+
+        EventRecordDTO event = appendElsewhere("APPROVED");
+
+        awaitContains(stream, "id:" + event.getOffset() + "\n");
+        awaitContains(stream, "\"eventId\":" + event.getEventId());
+    }
+
+    @Test
+    void reconnectReplaysMissedEventsFromLog() throws Exception {
+        EventRecordDTO seen = appendElsewhere("APPLIED");
+        EventRecordDTO missed = appendElsewhere("REJECTED");
+        // Published by this node's poll before the client comes back
+        MockHttpServletResponse live = subscribe(null);
+        EventRecordDTO marker = appendElsewhere("CANCELED");
+        awaitContains(live, "\"eventId\":" + marker.getEventId());
+
+        MockHttpServletResponse resumed = subscribe(seen.getOffset());
+
+        awaitContains(resumed, "\"eventId\":" + missed.getEventId());
+        assertFalse(resumed.getContentAsString().contains("\"eventId\":" + seen.getEventId() + ","));
+        assertFalse(resumed.getContentAsString().contains("event:resync"));
+    }
+
+    @Test
+    void reconnectAfterPruneGetsResync() throws Exception {
+        EventRecordDTO seen = appendElsewhere("APPLIED");
+        EventRecordDTO missed = appendElsewhere("REJECTED");
+        MockHttpServletResponse live = subscribe(null);
+        EventRecordDTO marker = appendElsewhere("CANCELED");
+        awaitContains(live, "\"eventId\":" + marker.getEventId());
+        eventLog.prune(missed.getOffset(), 1000);
+
+        MockHttpServletResponse resumed = subscribe(seen.getOffset());
+
+        awaitContains(resumed, "event:resync");
+        assertFalse(resumed.getContentAsString().contains("\"eventId\":" + missed.getEventId()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.model.AccrualCheckpoint;
+import com.company.loan_management.model.InterestAccrual;
+import com.company.loan_management.model.LoanRepayment;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.AccrualCheckpointRepository;
+import com.company.loan_management.repository.InterestAccrualRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a run resumes after a partition's checkpoint without accruing a loan twice, that fully
+ * repaid loans stop accruing, and that the summary nets paid interest off the accrued total.
+ * Accrual dates lie far in the future so they never meet dates accrued elsewhere.
+ */
+@SpringBootTest(properties = "loan.accrual.partition-size=" + InterestAccrualServiceTest.PARTITION_SIZE)
+class InterestAccrualServiceTest {
+
+    static final long PARTITION_SIZE = 1000;
+
+    private static final double DELTA = 1e-6;
+
+    @Autowired
+    private InterestAccrualService interestAccrualService;
+
+    @Autowired
+    private InterestAccrualRepository interestAccrualRepository;
+
+    @Autowired
+    private AccrualCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private LoanRequestService loanRequestService;
+
+    @Autowired
+    private LoanRepaymentService loanRepaymentService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LoanRequest disburse(double amount) {
+        User borrower = userService.findByUsername("michael_scott").orElseThrow();
+        LoanRequest request = loanRequestService.applyForLoan(borrower.getId(),
+                loanService.getLoanByType("Car Loan").orElseThrow(), amount);
+        loanRequestService.approveLoanRequest(request.getId(), request.getAssignedManager().getId(), amount, "ok");
+        LoanRequest disbursed = loanRequestService.disburseLoan(request.getId());
+        loanRepaymentService.generateRepayments(disbursed.getId());
+        return disbursed;
+    }
+
+    private int accrualsOn(LocalDate date) {
+        return jdbcTemplate.queryForObject("select count(*) from interest_accrual where accrual_date = ?", Integer.class, date);
+    }
+
+    private List<LocalDate> accrualDates(LoanRequest loan) {
+        return interestAccrualRepository.findByLoanRequestIdOrderByAccrualDateAsc(loan.getId()).stream()
+                .map(InterestAccrual::getAccrualDate)
+                .toList();
+    }
+
+    @Test
+    void rerunResumesAfterCheckpoint() {
+        LoanRequest processed = disburse(40_000.0);
+        LoanRequest remaining = disburse(60_000.0);
+        LocalDate date = LocalDate.of(2090, 1, 1);
+
+        // A run that crashed after committing the batch ending at the first loan
+        long partitionStart = processed.getId() / PARTITION_SIZE * PARTITION_SIZE;
+        assertEquals(partitionStart, remaining.getId() / PARTITION_SIZE * PARTITION_SIZE);
+        checkpointRepository.save(AccrualCheckpoint.builder()
+                .accrualDate(date)
+                .partitionStart(partitionStart)
+                .lastProcessedId(processed.getId())
+                .completed(false)
+                .updatedAt(LocalDateTime.now())
+                .build());
+
+        long written = interestAccrualService.accrue(date);
+
+        assertEquals(List.of(), accrualDates(processed));
+        assertEquals(List.of(date), accrualDates(remaining));
+        assertEquals(written, accrualsOn(date));
+        assertTrue(checkpointRepository.findByAccrualDate(date).stream().allMatch(AccrualCheckpoint::isCompleted));
+
+        assertEquals(0, interestAccrualService.accrue(date));
+        assertEquals(written, accrualsOn(date));
+        assertEquals(written, interestAccrualService.getSummary(date).getLoanCount());
+    }
+
+    @Test
+    void summaryNetsPaidInterestAndRepaidLoansStopAccruing() {
+        LoanRequest loan = disburse(50_000.0);
+        LocalDate date = LocalDate.of(2090, 2, 1);
+        interestAccrualService.accrue(date);
+
+        double accrued = interestAccrualRepository.findByLoanRequestIdOrderByAccrualDateAsc(loan.getId()).get(0).getAmount();
+        assertEquals(50_000.0 * 8 / 100 / 365, accrued, DELTA);
+        double unpaidBefore = interestAccrualService.getSummary(date).getUnpaidAccruedToDate();
+
+        // The first installment's interest covers the single accrued day, and is not carried over to other loans
+        List<LoanRepayment> installments = loanRepaymentService.getRepaymentsByRequest(loan.getId());
+        loanRepaymentService.markAsPaid(installments.get(0).getId());
+        assertEquals(unpaidBefore - accrued, interestAccrualService.getSummary(date).getUnpaidAccruedToDate(), DELTA);
+
+        installments.stream().skip(1).forEach(installment -> loanRepaymentService.markAsPaid(installment.getId()));
+        LocalDate nextDay = date.plusDays(1);
+        interestAccrualService.accrue(nextDay);
+
+        assertEquals(List.of(date), accrualDates(loan));
+        assertEquals(accrualsOn(date) - 1, accrualsOn(nextDay));
+    }
+}
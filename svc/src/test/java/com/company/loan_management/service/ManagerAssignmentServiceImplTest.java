@@ -0,0 +1,117 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.config.AssignmentProperties;
+import com.company.loan_management.model.Loan;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.LoanRepository;
+import com.company.loan_management.repository.LoanRequestRepository;
+import com.company.loan_management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that concurrent least-loaded assignments spread evenly instead of all picking the same manager,
+ * and that a counter refresh replaces the local counts with the database's, including managers whose
+ * queue emptied on another replica. A reassigned request restarts its clock with the new manager, who is
+ * sent a REASSIGNED event.
+ */
+class ManagerAssignmentServiceImplTest {
+
+    private static final int APPLIES = 200;
+
+    private final LoanRepository loanRepository = mock(LoanRepository.class);
+    private final LoanRequestRepository loanRequestRepository = mock(LoanRequestRepository.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final ManagerAssignmentServiceImpl assignment = new ManagerAssignmentServiceImpl(loanRepository,
+            loanRequestRepository, mock(UserRepository.class), new AssignmentProperties(), mock(PortfolioRollupService.class),
+            outboxService);
+
+    private final Loan loan = Loan.builder().id(1L).loanType("Car Loan").build();
+
+    private static User manager(long id) {
+        User manager = new User();
+        manager.setId(id);
+        return manager;
+    }
+
+    @Test
+    void concurrentAppliesSpreadEvenly() throws Exception {
+        when(loanRepository.findApproverPool(1L)).thenReturn(List.of(manager(10), manager(11)));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<User>> picks = new ArrayList<>();
+        try {
+            for (int i = 0; i < APPLIES; i++) {
+                picks.add(pool.submit(() -> {
+                    start.await();
+                    return assignment.assignManager(loan);
+                }));
+            }
+            start.countDown();
+            for (Future<User> pick : picks) {
+                pick.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(Map.of(10L, APPLIES / 2, 11L, APPLIES / 2), assignment.getPendingCounts());
+    }
+
+    @Test
+    void refreshTakesCountsFromDatabase() {
+        when(loanRepository.findApproverPool(1L)).thenReturn(List.of(manager(10), manager(11)));
+        assignment.assignManager(loan);
+        assignment.assignManager(loan);
+
+        // Manager 10's request was decided elsewhere and manager 12 got three there
+        when(loanRequestRepository.countPendingByManager())
+                .thenReturn(List.of(new Object[]{11L, 1L}, new Object[]{12L, 3L}));
+        assignment.scheduledCounterRefresh();
+
+        assertEquals(Map.of(10L, 0, 11L, 1, 12L, 3), assignment.getPendingCounts());
+    }
+
+    @Test
+    void reassignmentRestartsClockAndNotifiesNewManager() {
+        when(loanRepository.findApproverPool(1L)).thenReturn(List.of(manager(10), manager(11)));
+        LoanRequest stale = LoanRequest.builder()
+                .id(5L)
+                .loan(loan)
+                .assignedManager(manager(10))
+                .status("PENDING")
+                .assignedAt(LocalDateTime.now().minusDays(30))
+                .build();
+        when(loanRequestRepository.findPendingAssignedBefore(any(), any())).thenReturn(List.of(stale));
+        when(loanRequestRepository.save(stale)).thenReturn(stale);
+
+        LocalDateTime before = LocalDateTime.now();
+        List<LoanRequest> reassigned = assignment.reassignStaleRequests(7);
+
+        assertEquals(List.of(stale), reassigned);
+        assertEquals(11L, stale.getAssignedManager().getId());
+        assertFalse(stale.getAssignedAt().isBefore(before));
+        // Stale means held by the current manager for the whole period, not requested that long ago
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(loanRequestRepository).findPendingAssignedBefore(cutoff.capture(), any());
+        assertEquals(stale.getAssignedAt().minusDays(7), cutoff.getValue());
+        verify(outboxService).recordLoanRequestEvent(stale, "REASSIGNED");
+    }
+}
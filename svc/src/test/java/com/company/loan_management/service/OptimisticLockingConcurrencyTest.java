@@ -0,0 +1,138 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.model.LoanRepayment;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.Role;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.LoanRepaymentRepository;
+import com.company.loan_management.repository.LoanRequestRepository;
+import com.company.loan_management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers the read-modify-write service methods from several threads and checks that
+ * optimistic versioning plus retries never drops an update.
+ */
+@SpringBootTest(properties = {
+        "loan.optimistic-retry.max-attempts=100",
+        "loan.optimistic-retry.backoff-ms=1"
+})
+class OptimisticLockingConcurrencyTest {
+
+    private static final int THREADS = 4;
+    private static final int ROUNDS = 25;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LoanRequestService loanRequestService;
+
+    @Autowired
+    private LoanRepaymentService loanRepaymentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRequestRepository loanRequestRepository;
+
+    @Autowired
+    private LoanRepaymentRepository loanRepaymentRepository;
+
+    @Test
+    void concurrentUserUpdatesOnDifferentFieldsAreAllKept() throws Exception {
+        User user = userService.createUser(User.builder()
+                .username("concurrency_user")
+                .name("Initial")
+                .email("concurrency@dundermifflin.com")
+                .password("secret")
+                .role(Role.USER)
+                .bankAccountNumber("0")
+                .salary(50000.0)
+                .accountBalance(0.0)
+                .department("Initial")
+                .isActive(true)
+                .build());
+        Long id = user.getId();
+        long initialVersion = userRepository.findById(id).orElseThrow().getVersion();
+
+        List<Consumer<Integer>> writers = List.of(
+                round -> userService.updateUser(id, User.builder().name("Name " + round).build()),
+                round -> userService.updateUser(id, User.builder().salary((double) round).build()),
+                round -> userService.updateUser(id, User.builder().bankAccountNumber("ACC" + round).build()),
+                round -> userService.updateUser(id, User.builder().department("Dept " + round).build())
+        );
+        runConcurrently(writers);
+
+        User result = userRepository.findById(id).orElseThrow();
+        int last = ROUNDS - 1;
+        assertEquals("Name " + last, result.getName());
+        assertEquals((double) last, result.getSalary());
+        assertEquals("ACC" + last, result.getBankAccountNumber());
+        assertEquals("Dept " + last, result.getDepartment());
+        assertEquals(initialVersion + (long) THREADS * ROUNDS, result.getVersion());
+    }
+
+    @Test
+    void concurrentMarkAsPaidOnSameRepaymentSucceeds() throws Exception {
+        LoanRepayment repayment = loanRepaymentRepository.findAll().stream()
+                .filter(r -> "PENDING".equals(r.getStatus()))
+                .findFirst()
+                .orElseThrow();
+
+        List<Consumer<Integer>> writers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            writers.add(round -> loanRepaymentService.markAsPaid(repayment.getId()));
+        }
+        runConcurrently(writers);
+
+        assertEquals("PAID", loanRepaymentRepository.findById(repayment.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void staleLoanRequestWriteIsRejected() {
+        LoanRequest pending = loanRequestRepository.findByStatus("PENDING").get(0);
+        LoanRequest staleCopy = loanRequestRepository.findById(pending.getId()).orElseThrow();
+
+        loanRequestService.rejectLoanRequest(pending.getId(), pending.getAssignedManager().getId(), "Rejected first");
+
+        staleCopy.setStatus("APPROVED");
+        assertThrows(OptimisticLockingFailureException.class, () -> loanRequestRepository.save(staleCopy));
+        assertEquals("REJECTED", loanRequestRepository.findById(pending.getId()).orElseThrow().getStatus());
+    }
+
+    // Starts one thread per writer behind a common gate; each writer runs ROUNDS times in order
+    private void runConcurrently(List<Consumer<Integer>> writers) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(writers.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Consumer<Integer> writer : writers) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int round = 0; round < ROUNDS; round++) {
+                    writer.accept(round);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.OverdueRunSummaryDTO;
+import com.company.loan_management.dto.UserDelinquencyDTO;
+import com.company.loan_management.model.LoanRepayment;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.Role;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.JobWatermarkRepository;
+import com.company.loan_management.repository.UserDelinquencyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that an overdue scan flags the installments that fell due since the previous run's watermark and
+ * nothing behind it, charges flat fee plus rate of the EMI as penalty, and keeps the user's delinquency
+ * counters in step, down again when an overdue installment is paid. An installment paid between the scan
+ * reading it and flagging it stays paid. The installments are moved to dates in the 1980s, before anything
+ * other tests schedule, and the scans run as of then, so they touch only these installments.
+ */
+@SpringBootTest
+class OverdueServiceTest {
+
+    private static final double DELTA = 1e-6;
+
+    @Autowired
+    private OverdueService overdueService;
+
+    @Autowired
+    private LoanRequestService loanRequestService;
+
+    @Autowired
+    private LoanRepaymentService loanRepaymentService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JobWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private UserDelinquencyRepository delinquencyRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private UserLoanSummaryService loanSummaryService;
+
+    @Autowired
+    private ClusterScheduler clusterScheduler;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Other tests scan as of today, which leaves the watermark far ahead of the 1980s
+    @BeforeEach
+    void resetWatermark() {
+        watermarkRepository.deleteById(OverdueServiceImpl.JOB_NAME);
+    }
+
+    private User borrower() {
+        String username = "overdue_borrower_" + UUID.randomUUID();
+        return userService.createUser(User.builder()
+                .username(username)
+                .name("Overdue Borrower")
+                .email(username + "@dundermifflin.com")
+                .password("paper")
+                .role(Role.USER)
+                .bankAccountNumber("5700000002")
+                .salary(60_000.0)
+                .accountBalance(0.0)
+                .build());
+    }
+
+    // A disbursed education loan, returning its installments in order
+    private List<LoanRepayment> installments(User borrower) {
+        LoanRequest request = loanRequestService.applyForLoan(borrower.getId(),
+                loanService.getLoanByType("Education Loan").orElseThrow(), 20_000.0);
+        loanRequestService.approveLoanRequest(request.getId(), request.getAssignedManager().getId(), 20_000.0, "ok");
+        loanRequestService.disburseLoan(request.getId());
+        loanRepaymentService.generateRepayments(request.getId());
+        return loanRepaymentService.getRepaymentsByRequest(request.getId());
+    }
+
+    private void dueOn(LoanRepayment installment, LocalDate date) {
+        jdbcTemplate.update("update loan_repayment set repayment_date = ? where id = ?", date, installment.getId());
+    }
+
+    private String status(LoanRepayment installment) {
+        return jdbcTemplate.queryForObject("select status from loan_repayment where id = ?", String.class, installment.getId());
+    }
+
+    private Double penalty(LoanRepayment installment) {
+        return jdbcTemplate.queryForObject("select penalty_amount from loan_repayment where id = ?", Double.class, installment.getId());
+    }
+
+    // Still in the outbox or already relayed to the event log
+    private int overdueEvents(LoanRepayment installment) {
+        String where = " where aggregate_type = 'LoanRepayment' and aggregate_id = ? and event_type = 'OVERDUE'";
+        return jdbcTemplate.queryForObject("select (select count(*) from outbox_event" + where + ") + (select count(*) from event_log"
+                + where + ")", Integer.class, installment.getId(), installment.getId());
+    }
+
+    @Test
+    void scanPicksUpOnlyNewlyDueInstallments() {
+        User borrower = borrower();
+        List<LoanRepayment> installments = installments(borrower);
+        LoanRepayment first = installments.get(0);
+        LoanRepayment second = installments.get(1);
+        dueOn(first, LocalDate.of(1989, 1, 1));
+        dueOn(second, LocalDate.of(1989, 2, 1));
+        double emi = first.getEmiAmount();
+
+        OverdueRunSummaryDTO run = overdueService.detectOverdue(LocalDate.of(1989, 1, 15));
+        assertEquals(1, run.getFlagged());
+        assertEquals(1, run.getUsers());
+        assertEquals(0.02 * emi, run.getPenalties(), DELTA);
+        assertEquals("OVERDUE", status(first));
+        assertEquals(0.02 * emi, penalty(first), DELTA);
+        assertEquals("PENDING", status(second));
+        assertEquals(1, overdueEvents(first));
+        UserDelinquencyDTO delinquency = overdueService.getDelinquency(borrower.getId());
+        assertEquals(1, delinquency.getOverdueCount());
+        assertEquals(1, delinquency.getLifetimeOverdueCount());
+        assertEquals(0.02 * emi, delinquency.getTotalPenalty(), DELTA);
+        assertEquals(LocalDate.of(1989, 1, 1), delinquency.getLastOverdueDate());
+
+        // Behind the watermark now, so the next run does not read it again even though it is pending
+        jdbcTemplate.update("update loan_repayment set status = 'PENDING' where id = ?", first.getId());
+
+        OverdueRunSummaryDTO next = overdueService.detectOverdue(LocalDate.of(1989, 2, 15));
+        assertEquals(1, next.getFlagged());
+        assertEquals("PENDING", status(first));
+        assertEquals("OVERDUE", status(second));
+        assertEquals(1, overdueEvents(first));
+        delinquency = overdueService.getDelinquency(borrower.getId());
+        assertEquals(2, delinquency.getOverdueCount());
+        assertEquals(2, delinquency.getLifetimeOverdueCount());
+        assertEquals(LocalDate.of(1989, 2, 1), delinquency.getLastOverdueDate());
+
+        // Paying the overdue installment settles it; paying a pending one changes nothing
+        loanRepaymentService.markAsPaid(second.getId());
+        assertEquals(1, overdueService.getDelinquency(borrower.getId()).getOverdueCount());
+        loanRepaymentService.markAsPaid(first.getId());
+        delinquency = overdueService.getDelinquency(borrower.getId());
+        assertEquals(1, delinquency.getOverdueCount());
+        assertEquals(2, delinquency.getLifetimeOverdueCount());
+        assertEquals(0.04 * emi, delinquency.getTotalPenalty(), DELTA);
+    }
+
+    @Test
+    void installmentPaidDuringScanStaysPaid() {
+        User borrower = borrower();
+        List<LoanRepayment> installments = installments(borrower);
+        LoanRepayment paidMeanwhile = installments.get(0);
+        LoanRepayment late = installments.get(1);
+        dueOn(paidMeanwhile, LocalDate.of(1988, 1, 1));
+        dueOn(late, LocalDate.of(1988, 1, 2));
+        double emi = late.getEmiAmount();
+
+        // The borrower pays after the scan read the batch, before it flags it
+        TransactionTemplate paysFirst = new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+                jdbcTemplate.update("update loan_repayment set status = 'PAID' where id = ?", paidMeanwhile.getId());
+                return super.execute(action);
+            }
+        };
+        OverdueServiceImpl scan = new OverdueServiceImpl(jdbcTemplate, paysFirst, clusterScheduler, watermarkRepository,
+                delinquencyRepository, outboxService, loanSummaryService, 1000, 0, 10.0, 2.0);
+
+        OverdueRunSummaryDTO run = scan.detectOverdue(LocalDate.of(1988, 2, 1));
+
+        assertEquals(1, run.getFlagged());
+        assertEquals(10.0 + 0.02 * emi, run.getPenalties(), DELTA);
+        assertEquals("PAID", status(paidMeanwhile));
+        assertNull(penalty(paidMeanwhile));
+        assertEquals(0, overdueEvents(paidMeanwhile));
+        assertEquals("OVERDUE", status(late));
+        assertEquals(10.0 + 0.02 * emi, penalty(late), DELTA);
+        UserDelinquencyDTO delinquency = overdueService.getDelinquency(borrower.getId());
+        assertEquals(1, delinquency.getOverdueCount());
+        assertEquals(10.0 + 0.02 * emi, delinquency.getTotalPenalty(), DELTA);
+        assertEquals(LocalDate.of(1988, 1, 2), delinquency.getLastOverdueDate());
+    }
+}
@@ -0,0 +1,131 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.model.Loan;
+import com.company.loan_management.model.LoanRepayment;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.Role;
+import com.company.loan_management.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the rollup rows the loan request and repayment services keep up to date by deltas match
+ * what a rebuild computes from the tables, after applying, approving with a changed amount, rejecting,
+ * canceling, disbursing, scheduling and paying installments. The rollups are rebuilt first, as other tests
+ * change rows behind the services' back.
+ */
+@SpringBootTest
+class PortfolioRollupServiceTest {
+
+    private static final double DELTA = 1e-6;
+
+    @Autowired
+    private PortfolioRollupService portfolioRollupService;
+
+    @Autowired
+    private LoanRequestService loanRequestService;
+
+    @Autowired
+    private LoanRepaymentService loanRepaymentService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User borrower() {
+        String username = "rollup_borrower_" + UUID.randomUUID();
+        return userService.createUser(User.builder()
+                .username(username)
+                .name("Rollup Borrower")
+                .email(username + "@dundermifflin.com")
+                .password("paper")
+                .role(Role.USER)
+                .bankAccountNumber("5700000003")
+                .salary(80_000.0)
+                .accountBalance(0.0)
+                .build());
+    }
+
+    private LoanRequest apply(Loan loan, double amount) {
+        return loanRequestService.applyForLoan(borrower().getId(), loan, amount);
+    }
+
+    // Every rollup row, keyed by segment: count, requested amount, outstanding principal, interest due
+    private Map<String, double[]> rollups() {
+        Map<String, double[]> rows = new TreeMap<>();
+        jdbcTemplate.query("select dimension, dimension_key, status, request_count, requested_amount, "
+                        + "outstanding_principal, interest_due from portfolio_rollup",
+                (RowCallbackHandler) rs -> rows.put(rs.getString(1) + "/" + rs.getLong(2) + "/" + rs.getString(3),
+                        new double[]{rs.getLong(4), rs.getDouble(5), rs.getDouble(6), rs.getDouble(7)}));
+        return rows;
+    }
+
+    private static double[] row(Map<String, double[]> rollups, String dimension, Long key, String status) {
+        return rollups.getOrDefault(dimension + "/" + key + "/" + status, new double[4]);
+    }
+
+    private static void assertSameRollups(Map<String, double[]> expected, Map<String, double[]> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((segment, values) -> {
+            double[] other = actual.get(segment);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(values[i], other[i], DELTA, "column " + i + " of " + segment);
+            }
+        });
+    }
+
+    @Test
+    void deltasMatchRebuild() {
+        portfolioRollupService.rebuild();
+        Loan education = loanService.getLoanByType("Education Loan").orElseThrow();
+        Loan car = loanService.getLoanByType("Car Loan").orElseThrow();
+        Map<String, double[]> before = rollups();
+
+        LoanRequest pending = apply(education, 15_000.0);
+        LoanRequest rejected = apply(car, 40_000.0);
+        loanRequestService.rejectLoanRequest(rejected.getId(), rejected.getAssignedManager().getId(), "no");
+        LoanRequest canceled = apply(education, 12_000.0);
+        loanRequestService.cancelLoanRequest(canceled.getId(), canceled.getUser().getId());
+        LoanRequest approved = apply(car, 50_000.0);
+        loanRequestService.approveLoanRequest(approved.getId(), approved.getAssignedManager().getId(), 45_000.0, "less");
+        LoanRequest disbursed = apply(education, 30_000.0);
+        loanRequestService.approveLoanRequest(disbursed.getId(), disbursed.getAssignedManager().getId(), 25_000.0, "ok");
+        loanRequestService.disburseLoan(disbursed.getId());
+        loanRepaymentService.generateRepayments(disbursed.getId());
+        List<LoanRepayment> installments = loanRepaymentService.getRepaymentsByRequest(disbursed.getId());
+        loanRepaymentService.markAsPaid(installments.get(0).getId());
+        loanRepaymentService.markAsPaid(installments.get(1).getId());
+        // Paying twice must not count the installment twice
+        loanRepaymentService.markAsPaid(installments.get(1).getId());
+
+        Map<String, double[]> maintained = rollups();
+
+        // The deltas moved the rows the way the operations say
+        Long educationId = education.getId();
+        assertEquals(1, row(maintained, "LOAN", educationId, "PENDING")[0] - row(before, "LOAN", educationId, "PENDING")[0], DELTA);
+        assertEquals(1, row(maintained, "LOAN", educationId, "CANCELED")[0] - row(before, "LOAN", educationId, "CANCELED")[0], DELTA);
+        assertEquals(25_000.0, row(maintained, "LOAN", educationId, "DISBURSED")[1] - row(before, "LOAN", educationId, "DISBURSED")[1], DELTA);
+        assertEquals(45_000.0, row(maintained, "LOAN", car.getId(), "APPROVED")[1] - row(before, "LOAN", car.getId(), "APPROVED")[1], DELTA);
+        double unpaidPrincipal = installments.stream().skip(2).mapToDouble(LoanRepayment::getPrincipalPayment).sum();
+        assertEquals(unpaidPrincipal, row(maintained, "LOAN", educationId, "DISBURSED")[2] - row(before, "LOAN", educationId, "DISBURSED")[2], 1e-3);
+
+        portfolioRollupService.rebuild();
+
+        assertSameRollups(rollups(), maintained);
+    }
+}
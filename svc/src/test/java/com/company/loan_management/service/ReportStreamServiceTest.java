@@ -0,0 +1,91 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.LoanRepaymentDTO;
+import com.company.loan_management.dto.ManagerLoanRequestDTO;
+import com.company.loan_management.mapper.LoanRepaymentMapper;
+import com.company.loan_management.mapper.ManagerLoanRequestMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the streamed listings, read a few rows per page, hold the same rows as the regular
+ * finance reads, one JSON object per line.
+ */
+@SpringBootTest(properties = "loan.streaming.page-size=2")
+class ReportStreamServiceTest {
+
+    @Autowired
+    private ReportStreamService reportStreamService;
+
+    @Autowired
+    private LoanRepaymentService loanRepaymentService;
+
+    @Autowired
+    private LoanRequestService loanRequestService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Borrower of the disbursed car loan from DataInitializer
+    private Long borrowerId() {
+        return loanRequestService.getApprovedLoansForDisbursal("DISBURSED").get(0).getUser().getId();
+    }
+
+    private <T> List<T> readLines(ByteArrayOutputStream out, Class<T> type) {
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.isEmpty() || body.endsWith("\n"), "every row should end with a newline");
+        return body.lines().map(line -> {
+            try {
+                return objectMapper.readValue(line, type);
+            } catch (IOException e) {
+                throw new AssertionError("not a JSON line: " + line, e);
+            }
+        }).toList();
+    }
+
+    @Test
+    void streamedRepaymentsMatchRegularRead() throws IOException {
+        Long borrowerId = borrowerId();
+        List<LoanRepaymentDTO> expected = loanRepaymentService.getRepaymentsByUser(borrowerId, null, false).stream()
+                .map(LoanRepaymentMapper::toDTO)
+                .sorted(Comparator.comparing(LoanRepaymentDTO::getId))
+                .toList();
+        assertTrue(expected.size() > 2, "sample data should span several pages");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportStreamService.streamRepayments(borrowerId, null, out);
+
+        assertEquals(expected, readLines(out, LoanRepaymentDTO.class));
+    }
+
+    @Test
+    void streamedDisbursalQueueMatchesRegularRead() throws IOException {
+        List<ManagerLoanRequestDTO> expected = loanRequestService.getApprovedLoansForDisbursal(null).stream()
+                .map(ManagerLoanRequestMapper::toDTO)
+                .sorted(Comparator.comparing(ManagerLoanRequestDTO::getId))
+                .toList();
+        assertFalse(expected.isEmpty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportStreamService.streamLoanRequests(null, out);
+
+        assertEquals(expected, readLines(out, ManagerLoanRequestDTO.class));
+    }
+
+    @Test
+    void filterWithoutMatchesStreamsNothing() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reportStreamService.streamRepayments(borrowerId(), "NO_SUCH_STATUS", out);
+        assertEquals(0, out.size());
+    }
+}
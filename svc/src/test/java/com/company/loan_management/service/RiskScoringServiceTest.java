@@ -0,0 +1,123 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.RiskScoringRunDTO;
+import com.company.loan_management.model.LoanRepayment;
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the score rises with late installments and borrowed share, that a full run scores every
+ * PENDING request for the manager queue to sort on, and that the incremental run picks up only new
+ * requests and applicants whose repayments changed. An installment marked as paid by hand records the day
+ * it was paid, so it counts as paid on time.
+ */
+// The borrower collects more open requests across tests than the default active-loan limit allows
+@SpringBootTest(properties = {"loan.risk.chunk-size=2", "loan.eligibility.max-active-loans=100"})
+class RiskScoringServiceTest {
+
+    @Autowired
+    private RiskScoringService riskScoringService;
+
+    @Autowired
+    private LoanRequestService loanRequestService;
+
+    @Autowired
+    private LoanRepaymentService loanRepaymentService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int unscoredPendingRequests() {
+        return jdbcTemplate.queryForObject("select count(*) from loan_request lr where lr.status = 'PENDING' "
+                + "and not exists (select 1 from loan_risk_score s where s.loan_request_id = lr.id)", Integer.class);
+    }
+
+    // Borrower of the disbursed car loan from DataInitializer, the one sample user with repayment history
+    private Long borrowerId() {
+        return loanRequestService.getApprovedLoansForDisbursal("DISBURSED").get(0).getUser().getId();
+    }
+
+    // Other tests decide the sample PENDING requests, so each test applies for its own
+    private LoanRequest apply(Long userId, String loanType, double amount) {
+        return loanRequestService.applyForLoan(userId, loanService.getLoanByType(loanType).orElseThrow(), amount);
+    }
+
+    private Double riskScore(Long requestId) {
+        return jdbcTemplate.queryForObject("select score from loan_risk_score where loan_request_id = ?", Double.class, requestId);
+    }
+
+    @Test
+    void lateInstallmentsAndLargerSharesScoreHigher() {
+        double clean = RiskScoringServiceImpl.score(0.2, 100_000, 50_000, 20_000, 12, 0);
+        assertTrue(RiskScoringServiceImpl.score(0.2, 100_000, 50_000, 20_000, 12, 6) > clean);
+        assertTrue(RiskScoringServiceImpl.score(0.9, 900_000, 50_000, 20_000, 12, 0) > clean);
+        assertTrue(RiskScoringServiceImpl.score(0.2, 100_000, 50_000, 200_000, 12, 0) < clean);
+        assertTrue(clean > 0 && clean < 100);
+    }
+
+    @Test
+    void fullRunScoresEveryPendingRequestAndManagersSortOnIt() {
+        LoanRequest pending = apply(borrowerId(), "Car Loan", 100_000.0);
+        apply(borrowerId(), "Education Loan", 40_000.0);
+
+        RiskScoringRunDTO run = riskScoringService.scoreAll();
+
+        assertFalse(run.isIncremental());
+        assertTrue(run.getRequests() >= 2);
+        assertEquals(0, unscoredPendingRequests());
+
+        List<Double> scores = loanRequestService
+                .getLoanRequestsAssignedToManager(pending.getAssignedManager().getId(), "PENDING", true).stream()
+                .map(LoanRequest::getRiskScore)
+                .toList();
+        assertTrue(scores.stream().allMatch(score -> score != null && score >= 0 && score <= 100));
+        assertEquals(scores.stream().sorted(Comparator.reverseOrder()).toList(), scores);
+    }
+
+    @Test
+    void incrementalRunScoresOnlyNewRequestsAndChangedApplicants() {
+        Long borrowerId = borrowerId();
+        LoanRequest pending = apply(borrowerId, "Car Loan", 100_000.0);
+        riskScoringService.scoreAll();
+        assertEquals(0, riskScoringService.scoreChanged().getUsers());
+
+        // A new application from a user without loans
+        User applicant = userService.findByUsername("angela_martin").orElseThrow();
+        apply(applicant.getId(), "Education Loan", 50_000.0);
+
+        RiskScoringRunDTO afterApply = riskScoringService.scoreChanged();
+        assertTrue(afterApply.isIncremental());
+        assertEquals(1, afterApply.getUsers());
+        assertEquals(0, unscoredPendingRequests());
+
+        // A repayment by the borrower, whose PENDING request was scored before it
+        Double scoreBefore = riskScore(pending.getId());
+        LoanRepayment next = loanRepaymentService.getRepaymentsByUser(borrowerId, "PENDING", false).get(0);
+        loanRepaymentService.markAsPaid(next.getId());
+        assertEquals(LocalDate.now(), jdbcTemplate.queryForObject("select payment_date from loan_repayment where id = ?",
+                LocalDate.class, next.getId()));
+        assertEquals("MANUAL", jdbcTemplate.queryForObject("select payment_mode from loan_repayment where id = ?",
+                String.class, next.getId()));
+
+        RiskScoringRunDTO afterPayment = riskScoringService.scoreChanged();
+        assertEquals(1, afterPayment.getUsers());
+        assertTrue(riskScore(pending.getId()) < scoreBefore, "an installment paid on time should lower the score");
+        assertEquals(0, riskScoringService.scoreChanged().getUsers());
+    }
+}
@@ -0,0 +1,93 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.model.LoanRequest;
+import com.company.loan_management.model.User;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the manager queue resolves its Loan and User references from the second-level cache
+ * once warm, and that updates made through Hibernate are visible in later listings.
+ */
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    private static final List<String> CAPTURED_SQL = new CopyOnWriteArrayList<>();
+    private static final Pattern REFERENCE_TABLES = Pattern.compile("\\b(from|join)\\s+(users|loan)\\b", Pattern.CASE_INSENSITIVE);
+
+    // Dwight Schrute from DataInitializer, approver for the sample loan types
+    private static final Long MANAGER_ID = 3L;
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+        @Bean
+        HibernatePropertiesCustomizer sqlCapture() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                CAPTURED_SQL.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    @Autowired
+    private LoanRequestService loanRequestService;
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void warmCache() {
+        assertFalse(listManagerQueue().isEmpty(), "sample data should assign requests to the manager");
+    }
+
+    @Test
+    void repeatedManagerQueueListingsSkipLoanAndUserTables() {
+        CAPTURED_SQL.clear();
+        for (int i = 0; i < 3; i++) {
+            listManagerQueue();
+        }
+
+        assertFalse(CAPTURED_SQL.isEmpty(), "loan requests themselves are still queried");
+        List<String> referenceQueries = CAPTURED_SQL.stream().filter(sql -> REFERENCE_TABLES.matcher(sql).find()).toList();
+        assertTrue(referenceQueries.isEmpty(), "expected cache hits for loan and users, but ran: " + referenceQueries);
+    }
+
+    @Test
+    void managerUpdatesAreVisibleInLaterListings() {
+        String originalName = userService.getUserById(MANAGER_ID).getName();
+        User update = new User();
+        update.setName(originalName + " Jr.");
+        try {
+            userService.updateUser(MANAGER_ID, update);
+            assertTrue(listManagerQueue().stream()
+                    .allMatch(request -> request.getAssignedManager().getName().equals(originalName + " Jr.")));
+        } finally {
+            update.setName(originalName);
+            userService.updateUser(MANAGER_ID, update);
+        }
+    }
+
+    // Touches the same references the manager queue endpoint maps into its DTOs
+    private List<LoanRequest> listManagerQueue() {
+        List<LoanRequest> requests = loanRequestService.getLoanRequestsAssignedToManager(MANAGER_ID, null);
+        requests.forEach(request -> {
+            request.getLoan().getLoanType();
+            request.getUser().getName();
+            request.getAssignedManager().getName();
+        });
+        return requests;
+    }
+}
@@ -0,0 +1,121 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.UserImportErrorDTO;
+import com.company.loan_management.dto.UserImportResultDTO;
+import com.company.loan_management.exception.InvalidImportFileException;
+import com.company.loan_management.model.Role;
+import com.company.loan_management.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports small CSV and JSON files in chunks of two rows and checks that valid rows become users that can
+ * log in and be searched, while invalid or duplicate rows are reported by row number without stopping the import.
+ */
+@SpringBootTest(properties = "loan.user-import.chunk-size=2")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static UserImportErrorDTO errorAt(UserImportResultDTO result, int row) {
+        return result.getErrors().stream().filter(error -> error.getRow() == row).findFirst()
+                .orElseThrow(() -> new AssertionError("no error reported for row " + row));
+    }
+
+    @Test
+    void csvImportSkipsInvalidRowsAndImportsTheRest() throws IOException {
+        String csv = """
+                name,username,email,password,role,salary,bank_account_number,department
+                "Pam Beesly",csv_pam,pam@csv.test,secret1,user,42000,1110001,Reception
+                "Scott, Michael",jim_halpert,taken@csv.test,secret2,USER,50000,1110002,Sales
+                Kevin Malone,csv_kevin,kevin@csv.test,secret3,ACCOUNTANT,39000,1110003,Accounting
+                Oscar Martinez,csv_oscar,,secret4,USER,41000,1110004,Accounting
+                Toby Flenderson,csv_toby,toby@csv.test,secret5,USER,not-a-number,1110005,HR
+                Pam Again,csv_pam,pam2@csv.test,secret6,USER,42000,1110006,Reception
+                "Ryan ""Temp"" Howard",csv_ryan,ryan@csv.test,secret7,MANAGER,45000,1110007,"Sales
+                Floor"
+                """;
+
+        UserImportResultDTO result = userImportService.importCsv(body(csv));
+
+        assertEquals(7, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(5, result.getFailed());
+        assertEquals("DUPLICATE_USERNAME", errorAt(result, 2).getCode());
+        assertEquals("INVALID_ROLE", errorAt(result, 3).getCode());
+        assertEquals("MISSING_FIELD", errorAt(result, 4).getCode());
+        assertEquals("INVALID_NUMBER", errorAt(result, 5).getCode());
+        assertEquals("DUPLICATE_USERNAME", errorAt(result, 6).getCode());
+
+        User pam = userService.findByUsername("csv_pam").orElseThrow();
+        assertEquals(Role.USER, pam.getRole());
+        assertTrue(passwordEncoder.matches("secret1", pam.getPassword()));
+        User ryan = userService.findByUsername("csv_ryan").orElseThrow();
+        assertEquals("Ryan \"Temp\" Howard", ryan.getName());
+        assertEquals("Sales\nFloor", ryan.getDepartment());
+
+        assertTrue(userService.searchUsers("csv_ryan", 10).stream().anyMatch(hit -> hit.getId().equals(ryan.getId())));
+    }
+
+    @Test
+    void jsonImportReportsExistingEmails() throws IOException {
+        String json = """
+                [
+                  {"name": "Erin Hannon", "username": "json_erin", "email": "erin@json.test", "password": "pw",
+                   "role": "USER", "salary": 38000, "bankAccountNumber": "2220001", "accountBalance": 150.5},
+                  {"name": "Gabe Lewis", "username": "json_gabe", "email": "jim@dundermifflin.com", "password": "pw",
+                   "role": "USER", "salary": 60000, "bankAccountNumber": "2220002"},
+                  {"name": "Holly Flax", "username": "json_holly", "email": "holly@json.test", "password": "pw",
+                   "role": "FINANCE", "salary": 52000, "bankAccountNumber": "2220003"}
+                ]
+                """;
+
+        UserImportResultDTO result = userImportService.importJson(body(json));
+
+        assertEquals(3, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals("DUPLICATE_EMAIL", errorAt(result, 2).getCode());
+        assertEquals(150.5, userService.findByUsername("json_erin").orElseThrow().getAccountBalance());
+        assertEquals(Role.FINANCE, userService.findByUsername("json_holly").orElseThrow().getRole());
+    }
+
+    @Test
+    void malformedRowStopsTheImportAfterEarlierRows() throws IOException {
+        String json = """
+                [{"username": "json_nate", "email": "nate@json.test", "password": "pw", "role": "USER",
+                  "salary": 30000, "bankAccountNumber": "2220004"}, 42]
+                """;
+
+        UserImportResultDTO result = userImportService.importJson(body(json));
+
+        assertEquals(1, result.getImported());
+        assertEquals(List.of("MALFORMED"), result.getErrors().stream().map(UserImportErrorDTO::getCode).toList());
+    }
+
+    @Test
+    void csvWithoutRequiredColumnIsRejected() {
+        assertThrows(InvalidImportFileException.class,
+                () -> userImportService.importCsv(body("name,username,email\nA,b,c@d.test\n")));
+    }
+}
@@ -0,0 +1,120 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.UserLoanSummaryDTO;
+import com.company.loan_management.model.LoanRepayment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the summary kept up to date by disbursal, payments and overdue penalties matches both the
+ * borrower's installments and a full rebuild.
+ */
+@SpringBootTest
+class UserLoanSummaryServiceTest {
+
+    private static final double DELTA = 1e-6;
+
+    @Autowired
+    private UserLoanSummaryService loanSummaryService;
+
+    @Autowired
+    private LoanRepaymentService loanRepaymentService;
+
+    @Autowired
+    private LoanRequestService loanRequestService;
+
+    @Autowired
+    private OverdueService overdueService;
+
+    // Borrower of the disbursed car loan from DataInitializer
+    private Long borrowerId() {
+        return loanRequestService.getApprovedLoansForDisbursal("DISBURSED").get(0).getUser().getId();
+    }
+
+    private List<LoanRepayment> unpaid(Long userId) {
+        return loanRepaymentService.getRepaymentsByUser(userId, null, false).stream()
+                .filter(repayment -> !"PAID".equals(repayment.getStatus()))
+                .sorted(Comparator.comparing(LoanRepayment::getRepaymentDate))
+                .toList();
+    }
+
+    private void assertMatchesInstallments(Long userId, UserLoanSummaryDTO summary) {
+        List<LoanRepayment> unpaid = unpaid(userId);
+        Map<Long, Double> emiByLoan = unpaid.stream().collect(Collectors.toMap(
+                repayment -> repayment.getLoanRequest().getId(), LoanRepayment::getEmiAmount, Math::max));
+        LocalDate nextDue = unpaid.isEmpty() ? null : unpaid.get(0).getRepaymentDate();
+
+        assertEquals(emiByLoan.size(), summary.getActiveLoanCount());
+        assertEquals(emiByLoan.values().stream().mapToDouble(Double::doubleValue).sum(), summary.getMonthlyEmiTotal(), DELTA);
+        assertEquals(unpaid.stream().mapToDouble(LoanRepayment::getPrincipalPayment).sum(), summary.getOutstandingPrincipal(), DELTA);
+        assertEquals(nextDue, summary.getNextDueDate());
+        assertEquals(unpaid.stream()
+                .filter(repayment -> repayment.getRepaymentDate().equals(nextDue))
+                .mapToDouble(repayment -> repayment.getEmiAmount()
+                        + (repayment.getPenaltyAmount() != null ? repayment.getPenaltyAmount() : 0))
+                .sum(), summary.getNextDueAmount(), DELTA);
+    }
+
+    private void assertRebuildAgrees(Long userId, UserLoanSummaryDTO incremental) {
+        loanSummaryService.rebuild();
+        UserLoanSummaryDTO rebuilt = loanSummaryService.getSummary(userId);
+        assertEquals(incremental.getActiveLoanCount(), rebuilt.getActiveLoanCount());
+        assertEquals(incremental.getMonthlyEmiTotal(), rebuilt.getMonthlyEmiTotal(), DELTA);
+        assertEquals(incremental.getOutstandingPrincipal(), rebuilt.getOutstandingPrincipal(), DELTA);
+        assertEquals(incremental.getNextDueDate(), rebuilt.getNextDueDate());
+        assertEquals(incremental.getNextDueAmount(), rebuilt.getNextDueAmount(), DELTA);
+    }
+
+    @Test
+    void disbursalFillsSummary() {
+        Long borrowerId = borrowerId();
+        UserLoanSummaryDTO summary = loanSummaryService.getSummary(borrowerId);
+
+        assertTrue(summary.getActiveLoanCount() > 0, "the disbursed sample loan should be active");
+        assertMatchesInstallments(borrowerId, summary);
+        assertRebuildAgrees(borrowerId, summary);
+    }
+
+    @Test
+    void paymentMovesNextDueAndLowersOutstanding() {
+        Long borrowerId = borrowerId();
+        UserLoanSummaryDTO before = loanSummaryService.getSummary(borrowerId);
+        LoanRepayment next = unpaid(borrowerId).get(0);
+
+        loanRepaymentService.markAsPaid(next.getId());
+
+        UserLoanSummaryDTO after = loanSummaryService.getSummary(borrowerId);
+        assertEquals(before.getOutstandingPrincipal() - next.getPrincipalPayment(), after.getOutstandingPrincipal(), DELTA);
+        assertMatchesInstallments(borrowerId, after);
+        assertRebuildAgrees(borrowerId, after);
+    }
+
+    @Test
+    void overduePenaltyRaisesNextDueAmount() {
+        Long borrowerId = borrowerId();
+        LocalDate nextDue = loanSummaryService.getSummary(borrowerId).getNextDueDate();
+
+        overdueService.detectOverdue(nextDue.plusMonths(1));
+
+        UserLoanSummaryDTO after = loanSummaryService.getSummary(borrowerId);
+        assertMatchesInstallments(borrowerId, after);
+        assertRebuildAgrees(borrowerId, after);
+    }
+
+    @Test
+    void userWithoutLoansHasEmptySummary() {
+        UserLoanSummaryDTO summary = loanSummaryService.getSummary(Long.MAX_VALUE);
+        assertEquals(0, summary.getActiveLoanCount());
+        assertEquals(0, summary.getOutstandingPrincipal(), DELTA);
+        assertNull(summary.getNextDueDate());
+    }
+}
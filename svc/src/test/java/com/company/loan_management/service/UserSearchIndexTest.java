@@ -0,0 +1,139 @@
+package com.company.loan_management.service;
+
+import com.company.loan_management.dto.EventRecordDTO;
+import com.company.loan_management.dto.UserSearchResultDTO;
+import com.company.loan_management.model.Role;
+import com.company.loan_management.model.User;
+import com.company.loan_management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the refresh picks up users created, changed and deleted on another replica from the User
+ * events of the event log while leaving every other user alone, that it rebuilds once its offset has been
+ * pruned, that a build pages through users by ID, and that repeated updates of the same users do not grow
+ * the index.
+ */
+class UserSearchIndexTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final EventLog eventLog = mock(EventLog.class);
+    private final UserSearchIndex index = new UserSearchIndex(userRepository, eventLog, 100);
+
+    private static User user(long id, String username, long version) {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .name(username)
+                .email(username + "@dundermifflin.com")
+                .role(Role.USER)
+                .version(version)
+                .build();
+    }
+
+    private static EventRecordDTO event(long offset, String aggregateType, long aggregateId, String eventType) {
+        return EventRecordDTO.builder()
+                .offset(offset)
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .build();
+    }
+
+    private List<String> usernames(String query) {
+        return index.search(query, 10).stream().map(UserSearchResultDTO::getUsername).toList();
+    }
+
+    @Test
+    void refreshAppliesUserEventsFromOtherReplicas() {
+        index.indexAll(List.of(user(1, "kevin_malone", 0), user(2, "oscar_martinez", 0), user(3, "stanley_hudson", 0)));
+
+        // Elsewhere: kevin renamed, a loan approved, stanley deleted, creed created
+        when(eventLog.read(0, 100)).thenReturn(List.of(
+                event(5, "User", 1, "UPDATED"),
+                event(6, "LoanRequest", 2, "APPROVED"),
+                event(8, "User", 3, "DELETED"),
+                event(9, "User", 4, "CREATED")));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user(1, "kevin_m", 1), user(4, "creed_bratton", 0)));
+        index.refresh();
+
+        assertEquals(List.of("kevin_m"), usernames("kevin"));
+        assertEquals(List.of("oscar_martinez"), usernames("oscar"));
+        assertEquals(List.of(), usernames("stanley"));
+        assertEquals(List.of("creed_bratton"), usernames("creed"));
+        verify(userRepository).findAllById(List.of(1L, 3L, 4L));
+
+        // The next refresh resumes after the last event read
+        index.refresh();
+        verify(eventLog).read(10, 100);
+    }
+
+    @Test
+    void refreshWithoutUserEventsLoadsNoUsers() {
+        index.indexAll(List.of(user(1, "kevin_malone", 2)));
+        when(eventLog.read(0, 100)).thenReturn(List.of(event(3, "LoanRepayment", 7, "REPAID")));
+
+        index.refresh();
+
+        verify(userRepository, never()).findAllById(any());
+        assertEquals(List.of("kevin_malone"), usernames("kevin"));
+    }
+
+    @Test
+    void refreshBehindPrunedLogRebuilds() {
+        when(eventLog.startOffset()).thenReturn(50L);
+        when(eventLog.endOffset()).thenReturn(80L);
+        when(userRepository.findPageAfterId(eq(0L), any())).thenReturn(List.of(user(1, "kevin_malone", 4)));
+
+        index.refresh();
+
+        assertEquals(List.of("kevin_malone"), usernames("kevin"));
+        verify(eventLog, never()).read(anyLong(), any(Integer.class));
+        // Tails the log from where it stood when the build started
+        when(eventLog.startOffset()).thenReturn(60L);
+        index.refresh();
+        verify(eventLog).read(80, 100);
+    }
+
+    @Test
+    void rebuildPagesByIdAfterTheLastUserRead() {
+        UserSearchIndex small = new UserSearchIndex(userRepository, eventLog, 2);
+        when(userRepository.findPageAfterId(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(user(1, "kevin_malone", 0), user(5, "oscar_martinez", 0)));
+        when(userRepository.findPageAfterId(5L, PageRequest.of(0, 2))).thenReturn(List.of(user(9, "stanley_hudson", 0)));
+
+        small.rebuild();
+
+        assertEquals(List.of("stanley_hudson"), small.search("stanley", 10).stream().map(UserSearchResultDTO::getUsername).toList());
+        verify(userRepository, never()).findPageAfterId(eq(9L), any());
+    }
+
+    @Test
+    void olderVersionDoesNotReplaceNewerEntry() {
+        index.index(user(1, "kevin_malone", 3));
+        index.index(user(1, "kevin_old", 2));
+
+        assertEquals(List.of("kevin_malone"), usernames("kevin"));
+    }
+
+    @Test
+    void repeatedUpdatesAreCompacted() {
+        for (int version = 0; version < 20_000; version++) {
+            index.indexAll(List.of(user(1, "kevin_malone", version), user(2, "oscar_martinez", version)));
+        }
+
+        assertTrue(index.storedDocuments() < 2_100, "tombstones should be compacted, held " + index.storedDocuments());
+        assertEquals(List.of("kevin_malone"), usernames("kevin"));
+    }
+}